@@ -35,6 +35,24 @@ public class HubJiraConfigKeys {
     public final static String HUB_CONFIG_JIRA_ADMIN_USER = HUB_CONFIG_JIRA_KEY_PREFIX + ".jiraUser";
     public final static String HUB_CONFIG_JIRA_ISSUE_CREATOR_USER = HUB_CONFIG_JIRA_KEY_PREFIX + ".creator";
     public final static String HUB_CONFIG_CREATOR_CANDIDATES_JSON = HUB_CONFIG_JIRA_KEY_PREFIX + ".creatorCandidates";
+    public final static String HUB_CONFIG_HUB_RESPONSE_CACHE_MAX_SIZE = HUB_CONFIG_JIRA_KEY_PREFIX + ".hubResponseCacheMaxSize";
+    public final static String HUB_CONFIG_HUB_RESPONSE_CACHE_TTL_SECONDS = HUB_CONFIG_JIRA_KEY_PREFIX + ".hubResponseCacheTtlSeconds";
+    public final static String HUB_CONFIG_NOTIFICATION_CONVERSION_THREADS = HUB_CONFIG_JIRA_KEY_PREFIX + ".notificationConversionThreads";
+    public final static String HUB_CONFIG_ISSUE_UPDATE_THREADS = HUB_CONFIG_JIRA_KEY_PREFIX + ".issueUpdateThreads";
+    public final static String HUB_CONFIG_NOTIFICATION_SLICE_MINUTES = HUB_CONFIG_JIRA_KEY_PREFIX + ".notificationSliceMinutes";
+    public final static String HUB_CONFIG_CHECKPOINT_SLICE_START_DATE = HUB_CONFIG_JIRA_KEY_PREFIX + ".checkpointSliceStartDate";
+    public final static String HUB_CONFIG_CHECKPOINT_SLICE_END_DATE = HUB_CONFIG_JIRA_KEY_PREFIX + ".checkpointSliceEndDate";
+    public final static String HUB_CONFIG_CHECKPOINT_SLICE_EVENT_COUNT = HUB_CONFIG_JIRA_KEY_PREFIX + ".checkpointSliceEventCount";
+    public final static String HUB_CONFIG_CHECKPOINT_SLICE_APPLIED_COUNT = HUB_CONFIG_JIRA_KEY_PREFIX + ".checkpointSliceAppliedCount";
+    public final static String HUB_CONFIG_CHECKPOINT_SLICE_EVENT_KEYS_HASH = HUB_CONFIG_JIRA_KEY_PREFIX + ".checkpointSliceEventKeysHash";
+    public final static String HUB_CONFIG_CHECKPOINT_APPLIED_CURSOR = HUB_CONFIG_JIRA_KEY_PREFIX + ".checkpointAppliedCursor";
+    public final static String HUB_CONFIG_CHECKPOINT_APPLIED_AHEAD_OF_CURSOR = HUB_CONFIG_JIRA_KEY_PREFIX + ".checkpointAppliedAheadOfCursor";
+    public final static String HUB_CONFIG_JIRA_SETUP_STATE_JSON = HUB_CONFIG_JIRA_KEY_PREFIX + ".jiraSetupState";
+    public final static String HUB_CONFIG_JIRA_CONFIGURED_PROJECTS_JSON = HUB_CONFIG_JIRA_KEY_PREFIX + ".jiraConfiguredProjects";
+    public final static String HUB_CONFIG_ADAPTIVE_SCHEDULING = HUB_CONFIG_JIRA_KEY_PREFIX + ".adaptiveScheduling";
+    public final static String HUB_CONFIG_NEXT_RUN_DATE = HUB_CONFIG_JIRA_KEY_PREFIX + ".nextRunDate";
+    public final static String HUB_CONFIG_LAST_RUN_DURATION_MILLIS = HUB_CONFIG_JIRA_KEY_PREFIX + ".lastRunDurationMillis";
+    public final static String HUB_CONFIG_CLUSTER_SHARD_COUNT = HUB_CONFIG_JIRA_KEY_PREFIX + ".clusterShardCount";
     public final static String HUB_CONFIG_GROUPS = "com.blackducksoftware.integration.hub.configuration.hubGroups";
 
     @Deprecated
@@ -27,6 +27,29 @@ public class HubJiraConstants {
     private final static String HUB_JIRA_GROUP = "hub-jira";
 
     public final static int PERIODIC_TASK_TIMEOUT_AS_MULTIPLE_OF_INTERVAL = 4;
+    public final static int HUB_RESPONSE_CACHE_DEFAULT_MAX_SIZE = 1000;
+    public final static int HUB_RESPONSE_CACHE_DEFAULT_TTL_SECONDS = 600;
+    public final static int NOTIFICATION_CONVERSION_DEFAULT_THREADS = 4;
+    public final static int ISSUE_UPDATE_DEFAULT_THREADS = 4;
+    public final static int ISSUE_UPDATE_QUEUE_CAPACITY_PER_THREAD = 100;
+    public final static int NOTIFICATION_SLICE_DEFAULT_MINUTES = 60;
+    public final static int CHECKPOINT_FLUSH_INTERVAL_EVENTS = 50;
+    public final static int HUB_CONNECTION_MAX_SESSION_MINUTES = 30;
+    public final static int ISSUE_EVENT_QUEUE_CAPACITY = 5000;
+    public final static int ISSUE_EVENT_BATCH_WINDOW_MILLIS = 2000;
+    public final static int HUB_CAPABILITY_CACHE_TTL_MINUTES = 60;
+    public final static int PROJECT_SETUP_DEFAULT_THREADS = 4;
+    public final static int ERROR_JOURNAL_CAPACITY = 20;
+    public final static int ERROR_JOURNAL_FLUSH_DELAY_MILLIS = 5000;
+    public final static int ERROR_JOURNAL_EXPIRY_INTERVAL_MINUTES = 60;
+    public final static int ERROR_RATE_LIMIT_SECONDS = 60;
+    public final static int ERROR_RATE_LIMIT_MAX_KEYS = 200;
+    public final static int BULK_RESOLVE_MIN_EVENTS = 50;
+    public final static int ADAPTIVE_SCHEDULE_TICK_SECONDS = 60;
+    public final static int ADAPTIVE_SCHEDULE_BACKLOG_DELAY_SECONDS = 60;
+    public final static int ADAPTIVE_SCHEDULE_MAX_BACKOFF_AS_MULTIPLE_OF_INTERVAL = 4;
+    public final static int CLUSTER_SHARD_DEFAULT_COUNT = 1;
+    public final static int LICENSE_CACHE_MAX_SIZE = 1000;
     public final static String HUB_JIRA_ERROR = HUB_JIRA_GROUP + "-ticket-error";
     public final static String HUB_JIRA_WORKFLOW_RESOURCE = "Hub Workflow.xml";
 
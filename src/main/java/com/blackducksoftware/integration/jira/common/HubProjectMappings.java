@@ -24,7 +24,10 @@
 package com.blackducksoftware.integration.jira.common;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
@@ -33,6 +36,13 @@ import org.apache.log4j.Logger;
 import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
 import com.blackducksoftware.integration.jira.task.issue.JiraServices;
 
+/**
+ * The configured Hub project to JIRA project mappings.
+ *
+ * The first lookup resolves every mapped JIRA project once and builds an immutable index from Hub project name to the
+ * mapped JIRA projects; all lookups are answered from that index. A new instance is created for each run, so the index
+ * reflects the mapping configuration and JIRA projects as of that run.
+ */
 public class HubProjectMappings {
     private final HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(this.getClass().getName()));
 
@@ -40,6 +50,8 @@ public class HubProjectMappings {
 
     private final JiraServices jiraServices;
 
+    private volatile Map<String, List<JiraProject>> jiraProjectsByHubProjectName;
+
     public HubProjectMappings(final JiraServices jiraServices,
             final Set<HubProjectMapping> mappings) {
         this.jiraServices = jiraServices;
@@ -47,44 +59,85 @@ public class HubProjectMappings {
     }
 
     public List<JiraProject> getJiraProjects(final String hubProjectName) {
-        final List<JiraProject> matchingJiraProjects = new ArrayList<>();
-
         if (mappings == null || mappings.isEmpty()) {
             logger.debug("There are no configured project mapping");
-            return matchingJiraProjects;
+            return Collections.emptyList();
+        }
+        final List<JiraProject> matchingJiraProjects = getIndex().get(hubProjectName);
+        if (matchingJiraProjects == null) {
+            logger.debug("Number of matches found for " + hubProjectName + ": 0");
+            return Collections.emptyList();
+        }
+        logger.debug("Number of matches found for " + hubProjectName + ": " + matchingJiraProjects.size());
+        return matchingJiraProjects;
+    }
+
+    private Map<String, List<JiraProject>> getIndex() {
+        Map<String, List<JiraProject>> index = jiraProjectsByHubProjectName;
+        if (index == null) {
+            synchronized (this) {
+                index = jiraProjectsByHubProjectName;
+                if (index == null) {
+                    index = buildIndex();
+                    jiraProjectsByHubProjectName = index;
+                }
+            }
         }
+        return index;
+    }
 
+    private Map<String, List<JiraProject>> buildIndex() {
+        final Map<Long, JiraProject> jiraProjectsById = new HashMap<>();
+        final Map<String, List<JiraProject>> index = new HashMap<>();
         for (final HubProjectMapping mapping : mappings) {
+            final HubProject hubProject = mapping.getHubProject();
             final JiraProject mappingJiraProject = mapping.getJiraProject();
-            final JiraProject jiraProject;
-            try {
-                jiraProject = jiraServices.getJiraProject(mappingJiraProject.getProjectId());
-            } catch (final HubIntegrationException e) {
-                logger.warn("Mapped project '" + mappingJiraProject.getProjectName() + "' with ID "
-                        + mappingJiraProject.getProjectId() + " not found in JIRA; skipping this notification");
+            // Match by name because the notifications may be for Hub projects
+            // that the User doesnt have access to
+            if (hubProject == null || StringUtils.isBlank(hubProject.getProjectName()) || mappingJiraProject == null) {
                 continue;
             }
-            if (StringUtils.isNotBlank(jiraProject.getProjectError())) {
-                logger.error(jiraProject.getProjectError());
+            final JiraProject jiraProject = resolveJiraProject(mappingJiraProject, jiraProjectsById);
+            if (jiraProject == null) {
                 continue;
             }
+            logger.debug("Hub project " + hubProject.getProjectName() + " is mapped to JIRA Project: " + jiraProject);
+            List<JiraProject> jiraProjects = index.get(hubProject.getProjectName());
+            if (jiraProjects == null) {
+                jiraProjects = new ArrayList<>();
+                index.put(hubProject.getProjectName(), jiraProjects);
+            }
+            jiraProjects.add(jiraProject);
+        }
+        for (final Map.Entry<String, List<JiraProject>> entry : index.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        logger.debug("Indexed " + index.size() + " mapped Hub projects");
+        return Collections.unmodifiableMap(index);
+    }
 
-            logger.debug("JIRA Project: " + jiraProject);
-
-            final HubProject hubProject = mapping.getHubProject();
-
-            // Check by name because the notifications may be for Hub projects
-            // that the User doesnt have access to
-            logger.debug("hubProject.getProjectName() (from config mapping): " + hubProject.getProjectName());
-            logger.debug("hubProjectName (from notification content)       : " + hubProjectName);
-            if ((!StringUtils.isBlank(hubProject.getProjectName())
-                    && (hubProject.getProjectName().equals(hubProjectName)))) {
-                logger.debug("Match!");
-                matchingJiraProjects.add(jiraProject);
+    private JiraProject resolveJiraProject(final JiraProject mappingJiraProject, final Map<Long, JiraProject> jiraProjectsById) {
+        final Long projectId = mappingJiraProject.getProjectId();
+        if (projectId == null) {
+            return null;
+        }
+        if (jiraProjectsById.containsKey(projectId)) {
+            return jiraProjectsById.get(projectId);
+        }
+        JiraProject jiraProject;
+        try {
+            jiraProject = jiraServices.getJiraProject(projectId);
+            if (jiraProject != null && StringUtils.isNotBlank(jiraProject.getProjectError())) {
+                logger.error(jiraProject.getProjectError());
+                jiraProject = null;
             }
+        } catch (final HubIntegrationException e) {
+            logger.warn("Mapped project '" + mappingJiraProject.getProjectName() + "' with ID "
+                    + projectId + " not found in JIRA; skipping notifications for this project");
+            jiraProject = null;
         }
-        logger.debug("Number of matches found: " + matchingJiraProjects.size());
-        return matchingJiraProjects;
+        jiraProjectsById.put(projectId, jiraProject);
+        return jiraProject;
     }
 
     public int size() {
@@ -53,6 +53,7 @@ import com.blackducksoftware.integration.hub.global.HubServerConfig;
 import com.blackducksoftware.integration.hub.global.HubServerConfigFieldEnum;
 import com.blackducksoftware.integration.hub.rest.CredentialsRestConnection;
 import com.blackducksoftware.integration.jira.common.HubJiraLogger;
+import com.blackducksoftware.integration.jira.hub.HubCapabilityCache;
 import com.blackducksoftware.integration.validator.AbstractValidator;
 import com.blackducksoftware.integration.validator.ValidationResults;
 
@@ -241,6 +242,7 @@ public class HubConfigController {
                 return null;
             }
         });
+        HubCapabilityCache.getInstance().invalidate();
 
         if (config.hasErrors()) {
             return Response.ok(config).status(Status.BAD_REQUEST).build();
@@ -77,7 +77,6 @@ import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
 import com.blackducksoftware.integration.hub.global.HubServerConfig;
 import com.blackducksoftware.integration.hub.model.view.PolicyRuleView;
 import com.blackducksoftware.integration.hub.model.view.ProjectView;
-import com.blackducksoftware.integration.hub.rest.CredentialsRestConnection;
 import com.blackducksoftware.integration.hub.rest.RestConnection;
 import com.blackducksoftware.integration.hub.rest.exception.IntegrationRestException;
 import com.blackducksoftware.integration.hub.service.HubServicesFactory;
@@ -91,10 +90,20 @@ import com.blackducksoftware.integration.jira.common.PluginField;
 import com.blackducksoftware.integration.jira.common.PluginVersion;
 import com.blackducksoftware.integration.jira.common.PolicyRuleSerializable;
 import com.blackducksoftware.integration.jira.common.exception.JiraException;
+import com.blackducksoftware.integration.jira.hub.HubCapabilityCache;
+import com.blackducksoftware.integration.jira.hub.HubConnectionManager;
+import com.blackducksoftware.integration.jira.hub.LicenseCache;
 import com.blackducksoftware.integration.jira.task.HubMonitor;
 import com.blackducksoftware.integration.jira.task.JiraSettingsService;
+import com.blackducksoftware.integration.jira.task.NotificationSliceCheckpoint;
+import com.blackducksoftware.integration.jira.task.ProjectShard;
+import com.blackducksoftware.integration.jira.task.TaskRunSchedule;
+import com.blackducksoftware.integration.jira.task.issue.HubCustomFieldCache;
 import com.blackducksoftware.integration.jira.task.issue.JiraFieldUtils;
 import com.blackducksoftware.integration.jira.task.issue.JiraServices;
+import com.blackducksoftware.integration.jira.task.issue.WorkflowTransitionCache;
+import com.blackducksoftware.integration.jira.task.setup.ConfiguredProjectsRecord;
+import com.blackducksoftware.integration.jira.task.setup.JiraSetupState;
 
 @Path("/")
 public class HubJiraConfigController {
@@ -450,6 +459,12 @@ public class HubJiraConfigController {
                     final String pluginVersion = PluginVersion.getVersion();
                     logger.debug("pluginVersion: " + pluginVersion);
                     txPluginInfo.setPluginVersion(pluginVersion);
+                    final PluginSettings settings = pluginSettingsFactory.createGlobalSettings();
+                    txPluginInfo.setLastRunDate(getStringValue(settings, HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE));
+                    txPluginInfo.setRunProgress(NotificationSliceCheckpoint.getProgressDescription(settings, getClusterShardCount(settings)));
+                    txPluginInfo.setNextRunDate(TaskRunSchedule.getNextRunDate(settings));
+                    txPluginInfo.setLastRunDuration(TaskRunSchedule.getLastRunDurationDescription(settings));
+                    txPluginInfo.setHubConnectionStats(HubConnectionManager.getInstance().getStatsDescription());
                     return txPluginInfo;
                 }
             });
@@ -580,7 +595,7 @@ public class HubJiraConfigController {
                     if (hubServicesFactory == null) {
                         return txConfig;
                     }
-                    setHubPolicyRules(hubServicesFactory, txConfig);
+                    setHubPolicyRules(hubServicesFactory, getStringValue(settings, HubConfigKeys.CONFIG_HUB_URL), txConfig);
                     return txConfig;
                 }
             });
@@ -1000,7 +1015,7 @@ public class HubJiraConfigController {
                         final String oldLastRunDateString = getStringValue(settings, HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE);
                         final String newLastRunDateString = dateFormatter.format(now);
                         logger.warn("Resetting last run date from " + oldLastRunDateString + " to " + newLastRunDateString + "; this will skip over any notifications generated between those times");
-                        setValue(settings, HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE, newLastRunDateString);
+                        ProjectShard.resetAll(settings, getClusterShardCount(settings), newLastRunDateString);
                         setValue(settings, HubJiraConstants.HUB_JIRA_ERROR, null);
                     } catch (final Exception e) {
                         return e.getMessage();
@@ -1019,6 +1034,47 @@ public class HubJiraConfigController {
         return Response.noContent().build();
     }
 
+    @Path("/clearLicenseCache")
+    @PUT
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response clearLicenseCache(final Object object, @Context final HttpServletRequest request) {
+        try {
+            final PluginSettings settings = pluginSettingsFactory.createGlobalSettings();
+            final Response response = checkUserPermissions(request, settings);
+            if (response != null) {
+                return response;
+            }
+            LicenseCache.getInstance().clear();
+        } catch (final Exception e) {
+            final String msg = "Exception clearing the license cache: " + e.getMessage();
+            logger.error(msg, e);
+            return Response.ok(msg).status(Status.BAD_REQUEST).build();
+        }
+        return Response.noContent().build();
+    }
+
+    @Path("/forceSetupResync")
+    @PUT
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response forceSetupResync(final Object object, @Context final HttpServletRequest request) {
+        try {
+            final PluginSettings settings = pluginSettingsFactory.createGlobalSettings();
+            final Response response = checkUserPermissions(request, settings);
+            if (response != null) {
+                return response;
+            }
+            JiraSetupState.clear(settings);
+            ConfiguredProjectsRecord.clear(settings);
+            HubCustomFieldCache.getInstance().invalidate();
+            WorkflowTransitionCache.getInstance().invalidate();
+        } catch (final Exception e) {
+            final String msg = "Exception clearing the JIRA setup state: " + e.getMessage();
+            logger.error(msg, e);
+            return Response.ok(msg).status(Status.BAD_REQUEST).build();
+        }
+        return Response.noContent().build();
+    }
+
     private void updateHubTaskInterval(final String previousIntervalString, final String newIntervalString) {
         final int previousInterval = NumberUtils.toInt(previousIntervalString);
         int newInterval;
@@ -1092,6 +1148,10 @@ public class HubJiraConfigController {
         }
     }
 
+    private int getClusterShardCount(final PluginSettings settings) {
+        return NumberUtils.toInt(getStringValue(settings, HubJiraConfigKeys.HUB_CONFIG_CLUSTER_SHARD_COUNT), HubJiraConstants.CLUSTER_SHARD_DEFAULT_COUNT);
+    }
+
     private Object getValue(final PluginSettings settings, final String key) {
         return settings.get(key);
     }
@@ -1131,15 +1191,6 @@ public class HubJiraConfigController {
     }
 
     private HubServicesFactory createHubServicesFactory(final PluginSettings settings, final HubJiraConfigSerializable config) {
-        final RestConnection restConnection = createRestConnection(settings, config);
-        if (config.hasErrors()) {
-            return null;
-        }
-        final HubServicesFactory hubServicesFactory = new HubServicesFactory(restConnection);
-        return hubServicesFactory;
-    }
-
-    private RestConnection createRestConnection(final PluginSettings settings, final HubJiraConfigSerializable config) {
         final String hubUrl = getStringValue(settings, HubConfigKeys.CONFIG_HUB_URL);
         final String hubUser = getStringValue(settings, HubConfigKeys.CONFIG_HUB_USER);
         logger.debug(String.format("Establishing connection to hub server: %s as %s", hubUrl, hubUser));
@@ -1162,7 +1213,6 @@ public class HubJiraConfigController {
         final String encHubProxyPassword = getStringValue(settings, HubConfigKeys.CONFIG_PROXY_PASS);
         final String hubProxyPasswordLength = getStringValue(settings, HubConfigKeys.CONFIG_PROXY_PASS_LENGTH);
 
-        CredentialsRestConnection restConnection = null;
         try {
             final HubServerConfigBuilder configBuilder = new HubServerConfigBuilder();
             configBuilder.setHubUrl(hubUrl);
@@ -1186,14 +1236,11 @@ public class HubJiraConfigController {
                 return null;
             }
 
-            restConnection = new CredentialsRestConnection(logger, serverConfig.getHubUrl(), serverConfig.getGlobalCredentials().getUsername(), serverConfig.getGlobalCredentials().getDecryptedPassword(), serverConfig.getTimeout());
-            restConnection.connect();
-
+            return HubConnectionManager.getInstance().getVerifiedHubServicesFactory(serverConfig);
         } catch (IllegalArgumentException | IntegrationException e) {
             config.setErrorMessage(JiraConfigErrors.CHECK_HUB_SERVER_CONFIGURATION + " :: " + e.getMessage());
             return null;
         }
-        return restConnection;
     }
 
     private List<HubProject> getHubProjects(final HubServicesFactory hubServicesFactory, final ErrorTracking config) {
@@ -1232,14 +1279,13 @@ public class HubJiraConfigController {
         return hubProjects;
     }
 
-    private void setHubPolicyRules(final HubServicesFactory hubServicesFactory, final HubJiraConfigSerializable config) {
+    private void setHubPolicyRules(final HubServicesFactory hubServicesFactory, final String hubUrl, final HubJiraConfigSerializable config) {
 
         final List<PolicyRuleSerializable> newPolicyRules = new ArrayList<>();
         if (hubServicesFactory != null) {
-            final HubSupportHelper supportHelper = new HubSupportHelper();
             try {
                 final HubVersionRequestService hubVersionRequestService = hubServicesFactory.createHubVersionRequestService();
-                supportHelper.checkHubSupport(hubVersionRequestService, null);
+                final HubSupportHelper supportHelper = HubCapabilityCache.getInstance().getHubSupportHelper(hubUrl, hubVersionRequestService);
 
                 if (supportHelper.hasCapability(HubCapabilitiesEnum.POLICY_API)) {
 
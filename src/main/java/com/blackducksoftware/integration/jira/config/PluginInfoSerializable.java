@@ -38,6 +38,21 @@ public class PluginInfoSerializable implements Serializable {
     @XmlElement
     private String pluginVersion;
 
+    @XmlElement
+    private String lastRunDate;
+
+    @XmlElement
+    private String runProgress;
+
+    @XmlElement
+    private String nextRunDate;
+
+    @XmlElement
+    private String lastRunDuration;
+
+    @XmlElement
+    private String hubConnectionStats;
+
     public String getPluginVersion() {
         return pluginVersion;
     }
@@ -46,11 +61,56 @@ public class PluginInfoSerializable implements Serializable {
         this.pluginVersion = pluginVersion;
     }
 
+    public String getLastRunDate() {
+        return lastRunDate;
+    }
+
+    public void setLastRunDate(String lastRunDate) {
+        this.lastRunDate = lastRunDate;
+    }
+
+    public String getRunProgress() {
+        return runProgress;
+    }
+
+    public void setRunProgress(String runProgress) {
+        this.runProgress = runProgress;
+    }
+
+    public String getNextRunDate() {
+        return nextRunDate;
+    }
+
+    public void setNextRunDate(String nextRunDate) {
+        this.nextRunDate = nextRunDate;
+    }
+
+    public String getLastRunDuration() {
+        return lastRunDuration;
+    }
+
+    public void setLastRunDuration(String lastRunDuration) {
+        this.lastRunDuration = lastRunDuration;
+    }
+
+    public String getHubConnectionStats() {
+        return hubConnectionStats;
+    }
+
+    public void setHubConnectionStats(String hubConnectionStats) {
+        this.hubConnectionStats = hubConnectionStats;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
         int result = 1;
+        result = prime * result + ((hubConnectionStats == null) ? 0 : hubConnectionStats.hashCode());
+        result = prime * result + ((lastRunDate == null) ? 0 : lastRunDate.hashCode());
+        result = prime * result + ((lastRunDuration == null) ? 0 : lastRunDuration.hashCode());
+        result = prime * result + ((nextRunDate == null) ? 0 : nextRunDate.hashCode());
         result = prime * result + ((pluginVersion == null) ? 0 : pluginVersion.hashCode());
+        result = prime * result + ((runProgress == null) ? 0 : runProgress.hashCode());
         return result;
     }
 
@@ -60,9 +120,24 @@ public class PluginInfoSerializable implements Serializable {
         if (obj == null) return false;
         if (getClass() != obj.getClass()) return false;
         PluginInfoSerializable other = (PluginInfoSerializable) obj;
+        if (hubConnectionStats == null) {
+            if (other.hubConnectionStats != null) return false;
+        } else if (!hubConnectionStats.equals(other.hubConnectionStats)) return false;
+        if (lastRunDate == null) {
+            if (other.lastRunDate != null) return false;
+        } else if (!lastRunDate.equals(other.lastRunDate)) return false;
+        if (lastRunDuration == null) {
+            if (other.lastRunDuration != null) return false;
+        } else if (!lastRunDuration.equals(other.lastRunDuration)) return false;
+        if (nextRunDate == null) {
+            if (other.nextRunDate != null) return false;
+        } else if (!nextRunDate.equals(other.nextRunDate)) return false;
         if (pluginVersion == null) {
             if (other.pluginVersion != null) return false;
         } else if (!pluginVersion.equals(other.pluginVersion)) return false;
+        if (runProgress == null) {
+            if (other.runProgress != null) return false;
+        } else if (!runProgress.equals(other.runProgress)) return false;
         return true;
     }
 }
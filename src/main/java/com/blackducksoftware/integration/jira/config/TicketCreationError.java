@@ -58,6 +58,15 @@ public class TicketCreationError implements Serializable, Comparable<TicketCreat
     @XmlElement
     private String timeStamp;
 
+    @XmlElement
+    private String firstTimeStamp;
+
+    @XmlElement
+    private String errorKey;
+
+    @XmlElement
+    private int occurrences;
+
     public TicketCreationError() {
     }
 
@@ -77,6 +86,43 @@ public class TicketCreationError implements Serializable, Comparable<TicketCreat
         this.timeStamp = timeStamp;
     }
 
+    /**
+     * When this error was first reported. The time stamp is when it was most recently reported.
+     */
+    public String getFirstTimeStamp() {
+        if (firstTimeStamp == null) {
+            return timeStamp;
+        }
+        return firstTimeStamp;
+    }
+
+    public void setFirstTimeStamp(final String firstTimeStamp) {
+        this.firstTimeStamp = firstTimeStamp;
+    }
+
+    /**
+     * Identifies the group of errors (same method and message) that this entry summarizes.
+     */
+    public String getErrorKey() {
+        return errorKey;
+    }
+
+    public void setErrorKey(final String errorKey) {
+        this.errorKey = errorKey;
+    }
+
+    /**
+     * The number of times this error has been reported. Entries stored by older versions of the plugin have no count,
+     * and represent a single occurrence.
+     */
+    public int getOccurrences() {
+        return Math.max(1, occurrences);
+    }
+
+    public void setOccurrences(final int occurrences) {
+        this.occurrences = occurrences;
+    }
+
     public DateTime getTimeStampDateTime() {
         DateTime errorTime = DateTime.parse(timeStamp,
                 ERROR_TIME_FORMAT);
@@ -90,6 +136,10 @@ public class TicketCreationError implements Serializable, Comparable<TicketCreat
         builder.append(stackTrace);
         builder.append(", timeStamp=");
         builder.append(timeStamp);
+        builder.append(", firstTimeStamp=");
+        builder.append(getFirstTimeStamp());
+        builder.append(", occurrences=");
+        builder.append(getOccurrences());
         builder.append("]");
         return builder.toString();
     }
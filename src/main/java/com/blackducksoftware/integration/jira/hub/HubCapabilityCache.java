@@ -0,0 +1,187 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.hub;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.blackducksoftware.integration.exception.IntegrationException;
+import com.blackducksoftware.integration.hub.HubSupportHelper;
+import com.blackducksoftware.integration.hub.api.nonpublic.HubVersionRequestService;
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
+import com.blackducksoftware.integration.jira.common.HubJiraLogger;
+
+/**
+ * Plugin-wide cache of Hub capability (version) checks, keyed by Hub URL.
+ *
+ * A Hub's capabilities change only when it is upgraded, so a checked HubSupportHelper is reused until it is older than
+ * the TTL. An expired entry is still returned while a fresh check runs in the background, so callers never wait for the
+ * Hub once the first check has been done. The cache is cleared when the Hub server configuration is saved; a check that
+ * was already running at that point is not cached.
+ */
+public class HubCapabilityCache {
+    private static final HubCapabilityCache INSTANCE = new HubCapabilityCache(HubJiraConstants.HUB_CAPABILITY_CACHE_TTL_MINUTES * 60L * 1000L);
+
+    private final HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(this.getClass().getName()));
+
+    private final long ttlMillis;
+
+    private final Map<String, CachedCapabilities> capabilitiesByHubUrl = new HashMap<>();
+
+    private ExecutorService refreshExecutor;
+
+    private long generation;
+
+    public static HubCapabilityCache getInstance() {
+        return INSTANCE;
+    }
+
+    HubCapabilityCache(final long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * The cache key for the given Hub URL, so that the same Hub is found whether its URL came from a HubServerConfig or
+     * straight from the plugin settings.
+     */
+    public static String getHubUrlKey(final String hubUrl) {
+        String key = StringUtils.trimToEmpty(hubUrl).toLowerCase(Locale.ENGLISH);
+        while (key.endsWith("/")) {
+            key = key.substring(0, key.length() - 1);
+        }
+        return key;
+    }
+
+    public HubSupportHelper getHubSupportHelper(final String hubUrl, final HubVersionRequestService hubVersionRequestService) throws IntegrationException {
+        final String hubUrlKey = getHubUrlKey(hubUrl);
+        final CachedCapabilities cachedCapabilities;
+        final long requestGeneration;
+        synchronized (capabilitiesByHubUrl) {
+            requestGeneration = generation;
+            cachedCapabilities = capabilitiesByHubUrl.get(hubUrlKey);
+            if ((cachedCapabilities != null) && cachedCapabilities.isExpired(ttlMillis) && !cachedCapabilities.refreshing) {
+                cachedCapabilities.refreshing = true;
+                getRefreshExecutor().submit(() -> refresh(hubUrlKey, hubVersionRequestService, requestGeneration));
+            }
+        }
+        if (cachedCapabilities != null) {
+            return cachedCapabilities.hubSupportHelper;
+        }
+        return refresh(hubUrlKey, hubVersionRequestService, requestGeneration);
+    }
+
+    public void invalidate() {
+        synchronized (capabilitiesByHubUrl) {
+            logger.debug("Clearing Hub capability cache (" + capabilitiesByHubUrl.size() + " entries)");
+            generation++;
+            capabilitiesByHubUrl.clear();
+        }
+    }
+
+    /**
+     * Clear the cache and stop the background refresh thread (when the plugin is stopped). A later request starts a new
+     * one.
+     */
+    public void shutdown() {
+        synchronized (capabilitiesByHubUrl) {
+            invalidate();
+            if (refreshExecutor != null) {
+                refreshExecutor.shutdownNow();
+                refreshExecutor = null;
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (capabilitiesByHubUrl) {
+            return capabilitiesByHubUrl.size();
+        }
+    }
+
+    private ExecutorService getRefreshExecutor() {
+        if (refreshExecutor == null) {
+            refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "hub-capability-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return refreshExecutor;
+    }
+
+    private HubSupportHelper refresh(final String hubUrlKey, final HubVersionRequestService hubVersionRequestService, final long requestGeneration) throws IntegrationException {
+        try {
+            final HubSupportHelper hubSupportHelper = checkHubSupport(hubVersionRequestService);
+            synchronized (capabilitiesByHubUrl) {
+                if (requestGeneration == generation) {
+                    capabilitiesByHubUrl.put(hubUrlKey, new CachedCapabilities(hubSupportHelper));
+                } else {
+                    logger.debug("The Hub capability cache was cleared during the check of Hub " + hubUrlKey + "; not caching the result");
+                }
+            }
+            return hubSupportHelper;
+        } catch (final Exception e) {
+            synchronized (capabilitiesByHubUrl) {
+                final CachedCapabilities cachedCapabilities = capabilitiesByHubUrl.get(hubUrlKey);
+                if (cachedCapabilities != null) {
+                    logger.warn("Error refreshing the capabilities of Hub " + hubUrlKey + "; continuing to use the previous check: " + e.getMessage());
+                    cachedCapabilities.refreshing = false;
+                    return cachedCapabilities.hubSupportHelper;
+                }
+            }
+            if (e instanceof IntegrationException) {
+                throw (IntegrationException) e;
+            }
+            throw new IntegrationException("Error checking the capabilities of Hub " + hubUrlKey + ": " + e.getMessage(), e);
+        }
+    }
+
+    protected HubSupportHelper checkHubSupport(final HubVersionRequestService hubVersionRequestService) throws IntegrationException {
+        final HubSupportHelper hubSupportHelper = new HubSupportHelper();
+        hubSupportHelper.checkHubSupport(hubVersionRequestService, null);
+        return hubSupportHelper;
+    }
+
+    private static class CachedCapabilities {
+        private final HubSupportHelper hubSupportHelper;
+
+        private final long checkedAtMillis = System.currentTimeMillis();
+
+        private boolean refreshing;
+
+        CachedCapabilities(final HubSupportHelper hubSupportHelper) {
+            this.hubSupportHelper = hubSupportHelper;
+        }
+
+        boolean isExpired(final long ttlMillis) {
+            return (System.currentTimeMillis() - checkedAtMillis) >= ttlMillis;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.hub;
+
+import org.apache.log4j.Logger;
+
+import com.blackducksoftware.integration.exception.EncryptionException;
+import com.blackducksoftware.integration.exception.IntegrationException;
+import com.blackducksoftware.integration.hub.global.HubServerConfig;
+import com.blackducksoftware.integration.hub.rest.CredentialsRestConnection;
+import com.blackducksoftware.integration.hub.rest.RestConnection;
+import com.blackducksoftware.integration.hub.rest.exception.IntegrationRestException;
+import com.blackducksoftware.integration.hub.service.HubServicesFactory;
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
+import com.blackducksoftware.integration.jira.common.HubJiraLogger;
+
+/**
+ * Plugin-wide holder of an authenticated Hub connection, shared by the timed task, the issue event listener tasks and
+ * the admin UI.
+ *
+ * Logging in to the Hub is expensive, so the connection is kept across uses. A new connection (and login) is created
+ * only when the Hub server configuration changes, when the session has reached its maximum age, or when the Hub
+ * rejects the session. Replacing the connection does not disturb callers that are still using the previous one.
+ */
+public class HubConnectionManager {
+    private static final HubConnectionManager INSTANCE = new HubConnectionManager(HubJiraConstants.HUB_CONNECTION_MAX_SESSION_MINUTES * 60L * 1000L);
+
+    private static final int HTTP_STATUS_UNAUTHORIZED = 401;
+
+    private final HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(this.getClass().getName()));
+
+    private final long maxSessionAgeMillis;
+
+    private String connectedConfigFingerprint;
+
+    private RestConnection restConnection;
+
+    private HubServicesFactory hubServicesFactory;
+
+    private long connectedAtMillis;
+
+    private long requestCount;
+
+    private long reuseCount;
+
+    private long loginCount;
+
+    private long configChangeCount;
+
+    private long reauthenticationCount;
+
+    public static HubConnectionManager getInstance() {
+        return INSTANCE;
+    }
+
+    HubConnectionManager(final long maxSessionAgeMillis) {
+        this.maxSessionAgeMillis = maxSessionAgeMillis;
+    }
+
+    /**
+     * Get a HubServicesFactory backed by an authenticated connection to the given Hub server, reusing the current
+     * connection when possible.
+     */
+    public HubServicesFactory getHubServicesFactory(final HubServerConfig hubServerConfig) throws EncryptionException, IntegrationException {
+        return getHubServicesFactory(hubServerConfig, false);
+    }
+
+    /**
+     * Like getHubServicesFactory, but a reused connection logs in again, so that the credentials are checked against the
+     * Hub (as the admin UI needs when it validates the configuration).
+     */
+    public HubServicesFactory getVerifiedHubServicesFactory(final HubServerConfig hubServerConfig) throws EncryptionException, IntegrationException {
+        return getHubServicesFactory(hubServerConfig, true);
+    }
+
+    /**
+     * Run the given request using the shared connection. If the Hub rejects the session (for example, because the Hub
+     * has been restarted), the connection is discarded and the request is retried once with a new login.
+     */
+    public <T> T execute(final HubServerConfig hubServerConfig, final HubRequest<T> request) throws EncryptionException, IntegrationException {
+        final HubServicesFactory staleHubServicesFactory = getHubServicesFactory(hubServerConfig);
+        try {
+            return request.execute(staleHubServicesFactory);
+        } catch (final IntegrationException e) {
+            if (!isAuthenticationFailure(e)) {
+                throw e;
+            }
+            logger.info("The Hub rejected the session; logging in again");
+            invalidate(staleHubServicesFactory);
+            return request.execute(getHubServicesFactory(hubServerConfig));
+        }
+    }
+
+    /**
+     * Discard the given connection (for example, because the Hub rejected its session) so that the next request logs
+     * in again. Does nothing if the connection has already been replaced.
+     */
+    public synchronized void invalidate(final HubServicesFactory staleHubServicesFactory) {
+        if ((hubServicesFactory != null) && (hubServicesFactory == staleHubServicesFactory)) {
+            logger.debug("Hub connection invalidated");
+            reauthenticationCount++;
+            hubServicesFactory = null;
+            restConnection = null;
+            connectedConfigFingerprint = null;
+        }
+    }
+
+    /**
+     * Whether the given exception (or one of its causes) is the Hub refusing an unauthenticated request.
+     */
+    public static boolean isAuthenticationFailure(final Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if ((cause instanceof IntegrationRestException) && (((IntegrationRestException) cause).getHttpStatusCode() == HTTP_STATUS_UNAUTHORIZED)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized long getRequestCount() {
+        return requestCount;
+    }
+
+    public synchronized long getReuseCount() {
+        return reuseCount;
+    }
+
+    public synchronized long getLoginCount() {
+        return loginCount;
+    }
+
+    public synchronized long getConfigChangeCount() {
+        return configChangeCount;
+    }
+
+    public synchronized long getReauthenticationCount() {
+        return reauthenticationCount;
+    }
+
+    public synchronized String getStatsDescription() {
+        return String.format("%d Hub connection request(s); %d reused; %d login(s) (%d for configuration changes, %d re-authentications)", requestCount, reuseCount,
+                loginCount, configChangeCount, reauthenticationCount);
+    }
+
+    private HubServicesFactory getHubServicesFactory(final HubServerConfig hubServerConfig, final boolean verifyReusedConnection) throws EncryptionException, IntegrationException {
+        final String configFingerprint = createConfigFingerprint(hubServerConfig);
+        final RestConnection reusableConnection;
+        final HubServicesFactory reusableHubServicesFactory;
+        synchronized (this) {
+            requestCount++;
+            reusableConnection = restConnection;
+            reusableHubServicesFactory = getReusableHubServicesFactory(hubServerConfig, configFingerprint);
+        }
+        if (reusableHubServicesFactory != null) {
+            if (verifyReusedConnection) {
+                try {
+                    reusableConnection.connect();
+                } catch (final IntegrationException e) {
+                    invalidate(reusableHubServicesFactory);
+                    throw e;
+                }
+            }
+            return reusableHubServicesFactory;
+        }
+
+        // Log in without holding the monitor, so that a slow or unreachable Hub does not block callers that only need
+        // the statistics, or that are discarding a connection
+        final RestConnection newConnection = createRestConnection(hubServerConfig);
+        newConnection.connect();
+        final HubServicesFactory newHubServicesFactory = new HubServicesFactory(newConnection);
+        synchronized (this) {
+            loginCount++;
+            restConnection = newConnection;
+            hubServicesFactory = newHubServicesFactory;
+            connectedConfigFingerprint = configFingerprint;
+            connectedAtMillis = System.currentTimeMillis();
+        }
+        return newHubServicesFactory;
+    }
+
+    /**
+     * The current HubServicesFactory if it can be used for the given configuration; otherwise null (and the reason is
+     * counted).
+     */
+    private HubServicesFactory getReusableHubServicesFactory(final HubServerConfig hubServerConfig, final String configFingerprint) {
+        if (hubServicesFactory == null) {
+            return null;
+        }
+        if (!configFingerprint.equals(connectedConfigFingerprint)) {
+            logger.info("The Hub server configuration has changed; connecting to " + hubServerConfig.getHubUrl());
+            configChangeCount++;
+            return null;
+        }
+        if ((System.currentTimeMillis() - connectedAtMillis) >= maxSessionAgeMillis) {
+            logger.debug("The Hub session has reached its maximum age; re-authenticating");
+            reauthenticationCount++;
+            return null;
+        }
+        reuseCount++;
+        return hubServicesFactory;
+    }
+
+    protected RestConnection createRestConnection(final HubServerConfig hubServerConfig) throws EncryptionException {
+        return new CredentialsRestConnection(logger, hubServerConfig.getHubUrl(), hubServerConfig.getGlobalCredentials().getUsername(),
+                hubServerConfig.getGlobalCredentials().getDecryptedPassword(), hubServerConfig.getTimeout());
+    }
+
+    private String createConfigFingerprint(final HubServerConfig hubServerConfig) {
+        final StringBuilder fingerprint = new StringBuilder();
+        fingerprint.append(hubServerConfig.getHubUrl());
+        fingerprint.append('|');
+        fingerprint.append(hubServerConfig.getGlobalCredentials().getUsername());
+        fingerprint.append('|');
+        fingerprint.append(hubServerConfig.getGlobalCredentials().getEncryptedPassword());
+        fingerprint.append('|');
+        fingerprint.append(hubServerConfig.getTimeout());
+        return fingerprint.toString();
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.hub;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import com.blackducksoftware.integration.exception.IntegrationException;
+import com.blackducksoftware.integration.hub.model.HubResponse;
+import com.blackducksoftware.integration.hub.service.HubResponseService;
+import com.blackducksoftware.integration.jira.common.HubJiraLogger;
+
+/**
+ * Memoizes HubResponseService.getItem() results, keyed by URL.
+ *
+ * Entries expire after a configurable time-to-live, and the number of entries is bounded. Concurrent requests
+ * for the same URL result in a single call to the Hub; the other callers wait for (and share) its result.
+ * Failed lookups are not cached.
+ */
+public class HubResponseCache {
+    private final HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(this.getClass().getName()));
+
+    private final HubResponseService hubResponseService;
+
+    private final int maxSize;
+
+    private final long ttlMillis;
+
+    private final ConcurrentMap<String, CacheEntry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    public HubResponseCache(final HubResponseService hubResponseService, final int maxSize, final int ttlSeconds) {
+        this.hubResponseService = hubResponseService;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000L;
+    }
+
+    public <T extends HubResponse> T getItem(final String url, final Class<T> clazz) throws IntegrationException {
+        final long now = System.currentTimeMillis();
+        final CacheEntry newEntry = new CacheEntry(new FutureTask<HubResponse>(() -> hubResponseService.getItem(url, clazz)), clazz, now);
+        final CacheEntry entry = entries.compute(url, (key, existingEntry) -> {
+            if ((existingEntry != null) && !existingEntry.isExpired(now) && existingEntry.itemClass.equals(clazz)) {
+                return existingEntry;
+            }
+            return newEntry;
+        });
+        if (entry == newEntry) {
+            missCount.incrementAndGet();
+            evictIfFull(now);
+            entry.fetch.run();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        try {
+            return clazz.cast(entry.fetch.get());
+        } catch (final ExecutionException e) {
+            entries.remove(url, entry);
+            final Throwable cause = e.getCause();
+            if (cause instanceof IntegrationException) {
+                throw (IntegrationException) cause;
+            }
+            throw new IntegrationException(cause);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IntegrationException(e);
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public int getHitPercentage() {
+        final long hits = hitCount.get();
+        final long total = hits + missCount.get();
+        if (total == 0) {
+            return 0;
+        }
+        return (int) ((hits * 100) / total);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictIfFull(final long now) {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        entries.values().removeIf(cacheEntry -> cacheEntry.isExpired(now));
+        while (entries.size() > maxSize) {
+            Map.Entry<String, CacheEntry> oldestEntry = null;
+            for (final Map.Entry<String, CacheEntry> candidate : entries.entrySet()) {
+                if ((oldestEntry == null) || (candidate.getValue().createdMillis < oldestEntry.getValue().createdMillis)) {
+                    oldestEntry = candidate;
+                }
+            }
+            if (oldestEntry == null) {
+                return;
+            }
+            logger.debug("Evicting cached Hub response: " + oldestEntry.getKey());
+            entries.remove(oldestEntry.getKey(), oldestEntry.getValue());
+        }
+    }
+
+    private class CacheEntry {
+        private final FutureTask<HubResponse> fetch;
+
+        private final Class<?> itemClass;
+
+        private final long createdMillis;
+
+        public CacheEntry(final FutureTask<HubResponse> fetch, final Class<?> itemClass, final long createdMillis) {
+            this.fetch = fetch;
+            this.itemClass = itemClass;
+            this.createdMillis = createdMillis;
+        }
+
+        public boolean isExpired(final long now) {
+            return (now - createdMillis) >= ttlMillis;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.hub;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import com.blackducksoftware.integration.exception.IntegrationException;
+import com.blackducksoftware.integration.hub.api.item.MetaService;
+import com.blackducksoftware.integration.hub.model.view.ComplexLicenseView;
+import com.blackducksoftware.integration.hub.service.HubResponseService;
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
+import com.blackducksoftware.integration.jira.common.HubJiraLogger;
+
+/**
+ * Plugin-wide cache of Hub license details (the license text URL), keyed by license URL.
+ *
+ * License data rarely changes and is shared by many components, so entries are kept across runs. The
+ * least recently used entry is evicted when the cache is full. The cache can be cleared from the admin UI.
+ */
+public class LicenseCache {
+    private static final LicenseCache INSTANCE = new LicenseCache(HubJiraConstants.LICENSE_CACHE_MAX_SIZE);
+
+    private final HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(this.getClass().getName()));
+
+    private final Map<String, CachedLicense> licensesByUrl;
+
+    public static LicenseCache getInstance() {
+        return INSTANCE;
+    }
+
+    LicenseCache(final int maxSize) {
+        licensesByUrl = new LinkedHashMap<String, CachedLicense>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CachedLicense> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public CachedLicense getLicense(final String licenseUrl, final HubResponseService hubResponseService, final MetaService metaService) throws IntegrationException {
+        synchronized (licensesByUrl) {
+            final CachedLicense cachedLicense = licensesByUrl.get(licenseUrl);
+            if (cachedLicense != null) {
+                return cachedLicense;
+            }
+        }
+        final ComplexLicenseView fullLicense = hubResponseService.getItem(licenseUrl, ComplexLicenseView.class);
+        final String licenseTextUrl = metaService.getFirstLink(fullLicense, "text");
+        logger.debug("Link to licence text: " + licenseTextUrl);
+        final CachedLicense license = new CachedLicense(licenseTextUrl);
+        synchronized (licensesByUrl) {
+            licensesByUrl.put(licenseUrl, license);
+        }
+        return license;
+    }
+
+    public void clear() {
+        synchronized (licensesByUrl) {
+            logger.info("Clearing license cache (" + licensesByUrl.size() + " entries)");
+            licensesByUrl.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (licensesByUrl) {
+            return licensesByUrl.size();
+        }
+    }
+
+    public static class CachedLicense {
+        private final String textUrl;
+
+        public CachedLicense(final String textUrl) {
+            this.textUrl = textUrl;
+        }
+
+        public String getTextUrl() {
+            return textUrl;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import com.atlassian.jira.cluster.ClusterManager;
+import com.atlassian.sal.api.pluginsettings.PluginSettings;
+import com.blackducksoftware.integration.hub.rest.RestConnection;
+import com.blackducksoftware.integration.jira.common.HubJiraConfigKeys;
+import com.blackducksoftware.integration.jira.common.HubJiraLogger;
+import com.blackducksoftware.integration.jira.task.issue.JiraServices;
+
+/**
+ * Coordinates the periodic task across the nodes of a JIRA Data Center cluster.
+ *
+ * Without sharding, a node runs the whole task only while it holds the cluster-wide run lock; any other node whose
+ * task fires meanwhile skips its run. With sharding, the run lock only covers JIRA setup; the mapped projects are
+ * then processed one shard at a time, each under its own lock, so that several nodes can work on different shards.
+ * The sharded run lock includes every shard lock, so JIRA setup never overlaps the processing of a shard.
+ */
+public class ClusterRunCoordinator {
+    private static final String RUN_LOCK_NAME = ClusterRunCoordinator.class.getName() + ":run";
+
+    private final HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(this.getClass().getName()));
+
+    private final TaskLockService lockService;
+
+    private final String nodeId;
+
+    private final int shardCount;
+
+    public ClusterRunCoordinator(final TaskLockService lockService, final String nodeId, final int shardCount) {
+        this.lockService = lockService;
+        this.nodeId = nodeId;
+        this.shardCount = Math.max(1, shardCount);
+    }
+
+    /**
+     * Uses the cluster lock service when JIRA is clustered, and plugin-local locks otherwise.
+     */
+    public static ClusterRunCoordinator create(final JiraServices jiraServices, final int shardCount) {
+        final ClusterManager clusterManager = jiraServices.getClusterManager();
+        if ((clusterManager != null) && clusterManager.isClustered()) {
+            return new ClusterRunCoordinator(new ClusterTaskLockService(jiraServices.getClusterLockService()), clusterManager.getNodeId(), shardCount);
+        }
+        return new ClusterRunCoordinator(InMemoryTaskLockService.getInstance(), null, shardCount);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    /**
+     * Acquires the run lock. When sharding, this also acquires every shard lock, so that no node is processing a
+     * shard while the lock is held. Returns false, holding nothing, if any of the locks is held elsewhere.
+     */
+    public boolean tryLockRun() {
+        if (!lockService.tryLock(RUN_LOCK_NAME)) {
+            return false;
+        }
+        if (!isSharded()) {
+            return true;
+        }
+        final List<ProjectShard> lockedShards = new ArrayList<>();
+        for (final ProjectShard shard : ProjectShard.getShards(shardCount, null)) {
+            if (!tryLock(shard)) {
+                logger.debug("Hub JIRA " + shard + " is being processed by another JIRA node; not taking the run lock");
+                for (final ProjectShard lockedShard : lockedShards) {
+                    unlock(lockedShard);
+                }
+                lockService.unlock(RUN_LOCK_NAME);
+                return false;
+            }
+            lockedShards.add(shard);
+        }
+        return true;
+    }
+
+    public void unlockRun() {
+        if (isSharded()) {
+            for (final ProjectShard shard : ProjectShard.getShards(shardCount, null)) {
+                unlock(shard);
+            }
+        }
+        lockService.unlock(RUN_LOCK_NAME);
+    }
+
+    public boolean tryLock(final ProjectShard shard) {
+        return lockService.tryLock(shard.getLockName());
+    }
+
+    public void unlock(final ProjectShard shard) {
+        lockService.unlock(shard.getLockName());
+    }
+
+    /**
+     * The shards this node should try, in order; just ProjectShard.ALL when not sharding.
+     */
+    public List<ProjectShard> getShards() {
+        if (!isSharded()) {
+            return Collections.singletonList(ProjectShard.ALL);
+        }
+        return ProjectShard.getShards(shardCount, nodeId);
+    }
+
+    /**
+     * Sets the plugin-wide last run date to the earliest of the shards' last run dates, once every shard has run, so
+     * that it still tells how far notifications have been processed (and where to resume if sharding is turned off).
+     * The date only ever moves forward. Call this while holding the run lock, so that no shard's date changes
+     * meanwhile.
+     */
+    public void updateLastRunDate(final PluginSettings settings) {
+        if (!isSharded()) {
+            return;
+        }
+        final SimpleDateFormat dateFormatter = new SimpleDateFormat(RestConnection.JSON_DATE_FORMAT);
+        dateFormatter.setTimeZone(java.util.TimeZone.getTimeZone("Zulu"));
+        String earliestLastRunDateString = null;
+        Date earliestLastRunDate = null;
+        for (final ProjectShard shard : ProjectShard.getShards(shardCount, null)) {
+            final String lastRunDateString = (String) settings.get(shard.getScopedKey(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE));
+            if (lastRunDateString == null) {
+                return;
+            }
+            final Date lastRunDate;
+            try {
+                lastRunDate = dateFormatter.parse(lastRunDateString);
+            } catch (final ParseException e) {
+                logger.warn("Unable to parse the last run date of " + shard + ": " + lastRunDateString);
+                return;
+            }
+            if ((earliestLastRunDate == null) || lastRunDate.before(earliestLastRunDate)) {
+                earliestLastRunDate = lastRunDate;
+                earliestLastRunDateString = lastRunDateString;
+            }
+        }
+        final String currentLastRunDateString = (String) settings.get(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE);
+        if (currentLastRunDateString != null) {
+            try {
+                if (!earliestLastRunDate.after(dateFormatter.parse(currentLastRunDateString))) {
+                    return;
+                }
+            } catch (final ParseException e) {
+                logger.warn("Unable to parse the last run date: " + currentLastRunDateString + "; replacing it");
+            }
+        }
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE, earliestLastRunDateString);
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task;
+
+import com.atlassian.beehive.ClusterLockService;
+
+/**
+ * TaskLockService backed by the JIRA Data Center cluster lock service, so a lock held on one node is seen by all of
+ * them. A lock must be released by the thread that acquired it.
+ */
+public class ClusterTaskLockService implements TaskLockService {
+    private final ClusterLockService clusterLockService;
+
+    public ClusterTaskLockService(final ClusterLockService clusterLockService) {
+        this.clusterLockService = clusterLockService;
+    }
+
+    @Override
+    public boolean tryLock(final String lockName) {
+        return clusterLockService.getLockForName(lockName).tryLock();
+    }
+
+    @Override
+    public void unlock(final String lockName) {
+        clusterLockService.getLockForName(lockName).unlock();
+    }
+}
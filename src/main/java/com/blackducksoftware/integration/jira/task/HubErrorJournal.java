@@ -0,0 +1,310 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.joda.time.DateTime;
+
+import com.atlassian.sal.api.pluginsettings.PluginSettings;
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
+import com.blackducksoftware.integration.jira.common.HubJiraLogger;
+import com.blackducksoftware.integration.jira.config.TicketCreationError;
+
+/**
+ * Buffers the errors reported through JiraSettingsService.addHubError and merges them into the error list that is
+ * stored in PluginSettings (and shown on the admin page).
+ *
+ * Errors are grouped by key (method and message): repeats of an error increment the group's occurrence count and
+ * replace its text and time stamp. Pending groups are held in a bounded buffer; when it is full the least recently
+ * reported group is dropped, since it would fall off the stored list anyway.
+ *
+ * Errors are also rate limited: once an error has been recorded in full, repeats within the rate limit window are
+ * counted against the same group without the caller formatting the error (for example, building a stack trace).
+ *
+ * The shared journal persists pending groups in one batch, a short delay after the first error of the batch, and
+ * expires old errors on a schedule. A journal created without a scheduler persists each error as it is recorded.
+ */
+public class HubErrorJournal {
+    private static final HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(HubErrorJournal.class.getName()));
+
+    private static HubErrorJournal sharedInstance;
+
+    private final int capacity;
+
+    private final long flushDelayMillis;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final LinkedHashMap<String, TicketCreationError> pendingErrorsByKey = new LinkedHashMap<>();
+
+    private final Map<String, RecentError> recentErrorsByKey = new LinkedHashMap<String, RecentError>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, RecentError> eldest) {
+            return size() > HubJiraConstants.ERROR_RATE_LIMIT_MAX_KEYS;
+        }
+    };
+
+    private final long rateLimitWindowMillis;
+
+    private final Object persistLock = new Object();
+
+    private volatile PluginSettings settings;
+
+    private boolean flushScheduled;
+
+    private long recordedCount;
+
+    private long droppedCount;
+
+    private long flushCount;
+
+    private long suppressedCount;
+
+    /**
+     * Returns the plugin-wide journal, which persists asynchronously. The given settings are used for subsequent
+     * writes.
+     */
+    public static synchronized HubErrorJournal getSharedInstance(final PluginSettings settings) {
+        if (sharedInstance == null) {
+            final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "hub-error-journal");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sharedInstance = new HubErrorJournal(settings, HubJiraConstants.ERROR_JOURNAL_CAPACITY, HubJiraConstants.ERROR_JOURNAL_FLUSH_DELAY_MILLIS,
+                    HubJiraConstants.ERROR_RATE_LIMIT_SECONDS * 1000L, scheduler);
+            sharedInstance.scheduleExpiry(HubJiraConstants.ERROR_JOURNAL_EXPIRY_INTERVAL_MINUTES);
+        } else {
+            sharedInstance.settings = settings;
+        }
+        return sharedInstance;
+    }
+
+    /**
+     * Persists any pending errors and stops the plugin-wide journal.
+     */
+    public static synchronized void shutdownSharedInstance() {
+        if (sharedInstance != null) {
+            sharedInstance.flush();
+            sharedInstance.scheduler.shutdownNow();
+            sharedInstance = null;
+        }
+    }
+
+    public HubErrorJournal(final PluginSettings settings) {
+        this(settings, HubJiraConstants.ERROR_JOURNAL_CAPACITY, 0L, HubJiraConstants.ERROR_RATE_LIMIT_SECONDS * 1000L, null);
+    }
+
+    HubErrorJournal(final PluginSettings settings, final int capacity, final long flushDelayMillis, final long rateLimitWindowMillis,
+            final ScheduledExecutorService scheduler) {
+        this.settings = settings;
+        this.capacity = capacity;
+        this.flushDelayMillis = flushDelayMillis;
+        this.rateLimitWindowMillis = rateLimitWindowMillis;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Records an error whose text has been formatted.
+     */
+    public void record(final String errorKey, final String errorText) {
+        final long nowMillis = System.currentTimeMillis();
+        final boolean flushNow;
+        synchronized (pendingErrorsByKey) {
+            recordedCount++;
+            recentErrorsByKey.put(errorKey, new RecentError(errorText, nowMillis));
+            addPending(errorKey, errorText);
+            flushNow = scheduleFlush();
+        }
+        if (flushNow) {
+            flush();
+        }
+    }
+
+    /**
+     * If an error with the given key has been recorded within the rate limit window, counts another occurrence of it
+     * and returns true; the caller does not need to format the error. Returns false if the error must be recorded in
+     * full.
+     *
+     * Repeats are saved with the next batch (or, for a journal without a scheduler, straight away).
+     */
+    public boolean recordRepeat(final String errorKey) {
+        final long nowMillis = System.currentTimeMillis();
+        final boolean flushNow;
+        synchronized (pendingErrorsByKey) {
+            final RecentError recentError = recentErrorsByKey.get(errorKey);
+            if ((recentError == null) || ((nowMillis - recentError.recordedMillis) > rateLimitWindowMillis)) {
+                return false;
+            }
+            recordedCount++;
+            suppressedCount++;
+            addPending(errorKey, recentError.errorText);
+            flushNow = scheduleFlush();
+        }
+        if (flushNow) {
+            flush();
+        }
+        return true;
+    }
+
+    private void addPending(final String errorKey, final String errorText) {
+        final String timeStamp = DateTime.now().toString(TicketCreationError.ERROR_TIME_FORMAT);
+        TicketCreationError pendingError = pendingErrorsByKey.remove(errorKey);
+        if (pendingError == null) {
+            pendingError = new TicketCreationError();
+            pendingError.setErrorKey(errorKey);
+            pendingError.setFirstTimeStamp(timeStamp);
+            pendingError.setOccurrences(1);
+        } else {
+            pendingError.setOccurrences(pendingError.getOccurrences() + 1);
+        }
+        pendingError.setStackTrace(errorText);
+        pendingError.setTimeStamp(timeStamp);
+        pendingErrorsByKey.put(errorKey, pendingError);
+        if (pendingErrorsByKey.size() > capacity) {
+            final Iterator<String> eldestKey = pendingErrorsByKey.keySet().iterator();
+            eldestKey.next();
+            eldestKey.remove();
+            droppedCount++;
+        }
+    }
+
+    /**
+     * Returns true if the caller should flush immediately (there is no scheduler).
+     */
+    private boolean scheduleFlush() {
+        if (scheduler == null) {
+            return true;
+        }
+        if (!flushScheduled) {
+            flushScheduled = true;
+            scheduler.schedule(this::flush, flushDelayMillis, TimeUnit.MILLISECONDS);
+        }
+        return false;
+    }
+
+    /**
+     * Merges the pending errors into the stored error list.
+     */
+    public void flush() {
+        final List<TicketCreationError> batch;
+        synchronized (pendingErrorsByKey) {
+            flushScheduled = false;
+            if (pendingErrorsByKey.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pendingErrorsByKey.values());
+            pendingErrorsByKey.clear();
+        }
+        synchronized (persistLock) {
+            try {
+                final List<TicketCreationError> storedErrors = readStoredErrors();
+                for (final TicketCreationError error : batch) {
+                    final Iterator<TicketCreationError> storedIterator = storedErrors.iterator();
+                    while (storedIterator.hasNext()) {
+                        final TicketCreationError storedError = storedIterator.next();
+                        if (error.getErrorKey().equals(storedError.getErrorKey())) {
+                            error.setOccurrences(error.getOccurrences() + storedError.getOccurrences());
+                            error.setFirstTimeStamp(storedError.getFirstTimeStamp());
+                            storedIterator.remove();
+                            break;
+                        }
+                    }
+                    storedErrors.add(error);
+                }
+                Collections.sort(storedErrors);
+                if (storedErrors.size() > capacity) {
+                    storedErrors.subList(capacity, storedErrors.size()).clear();
+                }
+                logger.debug("Saving " + storedErrors.size() + " error messages to settings");
+                settings.put(HubJiraConstants.HUB_JIRA_ERROR, TicketCreationError.toJson(storedErrors));
+                flushCount++;
+            } catch (final Exception e) {
+                logger.error("Unable to save " + batch.size() + " error messages to settings: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    public void expireOldErrors() {
+        synchronized (persistLock) {
+            JiraSettingsService.expireOldErrors(settings);
+        }
+    }
+
+    private void scheduleExpiry(final long intervalMinutes) {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                expireOldErrors();
+            } catch (final Exception e) {
+                logger.error("Error expiring old error messages: " + e.getMessage(), e);
+            }
+        }, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    private static class RecentError {
+        private final String errorText;
+
+        private final long recordedMillis;
+
+        private RecentError(final String errorText, final long recordedMillis) {
+            this.errorText = errorText;
+            this.recordedMillis = recordedMillis;
+        }
+    }
+
+    private List<TicketCreationError> readStoredErrors() {
+        final Object errorObject = settings.get(HubJiraConstants.HUB_JIRA_ERROR);
+        if (errorObject instanceof String) {
+            try {
+                final List<TicketCreationError> storedErrors = TicketCreationError.fromJson((String) errorObject);
+                if (storedErrors != null) {
+                    return new ArrayList<>(storedErrors);
+                }
+            } catch (final Exception e) {
+                logger.warn("Error deserializing JSON string pulled from settings: " + e.getMessage() + "; resettting error message list");
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    public String getStatsDescription() {
+        synchronized (pendingErrorsByKey) {
+            return String.format("Error journal: %d errors recorded (%d repeats counted without formatting); %d error groups dropped from a full buffer; %d saves",
+                    recordedCount, suppressedCount, droppedCount, flushCount);
+        }
+    }
+
+}
@@ -39,11 +39,9 @@ import com.blackducksoftware.integration.exception.IntegrationException;
 import com.blackducksoftware.integration.hub.HubSupportHelper;
 import com.blackducksoftware.integration.hub.api.nonpublic.HubRegistrationRequestService;
 import com.blackducksoftware.integration.hub.api.nonpublic.HubVersionRequestService;
-import com.blackducksoftware.integration.hub.api.user.UserRequestService;
 import com.blackducksoftware.integration.hub.builder.HubServerConfigBuilder;
 import com.blackducksoftware.integration.hub.global.HubServerConfig;
 import com.blackducksoftware.integration.hub.model.view.UserView;
-import com.blackducksoftware.integration.hub.rest.CredentialsRestConnection;
 import com.blackducksoftware.integration.hub.rest.RestConnection;
 import com.blackducksoftware.integration.hub.service.HubServicesFactory;
 import com.blackducksoftware.integration.jira.common.HubJiraLogger;
@@ -54,6 +52,9 @@ import com.blackducksoftware.integration.jira.common.PolicyRuleSerializable;
 import com.blackducksoftware.integration.jira.common.TicketInfoFromSetup;
 import com.blackducksoftware.integration.jira.config.HubJiraConfigSerializable;
 import com.blackducksoftware.integration.jira.config.HubJiraFieldCopyConfigSerializable;
+import com.blackducksoftware.integration.jira.hub.HubCapabilityCache;
+import com.blackducksoftware.integration.jira.hub.HubConnectionManager;
+import com.blackducksoftware.integration.jira.hub.HubResponseCache;
 import com.blackducksoftware.integration.jira.task.issue.JiraServices;
 import com.blackducksoftware.integration.phone.home.PhoneHomeClient;
 import com.blackducksoftware.integration.phone.home.enums.BlackDuckName;
@@ -73,9 +74,17 @@ public class HubJiraTask {
     private final JiraSettingsService jiraSettingsService;
     private final TicketInfoFromSetup ticketInfoFromSetup;
     private final String fieldCopyMappingJson;
+    private final ProjectShard projectShard;
+    private int notificationCount = -1;
 
     public HubJiraTask(final PluginConfigurationDetails configDetails, final JiraContext jiraContext, final JiraSettingsService jiraSettingsService, final TicketInfoFromSetup ticketInfoFromSetup) {
+        this(configDetails, jiraContext, jiraSettingsService, ticketInfoFromSetup, ProjectShard.ALL);
+    }
+
+    public HubJiraTask(final PluginConfigurationDetails configDetails, final JiraContext jiraContext, final JiraSettingsService jiraSettingsService, final TicketInfoFromSetup ticketInfoFromSetup,
+            final ProjectShard projectShard) {
         this.pluginConfigDetails = configDetails;
+        this.projectShard = projectShard;
         this.jiraContext = jiraContext;
 
         this.runDate = new Date();
@@ -128,16 +137,22 @@ public class HubJiraTask {
 
         try {
             final HubServicesFactory hubServicesFactory;
+            final UserView hubUserItem;
             try {
-                hubServicesFactory = createHubServicesFactory(hubServerConfig);
+                // Getting the user item also checks the shared Hub session, logging in again if the Hub has rejected it
+                logger.debug("Getting user item for user: " + hubServerConfig.getGlobalCredentials().getUsername());
+                hubUserItem = getHubUserItem(hubServerConfig, hubServerConfig.getGlobalCredentials().getUsername());
+                if (hubUserItem == null) {
+                    return null;
+                }
+                hubServicesFactory = HubConnectionManager.getInstance().getHubServicesFactory(hubServerConfig);
             } catch (final EncryptionException e) {
                 logger.info("Error handling password: " + e.getMessage());
                 return null;
             }
             final List<String> linksOfRulesToMonitor = getRuleUrls(config);
-            final HubSupportHelper hubSupportHelper = new HubSupportHelper();
             final HubVersionRequestService hubVersionRequestService = hubServicesFactory.createHubVersionRequestService();
-            hubSupportHelper.checkHubSupport(hubVersionRequestService, null);
+            final HubSupportHelper hubSupportHelper = HubCapabilityCache.getInstance().getHubSupportHelper(hubServerConfig.getHubUrl().toString(), hubVersionRequestService);
 
             final TicketGenerator ticketGenerator = initTicketGenerator(jiraContext, hubServicesFactory,
                     linksOfRulesToMonitor, ticketInfoFromSetup, fieldCopyConfig, hubSupportHelper);
@@ -164,17 +179,17 @@ public class HubJiraTask {
                 logger.debug("Unable to phone-home", e);
             }
             final HubProjectMappings hubProjectMappings = new HubProjectMappings(jiraServices,
-                    config.getHubProjectMappings());
+                    projectShard.filter(config.getHubProjectMappings()));
 
-            logger.debug("Getting user item for user: " + hubServerConfig.getGlobalCredentials().getUsername());
-            final UserView hubUserItem = getHubUserItem(hubServicesFactory,
-                    hubServerConfig.getGlobalCredentials().getUsername());
-            if (hubUserItem == null) {
-                return null;
-            }
             // Generate JIRA Issues based on recent notifications
             logger.info("Getting Hub notifications from " + startDate + " to " + runDate);
             ticketGenerator.generateTicketsForRecentNotifications(hubUserItem, hubProjectMappings, startDate, runDate);
+            notificationCount = ticketGenerator.getNotificationCount();
+            logger.info(HubConnectionManager.getInstance().getStatsDescription());
+            if (Thread.currentThread().isInterrupted()) {
+                logger.warn("Interrupted before all notifications were processed; the next run will resume from the last completed slice");
+                return null;
+            }
         } catch (final Exception e) {
             logger.error("Error processing Hub notifications or generating JIRA issues: " + e.getMessage(), e);
             jiraSettingsService.addHubError(e, "executeHubJiraTask");
@@ -183,17 +198,23 @@ public class HubJiraTask {
         return runDateString;
     }
 
-    private UserView getHubUserItem(final HubServicesFactory hubServicesFactory, final String currentUsername) {
+    /**
+     * The number of Hub notifications retrieved by execute(), or -1 if it did not get as far as retrieving them.
+     */
+    public int getNotificationCount() {
+        return notificationCount;
+    }
+
+    private UserView getHubUserItem(final HubServerConfig hubServerConfig, final String currentUsername) throws EncryptionException {
         if (currentUsername == null) {
             final String msg = "Current username is null";
             logger.error(msg);
             jiraSettingsService.addHubError(msg, "getCurrentUser");
             return null;
         }
-        final UserRequestService userService = hubServicesFactory.createUserRequestService();
         List<UserView> users;
         try {
-            users = userService.getAllUsers();
+            users = HubConnectionManager.getInstance().execute(hubServerConfig, hubServicesFactory -> hubServicesFactory.createUserRequestService().getAllUsers());
         } catch (final IntegrationException e) {
             final String msg = "Error getting user item for current user: " + currentUsername + ": " + e.getMessage();
             logger.error(msg);
@@ -211,14 +232,6 @@ public class HubJiraTask {
         return null;
     }
 
-    private HubServicesFactory createHubServicesFactory(final HubServerConfig hubServerConfig) throws EncryptionException {
-        final RestConnection restConnection = new CredentialsRestConnection(logger, hubServerConfig.getHubUrl(),
-                hubServerConfig.getGlobalCredentials().getUsername(), hubServerConfig.getGlobalCredentials().getDecryptedPassword(),
-                hubServerConfig.getTimeout());
-        final HubServicesFactory hubServicesFactory = new HubServicesFactory(restConnection);
-        return hubServicesFactory;
-    }
-
     private List<String> getRuleUrls(final HubJiraConfigSerializable config) {
         final List<String> ruleUrls = new ArrayList<>();
         final List<PolicyRuleSerializable> rules = config.getPolicyRules();
@@ -237,8 +250,11 @@ public class HubJiraTask {
             final HubJiraFieldCopyConfigSerializable fieldCopyConfig, final HubSupportHelper hubSupportHelper) throws URISyntaxException {
         logger.debug("JIRA user: " + this.jiraContext.getJiraAdminUser().getName());
 
+        final HubResponseCache hubResponseCache = new HubResponseCache(hubServicesFactory.createHubResponseService(), pluginConfigDetails.getHubResponseCacheMaxSize(),
+                pluginConfigDetails.getHubResponseCacheTtlSeconds());
         final TicketGenerator ticketGenerator = new TicketGenerator(hubServicesFactory, jiraServices, jiraContext, jiraSettingsService, ticketInfoFromSetup, fieldCopyConfig, pluginConfigDetails.isCreateVulnerabilityIssues(),
-                linksOfRulesToMonitor, hubSupportHelper);
+                linksOfRulesToMonitor, hubSupportHelper, hubResponseCache, pluginConfigDetails.getNotificationConversionThreads(),
+                pluginConfigDetails.getIssueUpdateThreads(), pluginConfigDetails.getNotificationSliceMinutes());
         return ticketGenerator;
     }
 
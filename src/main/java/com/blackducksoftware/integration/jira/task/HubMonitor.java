@@ -36,7 +36,9 @@ import com.atlassian.sal.api.pluginsettings.PluginSettings;
 import com.atlassian.sal.api.pluginsettings.PluginSettingsFactory;
 import com.atlassian.sal.api.scheduling.PluginScheduler;
 import com.blackducksoftware.integration.jira.common.HubJiraConfigKeys;
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
 import com.blackducksoftware.integration.jira.common.HubJiraLogger;
+import com.blackducksoftware.integration.jira.hub.HubCapabilityCache;
 
 public class HubMonitor implements NotificationMonitor, LifecycleAware, DisposableBean {
 
@@ -46,6 +48,12 @@ public class HubMonitor implements NotificationMonitor, LifecycleAware, Disposab
 
     public static final String KEY_SETTINGS = HubMonitor.class.getName() + ":settings";
 
+    /**
+     * Whether the job was scheduled for adaptive scheduling. The adaptive scheduling setting is only read here, so a
+     * change to it takes effect when the job is rescheduled: when the interval is saved, or when the plugin restarts.
+     */
+    public static final String KEY_ADAPTIVE_SCHEDULING = HubMonitor.class.getName() + ":adaptiveScheduling";
+
     private static final String JOB_NAME = HubMonitor.class.getName() + ":job";
 
     private static final String V1_JOB_NAME = "com.blackducksoftware.integration.jira.impl.HubMonitor:job";
@@ -78,7 +86,10 @@ public class HubMonitor implements NotificationMonitor, LifecycleAware, Disposab
     public void reschedule(final long intervalIgnored) {
         logger.debug("HubMonitor reschedule() called.");
 
-        final long actualInterval = getIntervalMillisec();
+        // In adaptive mode the job only ticks; JiraTask decides on each tick whether a run is due
+        final boolean adaptiveScheduling = isAdaptiveScheduling();
+        final long actualInterval = adaptiveScheduling ? HubJiraConstants.ADAPTIVE_SCHEDULE_TICK_SECONDS * 1000L : getIntervalMillisec();
+        TaskRunSchedule.getInstance().reset();
 
         try {
             pluginScheduler.unscheduleJob(V1_JOB_NAME);
@@ -98,11 +109,16 @@ public class HubMonitor implements NotificationMonitor, LifecycleAware, Disposab
                     {
                         put(KEY_INSTANCE, HubMonitor.this);
                         put(KEY_SETTINGS, pluginSettingsFactory.createGlobalSettings());
+                        put(KEY_ADAPTIVE_SCHEDULING, adaptiveScheduling);
                     }
                 }, // data that needs to be passed to the job
                 new Date(), // the time the job is to start
                 actualInterval); // interval between repeats, in milliseconds
-        logger.info(String.format("Hub Notification check task scheduled to run every %dms", actualInterval));
+        if (adaptiveScheduling) {
+            logger.info(String.format("Hub Notification check task scheduled to check every %dms whether a run is due (adaptive scheduling)", actualInterval));
+        } else {
+            logger.info(String.format("Hub Notification check task scheduled to run every %dms", actualInterval));
+        }
     }
 
     public String getName() {
@@ -114,6 +130,14 @@ public class HubMonitor implements NotificationMonitor, LifecycleAware, Disposab
         return "hubMonitor";
     }
 
+    private boolean isAdaptiveScheduling() {
+        final PluginSettings settings = pluginSettingsFactory.createGlobalSettings();
+        if (settings == null) {
+            return false;
+        }
+        return "true".equalsIgnoreCase((String) settings.get(HubJiraConfigKeys.HUB_CONFIG_ADAPTIVE_SCHEDULING));
+    }
+
     private long getIntervalMillisec() {
         final PluginSettings settings = pluginSettingsFactory.createGlobalSettings();
         if (settings == null) {
@@ -150,5 +174,7 @@ public class HubMonitor implements NotificationMonitor, LifecycleAware, Disposab
     public void destroy() throws Exception {
         logger.info("destroy() called; Unscheduling " + JOB_NAME);
         pluginScheduler.unscheduleJob(JOB_NAME);
+        HubErrorJournal.shutdownSharedInstance();
+        HubCapabilityCache.getInstance().shutdown();
     }
 }
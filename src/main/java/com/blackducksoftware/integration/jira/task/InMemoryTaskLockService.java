@@ -0,0 +1,59 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TaskLockService for a single (non-clustered) JIRA instance, and a stand-in for the cluster lock service in tests:
+ * nodes sharing an instance see each other's locks. Locks are not reentrant.
+ */
+public class InMemoryTaskLockService implements TaskLockService {
+    private static final InMemoryTaskLockService INSTANCE = new InMemoryTaskLockService();
+
+    private final Set<String> heldLockNames = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    public static InMemoryTaskLockService getInstance() {
+        return INSTANCE;
+    }
+
+    public InMemoryTaskLockService() {
+    }
+
+    @Override
+    public boolean tryLock(final String lockName) {
+        return heldLockNames.add(lockName);
+    }
+
+    @Override
+    public void unlock(final String lockName) {
+        heldLockNames.remove(lockName);
+    }
+
+    public boolean isLocked(final String lockName) {
+        return heldLockNames.contains(lockName);
+    }
+}
@@ -25,8 +25,9 @@ package com.blackducksoftware.integration.jira.task;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.util.ArrayList;
+import java.text.SimpleDateFormat;
 import java.util.Collections;
+import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 
@@ -36,6 +37,8 @@ import org.joda.time.DateTime;
 import org.joda.time.Days;
 
 import com.atlassian.sal.api.pluginsettings.PluginSettings;
+import com.blackducksoftware.integration.hub.rest.RestConnection;
+import com.blackducksoftware.integration.jira.common.HubJiraConfigKeys;
 import com.blackducksoftware.integration.jira.common.HubJiraConstants;
 import com.blackducksoftware.integration.jira.common.HubJiraLogger;
 import com.blackducksoftware.integration.jira.config.TicketCreationError;
@@ -45,10 +48,41 @@ public class JiraSettingsService {
 
     private final PluginSettings settings;
 
+    private final HubErrorJournal errorJournal;
+
     public JiraSettingsService(final PluginSettings settings) {
-        this.settings = settings;
+        this(settings, new HubErrorJournal(settings));
     };
 
+    public JiraSettingsService(final PluginSettings settings, final HubErrorJournal errorJournal) {
+        this.settings = settings;
+        this.errorJournal = errorJournal;
+    }
+
+    /**
+     * A JiraSettingsService over the given settings (e.g. a shard's view of them) that reports to the same error
+     * journal as this one.
+     */
+    public JiraSettingsService withSettings(final PluginSettings otherSettings) {
+        if (otherSettings == settings) {
+            return this;
+        }
+        return new JiraSettingsService(otherSettings, errorJournal);
+    }
+
+    /**
+     * Record the end of the most recent notification window (or slice of a window) that has been fully processed.
+     */
+    public void setLastRunDate(final Date lastRunDate) {
+        final SimpleDateFormat dateFormatter = new SimpleDateFormat(RestConnection.JSON_DATE_FORMAT);
+        dateFormatter.setTimeZone(java.util.TimeZone.getTimeZone("Zulu"));
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE, dateFormatter.format(lastRunDate));
+    }
+
+    public NotificationSliceCheckpoint createSliceCheckpoint(final int flushInterval) {
+        return new NotificationSliceCheckpoint(settings, flushInterval);
+    }
+
     public void addHubError(final Throwable throwable, final String methodAttempt) {
         addHubError(throwable, null, null, null, null, null, methodAttempt);
     }
@@ -59,6 +93,10 @@ public class JiraSettingsService {
 
     public void addHubError(final Throwable throwable, final String hubProject, final String hubProjectVersion,
             final String jiraProject, final String jiraAdminUsername, final String jiraIssueCreatorUsername, final String methodAttempt) {
+        // The first line of a stack trace is the throwable's toString()
+        if (errorJournal.recordRepeat(getErrorKey(throwable.toString(), methodAttempt))) {
+            return;
+        }
         final StringWriter sw = new StringWriter();
         throwable.printStackTrace(new PrintWriter(sw));
         addHubError(sw.toString(), hubProject, hubProjectVersion, jiraProject, jiraAdminUsername, jiraIssueCreatorUsername, methodAttempt);
@@ -67,12 +105,11 @@ public class JiraSettingsService {
     public void addHubError(final String errorMessage, final String hubProject, final String hubProjectVersion,
             final String jiraProject, final String jiraAdminUsername, final String jiraIssueCreatorUsername, final String methodAttempt) {
 
-        logger.debug("Sending error to UI");
-        List<TicketCreationError> ticketErrors = expireOldErrors(settings);
-        if (ticketErrors == null) {
-            ticketErrors = new ArrayList<>();
+        if (errorJournal.recordRepeat(getErrorKey(errorMessage, methodAttempt))) {
+            logger.debug("Counted a repeat of a recently reported error");
+            return;
         }
-
+        logger.debug("Sending error to UI");
         final StringBuilder suffixBuilder = new StringBuilder();
         if (StringUtils.isNotBlank(hubProject)) {
             suffixBuilder.append("Hub Project : ");
@@ -107,19 +144,17 @@ public class JiraSettingsService {
         finalErrorBuilder.append("\n");
         finalErrorBuilder.append(suffixBuilder.toString());
 
-        final TicketCreationError error = new TicketCreationError();
-        error.setStackTrace(finalErrorBuilder.toString());
-        error.setTimeStamp(DateTime.now().toString(TicketCreationError.ERROR_TIME_FORMAT));
-
-        ticketErrors.add(error);
+        errorJournal.record(getErrorKey(errorMessage, methodAttempt), finalErrorBuilder.toString());
+    }
 
-        final int maxErrorSize = 20;
-        if (ticketErrors.size() > maxErrorSize) {
-            Collections.sort(ticketErrors);
-            ticketErrors.subList(maxErrorSize, ticketErrors.size()).clear();
-        }
-        logger.debug("Saving " + ticketErrors.size() + " error messages to settings");
-        settings.put(HubJiraConstants.HUB_JIRA_ERROR, TicketCreationError.toJson(ticketErrors));
+    /**
+     * Errors are grouped by the method that reported them and the first line of the message.
+     */
+    private String getErrorKey(final String errorMessage, final String methodAttempt) {
+        final String trimmedMessage = errorMessage.trim();
+        final int endOfFirstLine = trimmedMessage.indexOf('\n');
+        final String firstLine = endOfFirstLine < 0 ? trimmedMessage : trimmedMessage.substring(0, endOfFirstLine).trim();
+        return methodAttempt + "|" + firstLine;
     }
 
     public static List<TicketCreationError> expireOldErrors(final PluginSettings pluginSettings) {
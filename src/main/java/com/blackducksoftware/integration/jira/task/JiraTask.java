@@ -23,6 +23,9 @@
  */
 package com.blackducksoftware.integration.jira.task;
 
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -35,9 +38,12 @@ import org.apache.log4j.Logger;
 
 import com.atlassian.sal.api.pluginsettings.PluginSettings;
 import com.atlassian.sal.api.scheduling.PluginJob;
+import com.blackducksoftware.integration.hub.rest.RestConnection;
+import com.blackducksoftware.integration.jira.common.HubJiraConfigKeys;
 import com.blackducksoftware.integration.jira.common.HubJiraConstants;
 import com.blackducksoftware.integration.jira.common.HubJiraLogger;
 import com.blackducksoftware.integration.jira.common.PluginVersion;
+import com.blackducksoftware.integration.jira.task.TaskRunSchedule.RunOutcome;
 import com.blackducksoftware.integration.jira.task.issue.JiraServices;
 
 /**
@@ -55,11 +61,8 @@ public class JiraTask implements PluginJob {
 
     @Override
     public void execute(final Map<String, Object> jobDataMap) {
-        logger.info("Running the Hub JIRA task.");
-        logger.info("hub-jira plugin version: " + PluginVersion.getVersion());
         final PluginSettings settings = (PluginSettings) jobDataMap.get(HubMonitor.KEY_SETTINGS);
         final PluginConfigurationDetails configDetails = new PluginConfigurationDetails(settings);
-        final JiraSettingsService jiraSettingsService = new JiraSettingsService(settings);
 
         final int taskIntervalMinutes = configDetails.getIntervalMinutes();
         logger.debug("Task interval (minutes): " + taskIntervalMinutes);
@@ -67,12 +70,48 @@ public class JiraTask implements PluginJob {
             logger.info("hub-jira periodic task has not been configured, or has a run interval < 1 minute");
             return;
         }
+        final long taskIntervalMillis = taskIntervalMinutes * 60L * 1000L;
         final int taskTimeoutMinutes = HubJiraConstants.PERIODIC_TASK_TIMEOUT_AS_MULTIPLE_OF_INTERVAL * taskIntervalMinutes;
+        final boolean adaptiveScheduling = isAdaptiveScheduling(jobDataMap, configDetails);
 
+        final TaskRunSchedule runSchedule = TaskRunSchedule.getInstance();
+        if (!runSchedule.tryStartRun(System.currentTimeMillis(), adaptiveScheduling)) {
+            if (runSchedule.isRunning()) {
+                logger.info("The hub-jira periodic task started at " + new Date(runSchedule.getRunStartMillis()) + " is still running; skipping this run");
+            } else {
+                logger.debug("The next hub-jira periodic task run is not due until " + new Date(runSchedule.getNextRunMillis()));
+            }
+            return;
+        }
+        final String previousLastRunDateString = configDetails.getLastRunDateString();
+        final HubErrorJournal errorJournal;
+        final JiraTaskTimed timedTask;
+        try {
+            errorJournal = HubErrorJournal.getSharedInstance(settings);
+            final JiraSettingsService jiraSettingsService = new JiraSettingsService(settings, errorJournal);
+            final JiraServices jiraServices = new JiraServices();
+            final ClusterRunCoordinator clusterRunCoordinator = ClusterRunCoordinator.create(jiraServices, configDetails.getClusterShardCount());
+            timedTask = new JiraTaskTimed(settings, jiraSettingsService, jiraServices, configDetails, clusterRunCoordinator);
+        } catch (final Exception e) {
+            logger.error("Unable to start the hub-jira periodic task: " + e.getMessage(), e);
+            runSchedule.finishRun(System.currentTimeMillis(), adaptiveScheduling, RunOutcome.NORMAL, taskIntervalMillis);
+            return;
+        }
+        logger.info("Running the Hub JIRA task.");
+        logger.info("hub-jira plugin version: " + PluginVersion.getVersion());
         logger.debug("Task timeout (minutes): " + taskTimeoutMinutes);
 
+        // The run is released when the timed task itself finishes (not when we stop waiting for it), so a run that
+        // outlives its timeout still prevents the next one from starting
         final ExecutorService executor = Executors.newSingleThreadExecutor();
-        final Future<String> future = executor.submit(new JiraTaskTimed(settings, jiraSettingsService, new JiraServices(), configDetails));
+        final Future<String> future = executor.submit(() -> {
+            try {
+                return timedTask.call();
+            } finally {
+                finishRun(settings, runSchedule, adaptiveScheduling, previousLastRunDateString, timedTask, taskIntervalMillis);
+            }
+        });
+        executor.shutdown();
         String result;
         try {
             result = future.get(taskTimeoutMinutes, TimeUnit.MINUTES);
@@ -88,7 +127,62 @@ public class JiraTask implements PluginJob {
                 future.cancel(true);
             }
         }
+        errorJournal.flush();
+        logger.info(errorJournal.getStatsDescription());
         logger.info("hub-jira periodic task has completed");
     }
 
+    private void finishRun(final PluginSettings settings, final TaskRunSchedule runSchedule, final boolean adaptiveScheduling, final String previousLastRunDateString,
+            final JiraTaskTimed timedTask, final long taskIntervalMillis) {
+        RunOutcome outcome = RunOutcome.NORMAL;
+        try {
+            outcome = getRunOutcome((String) settings.get(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE), previousLastRunDateString, timedTask.getNotificationCount(),
+                    System.currentTimeMillis(), taskIntervalMillis);
+        } catch (final Exception e) {
+            logger.warn("Unable to determine the outcome of the hub-jira periodic task run: " + e.getMessage());
+        }
+        final long runStartMillis = runSchedule.getRunStartMillis();
+        final long nowMillis = System.currentTimeMillis();
+        final long nextRunMillis = runSchedule.finishRun(nowMillis, adaptiveScheduling, outcome, taskIntervalMillis);
+        logger.info("hub-jira periodic task run outcome: " + outcome + "; took " + (nowMillis - runStartMillis) + "ms; next run at " + new Date(nextRunMillis));
+        try {
+            TaskRunSchedule.save(settings, nextRunMillis, nowMillis - runStartMillis);
+        } catch (final Exception e) {
+            logger.warn("Unable to save the hub-jira periodic task schedule: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The job runs in the scheduling mode HubMonitor scheduled it with, so that a change to the adaptive scheduling
+     * setting cannot leave a job that ticks every few seconds running in fixed mode. The setting itself only takes
+     * effect when HubMonitor reschedules the job (when the interval is saved, or when the plugin restarts).
+     */
+    private boolean isAdaptiveScheduling(final Map<String, Object> jobDataMap, final PluginConfigurationDetails configDetails) {
+        final Object scheduledAdaptive = jobDataMap.get(HubMonitor.KEY_ADAPTIVE_SCHEDULING);
+        if (scheduledAdaptive instanceof Boolean) {
+            return (Boolean) scheduledAdaptive;
+        }
+        return configDetails.isAdaptiveScheduling();
+    }
+
+    /**
+     * A run that moved the last run date forward but still left it more than an interval behind has a backlog; a run
+     * that retrieved no notifications at all was idle.
+     */
+    /* package */ static RunOutcome getRunOutcome(final String lastRunDateString, final String previousLastRunDateString, final int notificationCount,
+            final long nowMillis, final long taskIntervalMillis) throws ParseException {
+        if ((lastRunDateString != null) && !lastRunDateString.equals(previousLastRunDateString)) {
+            final SimpleDateFormat dateFormatter = new SimpleDateFormat(RestConnection.JSON_DATE_FORMAT);
+            dateFormatter.setTimeZone(java.util.TimeZone.getTimeZone("Zulu"));
+            final Date lastRunDate = dateFormatter.parse(lastRunDateString);
+            if ((nowMillis - lastRunDate.getTime()) > taskIntervalMillis) {
+                return RunOutcome.BACKLOG;
+            }
+        }
+        if (notificationCount == 0) {
+            return RunOutcome.IDLE;
+        }
+        return RunOutcome.NORMAL;
+    }
+
 }
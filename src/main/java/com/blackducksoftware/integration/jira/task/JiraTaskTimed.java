@@ -23,14 +23,21 @@
  */
 package com.blackducksoftware.integration.jira.task;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.log4j.Logger;
 import org.joda.time.DateTime;
 import org.joda.time.Period;
 
+import com.atlassian.jira.issue.fields.CustomField;
 import com.atlassian.jira.issue.fields.layout.field.EditableFieldLayout;
 import com.atlassian.jira.issue.fields.layout.field.FieldLayoutScheme;
 import com.atlassian.jira.issue.fields.screen.FieldScreenScheme;
@@ -41,19 +48,24 @@ import com.atlassian.jira.user.util.UserManager;
 import com.atlassian.jira.workflow.JiraWorkflow;
 import com.atlassian.sal.api.pluginsettings.PluginSettings;
 import com.blackducksoftware.integration.jira.common.HubJiraConfigKeys;
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
 import com.blackducksoftware.integration.jira.common.HubJiraLogger;
 import com.blackducksoftware.integration.jira.common.HubProjectMapping;
 import com.blackducksoftware.integration.jira.common.JiraContext;
+import com.blackducksoftware.integration.jira.common.PluginField;
 import com.blackducksoftware.integration.jira.common.TicketInfoFromSetup;
 import com.blackducksoftware.integration.jira.common.exception.ConfigurationException;
 import com.blackducksoftware.integration.jira.common.exception.JiraException;
 import com.blackducksoftware.integration.jira.common.jiraversion.JiraVersionCheck;
 import com.blackducksoftware.integration.jira.config.HubJiraConfigSerializable;
+import com.blackducksoftware.integration.jira.task.issue.HubCustomFieldCache;
 import com.blackducksoftware.integration.jira.task.issue.JiraServices;
+import com.blackducksoftware.integration.jira.task.setup.ConfiguredProjectsRecord;
 import com.blackducksoftware.integration.jira.task.setup.HubFieldConfigurationSetup;
 import com.blackducksoftware.integration.jira.task.setup.HubFieldScreenSchemeSetup;
 import com.blackducksoftware.integration.jira.task.setup.HubIssueTypeSetup;
 import com.blackducksoftware.integration.jira.task.setup.HubWorkflowSetup;
+import com.blackducksoftware.integration.jira.task.setup.JiraSetupState;
 
 public class JiraTaskTimed implements Callable<String> {
     private final HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(this.getClass().getName()));
@@ -66,12 +78,22 @@ public class JiraTaskTimed implements Callable<String> {
 
     private final PluginConfigurationDetails configDetails;
 
+    private final ClusterRunCoordinator clusterRunCoordinator;
+
+    private volatile int notificationCount = -1;
+
     public JiraTaskTimed(final PluginSettings settings, final JiraSettingsService jiraSettingsService, final JiraServices jiraServices,
             final PluginConfigurationDetails configDetails) {
+        this(settings, jiraSettingsService, jiraServices, configDetails, new ClusterRunCoordinator(new InMemoryTaskLockService(), null, 1));
+    }
+
+    public JiraTaskTimed(final PluginSettings settings, final JiraSettingsService jiraSettingsService, final JiraServices jiraServices,
+            final PluginConfigurationDetails configDetails, final ClusterRunCoordinator clusterRunCoordinator) {
         this.settings = settings;
         this.jiraSettingsService = jiraSettingsService;
         this.configDetails = configDetails;
         this.jiraServices = jiraServices;
+        this.clusterRunCoordinator = clusterRunCoordinator;
     }
 
     @Override
@@ -83,29 +105,124 @@ public class JiraTaskTimed implements Callable<String> {
             logger.error("No (valid) user in configuration data; The plugin has likely not yet been configured; The task cannot run (yet)");
             return "error";
         }
+        if (!clusterRunCoordinator.tryLockRun()) {
+            logger.info("The Hub JIRA task is running on another JIRA node; skipping this run");
+            return "skipped";
+        }
+        final TicketInfoFromSetup ticketInfoFromSetup;
+        try {
+            ticketInfoFromSetup = runJiraSetup(jiraContext);
+            if (ticketInfoFromSetup == null) {
+                return "error";
+            }
+            if (!clusterRunCoordinator.isSharded()) {
+                processNotifications(jiraContext, ticketInfoFromSetup, ProjectShard.ALL);
+                logger.info("hub-jira periodic timed task has completed");
+                return "success";
+            }
+        } finally {
+            clusterRunCoordinator.unlockRun();
+        }
+
+        // Sharded: other nodes may now work on the shards this node is not working on, or run setup while no shard is
+        // being processed
+        for (final ProjectShard shard : clusterRunCoordinator.getShards()) {
+            if (Thread.currentThread().isInterrupted()) {
+                logger.warn("Interrupted; remaining shards will be processed next time");
+                break;
+            }
+            if (!clusterRunCoordinator.tryLock(shard)) {
+                logger.debug("Hub JIRA " + shard + " is being processed by another JIRA node; skipping it");
+                continue;
+            }
+            try {
+                logger.info("Processing Hub JIRA " + shard);
+                processNotifications(jiraContext, ticketInfoFromSetup, shard);
+            } finally {
+                clusterRunCoordinator.unlock(shard);
+            }
+        }
+        if (clusterRunCoordinator.tryLockRun()) {
+            try {
+                clusterRunCoordinator.updateLastRunDate(settings);
+            } finally {
+                clusterRunCoordinator.unlockRun();
+            }
+        } else {
+            logger.debug("Another JIRA node holds the Hub JIRA run lock; the last run date will be updated on a later run");
+        }
+        logger.info("hub-jira periodic timed task has completed");
+        return "success";
+    }
+
+    /**
+     * Runs JIRA setup, or restores its results if nothing has changed since the last setup. Returns the setup info
+     * needed to generate tickets, or null if setup failed.
+     */
+    /* package */ TicketInfoFromSetup runJiraSetup(final JiraContext jiraContext) {
         final DateTime beforeSetup = new DateTime();
         final TicketInfoFromSetup ticketInfoFromSetup = new TicketInfoFromSetup();
         try {
-            jiraSetup(jiraServices, jiraSettingsService, configDetails.getProjectMappingJson(), ticketInfoFromSetup, jiraContext);
+            final String pluginVersion = jiraServices.getPluginVersion();
+            final JiraSetupState previousSetupState = JiraSetupState.load(settings);
+            final Map<PluginField, CustomField> restoredCustomFields = previousSetupState == null ? null
+                    : previousSetupState.restore(jiraServices, pluginVersion, configDetails.getProjectMappingJson());
+            if (restoredCustomFields != null) {
+                logger.info("JIRA configuration is unchanged since the last setup; skipping JIRA setup");
+                ticketInfoFromSetup.setCustomFields(restoredCustomFields);
+                HubCustomFieldCache.getInstance().update(restoredCustomFields);
+            } else {
+                HubCustomFieldCache.getInstance().invalidate();
+                final JiraSetupState setupState = jiraSetup(jiraServices, jiraSettingsService, configDetails.getProjectMappingJson(), ticketInfoFromSetup,
+                        jiraContext);
+                HubCustomFieldCache.getInstance().update(ticketInfoFromSetup.getCustomFields());
+                if (setupState != null) {
+                    setupState.setPluginVersion(pluginVersion);
+                    setupState.save(settings);
+                } else {
+                    JiraSetupState.clear(settings);
+                }
+            }
         } catch (final Exception e) {
             logger.error("Error during JIRA setup: " + e.getMessage() + "; The task cannot run", e);
-            return "error";
+            return null;
         }
         final DateTime afterSetup = new DateTime();
         final Period diff = new Period(beforeSetup, afterSetup);
         logger.info("Hub JIRA setup took " + diff.getMinutes() + "m," + diff.getSeconds() + "s," + diff.getMillis()
                 + "ms.");
-        final HubJiraTask processor = new HubJiraTask(configDetails, jiraContext, jiraSettingsService,
-                ticketInfoFromSetup);
+        return ticketInfoFromSetup;
+    }
+
+    /**
+     * Processes the notifications for the given shard. Call this while holding the run lock (or the shard's lock):
+     * the configuration is read here, so that the last run date is the one the previous holder of the lock wrote.
+     */
+    /* package */ void processNotifications(final JiraContext jiraContext, final TicketInfoFromSetup ticketInfoFromSetup, final ProjectShard shard) {
+        final PluginSettings shardSettings = shard.getSettings(settings);
+        final PluginConfigurationDetails shardConfigDetails = new PluginConfigurationDetails(shardSettings);
+        final HubJiraTask processor = new HubJiraTask(shardConfigDetails, jiraContext, jiraSettingsService.withSettings(shardSettings),
+                ticketInfoFromSetup, shard);
         final String runDateString = processor.execute();
+        if (processor.getNotificationCount() >= 0) {
+            notificationCount = Math.max(notificationCount, 0) + processor.getNotificationCount();
+        }
         if (runDateString != null) {
-            settings.put(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE, runDateString);
+            shardSettings.put(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE, runDateString);
         }
-        logger.info("hub-jira periodic timed task has completed");
-        return "success";
     }
 
-    public void jiraSetup(final JiraServices jiraServices, final JiraSettingsService jiraSettingsService,
+    /**
+     * The number of Hub notifications retrieved by call(), or -1 if it did not get as far as retrieving them.
+     */
+    public int getNotificationCount() {
+        return notificationCount;
+    }
+
+    /**
+     * Runs the full JIRA setup pass. Returns the resulting setup state, or null if setup could not be completed.
+     */
+    public JiraSetupState jiraSetup(final JiraServices jiraServices, final JiraSettingsService jiraSettingsService,
             final String projectMappingJson, final TicketInfoFromSetup ticketInfoFromSetup,
             final JiraContext jiraContext)
             throws ConfigurationException, JiraException {
@@ -119,12 +236,12 @@ public class JiraTaskTimed implements Callable<String> {
             issueTypeSetup = getHubIssueTypeSetup(jiraSettingsService, jiraServices, jiraContext.getJiraAdminUser().getName());
         } catch (final ConfigurationException e) {
             logger.error("Unable to create IssueTypes; Perhaps configuration is not ready; Will try again next time");
-            return;
+            return null;
         }
         final List<IssueType> issueTypes = issueTypeSetup.addIssueTypesToJira();
         if (issueTypes == null || issueTypes.isEmpty()) {
             logger.error("No Black Duck Issue Types found or created");
-            return;
+            return null;
         }
         logger.debug("Number of Black Duck issue types found or created: " + issueTypes.size());
 
@@ -152,46 +269,137 @@ public class JiraTaskTimed implements Callable<String> {
         logger.debug("Black Duck workflow Name: " + workflow.getName());
 
         // Associate these config objects with mapped projects
-        adjustProjectsConfig(jiraServices, projectMappingJson, issueTypeSetup, issueTypes, screenSchemesByIssueType, fieldConfiguration,
+        final List<Long> mappedProjectIds = adjustProjectsConfig(jiraServices, projectMappingJson, issueTypeSetup, issueTypes, screenSchemesByIssueType, fieldConfiguration,
                 fieldConfigurationScheme, workflowSetup, workflow);
+        if (mappedProjectIds == null) {
+            return null;
+        }
+
+        return new JiraSetupState(projectMappingJson, issueTypes, ticketInfoFromSetup.getCustomFields(), screenSchemesByIssueType.values(), workflow,
+                mappedProjectIds);
     }
 
     public JiraVersionCheck getJiraVersionCheck() throws ConfigurationException {
         return new JiraVersionCheck();
     }
 
-    private void adjustProjectsConfig(final JiraServices jiraServices, final String projectMappingJson, final HubIssueTypeSetup issueTypeSetup,
+    /**
+     * Associates the Black Duck configuration objects with the mapped projects that have not already been configured
+     * against them. Returns the IDs of the mapped projects, or null if any project could not be configured.
+     */
+    private List<Long> adjustProjectsConfig(final JiraServices jiraServices, final String projectMappingJson, final HubIssueTypeSetup issueTypeSetup,
             final List<IssueType> issueTypes, final Map<IssueType, FieldScreenScheme> screenSchemesByIssueType, final EditableFieldLayout fieldConfiguration,
             final FieldLayoutScheme fieldConfigurationScheme, final HubWorkflowSetup workflowSetup, final JiraWorkflow workflow) {
-        if (projectMappingJson != null && issueTypes != null && !issueTypes.isEmpty()) {
-            final HubJiraConfigSerializable config = new HubJiraConfigSerializable();
-            // Converts Json to list of mappings
-            config.setHubProjectMappingsJson(projectMappingJson);
-            if (!config.getHubProjectMappings().isEmpty()) {
-                for (final HubProjectMapping projectMapping : config.getHubProjectMappings()) {
-                    if (projectMapping.getJiraProject() != null
-                            && projectMapping.getJiraProject().getProjectId() != null) {
-                        // Get jira Project object by Id
-                        // from the JiraProject in the mapping
-                        final Project jiraProject = jiraServices.getJiraProjectManager()
-                                .getProjectObj(projectMapping.getJiraProject().getProjectId());
-                        if (jiraProject != null) {
-                            // add issuetypes to this project
-                            issueTypeSetup.addIssueTypesToProjectIssueTypeScheme(jiraProject, issueTypes);
-                            issueTypeSetup.addIssueTypesToProjectIssueTypeScreenSchemes(jiraProject,
-                                    screenSchemesByIssueType);
-                            final boolean wasAlreadySetUp = issueTypeSetup.associateIssueTypesWithFieldConfigurationsOnProjectFieldConfigurationScheme(
-                                    jiraProject, fieldConfigurationScheme, issueTypes, fieldConfiguration);
-                            if (wasAlreadySetUp) {
-                                logger.debug("It appears the project's WorkflowScheme has already been configured; leaving it unchanged");
-                            } else {
-                                workflowSetup.addWorkflowToProjectsWorkflowScheme(workflow, jiraProject, issueTypes);
-                            }
-                        }
+        final List<Long> mappedProjectIds = new ArrayList<>();
+        if (projectMappingJson == null || issueTypes == null || issueTypes.isEmpty()) {
+            return mappedProjectIds;
+        }
+        final HubJiraConfigSerializable config = new HubJiraConfigSerializable();
+        // Converts Json to list of mappings
+        config.setHubProjectMappingsJson(projectMappingJson);
+        final ConfiguredProjectsRecord configuredProjects = ConfiguredProjectsRecord.load(settings,
+                getSetupSignature(issueTypes, screenSchemesByIssueType, fieldConfiguration, fieldConfigurationScheme, workflow));
+        final List<Project> projectsToConfigure = new ArrayList<>();
+        for (final HubProjectMapping projectMapping : config.getHubProjectMappings()) {
+            if (projectMapping.getJiraProject() != null
+                    && projectMapping.getJiraProject().getProjectId() != null) {
+                // Get jira Project object by Id
+                // from the JiraProject in the mapping
+                final Project jiraProject = jiraServices.getJiraProjectManager()
+                        .getProjectObj(projectMapping.getJiraProject().getProjectId());
+                if (jiraProject != null && !mappedProjectIds.contains(jiraProject.getId())) {
+                    mappedProjectIds.add(jiraProject.getId());
+                    if (!configuredProjects.isConfigured(jiraProject.getId())) {
+                        projectsToConfigure.add(jiraProject);
                     }
                 }
             }
         }
+        configuredProjects.retainOnly(mappedProjectIds);
+        logger.debug(String.format("%d of %d mapped JIRA projects need to be configured", projectsToConfigure.size(), mappedProjectIds.size()));
+        final boolean allConfigured = configureProjects(projectsToConfigure, configuredProjects, issueTypeSetup, issueTypes, screenSchemesByIssueType,
+                fieldConfiguration, fieldConfigurationScheme, workflowSetup, workflow);
+        configuredProjects.save(settings);
+        return allConfigured ? mappedProjectIds : null;
+    }
+
+    private boolean configureProjects(final List<Project> projects, final ConfiguredProjectsRecord configuredProjects,
+            final HubIssueTypeSetup issueTypeSetup, final List<IssueType> issueTypes, final Map<IssueType, FieldScreenScheme> screenSchemesByIssueType,
+            final EditableFieldLayout fieldConfiguration, final FieldLayoutScheme fieldConfigurationScheme, final HubWorkflowSetup workflowSetup,
+            final JiraWorkflow workflow) {
+        if (projects.isEmpty()) {
+            return true;
+        }
+        final int threadCount = Math.min(HubJiraConstants.PROJECT_SETUP_DEFAULT_THREADS, projects.size());
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        boolean allConfigured = true;
+        try {
+            final Map<Project, Future<Boolean>> futuresByProject = new LinkedHashMap<>();
+            for (final Project jiraProject : projects) {
+                futuresByProject.put(jiraProject, executor.submit(() -> configureProject(jiraProject, configuredProjects, issueTypeSetup, issueTypes,
+                        screenSchemesByIssueType, fieldConfiguration, fieldConfigurationScheme, workflowSetup, workflow)));
+            }
+            for (final Map.Entry<Project, Future<Boolean>> futureEntry : futuresByProject.entrySet()) {
+                try {
+                    if (!futureEntry.getValue().get()) {
+                        allConfigured = false;
+                    }
+                } catch (final ExecutionException e) {
+                    final String jiraProjectName = futureEntry.getKey().getName();
+                    logger.error("Error configuring JIRA project " + jiraProjectName + ": " + e.getCause().getMessage(), e.getCause());
+                    jiraSettingsService.addHubError(e.getCause(), null, null, jiraProjectName, null, null, "adjustProjectsConfig()");
+                    allConfigured = false;
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while configuring JIRA projects");
+            allConfigured = false;
+        } finally {
+            executor.shutdownNow();
+        }
+        return allConfigured;
+    }
+
+    private boolean configureProject(final Project jiraProject, final ConfiguredProjectsRecord configuredProjects, final HubIssueTypeSetup issueTypeSetup,
+            final List<IssueType> issueTypes, final Map<IssueType, FieldScreenScheme> screenSchemesByIssueType, final EditableFieldLayout fieldConfiguration,
+            final FieldLayoutScheme fieldConfigurationScheme, final HubWorkflowSetup workflowSetup, final JiraWorkflow workflow) {
+        // add issuetypes to this project
+        boolean configured = issueTypeSetup.addIssueTypesToProjectIssueTypeScheme(jiraProject, issueTypes);
+        issueTypeSetup.addIssueTypesToProjectIssueTypeScreenSchemes(jiraProject,
+                screenSchemesByIssueType);
+        final boolean wasAlreadySetUp = issueTypeSetup.associateIssueTypesWithFieldConfigurationsOnProjectFieldConfigurationScheme(
+                jiraProject, fieldConfigurationScheme, issueTypes, fieldConfiguration);
+        if (wasAlreadySetUp) {
+            logger.debug("It appears the project's WorkflowScheme has already been configured; leaving it unchanged");
+        } else {
+            configured = workflowSetup.addWorkflowToProjectsWorkflowScheme(workflow, jiraProject, issueTypes) && configured;
+        }
+        if (!configured) {
+            // The failure has been reported; leave the project unmarked so that the next run tries again
+            return false;
+        }
+        configuredProjects.markConfigured(jiraProject.getId());
+        return true;
+    }
+
+    private String getSetupSignature(final List<IssueType> issueTypes, final Map<IssueType, FieldScreenScheme> screenSchemesByIssueType,
+            final EditableFieldLayout fieldConfiguration, final FieldLayoutScheme fieldConfigurationScheme, final JiraWorkflow workflow) {
+        final StringBuilder signature = new StringBuilder("issueTypes=");
+        for (final IssueType issueType : issueTypes) {
+            signature.append(issueType.getId()).append(',');
+        }
+        signature.append("|screenSchemes=");
+        if (screenSchemesByIssueType != null) {
+            for (final IssueType issueType : issueTypes) {
+                final FieldScreenScheme screenScheme = screenSchemesByIssueType.get(issueType);
+                signature.append(screenScheme == null ? null : screenScheme.getId()).append(',');
+            }
+        }
+        signature.append("|fieldConfiguration=").append(fieldConfiguration == null ? null : fieldConfiguration.getId());
+        signature.append("|fieldConfigurationScheme=").append(fieldConfigurationScheme == null ? null : fieldConfigurationScheme.getId());
+        signature.append("|workflow=").append(workflow == null ? null : workflow.getName());
+        return signature.toString();
     }
 
     private HubIssueTypeSetup getHubIssueTypeSetup(final JiraSettingsService jiraSettingsService,
@@ -215,7 +423,7 @@ public class JiraTaskTimed implements Callable<String> {
         return new HubWorkflowSetup(jiraSettingsService, jiraServices);
     }
 
-    private JiraContext initJiraContext(final String jiraAdminUsername, String jiraIssueCreatorUsername) {
+    /* package */ JiraContext initJiraContext(final String jiraAdminUsername, String jiraIssueCreatorUsername) {
         logger.debug(String.format("Checking JIRA users: Admin: %s; Issue creator: %s", jiraAdminUsername, jiraIssueCreatorUsername));
         if (jiraIssueCreatorUsername == null) {
             logger.warn(String.format(
@@ -0,0 +1,215 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import com.blackducksoftware.integration.hub.notification.processor.NotificationCategoryEnum;
+import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
+import com.blackducksoftware.integration.jira.common.HubJiraLogger;
+import com.blackducksoftware.integration.jira.task.conversion.output.HubEventAction;
+import com.blackducksoftware.integration.jira.task.conversion.output.eventdata.EventData;
+
+/**
+ * Reduces the events of a slice to their net effect on each issue before they are applied, so that the number of JIRA
+ * writes scales with the number of issues touched rather than the number of notifications.
+ *
+ * Events are grouped by event key (one key per issue) and folded in order:
+ * <ul>
+ * <li>An OPEN or RESOLVE event supersedes all the earlier events for its key.</li>
+ * <li>An ADD_COMMENT event supersedes an earlier RESOLVE (adding a comment re-opens the issue).</li>
+ * <li>Consecutive ADD_COMMENT / ADD_COMMENT_IF_EXISTS events are merged into one event carrying all of their comments;
+ * the merged event is an ADD_COMMENT if any of them was.</li>
+ * </ul>
+ * Each reduced event remembers the events it stands for, so the checkpoint can record all of them as applied.
+ */
+public class NotificationEventReducer {
+    private final HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(this.getClass().getName()));
+
+    private final Map<NotificationEvent, List<NotificationEvent>> sourceEventsByReducedEvent = new IdentityHashMap<>();
+
+    /**
+     * Reduce the given events. Events for the same key stay in their original order; keys are ordered by first
+     * appearance.
+     */
+    public List<NotificationEvent> reduce(final List<NotificationEvent> events) {
+        sourceEventsByReducedEvent.clear();
+        final Map<String, List<ReducedEvent>> reducedEventsByKey = new LinkedHashMap<>();
+        for (final NotificationEvent event : events) {
+            final List<ReducedEvent> reducedEvents = reducedEventsByKey.computeIfAbsent(event.getEventKey(), key -> new ArrayList<>());
+            fold(reducedEvents, event);
+        }
+
+        final List<NotificationEvent> result = new ArrayList<>(reducedEventsByKey.size());
+        for (final List<ReducedEvent> reducedEvents : reducedEventsByKey.values()) {
+            for (final ReducedEvent reducedEvent : reducedEvents) {
+                final NotificationEvent event = reducedEvent.toNotificationEvent();
+                sourceEventsByReducedEvent.put(event, reducedEvent.sourceEvents);
+                result.add(event);
+            }
+        }
+        if (result.size() < events.size()) {
+            logger.info(String.format("Reduced %d events to %d", events.size(), result.size()));
+        }
+        return result;
+    }
+
+    /**
+     * The original events the given reduced event stands for, in their original order.
+     */
+    public List<NotificationEvent> getSourceEvents(final NotificationEvent reducedEvent) {
+        final List<NotificationEvent> sourceEvents = sourceEventsByReducedEvent.get(reducedEvent);
+        if (sourceEvents == null) {
+            return Collections.singletonList(reducedEvent);
+        }
+        return sourceEvents;
+    }
+
+    private void fold(final List<ReducedEvent> reducedEvents, final NotificationEvent event) {
+        final EventData eventData = getEventData(event);
+        final ReducedEvent last = reducedEvents.isEmpty() ? null : reducedEvents.get(reducedEvents.size() - 1);
+        if ((eventData == null) || (last == null)) {
+            reducedEvents.add(new ReducedEvent(event, eventData));
+            return;
+        }
+        switch (eventData.getAction()) {
+        case OPEN:
+        case RESOLVE:
+            supersede(reducedEvents, event, eventData);
+            break;
+        case ADD_COMMENT:
+        case ADD_COMMENT_IF_EXISTS:
+            if (last.isComment()) {
+                last.mergeComment(event, eventData);
+            } else if ((eventData.getAction() == HubEventAction.ADD_COMMENT) && (last.getAction() == HubEventAction.RESOLVE)) {
+                supersede(reducedEvents, event, eventData);
+            } else {
+                reducedEvents.add(new ReducedEvent(event, eventData));
+            }
+            break;
+        }
+    }
+
+    private void supersede(final List<ReducedEvent> reducedEvents, final NotificationEvent event, final EventData eventData) {
+        final List<NotificationEvent> sourceEvents = new ArrayList<>();
+        for (final ReducedEvent reducedEvent : reducedEvents) {
+            sourceEvents.addAll(reducedEvent.sourceEvents);
+        }
+        reducedEvents.clear();
+        final ReducedEvent supersedingEvent = new ReducedEvent(event, eventData);
+        supersedingEvent.sourceEvents.addAll(0, sourceEvents);
+        reducedEvents.add(supersedingEvent);
+    }
+
+    private static EventData getEventData(final NotificationEvent event) {
+        final Object eventData = event.getDataSet().get(HubJiraConstants.EVENT_DATA_SET_KEY_JIRA_EVENT_DATA);
+        if (eventData instanceof EventData) {
+            return (EventData) eventData;
+        }
+        return null;
+    }
+
+    private static class ReducedEvent {
+        private final List<NotificationEvent> sourceEvents = new ArrayList<>();
+
+        private NotificationEvent lastEvent;
+
+        private EventData lastEventData;
+
+        private HubEventAction mergedAction;
+
+        private StringBuilder mergedComment;
+
+        private ReducedEvent(final NotificationEvent event, final EventData eventData) {
+            sourceEvents.add(event);
+            lastEvent = event;
+            lastEventData = eventData;
+        }
+
+        private HubEventAction getAction() {
+            if (mergedAction != null) {
+                return mergedAction;
+            }
+            return (lastEventData == null) ? null : lastEventData.getAction();
+        }
+
+        private boolean isComment() {
+            final HubEventAction action = getAction();
+            return (action == HubEventAction.ADD_COMMENT) || (action == HubEventAction.ADD_COMMENT_IF_EXISTS);
+        }
+
+        private void mergeComment(final NotificationEvent event, final EventData eventData) {
+            if (mergedComment == null) {
+                mergedComment = new StringBuilder();
+                appendComment(getComment(lastEventData));
+            }
+            appendComment(getComment(eventData));
+            if ((getAction() == HubEventAction.ADD_COMMENT) || (eventData.getAction() == HubEventAction.ADD_COMMENT)) {
+                mergedAction = HubEventAction.ADD_COMMENT;
+            } else {
+                mergedAction = HubEventAction.ADD_COMMENT_IF_EXISTS;
+            }
+            sourceEvents.add(event);
+            lastEvent = event;
+            lastEventData = eventData;
+        }
+
+        private String getComment(final EventData eventData) {
+            if (eventData.getAction() == HubEventAction.ADD_COMMENT_IF_EXISTS) {
+                return eventData.getJiraIssueCommentInLieuOfStateChange();
+            }
+            return eventData.getJiraIssueComment();
+        }
+
+        private void appendComment(final String comment) {
+            if (comment == null) {
+                return;
+            }
+            if (mergedComment.length() > 0) {
+                mergedComment.append('\n');
+            }
+            mergedComment.append(comment);
+        }
+
+        private NotificationEvent toNotificationEvent() {
+            if (mergedComment == null) {
+                return lastEvent;
+            }
+            final EventData mergedEventData = lastEventData.copyWithComment(mergedAction, mergedComment.toString());
+            final Map<String, Object> dataSet = new HashMap<>(1);
+            dataSet.put(HubJiraConstants.EVENT_DATA_SET_KEY_JIRA_EVENT_DATA, mergedEventData);
+            return new NotificationEvent(lastEvent.getEventKey(), NotificationCategoryEnum.VULNERABILITY, dataSet);
+        }
+    }
+
+}
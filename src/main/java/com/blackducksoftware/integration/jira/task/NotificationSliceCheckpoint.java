@@ -0,0 +1,298 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.log4j.Logger;
+
+import com.atlassian.sal.api.pluginsettings.PluginSettings;
+import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
+import com.blackducksoftware.integration.hub.rest.RestConnection;
+import com.blackducksoftware.integration.jira.common.HubJiraConfigKeys;
+import com.blackducksoftware.integration.jira.common.HubJiraLogger;
+
+/**
+ * Durable record of how far the plugin has got through the notification slice it is currently applying.
+ *
+ * Progress is recorded against the slice's events in their original order: a cursor (every event before it has been
+ * applied) plus the positions of the few events beyond the cursor that were applied out of order (by parallel
+ * workers, or by bulk resolution). When a run is restarted on the same slice, the events that were already applied
+ * are skipped. The events are converted against live Hub data, so a restarted run can get a different list for the
+ * same slice; the checkpoint records a hash of the ordered event keys, and is discarded (and the whole slice applied
+ * again) if the list no longer matches it. Once a slice is complete, the last run date is advanced to the end of the slice and the checkpoint is
+ * cleared.
+ *
+ * Progress is written to PluginSettings every flushInterval events, so after a crash at most that many events are
+ * applied a second time.
+ */
+public class NotificationSliceCheckpoint {
+    private final HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(this.getClass().getName()));
+
+    private static final String POSITION_SEPARATOR = ",";
+
+    private final PluginSettings settings;
+
+    private final int flushInterval;
+
+    private final Map<NotificationEvent, Integer> positionByEvent = new IdentityHashMap<>();
+
+    private final BitSet appliedPositions = new BitSet();
+
+    private String sliceStartDateString;
+
+    private String sliceEndDateString;
+
+    private int sliceEventCount;
+
+    private String sliceEventKeysHash;
+
+    private int appliedEventCount;
+
+    private int unflushedEventCount;
+
+    public NotificationSliceCheckpoint(final PluginSettings settings, final int flushInterval) {
+        this.settings = settings;
+        this.flushInterval = Math.max(1, flushInterval);
+    }
+
+    /**
+     * The end date of the slice in progress, if it starts at the given date; null otherwise. The next run must reuse
+     * this end date for the slice, so that it gets the same events and can skip the ones already applied.
+     */
+    public synchronized Date getInProgressSliceEndDate(final Date sliceStartDate) {
+        if (!formatDate(sliceStartDate).equals(settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_START_DATE))) {
+            return null;
+        }
+        final String inProgressSliceEndDateString = (String) settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_END_DATE);
+        if (StringUtils.isBlank(inProgressSliceEndDateString)) {
+            return null;
+        }
+        try {
+            return createDateFormatter().parse(inProgressSliceEndDateString);
+        } catch (final ParseException e) {
+            logger.warn("Ignoring checkpoint with unparseable slice end date: " + inProgressSliceEndDateString);
+            return null;
+        }
+    }
+
+    /**
+     * Start (or resume) applying the events of the given slice.
+     *
+     * @return the events that have not yet been applied, in their original order
+     */
+    public synchronized List<NotificationEvent> startSlice(final Date sliceStartDate, final Date sliceEndDate, final List<NotificationEvent> events) {
+        sliceStartDateString = formatDate(sliceStartDate);
+        sliceEndDateString = formatDate(sliceEndDate);
+        positionByEvent.clear();
+        appliedPositions.clear();
+        unflushedEventCount = 0;
+        sliceEventKeysHash = getEventKeysHash(events);
+        if (sliceStartDateString.equals(settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_START_DATE))
+                && sliceEndDateString.equals(settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_END_DATE))
+                && isRecordedAgainst(events, sliceEventKeysHash)) {
+            final int cursor = NumberUtils.toInt((String) settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_APPLIED_CURSOR));
+            appliedPositions.set(0, Math.min(cursor, events.size()));
+            final String aheadOfCursor = (String) settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_APPLIED_AHEAD_OF_CURSOR);
+            for (final String position : StringUtils.split(StringUtils.defaultString(aheadOfCursor), POSITION_SEPARATOR)) {
+                final int appliedPosition = NumberUtils.toInt(position, -1);
+                if ((appliedPosition >= 0) && (appliedPosition < events.size())) {
+                    appliedPositions.set(appliedPosition);
+                }
+            }
+        }
+
+        final List<NotificationEvent> remainingEvents = new ArrayList<>(events.size());
+        for (int position = 0; position < events.size(); position++) {
+            final NotificationEvent event = events.get(position);
+            positionByEvent.put(event, position);
+            if (!appliedPositions.get(position)) {
+                remainingEvents.add(event);
+            }
+        }
+        sliceEventCount = events.size();
+        appliedEventCount = sliceEventCount - remainingEvents.size();
+        if (appliedEventCount > 0) {
+            logger.info(String.format("Resuming slice %s to %s; skipping %d event(s) that were already applied", sliceStartDateString, sliceEndDateString, appliedEventCount));
+        }
+        flush();
+        return remainingEvents;
+    }
+
+    public synchronized void eventApplied(final NotificationEvent event) {
+        final Integer position = positionByEvent.get(event);
+        if (position == null) {
+            logger.debug("Applied event is not part of the slice: " + event.getEventKey());
+        } else {
+            appliedPositions.set(position);
+        }
+        appliedEventCount++;
+        if (++unflushedEventCount >= flushInterval) {
+            flush();
+        }
+    }
+
+    public synchronized void flush() {
+        if (sliceStartDateString == null) {
+            return;
+        }
+        final int cursor = appliedPositions.nextClearBit(0);
+        final StringBuilder aheadOfCursor = new StringBuilder();
+        for (int position = appliedPositions.nextSetBit(cursor); position >= 0; position = appliedPositions.nextSetBit(position + 1)) {
+            if (aheadOfCursor.length() > 0) {
+                aheadOfCursor.append(POSITION_SEPARATOR);
+            }
+            aheadOfCursor.append(position);
+        }
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_START_DATE, sliceStartDateString);
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_END_DATE, sliceEndDateString);
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_EVENT_COUNT, String.valueOf(sliceEventCount));
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_APPLIED_COUNT, String.valueOf(appliedEventCount));
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_EVENT_KEYS_HASH, sliceEventKeysHash);
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_APPLIED_CURSOR, String.valueOf(cursor));
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_APPLIED_AHEAD_OF_CURSOR, aheadOfCursor.toString());
+        unflushedEventCount = 0;
+    }
+
+    public synchronized int getSliceEventCount() {
+        return sliceEventCount;
+    }
+
+    public synchronized int getAppliedEventCount() {
+        return appliedEventCount;
+    }
+
+    /**
+     * The slice is complete: the caller has already advanced the last run date past it, so the checkpoint is no longer
+     * needed.
+     */
+    public synchronized void completeSlice() {
+        sliceStartDateString = null;
+        sliceEndDateString = null;
+        positionByEvent.clear();
+        appliedPositions.clear();
+        sliceEventCount = 0;
+        sliceEventKeysHash = null;
+        appliedEventCount = 0;
+        unflushedEventCount = 0;
+        clear(settings);
+    }
+
+    public static void clear(final PluginSettings settings) {
+        settings.remove(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_START_DATE);
+        settings.remove(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_END_DATE);
+        settings.remove(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_EVENT_COUNT);
+        settings.remove(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_APPLIED_COUNT);
+        settings.remove(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_EVENT_KEYS_HASH);
+        settings.remove(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_APPLIED_CURSOR);
+        settings.remove(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_APPLIED_AHEAD_OF_CURSOR);
+    }
+
+    /**
+     * Progress through the in-progress slice, as stored in PluginSettings; null if no slice is in progress.
+     */
+    public static String getProgressDescription(final PluginSettings settings) {
+        final String sliceStartDate = (String) settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_START_DATE);
+        final String sliceEndDate = (String) settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_END_DATE);
+        if (StringUtils.isBlank(sliceStartDate) || StringUtils.isBlank(sliceEndDate)) {
+            return null;
+        }
+        final int sliceEventCount = NumberUtils.toInt((String) settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_EVENT_COUNT));
+        final int appliedEventCount = NumberUtils.toInt((String) settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_APPLIED_COUNT));
+        return String.format("%d of %d events applied for notifications from %s to %s", appliedEventCount, sliceEventCount, sliceStartDate, sliceEndDate);
+    }
+
+    /**
+     * Progress through the in-progress slice of each shard; null if no shard has a slice in progress.
+     */
+    public static String getProgressDescription(final PluginSettings settings, final int shardCount) {
+        if (shardCount <= 1) {
+            return getProgressDescription(settings);
+        }
+        final List<String> shardProgressDescriptions = new ArrayList<>();
+        for (int index = 0; index < shardCount; index++) {
+            final ProjectShard shard = new ProjectShard(index, shardCount);
+            final String progressDescription = getProgressDescription(shard.getSettings(settings));
+            if (progressDescription != null) {
+                shardProgressDescriptions.add(shard + ": " + progressDescription);
+            }
+        }
+        if (shardProgressDescriptions.isEmpty()) {
+            return null;
+        }
+        return StringUtils.join(shardProgressDescriptions, "; ");
+    }
+
+    /**
+     * Whether the stored checkpoint was recorded against the given events, in the same order. A checkpoint that
+     * cannot be verified is not trusted.
+     */
+    private boolean isRecordedAgainst(final List<NotificationEvent> events, final String eventKeysHash) {
+        final int recordedEventCount = NumberUtils.toInt((String) settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_EVENT_COUNT), -1);
+        final String recordedEventKeysHash = (String) settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_EVENT_KEYS_HASH);
+        if ((recordedEventCount == events.size()) && eventKeysHash.equals(recordedEventKeysHash)) {
+            return true;
+        }
+        logger.warn(String.format("The events for slice %s to %s no longer match the checkpoint (%d event(s) now, %d recorded); applying the whole slice again",
+                sliceStartDateString, sliceEndDateString, events.size(), recordedEventCount));
+        return false;
+    }
+
+    /* package */ static String getEventKeysHash(final List<NotificationEvent> events) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (final NotificationEvent event : events) {
+                digest.update(String.valueOf(event.getEventKey()).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return new BigInteger(1, digest.digest()).toString(16);
+        } catch (final NoSuchAlgorithmException e) {
+            // Every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String formatDate(final Date date) {
+        return createDateFormatter().format(date);
+    }
+
+    private SimpleDateFormat createDateFormatter() {
+        final SimpleDateFormat dateFormatter = new SimpleDateFormat(RestConnection.JSON_DATE_FORMAT);
+        dateFormatter.setTimeZone(java.util.TimeZone.getTimeZone("Zulu"));
+        return dateFormatter;
+    }
+}
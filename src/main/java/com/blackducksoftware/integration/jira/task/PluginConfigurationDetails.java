@@ -28,6 +28,7 @@ import org.apache.commons.lang3.math.NumberUtils;
 import com.atlassian.sal.api.pluginsettings.PluginSettings;
 import com.blackducksoftware.integration.hub.builder.HubServerConfigBuilder;
 import com.blackducksoftware.integration.jira.common.HubJiraConfigKeys;
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
 import com.blackducksoftware.integration.jira.config.HubConfigKeys;
 
 public class PluginConfigurationDetails {
@@ -70,6 +71,21 @@ public class PluginConfigurationDetails {
     private final String fieldCopyMappingJson;
 
     private final boolean createVulnerabilityIssues;
+
+    private final int hubResponseCacheMaxSize;
+
+    private final int hubResponseCacheTtlSeconds;
+
+    private final int notificationConversionThreads;
+
+    private final int issueUpdateThreads;
+
+    private final int notificationSliceMinutes;
+
+    private final boolean adaptiveScheduling;
+
+    private final int clusterShardCount;
+
     private final PluginSettings settings;
 
     public PluginConfigurationDetails(final PluginSettings settings) {
@@ -98,6 +114,14 @@ public class PluginConfigurationDetails {
 
         fieldCopyMappingJson = getStringValue(settings, HubJiraConfigKeys.HUB_CONFIG_FIELD_COPY_MAPPINGS_JSON);
         createVulnerabilityIssues = getBooleanValue(settings, HubJiraConfigKeys.HUB_CONFIG_CREATE_VULN_ISSUES_CHOICE);
+
+        hubResponseCacheMaxSize = getIntValue(settings, HubJiraConfigKeys.HUB_CONFIG_HUB_RESPONSE_CACHE_MAX_SIZE, HubJiraConstants.HUB_RESPONSE_CACHE_DEFAULT_MAX_SIZE);
+        hubResponseCacheTtlSeconds = getIntValue(settings, HubJiraConfigKeys.HUB_CONFIG_HUB_RESPONSE_CACHE_TTL_SECONDS, HubJiraConstants.HUB_RESPONSE_CACHE_DEFAULT_TTL_SECONDS);
+        notificationConversionThreads = getIntValue(settings, HubJiraConfigKeys.HUB_CONFIG_NOTIFICATION_CONVERSION_THREADS, HubJiraConstants.NOTIFICATION_CONVERSION_DEFAULT_THREADS);
+        issueUpdateThreads = getIntValue(settings, HubJiraConfigKeys.HUB_CONFIG_ISSUE_UPDATE_THREADS, HubJiraConstants.ISSUE_UPDATE_DEFAULT_THREADS);
+        notificationSliceMinutes = getIntValue(settings, HubJiraConfigKeys.HUB_CONFIG_NOTIFICATION_SLICE_MINUTES, HubJiraConstants.NOTIFICATION_SLICE_DEFAULT_MINUTES);
+        adaptiveScheduling = getBooleanValue(settings, HubJiraConfigKeys.HUB_CONFIG_ADAPTIVE_SCHEDULING);
+        clusterShardCount = getIntValue(settings, HubJiraConfigKeys.HUB_CONFIG_CLUSTER_SHARD_COUNT, HubJiraConstants.CLUSTER_SHARD_DEFAULT_COUNT);
     }
 
     public PluginSettings getSettings() {
@@ -188,6 +212,34 @@ public class PluginConfigurationDetails {
         return createVulnerabilityIssues;
     }
 
+    public int getHubResponseCacheMaxSize() {
+        return hubResponseCacheMaxSize;
+    }
+
+    public int getHubResponseCacheTtlSeconds() {
+        return hubResponseCacheTtlSeconds;
+    }
+
+    public int getNotificationConversionThreads() {
+        return notificationConversionThreads;
+    }
+
+    public int getIssueUpdateThreads() {
+        return issueUpdateThreads;
+    }
+
+    public int getNotificationSliceMinutes() {
+        return notificationSliceMinutes;
+    }
+
+    public boolean isAdaptiveScheduling() {
+        return adaptiveScheduling;
+    }
+
+    public int getClusterShardCount() {
+        return clusterShardCount;
+    }
+
     public HubServerConfigBuilder createHubServerConfigBuilder() {
         final HubServerConfigBuilder hubConfigBuilder = new HubServerConfigBuilder();
         hubConfigBuilder.setHubUrl(hubUrl);
@@ -214,6 +266,10 @@ public class PluginConfigurationDetails {
         return (String) getValue(settings, key);
     }
 
+    private int getIntValue(final PluginSettings settings, final String key, final int defaultValue) {
+        return NumberUtils.toInt(getStringValue(settings, key), defaultValue);
+    }
+
     private boolean getBooleanValue(final PluginSettings settings, final String key) {
         final String valueString = (String) getValue(settings, key);
         if ("true".equalsIgnoreCase(valueString)) {
@@ -0,0 +1,196 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.atlassian.sal.api.pluginsettings.PluginSettings;
+import com.blackducksoftware.integration.jira.common.HubJiraConfigKeys;
+import com.blackducksoftware.integration.jira.common.HubProjectMapping;
+
+/**
+ * One of a fixed number of shards that the mapped JIRA projects are split across (by project ID), so that JIRA
+ * nodes can process different shards at the same time.
+ *
+ * Each shard keeps its own last run date and slice checkpoint. Until a shard has run, its last run date is the
+ * (un-sharded) plugin-wide one.
+ */
+public class ProjectShard {
+    public static final ProjectShard ALL = new ProjectShard(0, 1);
+
+    private static final String LOCK_NAME_PREFIX = ProjectShard.class.getName() + ":";
+
+    private static final Set<String> SHARD_SCOPED_KEYS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE,
+            HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_START_DATE, HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_END_DATE,
+            HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_EVENT_COUNT, HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_APPLIED_COUNT,
+            HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_EVENT_KEYS_HASH, HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_APPLIED_CURSOR,
+            HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_APPLIED_AHEAD_OF_CURSOR)));
+
+    private final int index;
+
+    private final int count;
+
+    public ProjectShard(final int index, final int count) {
+        if ((count < 1) || (index < 0) || (index >= count)) {
+            throw new IllegalArgumentException("Invalid shard " + index + " of " + count);
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public boolean isAll() {
+        return count == 1;
+    }
+
+    public boolean contains(final Long jiraProjectId) {
+        if (isAll()) {
+            return true;
+        }
+        if (jiraProjectId == null) {
+            return false;
+        }
+        return Math.floorMod(jiraProjectId.longValue(), (long) count) == index;
+    }
+
+    /**
+     * The mappings whose JIRA project belongs to this shard.
+     */
+    public Set<HubProjectMapping> filter(final Set<HubProjectMapping> mappings) {
+        if (isAll() || (mappings == null)) {
+            return mappings;
+        }
+        final Set<HubProjectMapping> shardMappings = new LinkedHashSet<>();
+        for (final HubProjectMapping mapping : mappings) {
+            if ((mapping.getJiraProject() != null) && contains(mapping.getJiraProject().getProjectId())) {
+                shardMappings.add(mapping);
+            }
+        }
+        return shardMappings;
+    }
+
+    public String getLockName() {
+        return LOCK_NAME_PREFIX + index + "of" + count;
+    }
+
+    /**
+     * The settings as seen by this shard: the last run date and checkpoint keys are scoped to the shard.
+     */
+    public PluginSettings getSettings(final PluginSettings settings) {
+        if (isAll()) {
+            return settings;
+        }
+        return new ShardPluginSettings(settings);
+    }
+
+    /**
+     * The key under which this shard stores the given plugin-wide key.
+     */
+    public String getScopedKey(final String key) {
+        if (isAll() || !SHARD_SCOPED_KEYS.contains(key)) {
+            return key;
+        }
+        return key + ".shard" + index + "of" + count;
+    }
+
+    /**
+     * The shards, in the order a node should try them: starting at the node's own shard, so that nodes spread
+     * across the shards instead of all contending for the first one.
+     */
+    public static List<ProjectShard> getShards(final int count, final String nodeId) {
+        final int offset = (nodeId == null) ? 0 : Math.floorMod(nodeId.hashCode(), count);
+        final ProjectShard[] shards = new ProjectShard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new ProjectShard((offset + i) % count, count);
+        }
+        return Arrays.asList(shards);
+    }
+
+    /**
+     * Reset the plugin-wide last run date and every shard's copy of it to the given date, and remove the plugin-wide
+     * and every shard's slice checkpoint. The last run date is written directly (not through
+     * ClusterRunCoordinator.updateLastRunDate), since a reset may move it backwards.
+     */
+    public static void resetAll(final PluginSettings settings, final int count, final String lastRunDate) {
+        final List<ProjectShard> shards = new ArrayList<>();
+        shards.add(ALL);
+        if (count > 1) {
+            shards.addAll(getShards(count, null));
+        }
+        for (final ProjectShard shard : shards) {
+            for (final String key : SHARD_SCOPED_KEYS) {
+                if (HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE.equals(key)) {
+                    settings.put(shard.getScopedKey(key), lastRunDate);
+                } else {
+                    settings.remove(shard.getScopedKey(key));
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "shard " + index + " of " + count;
+    }
+
+    private class ShardPluginSettings implements PluginSettings {
+        private final PluginSettings settings;
+
+        public ShardPluginSettings(final PluginSettings settings) {
+            this.settings = settings;
+        }
+
+        @Override
+        public Object get(final String key) {
+            final Object value = settings.get(getScopedKey(key));
+            if ((value == null) && HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE.equals(key)) {
+                return settings.get(key);
+            }
+            return value;
+        }
+
+        @Override
+        public Object put(final String key, final Object value) {
+            return settings.put(getScopedKey(key), value);
+        }
+
+        @Override
+        public Object remove(final String key) {
+            return settings.remove(getScopedKey(key));
+        }
+    }
+}
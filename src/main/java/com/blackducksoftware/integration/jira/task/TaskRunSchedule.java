@@ -0,0 +1,180 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.lang3.math.NumberUtils;
+
+import com.atlassian.sal.api.pluginsettings.PluginSettings;
+import com.blackducksoftware.integration.hub.rest.RestConnection;
+import com.blackducksoftware.integration.jira.common.HubJiraConfigKeys;
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
+
+/**
+ * Plugin-wide record of when the periodic task last ran and when it should run next.
+ *
+ * Whatever the scheduling mode, at most one run is in flight at a time: a trigger that fires while a run is still in
+ * flight is skipped. In adaptive mode the PluginScheduler job fires at a short tick and a run only starts once the
+ * next-run time has been reached. The delay after each run depends on how it went: short while a backlog remains,
+ * the configured interval normally, and backing off (doubling, up to a limit) while the Hub returns nothing.
+ */
+public class TaskRunSchedule {
+    private static final TaskRunSchedule INSTANCE = new TaskRunSchedule();
+
+    public enum RunOutcome {
+        /** The run made progress but notifications are still waiting to be processed */
+        BACKLOG,
+        /** The run completed and the Hub returned no notifications */
+        IDLE,
+        /** Anything else, including runs that failed */
+        NORMAL
+    }
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private volatile long runStartMillis;
+
+    private volatile long nextRunMillis;
+
+    private volatile long delayMillis;
+
+    public static TaskRunSchedule getInstance() {
+        return INSTANCE;
+    }
+
+    /* package */ TaskRunSchedule() {
+    }
+
+    /**
+     * Claims the next run. Returns false (and the caller must not run) if a run is still in flight or, in adaptive
+     * mode, if the next-run time has not been reached yet.
+     */
+    public boolean tryStartRun(final long nowMillis, final boolean adaptive) {
+        if (adaptive && (nowMillis < nextRunMillis)) {
+            return false;
+        }
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        runStartMillis = nowMillis;
+        return true;
+    }
+
+    /**
+     * Releases the run claimed by tryStartRun and works out when the next one should start. Returns the next-run
+     * time.
+     */
+    public long finishRun(final long nowMillis, final boolean adaptive, final RunOutcome outcome, final long intervalMillis) {
+        try {
+            if (adaptive) {
+                delayMillis = computeDelay(outcome, delayMillis, intervalMillis);
+                nextRunMillis = nowMillis + delayMillis;
+            } else {
+                // The PluginScheduler job repeats at a fixed rate from the start of each run; skip any triggers
+                // that fired while this run was still in flight
+                delayMillis = intervalMillis;
+                long fixedNextRunMillis = runStartMillis + intervalMillis;
+                if ((intervalMillis > 0) && (fixedNextRunMillis < nowMillis)) {
+                    fixedNextRunMillis += (((nowMillis - fixedNextRunMillis) / intervalMillis) + 1) * intervalMillis;
+                }
+                nextRunMillis = fixedNextRunMillis;
+            }
+            return nextRunMillis;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Forgets the adaptive delay so the next trigger starts a run (if none is in flight); used when the schedule
+     * changes.
+     */
+    public void reset() {
+        nextRunMillis = 0L;
+        delayMillis = 0L;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public long getRunStartMillis() {
+        return runStartMillis;
+    }
+
+    public long getNextRunMillis() {
+        return nextRunMillis;
+    }
+
+    /* package */ static long computeDelay(final RunOutcome outcome, final long previousDelayMillis, final long intervalMillis) {
+        switch (outcome) {
+        case BACKLOG:
+            return Math.min(intervalMillis, HubJiraConstants.ADAPTIVE_SCHEDULE_BACKLOG_DELAY_SECONDS * 1000L);
+        case IDLE:
+            final long maxDelayMillis = intervalMillis * HubJiraConstants.ADAPTIVE_SCHEDULE_MAX_BACKOFF_AS_MULTIPLE_OF_INTERVAL;
+            if (previousDelayMillis < intervalMillis) {
+                return intervalMillis;
+            }
+            return Math.min(previousDelayMillis * 2, maxDelayMillis);
+        default:
+            return intervalMillis;
+        }
+    }
+
+    /**
+     * Records the next-run time and the duration of the last run in PluginSettings, for the admin page.
+     */
+    public static void save(final PluginSettings settings, final long nextRunMillis, final long lastRunDurationMillis) {
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_NEXT_RUN_DATE, formatDate(new Date(nextRunMillis)));
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DURATION_MILLIS, String.valueOf(lastRunDurationMillis));
+    }
+
+    /**
+     * The next-run time, as stored in PluginSettings; null if the task has not run yet.
+     */
+    public static String getNextRunDate(final PluginSettings settings) {
+        return (String) settings.get(HubJiraConfigKeys.HUB_CONFIG_NEXT_RUN_DATE);
+    }
+
+    /**
+     * The duration of the last run, as stored in PluginSettings; null if the task has not run yet.
+     */
+    public static String getLastRunDurationDescription(final PluginSettings settings) {
+        final long durationMillis = NumberUtils.toLong((String) settings.get(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DURATION_MILLIS), -1L);
+        if (durationMillis < 0) {
+            return null;
+        }
+        final long durationSeconds = durationMillis / 1000L;
+        return String.format("%dm,%ds,%dms", durationSeconds / 60L, durationSeconds % 60L, durationMillis % 1000L);
+    }
+
+    private static String formatDate(final Date date) {
+        final SimpleDateFormat dateFormatter = new SimpleDateFormat(RestConnection.JSON_DATE_FORMAT);
+        dateFormatter.setTimeZone(java.util.TimeZone.getTimeZone("Zulu"));
+        return dateFormatter.format(date);
+    }
+}
@@ -23,13 +23,22 @@
  */
 package com.blackducksoftware.integration.jira.task;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.concurrent.ExecutionException;
 
 import org.apache.log4j.Logger;
 
+import com.atlassian.jira.security.JiraAuthenticationContext;
+import com.atlassian.jira.user.ApplicationUser;
+import com.blackducksoftware.integration.exception.IntegrationException;
 import com.blackducksoftware.integration.hub.HubSupportHelper;
 import com.blackducksoftware.integration.hub.dataservice.notification.NotificationDataService;
 import com.blackducksoftware.integration.hub.dataservice.notification.NotificationResults;
@@ -40,15 +49,23 @@ import com.blackducksoftware.integration.hub.exception.HubItemTransformException
 import com.blackducksoftware.integration.hub.model.view.UserView;
 import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
 import com.blackducksoftware.integration.hub.service.HubServicesFactory;
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
 import com.blackducksoftware.integration.jira.common.HubJiraLogger;
 import com.blackducksoftware.integration.jira.common.HubProjectMappings;
 import com.blackducksoftware.integration.jira.common.JiraContext;
 import com.blackducksoftware.integration.jira.common.TicketInfoFromSetup;
+import com.blackducksoftware.integration.jira.common.exception.ConfigurationException;
 import com.blackducksoftware.integration.jira.config.HubJiraFieldCopyConfigSerializable;
+import com.blackducksoftware.integration.jira.hub.HubResponseCache;
+import com.blackducksoftware.integration.jira.task.conversion.BomComponentCache;
 import com.blackducksoftware.integration.jira.task.conversion.JiraNotificationProcessor;
+import com.blackducksoftware.integration.jira.task.conversion.output.HubEventAction;
+import com.blackducksoftware.integration.jira.task.conversion.output.eventdata.EventData;
+import com.blackducksoftware.integration.jira.task.issue.FieldCopyPlan;
 import com.blackducksoftware.integration.jira.task.issue.HubIssueTrackerHandler;
 import com.blackducksoftware.integration.jira.task.issue.JiraIssueHandler;
 import com.blackducksoftware.integration.jira.task.issue.JiraServices;
+import com.blackducksoftware.integration.jira.task.issue.KeyedEventExecutor;
 
 /**
  * Collects recent notifications from the Hub, and generates JIRA tickets for them.
@@ -77,10 +94,21 @@ public class TicketGenerator {
 
     private final HubIssueTrackerHandler hubIssueTrackerHandler;
 
+    private final HubResponseCache hubResponseCache;
+
+    private final int notificationConversionThreads;
+
+    private final int issueUpdateThreads;
+
+    private final int notificationSliceMinutes;
+
     private final HubSupportHelper hubSupportHelper;
 
+    private int notificationCount;
+
     public TicketGenerator(final HubServicesFactory hubServicesFactory, final JiraServices jiraServices, final JiraContext jiraContext, final JiraSettingsService jiraSettingsService, final TicketInfoFromSetup ticketInfoFromSetup,
-            final HubJiraFieldCopyConfigSerializable fieldCopyConfig, final boolean createVulnerabilityIssues, final List<String> linksOfRulesToInclude, final HubSupportHelper hubSupportHelper) {
+            final HubJiraFieldCopyConfigSerializable fieldCopyConfig, final boolean createVulnerabilityIssues, final List<String> linksOfRulesToInclude, final HubSupportHelper hubSupportHelper,
+            final HubResponseCache hubResponseCache, final int notificationConversionThreads, final int issueUpdateThreads, final int notificationSliceMinutes) {
         this.hubServicesFactory = hubServicesFactory;
         final PolicyNotificationFilter policyNotificationFilter = new PolicyNotificationFilter(linksOfRulesToInclude);
         this.notificationDataService = new NotificationDataService(logger, hubServicesFactory.createHubResponseService(), hubServicesFactory.createNotificationRequestService(), hubServicesFactory.createProjectVersionRequestService(),
@@ -93,6 +121,10 @@ public class TicketGenerator {
         this.createVulnerabilityIssues = createVulnerabilityIssues;
         this.hubIssueTrackerHandler = new HubIssueTrackerHandler(jiraServices, jiraSettingsService, hubServicesFactory.createBomComponentIssueRequestService());
         this.hubSupportHelper = hubSupportHelper;
+        this.hubResponseCache = hubResponseCache;
+        this.notificationConversionThreads = notificationConversionThreads;
+        this.issueUpdateThreads = issueUpdateThreads;
+        this.notificationSliceMinutes = notificationSliceMinutes;
     }
 
     public void generateTicketsForRecentNotifications(final UserView hubUser, final HubProjectMappings hubProjectMappings, final Date startDate, final Date endDate) throws HubIntegrationException {
@@ -100,37 +132,202 @@ public class TicketGenerator {
             logger.debug("The configuration does not specify any Hub projects to monitor");
             return;
         }
+        final JiraNotificationProcessor processor;
+        try {
+            processor = createNotificationProcessor(hubProjectMappings);
+        } catch (final Exception e) {
+            logger.error(e);
+            jiraSettingsService.addHubError(e, "generateTicketsForRecentNotifications");
+            return;
+        }
+        final JiraIssueHandler issueHandler = new JiraIssueHandler(jiraServices, jiraContext, jiraSettingsService, ticketInfoFromSetup, hubIssueTrackerHandler, hubSupportHelper,
+                FieldCopyPlan.compile(fieldCopyConfig, jiraServices.getFieldManager()));
+        final NotificationSliceCheckpoint checkpoint = jiraSettingsService.createSliceCheckpoint(HubJiraConstants.CHECKPOINT_FLUSH_INTERVAL_EVENTS);
+
+        // Process the window one time slice at a time, checkpointing after each slice, so a run that is
+        // interrupted part way through resumes from the last completed slice (skipping any events of the
+        // interrupted slice that were already applied). A resumed slice keeps the end date it had, so that it
+        // covers the same events.
+        final long sliceMillis = notificationSliceMinutes * 60L * 1000L;
+        Date sliceStartDate = startDate;
+        while (sliceStartDate.before(endDate)) {
+            Date sliceEndDate = endDate;
+            if ((sliceMillis > 0) && ((sliceStartDate.getTime() + sliceMillis) < endDate.getTime())) {
+                sliceEndDate = new Date(sliceStartDate.getTime() + sliceMillis);
+            }
+            final Date inProgressSliceEndDate = checkpoint.getInProgressSliceEndDate(sliceStartDate);
+            if ((inProgressSliceEndDate != null) && inProgressSliceEndDate.after(sliceStartDate) && !inProgressSliceEndDate.after(endDate)) {
+                sliceEndDate = inProgressSliceEndDate;
+            }
+            generateTicketsForNotificationSlice(hubUser, processor, issueHandler, checkpoint, sliceStartDate, sliceEndDate);
+            if (Thread.currentThread().isInterrupted()) {
+                logger.warn("Interrupted; Notifications after " + sliceStartDate + " will be processed next time");
+                return;
+            }
+            jiraSettingsService.setLastRunDate(sliceEndDate);
+            checkpoint.completeSlice();
+            sliceStartDate = sliceEndDate;
+        }
+
+        final BomComponentCache bomComponentCache = processor.getBomComponentCache();
+        logger.info(String.format("BOM cache: %d BOM(s) fetched; %d hit(s), %d miss(es)", bomComponentCache.size(), bomComponentCache.getHitCount(),
+                bomComponentCache.getMissCount()));
+        logger.info(String.format("Hub response cache: %d item(s) cached; %d hit(s), %d miss(es); hit ratio: %d%%", hubResponseCache.size(), hubResponseCache.getHitCount(),
+                hubResponseCache.getMissCount(), hubResponseCache.getHitPercentage()));
+    }
+
+    /**
+     * The number of Hub notifications retrieved so far by generateTicketsForRecentNotifications.
+     */
+    public int getNotificationCount() {
+        return notificationCount;
+    }
+
+    /* package */ JiraNotificationProcessor createNotificationProcessor(final HubProjectMappings hubProjectMappings) throws ConfigurationException {
+        return new JiraNotificationProcessor(hubProjectMappings, fieldCopyConfig, jiraServices, jiraContext, jiraSettingsService, hubServicesFactory,
+                hubResponseCache, createVulnerabilityIssues);
+    }
+
+    /* package */ NotificationResults getUserNotifications(final Date startDate, final Date endDate, final UserView hubUser) throws IntegrationException {
+        return notificationDataService.getUserNotifications(startDate, endDate, hubUser);
+    }
+
+    private void generateTicketsForNotificationSlice(final UserView hubUser, final JiraNotificationProcessor processor, final JiraIssueHandler issueHandler,
+            final NotificationSliceCheckpoint checkpoint, final Date startDate, final Date endDate) {
+        logger.info("Processing Hub notifications from " + startDate + " to " + endDate);
         try {
-            final NotificationResults results = notificationDataService.getUserNotifications(startDate, endDate, hubUser);
+            final NotificationResults results = getUserNotifications(startDate, endDate, hubUser);
             reportAnyErrors(results);
             final SortedSet<NotificationContentItem> notifs = results.getNotificationContentItems();
             if ((notifs == null) || (notifs.size() == 0)) {
                 logger.info("There are no notifications to handle");
                 return;
             }
-            final JiraNotificationProcessor processor = new JiraNotificationProcessor(hubProjectMappings, fieldCopyConfig, jiraServices, jiraContext, jiraSettingsService, hubServicesFactory, createVulnerabilityIssues);
+            notificationCount += notifs.size();
 
-            final List<NotificationEvent> events = processor.process(notifs);
-            if ((events == null) || (events.size() == 0)) {
+            final List<NotificationEvent> allEvents = processor.process(notifs, notificationConversionThreads);
+            if ((allEvents == null) || (allEvents.size() == 0)) {
                 logger.info("There are no events to handle");
                 return;
             }
+            final List<NotificationEvent> remainingEvents = checkpoint.startSlice(startDate, endDate, allEvents);
+            final NotificationEventReducer eventReducer = new NotificationEventReducer();
+            final List<NotificationEvent> reducedEvents = eventReducer.reduce(remainingEvents);
+            issueHandler.preloadIssueIndex(reducedEvents);
 
-            final JiraIssueHandler issueHandler = new JiraIssueHandler(jiraServices, jiraContext, jiraSettingsService, ticketInfoFromSetup, hubIssueTrackerHandler, hubSupportHelper);
-
-            for (final NotificationEvent event : events) {
-                try {
-                    issueHandler.handleEvent(event);
-                } catch (final Exception e) {
-                    logger.error(e);
-                    jiraSettingsService.addHubError(e, "issueHandler.handleEvent(event)");
+            final long applyStartMillis = System.currentTimeMillis();
+            final List<NotificationEvent> bulkResolveEvents = getBulkResolveEvents(reducedEvents);
+            final List<NotificationEvent> events;
+            if (bulkResolveEvents.isEmpty()) {
+                events = reducedEvents;
+            } else {
+                final Set<NotificationEvent> bulkResolveEventSet = Collections.newSetFromMap(new IdentityHashMap<>());
+                bulkResolveEventSet.addAll(bulkResolveEvents);
+                events = new ArrayList<>(reducedEvents.size() - bulkResolveEvents.size());
+                for (final NotificationEvent event : reducedEvents) {
+                    if (!bulkResolveEventSet.contains(event)) {
+                        events.add(event);
+                    }
                 }
             }
+            try {
+                if (!bulkResolveEvents.isEmpty()) {
+                    resolveIssues(issueHandler, bulkResolveEvents);
+                    for (final NotificationEvent event : bulkResolveEvents) {
+                        eventApplied(checkpoint, eventReducer, event);
+                    }
+                }
+                if (issueUpdateThreads <= 1) {
+                    for (final NotificationEvent event : events) {
+                        handleEvent(issueHandler, event);
+                        eventApplied(checkpoint, eventReducer, event);
+                    }
+                } else {
+                    applyEventsInParallel(issueHandler, checkpoint, eventReducer, events);
+                }
+            } finally {
+                checkpoint.flush();
+            }
+            final long applyMillis = Math.max(1L, System.currentTimeMillis() - applyStartMillis);
+            logger.info(String.format("Applied %d events in %d ms using %d thread(s) (%.1f events/sec)", reducedEvents.size(), applyMillis, Math.max(1, issueUpdateThreads),
+                    (reducedEvents.size() * 1000.0) / applyMillis));
+        } catch (final InterruptedException e) {
+            logger.warn("Interrupted while applying events");
+            Thread.currentThread().interrupt();
         } catch (final Exception e) {
             logger.error(e);
             jiraSettingsService.addHubError(e, "generateTicketsForRecentNotifications");
         }
+    }
 
+    private void applyEventsInParallel(final JiraIssueHandler issueHandler, final NotificationSliceCheckpoint checkpoint, final NotificationEventReducer eventReducer,
+            final List<NotificationEvent> events) throws InterruptedException {
+        final ApplicationUser issueCreatorUser = jiraContext.getJiraIssueCreatorUser();
+        final KeyedEventExecutor eventExecutor = new KeyedEventExecutor(issueUpdateThreads, HubJiraConstants.ISSUE_UPDATE_QUEUE_CAPACITY_PER_THREAD, event -> {
+            final JiraAuthenticationContext authContext = jiraServices.getAuthContext();
+            final ApplicationUser previousUser = authContext.getLoggedInUser();
+            authContext.setLoggedInUser(issueCreatorUser);
+            try {
+                handleEvent(issueHandler, event);
+                eventApplied(checkpoint, eventReducer, event);
+            } finally {
+                authContext.setLoggedInUser(previousUser);
+            }
+        });
+        try {
+            for (final NotificationEvent event : events) {
+                eventExecutor.submit(event);
+            }
+        } finally {
+            eventExecutor.finish();
+        }
+    }
+
+    /**
+     * The RESOLVE events that are the only event for their issue, if there are enough of them to be worth resolving in
+     * bulk; otherwise an empty list.
+     */
+    static List<NotificationEvent> getBulkResolveEvents(final List<NotificationEvent> events) {
+        final Map<String, Integer> eventCountByKey = new HashMap<>();
+        for (final NotificationEvent event : events) {
+            eventCountByKey.merge(event.getEventKey(), 1, Integer::sum);
+        }
+        final List<NotificationEvent> resolveEvents = new ArrayList<>();
+        for (final NotificationEvent event : events) {
+            final EventData eventData = (EventData) event.getDataSet().get(HubJiraConstants.EVENT_DATA_SET_KEY_JIRA_EVENT_DATA);
+            if ((eventData != null) && (eventData.getAction() == HubEventAction.RESOLVE) && (eventCountByKey.get(event.getEventKey()) == 1)) {
+                resolveEvents.add(event);
+            }
+        }
+        if (resolveEvents.size() < HubJiraConstants.BULK_RESOLVE_MIN_EVENTS) {
+            return Collections.emptyList();
+        }
+        return resolveEvents;
+    }
+
+    private void resolveIssues(final JiraIssueHandler issueHandler, final List<NotificationEvent> resolveEvents) {
+        logger.info(String.format("Resolving %d issue(s) in bulk", resolveEvents.size()));
+        try {
+            issueHandler.resolveIssues(resolveEvents);
+        } catch (final Exception e) {
+            logger.error(e);
+            jiraSettingsService.addHubError(e, "issueHandler.resolveIssues(events)");
+        }
+    }
+
+    private void eventApplied(final NotificationSliceCheckpoint checkpoint, final NotificationEventReducer eventReducer, final NotificationEvent event) {
+        for (final NotificationEvent sourceEvent : eventReducer.getSourceEvents(event)) {
+            checkpoint.eventApplied(sourceEvent);
+        }
+    }
+
+    private void handleEvent(final JiraIssueHandler issueHandler, final NotificationEvent event) {
+        try {
+            issueHandler.handleEvent(event);
+        } catch (final Exception e) {
+            logger.error(e);
+            jiraSettingsService.addHubError(e, "issueHandler.handleEvent(event)");
+        }
     }
 
     private void reportAnyErrors(final NotificationResults results) {
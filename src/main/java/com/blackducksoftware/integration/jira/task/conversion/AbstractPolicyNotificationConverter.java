@@ -46,6 +46,7 @@ import com.blackducksoftware.integration.jira.common.JiraProject;
 import com.blackducksoftware.integration.jira.common.exception.ConfigurationException;
 import com.blackducksoftware.integration.jira.common.exception.EventDataBuilderException;
 import com.blackducksoftware.integration.jira.config.HubJiraFieldCopyConfigSerializable;
+import com.blackducksoftware.integration.jira.hub.HubResponseCache;
 import com.blackducksoftware.integration.jira.task.JiraSettingsService;
 import com.blackducksoftware.integration.jira.task.conversion.output.eventdata.EventData;
 import com.blackducksoftware.integration.jira.task.issue.JiraServices;
@@ -57,10 +58,11 @@ public abstract class AbstractPolicyNotificationConverter extends NotificationTo
             final JiraContext jiraContext, final JiraSettingsService jiraSettingsService,
             final String issueTypeName,
             final HubJiraFieldCopyConfigSerializable fieldCopyConfig,
-            final HubServicesFactory hubServicesFactory, final HubJiraLogger logger)
+            final HubServicesFactory hubServicesFactory, final BomComponentCache bomComponentCache,
+            final HubResponseCache hubResponseCache, final HubJiraLogger logger)
             throws ConfigurationException {
         super(cache, jiraServices, jiraContext, jiraSettingsService, mappings, issueTypeName, fieldCopyConfig,
-                hubServicesFactory, logger);
+                hubServicesFactory, bomComponentCache, hubResponseCache, logger);
         this.logger = logger;
     }
 
@@ -107,7 +109,7 @@ public abstract class AbstractPolicyNotificationConverter extends NotificationTo
     protected abstract List<NotificationEvent> handleNotificationPerJiraProject(final NotificationContentItem notif,
             final JiraProject jiraProject) throws EventDataBuilderException, IntegrationException;
 
-    protected String getIssueDescription(final NotificationContentItem notif, final PolicyRuleView rule) {
+    protected String getIssueDescription(final NotificationContentItem notif, final PolicyRuleView rule, final ComponentLicenses componentLicenses) {
         final StringBuilder issueDescription = new StringBuilder();
         final String componentsLink = notif.getProjectVersion().getComponentsLink();
         issueDescription.append("The Black Duck Hub has detected a policy violation on Hub project ");
@@ -140,14 +142,8 @@ public abstract class AbstractPolicyNotificationConverter extends NotificationTo
         issueDescription.append(rule.overridable);
 
         if (compVer != null) {
-            final String licenseText;
-            try {
-                licenseText = getComponentLicensesStringWithLinksAtlassianFormat(notif);
-                issueDescription.append("\nComponent license(s): ");
-                issueDescription.append(licenseText);
-            } catch (final IntegrationException e) {
-                // omit license text
-            }
+            issueDescription.append("\nComponent license(s): ");
+            issueDescription.append(componentLicenses.getWithLinksAtlassianFormat());
         }
 
         return issueDescription.toString();
@@ -0,0 +1,132 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.conversion;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import com.blackducksoftware.integration.hub.api.aggregate.bom.AggregateBomRequestService;
+import com.blackducksoftware.integration.hub.model.view.VersionBomComponentView;
+import com.blackducksoftware.integration.jira.common.HubJiraLogger;
+
+/**
+ * Run-scoped cache of project version BOMs, keyed by BOM URL.
+ *
+ * Each BOM is fetched from the Hub at most once per run, and indexed by component version URL (or component URL,
+ * for BOM entries that have no version), so finding the BOM entry for a notification does not require a scan of the BOM.
+ */
+public class BomComponentCache {
+    private final HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(this.getClass().getName()));
+
+    private final AggregateBomRequestService bomRequestService;
+
+    private final ConcurrentMap<String, BomSnapshot> snapshotsByBomUrl = new ConcurrentHashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    public BomComponentCache(final AggregateBomRequestService bomRequestService) {
+        this.bomRequestService = bomRequestService;
+    }
+
+    /**
+     * Find a component in the BOM at bomUrl. If componentVersionUrl is non-null it is used to find the BOM entry; otherwise componentUrl is used.
+     *
+     * @return the matching BOM entry, or null if it is not in the BOM (or the BOM could not be fetched)
+     */
+    public VersionBomComponentView getBomComponent(final String bomUrl, final String componentUrl, final String componentVersionUrl) {
+        final BomSnapshot snapshot = getSnapshot(bomUrl);
+        if (snapshot == null) {
+            return null;
+        }
+        return snapshot.find(componentUrl, componentVersionUrl);
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public int size() {
+        return snapshotsByBomUrl.size();
+    }
+
+    private BomSnapshot getSnapshot(final String bomUrl) {
+        final BomSnapshot cachedSnapshot = snapshotsByBomUrl.get(bomUrl);
+        if (cachedSnapshot != null) {
+            hitCount.incrementAndGet();
+            return cachedSnapshot;
+        }
+        // computeIfAbsent blocks concurrent callers asking for the same BOM until the first fetch completes. A failed
+        // fetch returns null, which computeIfAbsent does not record, so the next caller fetches again
+        return snapshotsByBomUrl.computeIfAbsent(bomUrl, url -> {
+            missCount.incrementAndGet();
+            return fetchSnapshot(url);
+        });
+    }
+
+    private BomSnapshot fetchSnapshot(final String bomUrl) {
+        logger.debug("Fetching BOM: " + bomUrl);
+        final List<VersionBomComponentView> bomComps;
+        try {
+            bomComps = bomRequestService.getBomEntries(bomUrl);
+        } catch (final Exception e) {
+            logger.debug(String.format("Error getting BOM %s; Perhaps the BOM is now empty: %s", bomUrl, e.getMessage()));
+            return null;
+        }
+        logger.debug("Number of components in BOM " + bomUrl + ": " + bomComps.size());
+        return new BomSnapshot(bomComps);
+    }
+
+    private static class BomSnapshot {
+        private final Map<String, VersionBomComponentView> compsByUrl = new HashMap<>();
+
+        public BomSnapshot(final List<VersionBomComponentView> bomComps) {
+            for (final VersionBomComponentView bomComp : bomComps) {
+                final String url = bomComp.componentVersion != null ? bomComp.componentVersion : bomComp.component;
+                if (url != null) {
+                    compsByUrl.putIfAbsent(url, bomComp);
+                }
+            }
+        }
+
+        public VersionBomComponentView find(final String componentUrl, final String componentVersionUrl) {
+            final String urlSought = componentVersionUrl != null ? componentVersionUrl : componentUrl;
+            if (urlSought == null) {
+                return null;
+            }
+            return compsByUrl.get(urlSought);
+        }
+    }
+}
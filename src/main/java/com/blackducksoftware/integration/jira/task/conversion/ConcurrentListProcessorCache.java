@@ -0,0 +1,87 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.conversion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.blackducksoftware.integration.hub.notification.processor.ListProcessorCache;
+import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
+
+/**
+ * A thread-safe replacement for ListProcessorCache, for use when notifications are converted concurrently.
+ *
+ * Each converting thread declares which notification it is working on (by its position in the sorted notification
+ * set) before it converts it. getEvents() returns the events in notification order, and in the order they were added
+ * for any one notification, so events for the same issue key are applied in the same order as a serial conversion
+ * would have produced them.
+ */
+public class ConcurrentListProcessorCache extends ListProcessorCache {
+    private static final int UNORDERED_NOTIFICATION_INDEX = Integer.MAX_VALUE;
+
+    private final ThreadLocal<Integer> currentNotificationIndex = new ThreadLocal<>();
+
+    private final Map<Integer, List<NotificationEvent>> eventsByNotificationIndex = new TreeMap<>();
+
+    public void startNotification(final int notificationIndex) {
+        currentNotificationIndex.set(notificationIndex);
+    }
+
+    public void endNotification() {
+        currentNotificationIndex.remove();
+    }
+
+    public void clearEvents() {
+        synchronized (eventsByNotificationIndex) {
+            eventsByNotificationIndex.clear();
+        }
+    }
+
+    @Override
+    public void addEvent(final NotificationEvent event) {
+        final Integer notificationIndex = currentNotificationIndex.get();
+        final int key = (notificationIndex == null) ? UNORDERED_NOTIFICATION_INDEX : notificationIndex;
+        synchronized (eventsByNotificationIndex) {
+            List<NotificationEvent> notificationEvents = eventsByNotificationIndex.get(key);
+            if (notificationEvents == null) {
+                notificationEvents = new ArrayList<>();
+                eventsByNotificationIndex.put(key, notificationEvents);
+            }
+            notificationEvents.add(event);
+        }
+    }
+
+    @Override
+    public List<NotificationEvent> getEvents() {
+        final List<NotificationEvent> events = new ArrayList<>();
+        synchronized (eventsByNotificationIndex) {
+            for (final List<NotificationEvent> notificationEvents : eventsByNotificationIndex.values()) {
+                events.addAll(notificationEvents);
+            }
+        }
+        return events;
+    }
+}
@@ -23,19 +23,29 @@
  */
 package com.blackducksoftware.integration.jira.task.conversion;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.log4j.Logger;
 
+import com.blackducksoftware.integration.hub.dataservice.notification.model.NotificationContentItem;
 import com.blackducksoftware.integration.hub.dataservice.notification.model.PolicyOverrideContentItem;
 import com.blackducksoftware.integration.hub.dataservice.notification.model.PolicyViolationClearedContentItem;
 import com.blackducksoftware.integration.hub.dataservice.notification.model.PolicyViolationContentItem;
 import com.blackducksoftware.integration.hub.dataservice.notification.model.VulnerabilityContentItem;
 import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
-import com.blackducksoftware.integration.hub.notification.processor.ListProcessorCache;
 import com.blackducksoftware.integration.hub.notification.processor.NotificationProcessor;
+import com.blackducksoftware.integration.hub.notification.processor.NotificationSubProcessor;
 import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
 import com.blackducksoftware.integration.hub.service.HubServicesFactory;
 import com.blackducksoftware.integration.jira.common.HubJiraLogger;
@@ -43,30 +53,36 @@ import com.blackducksoftware.integration.jira.common.HubProjectMappings;
 import com.blackducksoftware.integration.jira.common.JiraContext;
 import com.blackducksoftware.integration.jira.common.exception.ConfigurationException;
 import com.blackducksoftware.integration.jira.config.HubJiraFieldCopyConfigSerializable;
+import com.blackducksoftware.integration.jira.hub.HubResponseCache;
 import com.blackducksoftware.integration.jira.task.JiraSettingsService;
 import com.blackducksoftware.integration.jira.task.issue.JiraServices;
 
 public class JiraNotificationProcessor extends NotificationProcessor<List<NotificationEvent>> {
     private final HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(this.getClass().getName()));
 
+    private final ConcurrentListProcessorCache cache;
+
+    private final BomComponentCache bomComponentCache;
+
     public JiraNotificationProcessor(final HubProjectMappings mapping,
             final HubJiraFieldCopyConfigSerializable fieldCopyConfig,
             final JiraServices jiraServices,
             final JiraContext jiraContext, final JiraSettingsService jiraSettingsService,
             final HubServicesFactory hubServicesFactory,
-            final boolean createVulnerabilityIssues)
+            final HubResponseCache hubResponseCache, final boolean createVulnerabilityIssues)
             throws ConfigurationException {
-        final ListProcessorCache cache = new ListProcessorCache();
+        cache = new ConcurrentListProcessorCache();
         getCacheList().add(cache);
+        bomComponentCache = new BomComponentCache(hubServicesFactory.createAggregateBomRequestService());
 
         final NotificationToEventConverter policyViolationNotificationConverter = new PolicyViolationNotificationConverter(cache,
                 mapping, fieldCopyConfig, jiraServices, jiraContext, jiraSettingsService,
-                hubServicesFactory);
+                hubServicesFactory, bomComponentCache, hubResponseCache);
 
         final NotificationToEventConverter policyViolationClearedNotificationConverter = new PolicyViolationClearedNotificationConverter(cache,
-                mapping, fieldCopyConfig, jiraServices, jiraContext, jiraSettingsService, hubServicesFactory);
+                mapping, fieldCopyConfig, jiraServices, jiraContext, jiraSettingsService, hubServicesFactory, bomComponentCache, hubResponseCache);
         final NotificationToEventConverter policyOverrideNotificationConverter = new PolicyOverrideNotificationConverter(cache,
-                mapping, fieldCopyConfig, jiraServices, jiraContext, jiraSettingsService, hubServicesFactory);
+                mapping, fieldCopyConfig, jiraServices, jiraContext, jiraSettingsService, hubServicesFactory, bomComponentCache, hubResponseCache);
 
         getProcessorMap().put(PolicyViolationContentItem.class, policyViolationNotificationConverter);
         getProcessorMap().put(PolicyViolationClearedContentItem.class, policyViolationClearedNotificationConverter);
@@ -76,16 +92,95 @@ public class JiraNotificationProcessor extends NotificationProcessor<List<Notifi
             final NotificationToEventConverter vulnerabilityNotificationConverter = new VulnerabilityNotificationConverter(cache,
                     mapping, fieldCopyConfig,
                     jiraServices, jiraContext, jiraSettingsService,
-                    hubServicesFactory);
+                    hubServicesFactory, bomComponentCache, hubResponseCache);
             getProcessorMap().put(VulnerabilityContentItem.class, vulnerabilityNotificationConverter);
         } else {
             logger.info("Creation of vulnerability issues has been disabled. No vulnerability issues will be created.");
         }
     }
 
+    /**
+     * Convert the given notifications to events using up to workerCount threads. Events are returned in the same order
+     * as a serial conversion would produce them, so the events for any one issue key stay in notification order. Events
+     * from any previous call are discarded, so one processor can be used for successive batches of notifications.
+     */
+    public List<NotificationEvent> process(final SortedSet<NotificationContentItem> notifications, final int workerCount) throws HubIntegrationException {
+        cache.clearEvents();
+        if ((workerCount <= 1) || (notifications.size() <= 1)) {
+            return process(notifications);
+        }
+        final int threadCount = Math.min(workerCount, notifications.size());
+        logger.info(String.format("Converting %d notifications using %d threads", notifications.size(), threadCount));
+        final ConcurrentMap<String, WorkerStats> statsByWorker = new ConcurrentHashMap<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            final List<Future<?>> futures = new ArrayList<>(notifications.size());
+            int notificationIndex = 0;
+            for (final NotificationContentItem notification : notifications) {
+                final int index = notificationIndex++;
+                futures.add(executor.submit(() -> convertNotification(index, notification, statsByWorker)));
+            }
+            for (final Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (final ExecutionException e) {
+                    logger.error("Error converting notification: " + e.getCause().getMessage(), e.getCause());
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HubIntegrationException("Interrupted while converting notifications");
+        } finally {
+            executor.shutdownNow();
+        }
+        for (final Map.Entry<String, WorkerStats> workerStatsEntry : statsByWorker.entrySet()) {
+            logger.info(String.format("Conversion worker %s: %s", workerStatsEntry.getKey(), workerStatsEntry.getValue()));
+        }
+        return processEvents(cache.getEvents());
+    }
+
+    private void convertNotification(final int notificationIndex, final NotificationContentItem notification, final ConcurrentMap<String, WorkerStats> statsByWorker) {
+        final NotificationSubProcessor subProcessor = getProcessorMap().get(notification.getClass());
+        if (subProcessor == null) {
+            return;
+        }
+        final long startMillis = System.currentTimeMillis();
+        cache.startNotification(notificationIndex);
+        try {
+            subProcessor.process(notification);
+        } catch (final HubIntegrationException e) {
+            logger.error("Error converting notification: " + e.getMessage(), e);
+        } finally {
+            cache.endNotification();
+            final WorkerStats workerStats = statsByWorker.computeIfAbsent(Thread.currentThread().getName(), workerName -> new WorkerStats());
+            workerStats.add(System.currentTimeMillis() - startMillis);
+        }
+    }
+
+    public BomComponentCache getBomComponentCache() {
+        return bomComponentCache;
+    }
+
     @Override
     public List<NotificationEvent> processEvents(final Collection<NotificationEvent> eventCollection) throws HubIntegrationException {
         final LinkedList<NotificationEvent> list = new LinkedList<>(eventCollection);
         return list;
     }
+
+    private static class WorkerStats {
+        private int notificationCount;
+
+        private long busyMillis;
+
+        public synchronized void add(final long elapsedMillis) {
+            notificationCount++;
+            busyMillis += elapsedMillis;
+        }
+
+        @Override
+        public synchronized String toString() {
+            final double notificationsPerSecond = (busyMillis == 0) ? notificationCount : (notificationCount * 1000.0) / busyMillis;
+            return String.format("%d notifications in %d ms (%.1f notifications/sec)", notificationCount, busyMillis, notificationsPerSecond);
+        }
+    }
 }
@@ -23,13 +23,13 @@
  */
 package com.blackducksoftware.integration.jira.task.conversion;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 import com.atlassian.jira.issue.issuetype.IssueType;
 import com.blackducksoftware.integration.exception.IntegrationException;
-import com.blackducksoftware.integration.hub.api.aggregate.bom.AggregateBomRequestService;
 import com.blackducksoftware.integration.hub.dataservice.model.ProjectVersionModel;
 import com.blackducksoftware.integration.hub.dataservice.notification.model.NotificationContentItem;
 import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
@@ -41,7 +41,6 @@ import com.blackducksoftware.integration.hub.model.view.UserView;
 import com.blackducksoftware.integration.hub.model.view.VersionBomComponentView;
 import com.blackducksoftware.integration.hub.notification.processor.NotificationSubProcessor;
 import com.blackducksoftware.integration.hub.notification.processor.SubProcessorCache;
-import com.blackducksoftware.integration.hub.service.HubResponseService;
 import com.blackducksoftware.integration.hub.service.HubServicesFactory;
 import com.blackducksoftware.integration.jira.common.HubJiraConstants;
 import com.blackducksoftware.integration.jira.common.HubJiraLogger;
@@ -50,6 +49,9 @@ import com.blackducksoftware.integration.jira.common.JiraContext;
 import com.blackducksoftware.integration.jira.common.JiraProject;
 import com.blackducksoftware.integration.jira.common.exception.ConfigurationException;
 import com.blackducksoftware.integration.jira.config.HubJiraFieldCopyConfigSerializable;
+import com.blackducksoftware.integration.jira.hub.HubResponseCache;
+import com.blackducksoftware.integration.jira.hub.LicenseCache;
+import com.blackducksoftware.integration.jira.hub.LicenseCache.CachedLicense;
 import com.blackducksoftware.integration.jira.hub.ProjectResponse;
 import com.blackducksoftware.integration.jira.hub.VersionRiskProfileResponse;
 import com.blackducksoftware.integration.jira.task.JiraSettingsService;
@@ -65,10 +67,12 @@ public abstract class NotificationToEventConverter extends NotificationSubProces
     private final String issueTypeId;
     private final HubJiraFieldCopyConfigSerializable fieldCopyConfig;
     private final HubServicesFactory hubServicesFactory;
-    private final AggregateBomRequestService bomRequestService;
+    private final BomComponentCache bomComponentCache;
+    private final HubResponseCache hubResponseCache;
 
     public NotificationToEventConverter(final SubProcessorCache cache, final JiraServices jiraServices, final JiraContext jiraContext, final JiraSettingsService jiraSettingsService, final HubProjectMappings mappings,
-            final String issueTypeName, final HubJiraFieldCopyConfigSerializable fieldCopyConfig, final HubServicesFactory hubServicesFactory, final HubJiraLogger logger) throws ConfigurationException {
+            final String issueTypeName, final HubJiraFieldCopyConfigSerializable fieldCopyConfig, final HubServicesFactory hubServicesFactory, final BomComponentCache bomComponentCache, final HubResponseCache hubResponseCache,
+            final HubJiraLogger logger) throws ConfigurationException {
         super(cache, hubServicesFactory.createMetaService());
         this.jiraServices = jiraServices;
         this.jiraContext = jiraContext;
@@ -77,7 +81,8 @@ public abstract class NotificationToEventConverter extends NotificationSubProces
         this.issueTypeId = lookUpIssueTypeId(issueTypeName);
         this.fieldCopyConfig = fieldCopyConfig;
         this.hubServicesFactory = hubServicesFactory;
-        this.bomRequestService = hubServicesFactory.createAggregateBomRequestService();
+        this.bomComponentCache = bomComponentCache;
+        this.hubResponseCache = hubResponseCache;
         this.logger = logger;
     }
 
@@ -128,12 +133,29 @@ public abstract class NotificationToEventConverter extends NotificationSubProces
         return hubServicesFactory;
     }
 
-    protected String getComponentLicensesStringPlainText(final NotificationContentItem notification) throws IntegrationException {
-        return getComponentLicensesString(notification, false);
-    }
-
-    protected String getComponentLicensesStringWithLinksAtlassianFormat(final NotificationContentItem notification) throws IntegrationException {
-        return getComponentLicensesString(notification, true);
+    /**
+     * Looks up the component's licenses once; the result renders both the plain-text and the linked license strings.
+     */
+    protected ComponentLicenses getComponentLicenses(final NotificationContentItem notification) throws IntegrationException {
+        final ComponentVersionView componentVersion = notification.getComponentVersion();
+        final ComponentLicenses componentLicenses;
+        if ((componentVersion != null) && (componentVersion.license != null) && (componentVersion.license.licenses != null)) {
+            final ComplexLicenseEnum type = componentVersion.license.type;
+            if (type != null) {
+                final String licenseJoinString = (type == ComplexLicenseEnum.CONJUNCTIVE) ? HubJiraConstants.LICENSE_NAME_JOINER_AND
+                        : HubJiraConstants.LICENSE_NAME_JOINER_OR;
+                componentLicenses = new ComponentLicenses(licenseJoinString);
+                for (final ComplexLicenseView license : componentVersion.license.licenses) {
+                    componentLicenses.add(license.name, getCachedLicense(license));
+                }
+            } else {
+                componentLicenses = new ComponentLicenses(null);
+                componentLicenses.add(componentVersion.license.name, getCachedLicense(componentVersion.license));
+            }
+        } else {
+            componentLicenses = new ComponentLicenses(null);
+        }
+        return componentLicenses;
     }
 
     protected abstract VersionBomComponentView getBomComponent(final NotificationContentItem notification) throws HubIntegrationException;
@@ -175,15 +197,7 @@ public abstract class NotificationToEventConverter extends NotificationSubProces
             logger.debug(String.format("The BOM url for project %s / %s is null, indicating that the BOM is now empty", projectVersion.getProjectName(), projectVersion.getProjectVersionName()));
             return null;
         }
-        List<VersionBomComponentView> bomComps;
-        try {
-            bomComps = bomRequestService.getBomEntries(bomUrl);
-        } catch (final Exception e) {
-            logger.debug(String.format("Error getting BOM for project %s / %s; Perhaps the BOM is now empty", projectVersion.getProjectName(), projectVersion.getProjectVersionName()));
-            return null;
-        }
-
-        final VersionBomComponentView targetBomComp = findCompInBom(bomComps, componentUrl, componentVersionUrl);
+        final VersionBomComponentView targetBomComp = bomComponentCache.getBomComponent(bomUrl, componentUrl, componentVersionUrl);
         if (targetBomComp == null) {
             logger.info(String.format("Component %s not found in BOM", componentName));
             String componentVersionName = "<none>";
@@ -195,27 +209,6 @@ public abstract class NotificationToEventConverter extends NotificationSubProces
         return targetBomComp;
     }
 
-    VersionBomComponentView findCompInBom(final List<VersionBomComponentView> bomComps, final String componentUrl, final String componentVersionUrl) {
-        String urlSought;
-        if (componentVersionUrl != null) {
-            urlSought = componentVersionUrl;
-        } else {
-            urlSought = componentUrl;
-        }
-        for (final VersionBomComponentView bomComp : bomComps) {
-            String urlToTest;
-            if (bomComp.componentVersion != null) {
-                urlToTest = bomComp.componentVersion;
-            } else {
-                urlToTest = bomComp.component;
-            }
-            if (urlSought.equals(urlToTest)) {
-                return bomComp;
-            }
-        }
-        return null;
-    }
-
     protected String getProjectVersionNickname(final NotificationContentItem notification) throws HubIntegrationException {
         return notification.getProjectVersion().getNickname();
     }
@@ -224,70 +217,68 @@ public abstract class NotificationToEventConverter extends NotificationSubProces
         final ProjectVersionModel projectVersionModel = notificationContentItem.getProjectVersion();
         final String riskProfileUri = projectVersionModel.getRiskProfileLink();
         final String projectUri = notificationContentItem.getProjectVersion().getProjectLink();
-        final HubResponseService hubResponseService = hubServicesFactory.createHubResponseService();
         try {
-            final VersionRiskProfileResponse riskProfile = hubResponseService.getItem(riskProfileUri, VersionRiskProfileResponse.class);
+            final VersionRiskProfileResponse riskProfile = hubResponseCache.getItem(riskProfileUri, VersionRiskProfileResponse.class);
             eventDataBuilder.setHubProjectVersionLastUpdated(riskProfile.bomLastUpdatedAt);
         } catch (final IntegrationException e) {
             logger.error(String.format("Could not find the risk profile for %s: %s", riskProfileUri, e.getMessage()));
         }
         try {
-            final ProjectResponse projectResponse = hubResponseService.getItem(projectUri, ProjectResponse.class);
+            final ProjectResponse projectResponse = hubResponseCache.getItem(projectUri, ProjectResponse.class);
             final String userUri = projectResponse.projectOwner;
-            final UserView userView = hubResponseService.getItem(userUri, UserView.class);
+            final UserView userView = hubResponseCache.getItem(userUri, UserView.class);
             eventDataBuilder.setHubProjectOwner(userView.firstName + " " + userView.lastName);
         } catch (final IntegrationException e) {
             logger.error(String.format("Could not find the project for %s: %s", projectUri, e.getMessage()));
         }
     }
 
-    private String getComponentLicensesString(final NotificationContentItem notification, final boolean includeLinks) throws IntegrationException {
-        final ComponentVersionView componentVersion = notification.getComponentVersion();
-        String licensesString = "";
-        if ((componentVersion != null) && (componentVersion.license != null) && (componentVersion.license.licenses != null)) {
-            final ComplexLicenseEnum type = componentVersion.license.type;
-            final StringBuilder sb = new StringBuilder();
+    private CachedLicense getCachedLicense(final ComplexLicenseView license) throws IntegrationException {
+        return LicenseCache.getInstance().getLicense(license.license, getHubServicesFactory().createHubResponseService(), getMetaService());
+    }
 
-            if (type != null) {
+    protected static class ComponentLicenses {
+        private final String licenseJoinString;
 
-                final String licenseJoinString = (type == ComplexLicenseEnum.CONJUNCTIVE) ? HubJiraConstants.LICENSE_NAME_JOINER_AND
-                        : HubJiraConstants.LICENSE_NAME_JOINER_OR;
-                int licenseIndex = 0;
-                for (final ComplexLicenseView license : componentVersion.license.licenses) {
-                    if (licenseIndex++ > 0) {
-                        sb.append(licenseJoinString);
-                    }
-                    createLicenseString(sb, license, includeLinks);
-                }
+        private final List<String> names = new ArrayList<>();
 
-            } else {
-                createLicenseString(sb, componentVersion.license, includeLinks);
-            }
-            licensesString = sb.toString();
+        private final List<CachedLicense> licenses = new ArrayList<>();
+
+        public ComponentLicenses(final String licenseJoinString) {
+            this.licenseJoinString = licenseJoinString;
         }
-        return licensesString;
-    }
 
-    private void createLicenseString(final StringBuilder sb, final ComplexLicenseView license, final boolean includeLinks) throws IntegrationException {
-        final String licenseTextUrl = getLicenseTextUrl(license);
-        logger.debug("Link to licence text: " + licenseTextUrl);
+        public void add(final String name, final CachedLicense license) {
+            names.add(name);
+            licenses.add(license);
+        }
 
-        if (includeLinks) {
-            sb.append("[");
+        public String getPlainText() {
+            return render(false);
         }
-        sb.append(license.name);
-        if (includeLinks) {
-            sb.append("|");
-            sb.append(licenseTextUrl);
-            sb.append("]");
+
+        public String getWithLinksAtlassianFormat() {
+            return render(true);
         }
-    }
 
-    private String getLicenseTextUrl(final ComplexLicenseView license) throws IntegrationException {
-        final String licenseUrl = license.license;
-        final ComplexLicenseView fullLicense = getHubServicesFactory().createHubResponseService().getItem(licenseUrl, ComplexLicenseView.class);
-        final String licenseTextUrl = getMetaService().getFirstLink(fullLicense, "text");
-        return licenseTextUrl;
+        private String render(final boolean includeLinks) {
+            final StringBuilder sb = new StringBuilder();
+            for (int licenseIndex = 0; licenseIndex < names.size(); licenseIndex++) {
+                if (licenseIndex > 0) {
+                    sb.append(licenseJoinString);
+                }
+                if (includeLinks) {
+                    sb.append("[");
+                }
+                sb.append(names.get(licenseIndex));
+                if (includeLinks) {
+                    sb.append("|");
+                    sb.append(licenses.get(licenseIndex).getTextUrl());
+                    sb.append("]");
+                }
+            }
+            return sb.toString();
+        }
     }
 
 }
@@ -48,6 +48,7 @@ import com.blackducksoftware.integration.jira.common.JiraProject;
 import com.blackducksoftware.integration.jira.common.exception.ConfigurationException;
 import com.blackducksoftware.integration.jira.common.exception.EventDataBuilderException;
 import com.blackducksoftware.integration.jira.config.HubJiraFieldCopyConfigSerializable;
+import com.blackducksoftware.integration.jira.hub.HubResponseCache;
 import com.blackducksoftware.integration.jira.task.JiraSettingsService;
 import com.blackducksoftware.integration.jira.task.conversion.output.HubEventAction;
 import com.blackducksoftware.integration.jira.task.conversion.output.IssuePropertiesGenerator;
@@ -61,8 +62,9 @@ public class PolicyOverrideNotificationConverter extends AbstractPolicyNotificat
     private final static HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(PolicyOverrideNotificationConverter.class.getName()));
 
     public PolicyOverrideNotificationConverter(final SubProcessorCache cache, final HubProjectMappings mappings, final HubJiraFieldCopyConfigSerializable fieldCopyConfig, final JiraServices jiraServices, final JiraContext jiraContext,
-            final JiraSettingsService jiraSettingsService, final HubServicesFactory hubServicesFactory) throws ConfigurationException {
-        super(cache, mappings, jiraServices, jiraContext, jiraSettingsService, HubJiraConstants.HUB_POLICY_VIOLATION_ISSUE, fieldCopyConfig, hubServicesFactory, logger);
+            final JiraSettingsService jiraSettingsService, final HubServicesFactory hubServicesFactory,
+            final BomComponentCache bomComponentCache, final HubResponseCache hubResponseCache) throws ConfigurationException {
+        super(cache, mappings, jiraServices, jiraContext, jiraSettingsService, HubJiraConstants.HUB_POLICY_VIOLATION_ISSUE, fieldCopyConfig, hubServicesFactory, bomComponentCache, hubResponseCache, logger);
     }
 
     @Override
@@ -71,10 +73,12 @@ public class PolicyOverrideNotificationConverter extends AbstractPolicyNotificat
 
         final HubEventAction action = HubEventAction.RESOLVE;
         final PolicyOverrideContentItem notification = (PolicyOverrideContentItem) notif;
+        final VersionBomComponentView bomComp = getBomComponent(notification);
+        final ComponentLicenses componentLicenses = getComponentLicenses(notification);
         for (final PolicyRuleView rule : notification.getPolicyRuleList()) {
             final IssuePropertiesGenerator issuePropertiesGenerator = new PolicyIssuePropertiesGenerator(notification, rule.name);
 
-            final String licensesString = getComponentLicensesStringPlainText(notification);
+            final String licensesString = componentLicenses.getPlainText();
             final ComponentVersionView compVer = notification.getComponentVersion();
             final String compVerName;
             if (compVer == null) {
@@ -84,7 +88,6 @@ public class PolicyOverrideNotificationConverter extends AbstractPolicyNotificat
             }
             logger.debug("Component " + notification.getComponentName() + " (version: " + compVerName + "): License: " + licensesString);
 
-            final VersionBomComponentView bomComp = getBomComponent(notification);
             final EventDataBuilder eventDataBuilder = new EventDataBuilder(EventCategory.POLICY);
             eventDataBuilder.setAction(action).setJiraAdminUserName(getJiraContext().getJiraAdminUser().getName()).setJiraAdminUserKey(getJiraContext().getJiraAdminUser().getKey())
                     .setJiraIssueCreatorUserName(getJiraContext().getJiraIssueCreatorUser().getName()).setJiraIssueCreatorUserKey(getJiraContext().getJiraIssueCreatorUser().getKey())
@@ -93,7 +96,7 @@ public class PolicyOverrideNotificationConverter extends AbstractPolicyNotificat
                     .setHubProjectVersion(notification.getProjectVersion().getProjectVersionName()).setHubProjectVersionUrl(notification.getProjectVersion().getUrl()).setHubComponentName(notification.getComponentName())
                     .setHubComponentUrl(notification.getComponentUrl()).setHubComponentVersion(compVerName).setHubComponentVersionUrl(notification.getComponentVersionUrl()).setHubLicenseNames(licensesString)
                     .setHubComponentUsage(getComponentUsage(notification, bomComp)).setHubComponentOrigin(getComponentOrigin(notification)).setHubComponentOriginId(getComponentOriginId(notification))
-                    .setHubProjectVersionNickname(getProjectVersionNickname(notification)).setJiraIssueSummary(getIssueSummary(notification, rule)).setJiraIssueDescription(getIssueDescription(notification, rule)).setJiraIssueComment(null)
+                    .setHubProjectVersionNickname(getProjectVersionNickname(notification)).setJiraIssueSummary(getIssueSummary(notification, rule)).setJiraIssueDescription(getIssueDescription(notification, rule, componentLicenses)).setJiraIssueComment(null)
                     .setJiraIssueReOpenComment(HubJiraConstants.HUB_POLICY_VIOLATION_REOPEN).setJiraIssueCommentForExistingIssue(HubJiraConstants.HUB_POLICY_VIOLATION_OVERRIDDEN_COMMENT)
                     .setJiraIssueResolveComment(HubJiraConstants.HUB_POLICY_VIOLATION_RESOLVE).setJiraIssueCommentInLieuOfStateChange(HubJiraConstants.HUB_POLICY_VIOLATION_OVERRIDDEN_COMMENT)
                     .setJiraIssuePropertiesGenerator(issuePropertiesGenerator).setHubRuleName(rule.name).setHubRuleUrl(getHubServicesFactory().createMetaService().getHref(rule)).setComponentIssueUrl(notif.getComponentIssueLink());
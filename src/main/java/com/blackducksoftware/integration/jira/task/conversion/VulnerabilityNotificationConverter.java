@@ -54,6 +54,7 @@ import com.blackducksoftware.integration.jira.common.JiraProject;
 import com.blackducksoftware.integration.jira.common.exception.ConfigurationException;
 import com.blackducksoftware.integration.jira.common.exception.EventDataBuilderException;
 import com.blackducksoftware.integration.jira.config.HubJiraFieldCopyConfigSerializable;
+import com.blackducksoftware.integration.jira.hub.HubResponseCache;
 import com.blackducksoftware.integration.jira.task.JiraSettingsService;
 import com.blackducksoftware.integration.jira.task.conversion.output.HubEventAction;
 import com.blackducksoftware.integration.jira.task.conversion.output.IssuePropertiesGenerator;
@@ -74,10 +75,10 @@ public class VulnerabilityNotificationConverter extends NotificationToEventConve
             final HubJiraFieldCopyConfigSerializable fieldCopyConfig,
             final JiraServices jiraServices,
             final JiraContext jiraContext, final JiraSettingsService jiraSettingsService,
-            final HubServicesFactory hubServicesFactory)
+            final HubServicesFactory hubServicesFactory, final BomComponentCache bomComponentCache, final HubResponseCache hubResponseCache)
             throws ConfigurationException {
         super(cache, jiraServices, jiraContext, jiraSettingsService, mappings, HubJiraConstants.HUB_VULNERABILITY_ISSUE,
-                fieldCopyConfig, hubServicesFactory, logger);
+                fieldCopyConfig, hubServicesFactory, bomComponentCache, hubResponseCache, logger);
         this.vulnerableBomComponentRestService = hubServicesFactory.createVulnerableBomComponentRequestService();
         this.hubRequestService = hubServicesFactory.createHubResponseService();
     }
@@ -197,7 +198,8 @@ public class VulnerabilityNotificationConverter extends NotificationToEventConve
                 notification);
         final String comment = generateComment(notification);
 
-        final String licensesString = getComponentLicensesStringPlainText(notification);
+        final ComponentLicenses componentLicenses = getComponentLicenses(notification);
+        final String licensesString = componentLicenses.getPlainText();
         logger.debug("Component " + notification.getComponentName() +
                 " (version: " + notification.getComponentVersion().versionName + "): License: " + licensesString);
 
@@ -225,7 +227,7 @@ public class VulnerabilityNotificationConverter extends NotificationToEventConve
                 .setHubComponentOriginId(getComponentOriginId(notification))
                 .setHubProjectVersionNickname(getProjectVersionNickname(notification))
                 .setJiraIssueSummary(getIssueSummary(notification))
-                .setJiraIssueDescription(getIssueDescription(notification, vulnerableComponentsUrl))
+                .setJiraIssueDescription(getIssueDescription(notification, vulnerableComponentsUrl, componentLicenses))
                 .setJiraIssueComment(comment)
                 .setJiraIssueReOpenComment(HubJiraConstants.HUB_VULNERABILITY_REOPEN)
                 .setJiraIssueCommentForExistingIssue(comment)
@@ -287,7 +289,7 @@ public class VulnerabilityNotificationConverter extends NotificationToEventConve
         return issueSummary.toString();
     }
 
-    private String getIssueDescription(final VulnerabilityContentItem notif, final String vulnerableComponentsUrl) {
+    private String getIssueDescription(final VulnerabilityContentItem notif, final String vulnerableComponentsUrl, final ComponentLicenses componentLicenses) {
         final StringBuilder issueDescription = new StringBuilder();
 
         issueDescription.append("This issue tracks vulnerability status changes on Hub project ");
@@ -321,14 +323,8 @@ public class VulnerabilityNotificationConverter extends NotificationToEventConve
             issueDescription.append("]");
         }
         issueDescription.append(" in the Hub.");
-        final String licenseText;
-        try {
-            licenseText = getComponentLicensesStringWithLinksAtlassianFormat(notif);
-            issueDescription.append("\nComponent license(s): ");
-            issueDescription.append(licenseText);
-        } catch (final IntegrationException e) {
-            // omit license text
-        }
+        issueDescription.append("\nComponent license(s): ");
+        issueDescription.append(componentLicenses.getWithLinksAtlassianFormat());
         return issueDescription.toString();
     }
 
@@ -388,6 +388,50 @@ public class EventData {
         return hubProjectVersionLastUpdated;
     }
 
+    /**
+     * A copy of this event data with the given action, and with the given comment in place of the comments an
+     * ADD_COMMENT or ADD_COMMENT_IF_EXISTS action adds. Used to merge several comment events for the same issue.
+     */
+    public EventData copyWithComment(final HubEventAction action, final String comment) {
+        final EventData copy = new EventData();
+        copy.action = action;
+        copy.jiraAdminUsername = jiraAdminUsername;
+        copy.jiraIssueCreatorUsername = jiraIssueCreatorUsername;
+        copy.jiraAdminUserKey = jiraAdminUserKey;
+        copy.jiraIssueCreatorUserKey = jiraIssueCreatorUserKey;
+        copy.jiraIssueAssigneeUserId = jiraIssueAssigneeUserId;
+        copy.jiraIssueTypeId = jiraIssueTypeId;
+        copy.jiraProjectName = jiraProjectName;
+        copy.jiraProjectId = jiraProjectId;
+        copy.jiraFieldCopyMappings = jiraFieldCopyMappings;
+        copy.hubProjectName = hubProjectName;
+        copy.hubProjectVersion = hubProjectVersion;
+        copy.hubProjectVersionUrl = hubProjectVersionUrl;
+        copy.hubComponentName = hubComponentName;
+        copy.hubComponentUrl = hubComponentUrl;
+        copy.hubComponentVersion = hubComponentVersion;
+        copy.hubComponentVersionUrl = hubComponentVersionUrl;
+        copy.hubLicenseNames = hubLicenseNames;
+        copy.hubComponentUsage = hubComponentUsage;
+        copy.hubComponentOrigin = hubComponentOrigin;
+        copy.hubComponentOriginId = hubComponentOriginId;
+        copy.hubProjectVersionNickname = hubProjectVersionNickname;
+        copy.jiraIssueSummary = jiraIssueSummary;
+        copy.jiraIssueDescription = jiraIssueDescription;
+        copy.jiraIssueComment = comment;
+        copy.jiraIssueReOpenComment = jiraIssueReOpenComment;
+        copy.jiraIssueCommentForExistingIssue = comment;
+        copy.jiraIssueResolveComment = jiraIssueResolveComment;
+        copy.jiraIssueCommentInLieuOfStateChange = comment;
+        copy.jiraIssuePropertiesGenerator = jiraIssuePropertiesGenerator;
+        copy.hubRuleName = hubRuleName;
+        copy.hubRuleUrl = hubRuleUrl;
+        copy.componentIssueUrl = componentIssueUrl;
+        copy.hubProjectOwner = hubProjectOwner;
+        copy.hubProjectVersionLastUpdated = hubProjectVersionLastUpdated;
+        return copy;
+    }
+
     public Map<String, Object> getDataSet() {
         final Map<String, Object> dataSet = new HashMap<>();
         dataSet.put(HubJiraConstants.EVENT_DATA_SET_KEY_JIRA_EVENT_DATA, this);
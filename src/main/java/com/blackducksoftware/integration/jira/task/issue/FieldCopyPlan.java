@@ -0,0 +1,177 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.issue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+
+import com.atlassian.jira.issue.fields.Field;
+import com.atlassian.jira.issue.fields.FieldManager;
+import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
+import com.blackducksoftware.integration.jira.common.HubJiraLogger;
+import com.blackducksoftware.integration.jira.common.PluginField;
+import com.blackducksoftware.integration.jira.config.HubJiraFieldCopyConfigSerializable;
+import com.blackducksoftware.integration.jira.config.ProjectFieldCopyMapping;
+import com.blackducksoftware.integration.jira.task.conversion.output.eventdata.EventData;
+
+/**
+ * The field copy mappings compiled once per run: grouped by JIRA project (with the wildcard mappings folded into every
+ * project's list), with the target fields already looked up and the source fields already resolved to accessors.
+ */
+public class FieldCopyPlan {
+    private static final HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(FieldCopyPlan.class.getName()));
+
+    private static final Map<PluginField, SourceFieldAccessor> ACCESSORS = createAccessors();
+
+    private final Map<String, List<Step>> stepsByJiraProjectName;
+
+    private final List<Step> wildcardSteps;
+
+    private FieldCopyPlan(final Map<String, List<Step>> stepsByJiraProjectName, final List<Step> wildcardSteps) {
+        this.stepsByJiraProjectName = stepsByJiraProjectName;
+        this.wildcardSteps = wildcardSteps;
+    }
+
+    public static FieldCopyPlan compile(final HubJiraFieldCopyConfigSerializable fieldCopyConfig, final FieldManager fieldManager) {
+        final Set<ProjectFieldCopyMapping> mappings = (fieldCopyConfig == null) ? null : fieldCopyConfig.getProjectFieldCopyMappings();
+        if ((mappings == null) || mappings.isEmpty()) {
+            logger.debug("No field copy mappings");
+            return new FieldCopyPlan(Collections.emptyMap(), Collections.emptyList());
+        }
+
+        final Map<String, Field> targetFieldsById = new HashMap<>();
+        final List<Step> wildcardSteps = new ArrayList<>();
+        final Map<String, List<Step>> projectSteps = new HashMap<>();
+        for (final ProjectFieldCopyMapping mapping : mappings) {
+            final String targetFieldId = mapping.getTargetFieldId();
+            final Field targetField = targetFieldsById.computeIfAbsent(targetFieldId, fieldManager::getField);
+            final Step step = new Step(mapping, targetField, getAccessor(mapping.getSourceFieldId()));
+            if (HubJiraConstants.FIELD_COPY_MAPPING_WILDCARD.equals(mapping.getJiraProjectName())) {
+                wildcardSteps.add(step);
+            } else {
+                projectSteps.computeIfAbsent(mapping.getJiraProjectName(), jiraProjectName -> new ArrayList<>()).add(step);
+            }
+        }
+
+        final Map<String, List<Step>> stepsByJiraProjectName = new HashMap<>();
+        for (final Map.Entry<String, List<Step>> entry : projectSteps.entrySet()) {
+            final List<Step> steps = new ArrayList<>(entry.getValue());
+            steps.addAll(wildcardSteps);
+            stepsByJiraProjectName.put(entry.getKey(), Collections.unmodifiableList(steps));
+        }
+        logger.debug("Compiled " + mappings.size() + " field copy mapping(s) for " + stepsByJiraProjectName.size() + " JIRA project(s); "
+                + wildcardSteps.size() + " apply to all JIRA projects");
+        return new FieldCopyPlan(stepsByJiraProjectName, Collections.unmodifiableList(wildcardSteps));
+    }
+
+    /**
+     * The steps that apply to the given JIRA project, in the order they should be applied.
+     */
+    public List<Step> getSteps(final String jiraProjectName) {
+        final List<Step> steps = stepsByJiraProjectName.get(jiraProjectName);
+        if (steps != null) {
+            return steps;
+        }
+        return wildcardSteps;
+    }
+
+    private static SourceFieldAccessor getAccessor(final String sourceFieldId) {
+        for (final PluginField pluginField : PluginField.values()) {
+            if (pluginField.getId().equals(sourceFieldId)) {
+                return ACCESSORS.get(pluginField);
+            }
+        }
+        return null;
+    }
+
+    private static Map<PluginField, SourceFieldAccessor> createAccessors() {
+        final Map<PluginField, SourceFieldAccessor> accessors = new EnumMap<>(PluginField.class);
+        accessors.put(PluginField.HUB_CUSTOM_FIELD_COMPONENT, (notificationEvent, eventData) -> eventData.getHubComponentName());
+        accessors.put(PluginField.HUB_CUSTOM_FIELD_COMPONENT_VERSION, (notificationEvent, eventData) -> eventData.getHubComponentVersion());
+        accessors.put(PluginField.HUB_CUSTOM_FIELD_POLICY_RULE, (notificationEvent, eventData) -> {
+            if (notificationEvent.isPolicyEvent()) {
+                return eventData.getHubRuleName();
+            }
+            logger.debug("Skipping field " + PluginField.HUB_CUSTOM_FIELD_POLICY_RULE.getName() + " for vulnerability issue");
+            return null;
+        });
+        accessors.put(PluginField.HUB_CUSTOM_FIELD_PROJECT, (notificationEvent, eventData) -> eventData.getHubProjectName());
+        accessors.put(PluginField.HUB_CUSTOM_FIELD_PROJECT_VERSION, (notificationEvent, eventData) -> eventData.getHubProjectVersion());
+        accessors.put(PluginField.HUB_CUSTOM_FIELD_PROJECT_OWNER, (notificationEvent, eventData) -> eventData.getHubProjectOwner());
+        accessors.put(PluginField.HUB_CUSTOM_FIELD_PROJECT_VERSION_LAST_UPDATED, (notificationEvent, eventData) -> eventData.getHubProjectVersionLastUpdated());
+        return accessors;
+    }
+
+    public interface SourceFieldAccessor {
+        String getValue(NotificationEvent notificationEvent, EventData eventData);
+    }
+
+    public static class Step {
+        private final ProjectFieldCopyMapping mapping;
+
+        private final Field targetField;
+
+        private final SourceFieldAccessor sourceFieldAccessor;
+
+        private final boolean customFieldTarget;
+
+        private Step(final ProjectFieldCopyMapping mapping, final Field targetField, final SourceFieldAccessor sourceFieldAccessor) {
+            this.mapping = mapping;
+            this.targetField = targetField;
+            this.sourceFieldAccessor = sourceFieldAccessor;
+            this.customFieldTarget = (targetField != null) && targetField.getId().startsWith(FieldManager.CUSTOM_FIELD_PREFIX);
+        }
+
+        public ProjectFieldCopyMapping getMapping() {
+            return mapping;
+        }
+
+        /**
+         * The target field, or null if no field with the mapping's target field ID exists.
+         */
+        public Field getTargetField() {
+            return targetField;
+        }
+
+        /**
+         * The source field accessor, or null if the mapping's source field ID is not recognized.
+         */
+        public SourceFieldAccessor getSourceFieldAccessor() {
+            return sourceFieldAccessor;
+        }
+
+        public boolean isCustomFieldTarget() {
+            return customFieldTarget;
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.issue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.atlassian.jira.issue.CustomFieldManager;
+import com.atlassian.jira.issue.fields.CustomField;
+import com.blackducksoftware.integration.jira.common.PluginField;
+
+/**
+ * Plugin-wide map from the names of the plugin's custom fields to their IDs, so that the issue panels can look fields
+ * up by ID instead of searching all custom fields by name on every render.
+ *
+ * The map is filled from the custom fields found or created by JIRA setup, and replaced each time setup runs. A name
+ * that is not in the map is searched for once; the result (including "not found") is remembered until the next setup.
+ */
+public class HubCustomFieldCache {
+    private static final HubCustomFieldCache INSTANCE = new HubCustomFieldCache();
+
+    private static final String NOT_FOUND = "";
+
+    private final Map<String, String> customFieldIdsByName = new ConcurrentHashMap<>();
+
+    public static HubCustomFieldCache getInstance() {
+        return INSTANCE;
+    }
+
+    HubCustomFieldCache() {
+    }
+
+    public CustomField getCustomField(final CustomFieldManager customFieldManager, final String fieldName) {
+        final String customFieldId = customFieldIdsByName.get(fieldName);
+        if (NOT_FOUND.equals(customFieldId)) {
+            return null;
+        }
+        if (customFieldId != null) {
+            final CustomField customField = customFieldManager.getCustomFieldObject(customFieldId);
+            if (customField != null) {
+                return customField;
+            }
+        }
+        final CustomField customField = customFieldManager.getCustomFieldObjectByName(fieldName);
+        customFieldIdsByName.put(fieldName, customField == null ? NOT_FOUND : customField.getId());
+        return customField;
+    }
+
+    /**
+     * Replaces the cached IDs with those of the custom fields found or created by JIRA setup.
+     */
+    public void update(final Map<PluginField, CustomField> customFields) {
+        final Map<String, String> setupCustomFieldIdsByName = new HashMap<>();
+        if (customFields != null) {
+            for (final Map.Entry<PluginField, CustomField> entry : customFields.entrySet()) {
+                if (entry.getValue() != null) {
+                    setupCustomFieldIdsByName.put(entry.getKey().getName(), entry.getValue().getId());
+                }
+            }
+        }
+        customFieldIdsByName.keySet().retainAll(setupCustomFieldIdsByName.keySet());
+        customFieldIdsByName.putAll(setupCustomFieldIdsByName);
+    }
+
+    public void invalidate() {
+        customFieldIdsByName.clear();
+    }
+
+    public int size() {
+        return customFieldIdsByName.size();
+    }
+
+}
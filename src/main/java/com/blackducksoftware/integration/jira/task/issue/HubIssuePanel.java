@@ -76,7 +76,7 @@ public class HubIssuePanel extends AbstractJiraContextProvider {
 
     private String getCustomFieldValue(final Issue currentIssue, final CustomFieldManager customFieldManager,
             final String fieldName) {
-        final CustomField hubCustomField = customFieldManager.getCustomFieldObjectByName(fieldName);
+        final CustomField hubCustomField = HubCustomFieldCache.getInstance().getCustomField(customFieldManager, fieldName);
         if (hubCustomField != null) {
             final String hubFieldValue = (String) currentIssue.getCustomFieldValue(hubCustomField);
             if (StringUtils.isNotBlank(hubFieldValue)) {
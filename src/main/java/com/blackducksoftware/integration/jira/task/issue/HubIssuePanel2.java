@@ -110,7 +110,7 @@ public class HubIssuePanel2 extends AbstractJiraContextProvider {
 
     private String getCustomFieldValue(final Issue currentIssue, final CustomFieldManager customFieldManager,
             final String fieldName) {
-        final CustomField hubCustomField = customFieldManager.getCustomFieldObjectByName(fieldName);
+        final CustomField hubCustomField = HubCustomFieldCache.getInstance().getCustomField(customFieldManager, fieldName);
         if (hubCustomField != null) {
             final String hubFieldValue = (String) currentIssue.getCustomFieldValue(hubCustomField);
             if (StringUtils.isNotBlank(hubFieldValue)) {
@@ -24,19 +24,18 @@
 package com.blackducksoftware.integration.jira.task.issue;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
 import org.apache.log4j.Logger;
 
-import com.atlassian.jira.bc.project.component.ProjectComponent;
+import com.atlassian.jira.issue.IssueFieldConstants;
 import com.atlassian.jira.issue.IssueInputParameters;
 import com.atlassian.jira.issue.MutableIssue;
 import com.atlassian.jira.issue.fields.CustomField;
 import com.atlassian.jira.issue.fields.Field;
-import com.atlassian.jira.issue.fields.FieldManager;
-import com.atlassian.jira.project.version.Version;
+import com.atlassian.jira.issue.label.Label;
 import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
 import com.blackducksoftware.integration.jira.common.HubJiraConstants;
 import com.blackducksoftware.integration.jira.common.HubJiraLogger;
@@ -54,19 +53,40 @@ public class IssueFieldHandler {
     private final JiraSettingsService jiraSettingsService;
     private final TicketInfoFromSetup ticketInfoFromSetup;
     private final JiraContext jiraContext;
+    private final ProjectComponentVersionIndex projectComponentVersionIndex;
+    private final FieldCopyPlan fieldCopyPlan;
 
-    public IssueFieldHandler(final JiraServices jiraServices, final JiraSettingsService jiraSettingsService, final JiraContext jiraContext, final TicketInfoFromSetup ticketInfoFromSetup) {
+    public IssueFieldHandler(final JiraServices jiraServices, final JiraSettingsService jiraSettingsService, final JiraContext jiraContext, final TicketInfoFromSetup ticketInfoFromSetup,
+            final FieldCopyPlan fieldCopyPlan) {
         this.jiraServices = jiraServices;
         this.jiraSettingsService = jiraSettingsService;
         this.jiraContext = jiraContext;
         this.ticketInfoFromSetup = ticketInfoFromSetup;
+        this.projectComponentVersionIndex = new ProjectComponentVersionIndex(jiraServices);
+        this.fieldCopyPlan = fieldCopyPlan;
     }
 
-    public void addLabels(final MutableIssue issue, final List<String> labels) {
-        for (final String label : labels) {
-            logger.debug("Adding label: " + label);
-            jiraServices.getLabelManager().addLabel(jiraContext.getJiraIssueCreatorUser(), issue.getId(), label, false);
+    /**
+     * Labels are submitted with the other field values when the issue is created, but JIRA drops them if the labels
+     * field is not on the project's create screen. Any that did not make it are added here in a single write.
+     */
+    public void addMissingLabels(final MutableIssue issue, final List<String> labels) {
+        if (labels.isEmpty()) {
+            return;
         }
+        final Set<String> issueLabels = new LinkedHashSet<>();
+        if (issue.getLabels() != null) {
+            for (final Label label : issue.getLabels()) {
+                issueLabels.add(label.getLabel());
+            }
+        }
+        if (issueLabels.containsAll(labels)) {
+            logger.debug("Labels were set when the issue was created");
+            return;
+        }
+        issueLabels.addAll(labels);
+        logger.debug("Setting labels: " + issueLabels);
+        jiraServices.getLabelManager().setLabels(jiraContext.getJiraIssueCreatorUser(), issue.getId(), issueLabels, false, false);
     }
 
     public void setPluginFieldValues(final NotificationEvent notificationEvent, final EventData eventData, final IssueInputParameters issueInputParameters) {
@@ -116,33 +136,11 @@ public class IssueFieldHandler {
     public List<String> setOtherFieldValues(final NotificationEvent notificationEvent, final EventData eventData,
             final IssueInputParameters issueInputParameters) {
         final List<String> labels = new ArrayList<>();
-        final Set<ProjectFieldCopyMapping> projectFieldCopyMappings = eventData.getJiraFieldCopyMappings();
-        if (projectFieldCopyMappings == null) {
-            logger.debug("projectFieldCopyMappings is null");
-            return labels;
-        }
-        if (projectFieldCopyMappings.size() == 0) {
-            logger.debug("projectFieldCopyMappings is null");
-            return labels;
-        }
-
-        for (final ProjectFieldCopyMapping fieldCopyMapping : projectFieldCopyMappings) {
-            logger.debug("projectFieldCopyMappings: " + projectFieldCopyMappings);
-            if ((!eventData.getJiraProjectName().equals(fieldCopyMapping.getJiraProjectName()))
-                    && (!HubJiraConstants.FIELD_COPY_MAPPING_WILDCARD.equals(fieldCopyMapping.getJiraProjectName()))) {
-                logger.debug("This field copy mapping is for JIRA project " + fieldCopyMapping.getJiraProjectName()
-                        + "; skipping it");
-                continue;
-            }
-            logger.debug("This field copy mapping is for this JIRA project (or all JIRA projects); using it");
-
-            final String targetFieldId = fieldCopyMapping.getTargetFieldId();
-            logger.debug("Setting field with ID " + targetFieldId + " from field " + fieldCopyMapping.getSourceFieldName());
-
-            final Field targetField = jiraServices.getFieldManager().getField(targetFieldId);
-            logger.debug("\ttargetField: " + targetField);
+        for (final FieldCopyPlan.Step step : fieldCopyPlan.getSteps(eventData.getJiraProjectName())) {
+            final ProjectFieldCopyMapping fieldCopyMapping = step.getMapping();
+            final Field targetField = step.getTargetField();
             if (targetField == null) {
-                final String errorMessage = "Custom field with ID " + targetFieldId + " not found; won't be set";
+                final String errorMessage = "Custom field with ID " + fieldCopyMapping.getTargetFieldId() + " not found; won't be set";
                 logger.error(errorMessage);
                 jiraSettingsService.addHubError(errorMessage,
                         eventData.getHubProjectName(),
@@ -153,14 +151,25 @@ public class IssueFieldHandler {
                         "setOtherFieldValues");
                 continue;
             }
+            if (step.getSourceFieldAccessor() == null) {
+                final String errorMessage = "Unrecognized plugin field ID: " + fieldCopyMapping.getSourceFieldId();
+                logger.error(errorMessage);
+                jiraSettingsService.addHubError(errorMessage,
+                        eventData.getHubProjectName(),
+                        eventData.getHubProjectVersion(),
+                        eventData.getJiraProjectName(),
+                        eventData.getJiraAdminUsername(),
+                        eventData.getJiraIssueCreatorUsername(),
+                        "getPluginFieldValue");
+                continue;
+            }
 
-            final String fieldValue = getPluginFieldValue(notificationEvent, eventData, fieldCopyMapping.getSourceFieldId());
+            final String fieldValue = step.getSourceFieldAccessor().getValue(notificationEvent, eventData);
             if (fieldValue == null) {
                 continue;
             }
-            logger.debug("New target field value: " + fieldValue);
 
-            if (targetField.getId().startsWith(FieldManager.CUSTOM_FIELD_PREFIX)) {
+            if (step.isCustomFieldTarget()) {
                 logger.debug("Setting custom field " + targetField.getName() + " to " + fieldValue);
                 issueInputParameters.addCustomFieldValue(targetField.getId(), fieldValue);
             } else {
@@ -171,11 +180,14 @@ public class IssueFieldHandler {
                 }
             }
         }
+        if (!labels.isEmpty()) {
+            issueInputParameters.addCustomFieldValue(IssueFieldConstants.LABELS, labels.toArray(new String[labels.size()]));
+        }
         return labels;
     }
 
     /**
-     * If target field is labels field, the label value is returned (labels cannot be applied to an issue during creation).
+     * If target field is labels field, the label value is returned (all labels are submitted together).
      */
     private String setSystemField(final NotificationEvent notificationEvent, final EventData eventData, final IssueInputParameters issueInputParameters,
             final Field targetField,
@@ -184,8 +196,8 @@ public class IssueFieldHandler {
             setAffectedVersion(notificationEvent, eventData, issueInputParameters, targetFieldValue);
         } else if (targetField.getId().equals(HubJiraConstants.COMPONENTS_FIELD_ID)) {
             setComponent(notificationEvent, eventData, issueInputParameters, targetFieldValue);
-        } else if (targetField.getId().equals("labels")) {
-            logger.debug("Recording label to add after issue is created: " + targetFieldValue);
+        } else if (targetField.getId().equals(IssueFieldConstants.LABELS)) {
+            logger.debug("Recording label: " + targetFieldValue);
             return targetFieldValue;
         } else {
             final String errorMessage = "Unrecognized field id (" + targetField.getId() + "); field cannot be set";
@@ -203,16 +215,7 @@ public class IssueFieldHandler {
 
     private void setComponent(final NotificationEvent notificationEvent, final EventData eventData, final IssueInputParameters issueInputParameters,
             final String targetFieldValue) {
-        Long compId = null;
-        final Collection<ProjectComponent> components = jiraServices.getJiraProjectManager()
-                .getProjectObj(eventData.getJiraProjectId())
-                .getComponents();
-        for (final ProjectComponent component : components) {
-            if (targetFieldValue.equals(component.getName())) {
-                compId = component.getId();
-                break;
-            }
-        }
+        final Long compId = projectComponentVersionIndex.getComponentId(eventData.getJiraProjectId(), targetFieldValue);
         if (compId != null) {
             issueInputParameters.setComponentIds(compId);
         } else {
@@ -230,15 +233,7 @@ public class IssueFieldHandler {
 
     private void setAffectedVersion(final NotificationEvent notificationEvent, final EventData eventData, final IssueInputParameters issueInputParameters,
             final String targetFieldValue) {
-        Long versionId = null;
-        final Collection<Version> versions = jiraServices.getJiraProjectManager()
-                .getProjectObj(eventData.getJiraProjectId()).getVersions();
-        for (final Version version : versions) {
-            if (targetFieldValue.equals(version.getName())) {
-                versionId = version.getId();
-                break;
-            }
-        }
+        final Long versionId = projectComponentVersionIndex.getVersionId(eventData.getJiraProjectId(), targetFieldValue);
         if (versionId != null) {
             issueInputParameters.setAffectedVersionIds(versionId);
         } else {
@@ -253,39 +248,4 @@ public class IssueFieldHandler {
                     "setAffectedVersion");
         }
     }
-
-    private String getPluginFieldValue(final NotificationEvent notificationEvent, final EventData eventData, final String pluginFieldId) {
-        String fieldValue = null;
-        if (PluginField.HUB_CUSTOM_FIELD_COMPONENT.getId().equals(pluginFieldId)) {
-            fieldValue = eventData.getHubComponentName();
-        } else if (PluginField.HUB_CUSTOM_FIELD_COMPONENT_VERSION.getId().equals(pluginFieldId)) {
-            fieldValue = eventData.getHubComponentVersion();
-        } else if (PluginField.HUB_CUSTOM_FIELD_POLICY_RULE.getId().equals(pluginFieldId)) {
-            if (notificationEvent.isPolicyEvent()) {
-                fieldValue = eventData.getHubRuleName();
-            } else {
-                logger.debug("Skipping field " + PluginField.HUB_CUSTOM_FIELD_POLICY_RULE.getName() + " for vulnerability issue");
-            }
-        } else if (PluginField.HUB_CUSTOM_FIELD_PROJECT.getId().equals(pluginFieldId)) {
-            fieldValue = eventData.getHubProjectName();
-        } else if (PluginField.HUB_CUSTOM_FIELD_PROJECT_VERSION.getId().equals(pluginFieldId)) {
-            fieldValue = eventData.getHubProjectVersion();
-        } else if (PluginField.HUB_CUSTOM_FIELD_PROJECT_OWNER.getId().equals(pluginFieldId)) {
-            fieldValue = eventData.getHubProjectOwner();
-        } else if (PluginField.HUB_CUSTOM_FIELD_PROJECT_VERSION_LAST_UPDATED.getId().equals(pluginFieldId)) {
-            fieldValue = eventData.getHubProjectVersionLastUpdated();
-        } else {
-            final String errorMessage = "Unrecognized plugin field ID: " + pluginFieldId;
-            logger.error(errorMessage);
-            jiraSettingsService.addHubError(errorMessage,
-                    eventData.getHubProjectName(),
-                    eventData.getHubProjectVersion(),
-                    eventData.getJiraProjectName(),
-                    eventData.getJiraAdminUsername(),
-                    eventData.getJiraIssueCreatorUsername(),
-                    "getPluginFieldValue");
-        }
-
-        return fieldValue;
-    }
 }
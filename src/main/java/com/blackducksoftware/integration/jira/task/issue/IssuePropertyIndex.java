@@ -0,0 +1,167 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.issue;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.atlassian.jira.entity.property.EntityProperty;
+import com.atlassian.jira.entity.property.EntityPropertyQuery;
+import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
+import com.blackducksoftware.integration.jira.common.HubJiraLogger;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * In-memory index from notification event key (the key of the issue property the plugin sets on each issue it
+ * creates) to JIRA issue ID.
+ *
+ * Event keys start with the issue type, JIRA project and Hub project version, so the properties for a batch of events
+ * are loaded with one key-prefix query per project version rather than one query per event. Once a prefix has been
+ * loaded, a key that is not in the index has no issue (unless one is created during the run, in which case the index
+ * is updated as the property is written).
+ */
+public class IssuePropertyIndex {
+    private static final int PRELOAD_PAGE_SIZE = 1000;
+
+    private static final int KEY_PREFIX_PAIR_COUNT = 3;
+
+    private static final String JIRA_ISSUE_ID_PROPERTY_NAME = "jiraIssueId";
+
+    private final HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(this.getClass().getName()));
+
+    private final JiraServices jiraServices;
+
+    private final Map<String, Long> issueIdsByEventKey = new ConcurrentHashMap<>();
+
+    private final Set<String> loadedKeyPrefixes = ConcurrentHashMap.newKeySet();
+
+    public IssuePropertyIndex(final JiraServices jiraServices) {
+        this.jiraServices = jiraServices;
+    }
+
+    public void preload(final Collection<NotificationEvent> events) {
+        for (final NotificationEvent event : events) {
+            final String keyPrefix = getKeyPrefix(event.getEventKey());
+            if ((keyPrefix != null) && !loadedKeyPrefixes.contains(keyPrefix)) {
+                try {
+                    loadKeyPrefix(keyPrefix);
+                } catch (final Exception e) {
+                    // Lookups for these keys will fall back to querying each key
+                    logger.warn("Error loading issue properties with key prefix " + keyPrefix + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the ID of the issue whose property has the given key, or null if the index does not know of one
+     */
+    public Long getIssueId(final String eventKey) {
+        return issueIdsByEventKey.get(eventKey);
+    }
+
+    /**
+     * @return true if the index has loaded every property that could have the given key, so a miss means there is no
+     *         such property
+     */
+    public boolean isComplete(final String eventKey) {
+        final String keyPrefix = getKeyPrefix(eventKey);
+        return (keyPrefix != null) && loadedKeyPrefixes.contains(keyPrefix);
+    }
+
+    public void put(final String eventKey, final Long issueId) {
+        if ((eventKey != null) && (issueId != null)) {
+            issueIdsByEventKey.put(eventKey, issueId);
+        }
+    }
+
+    public void remove(final String eventKey) {
+        issueIdsByEventKey.remove(eventKey);
+    }
+
+    public int size() {
+        return issueIdsByEventKey.size();
+    }
+
+    private void loadKeyPrefix(final String keyPrefix) {
+        int offset = 0;
+        int loadedCount = 0;
+        while (true) {
+            final EntityPropertyQuery.ExecutableQuery executableQuery = jiraServices.getJsonEntityPropertyManager().query().keyPrefix(keyPrefix)
+                    .entityName(HubJiraConstants.ISSUE_PROPERTY_ENTITY_NAME);
+            final List<EntityProperty> properties = executableQuery.offset(offset).maxResults(PRELOAD_PAGE_SIZE).find();
+            for (final EntityProperty property : properties) {
+                final Long issueId = parseIssueId(property.getValue());
+                if (issueId != null) {
+                    issueIdsByEventKey.put(property.getKey(), issueId);
+                    loadedCount++;
+                }
+            }
+            if (properties.size() < PRELOAD_PAGE_SIZE) {
+                break;
+            }
+            offset += properties.size();
+        }
+        loadedKeyPrefixes.add(keyPrefix);
+        logger.debug(String.format("Loaded %d issue properties with key prefix %s", loadedCount, keyPrefix));
+    }
+
+    private Long parseIssueId(final String json) {
+        try {
+            final JsonObject jsonObject = new JsonParser().parse(json).getAsJsonObject();
+            final JsonElement issueIdElement = jsonObject.get(JIRA_ISSUE_ID_PROPERTY_NAME);
+            if ((issueIdElement == null) || issueIdElement.isJsonNull()) {
+                return null;
+            }
+            return issueIdElement.getAsLong();
+        } catch (final RuntimeException e) {
+            logger.debug("Unable to read the issue ID from issue property value " + json + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private String getKeyPrefix(final String eventKey) {
+        if (StringUtils.isBlank(eventKey)) {
+            return null;
+        }
+        int prefixLength = 0;
+        for (int pairIndex = 0; pairIndex < KEY_PREFIX_PAIR_COUNT; pairIndex++) {
+            final int separatorIndex = eventKey.indexOf(HubJiraConstants.ISSUE_PROPERTY_KEY_NAME_VALUE_PAIR_SEPARATOR, prefixLength);
+            if (separatorIndex < 0) {
+                return null;
+            }
+            prefixLength = separatorIndex + HubJiraConstants.ISSUE_PROPERTY_KEY_NAME_VALUE_PAIR_SEPARATOR.length();
+        }
+        return eventKey.substring(0, prefixLength);
+    }
+}
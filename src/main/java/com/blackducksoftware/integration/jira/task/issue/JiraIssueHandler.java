@@ -23,7 +23,12 @@
  */
 package com.blackducksoftware.integration.jira.task.issue;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 
 import org.apache.commons.lang3.StringUtils;
@@ -45,9 +50,12 @@ import com.atlassian.jira.issue.IssueInputParameters;
 import com.atlassian.jira.issue.MutableIssue;
 import com.atlassian.jira.issue.UpdateIssueRequest;
 import com.atlassian.jira.issue.comments.CommentManager;
+import com.atlassian.jira.issue.index.IndexException;
 import com.atlassian.jira.issue.status.Status;
+import com.atlassian.jira.security.JiraAuthenticationContext;
 import com.atlassian.jira.user.ApplicationUser;
 import com.atlassian.jira.util.ErrorCollection;
+import com.atlassian.jira.util.ImportUtils;
 import com.atlassian.jira.workflow.JiraWorkflow;
 import com.blackducksoftware.integration.hub.HubSupportHelper;
 import com.blackducksoftware.integration.hub.capability.HubCapabilitiesEnum;
@@ -83,15 +91,26 @@ public class JiraIssueHandler {
     private final HubSupportHelper hubSupportHelper;
     private final HubIssueTrackerPropertyHandler hubIssueTrackerPropertyHandler;
 
+    private final IssuePropertyIndex issuePropertyIndex;
+
     public JiraIssueHandler(final JiraServices jiraServices, final JiraContext jiraContext, final JiraSettingsService jiraSettingsService, final TicketInfoFromSetup ticketInfoFromSetup, final HubIssueTrackerHandler hubIssueTrackerHandler,
-            final HubSupportHelper hubSupportHelper) {
+            final HubSupportHelper hubSupportHelper, final FieldCopyPlan fieldCopyPlan) {
         this.jiraServices = jiraServices;
         this.jiraContext = jiraContext;
         this.jiraSettingsService = jiraSettingsService;
-        this.issueFieldHandler = new IssueFieldHandler(jiraServices, jiraSettingsService, jiraContext, ticketInfoFromSetup);
+        this.issueFieldHandler = new IssueFieldHandler(jiraServices, jiraSettingsService, jiraContext, ticketInfoFromSetup, fieldCopyPlan);
         this.hubIssueTrackerHandler = hubIssueTrackerHandler;
         this.hubSupportHelper = hubSupportHelper;
         this.hubIssueTrackerPropertyHandler = new HubIssueTrackerPropertyHandler();
+        this.issuePropertyIndex = new IssuePropertyIndex(jiraServices);
+    }
+
+    /**
+     * Load the issue properties for the given events in bulk, so that finding the issue for each event does not need
+     * its own property query.
+     */
+    public void preloadIssueIndex(final Collection<NotificationEvent> events) {
+        issuePropertyIndex.preload(events);
     }
 
     private void addIssueProperty(final NotificationEvent notificationEvent, final EventData eventData, final Long issueId, final String key, final IssueProperties value) {
@@ -129,6 +148,9 @@ public class JiraIssueHandler {
         } else {
             final PropertyResult result = jiraServices.getPropertyService().setProperty(jiraContext.getJiraIssueCreatorUser(), validationResult);
             handleErrorCollection("addIssueProperty", notificationEvent, eventData, result.getErrorCollection());
+            if (!result.getErrorCollection().hasAnyErrors()) {
+                issuePropertyIndex.put(key, issueId);
+            }
         }
     }
 
@@ -167,6 +189,18 @@ public class JiraIssueHandler {
 
         if (notificationUniqueKey != null) {
             logger.debug("findIssue(): key: " + notificationUniqueKey);
+            final Long indexedIssueId = issuePropertyIndex.getIssueId(notificationUniqueKey);
+            if (indexedIssueId != null) {
+                final IssueResult result = jiraServices.getIssueService().getIssue(jiraContext.getJiraIssueCreatorUser(), indexedIssueId);
+                if (result.isValid()) {
+                    return result.getIssue();
+                }
+                // The issue may have been deleted since the index was loaded; ask JIRA
+                issuePropertyIndex.remove(notificationUniqueKey);
+            } else if (issuePropertyIndex.isComplete(notificationUniqueKey)) {
+                logger.debug("No property found with that key");
+                return null;
+            }
             final EntityPropertyQuery<?> query = jiraServices.getJsonEntityPropertyManager().query();
             final EntityPropertyQuery.ExecutableQuery executableQuery = query.key(notificationUniqueKey);
             final List<EntityProperty> props = executableQuery.maxResults(1).find();
@@ -182,6 +216,7 @@ public class JiraIssueHandler {
             if (!result.isValid()) {
                 handleErrorCollection("findIssue", notificationEvent, eventData, result.getErrorCollection());
             } else {
+                issuePropertyIndex.put(notificationUniqueKey, propertyValue.getJiraIssueId());
                 return result.getIssue();
             }
         }
@@ -230,7 +265,7 @@ public class JiraIssueHandler {
                 handleErrorCollection("createIssue", notificationEvent, eventData, errors);
             } else {
                 fixIssueAssignment(notificationEvent, eventData, result);
-                issueFieldHandler.addLabels(result.getIssue(), labels);
+                issueFieldHandler.addMissingLabels(result.getIssue(), labels);
                 final Issue jiraIssue = result.getIssue();
                 return jiraIssue;
             }
@@ -266,8 +301,9 @@ public class JiraIssueHandler {
         final ErrorCollection errors = assignValidationResult.getErrorCollection();
         if (assignValidationResult.isValid() && !errors.hasAnyErrors()) {
             logger.debug("Assigning issue to user ID: " + assigneeId);
-            jiraServices.getIssueService().assign(user, assignValidationResult);
-            updateIssue(issue, assignValidationResult, user, assigneeId);
+            // IssueService.assign() stores and reindexes the issue itself
+            final IssueResult result = jiraServices.getIssueService().assign(user, assignValidationResult);
+            handleErrorCollection("assignIssue", notificationEvent, eventData, result.getErrorCollection());
         } else {
             final StringBuilder sb = new StringBuilder("Unable to assign issue ");
             sb.append(issue.getKey());
@@ -283,25 +319,7 @@ public class JiraIssueHandler {
         }
     }
 
-    private Issue updateIssue(final MutableIssue issueToUpdate, final AssignValidationResult assignValidationResult, final ApplicationUser userMakingChange, final String assigneeId) {
-        issueToUpdate.setAssigneeId(assigneeId);
-        final UpdateIssueRequest issueUpdate = UpdateIssueRequest.builder().eventDispatchOption(EventDispatchOption.ISSUE_UPDATED).sendMail(false).build();
-        logger.debug("Updating issue with assigned user ID: " + assigneeId);
-        final Issue updatedIssue = jiraServices.getIssueManager().updateIssue(userMakingChange, issueToUpdate, issueUpdate);
-        return updatedIssue;
-    }
-
-    private Issue transitionIssue(final NotificationEvent notificationEvent, final EventData eventData, final Issue issueToTransition, final String stepName, final String newExpectedStatus, final ApplicationUser user) {
-        final Status currentStatus = issueToTransition.getStatus();
-        logger.debug("Current status : " + currentStatus.getName());
-
-        if (currentStatus.equals(newExpectedStatus)) {
-            logger.debug("Will not tranisition issue, since it is already in the expected state.");
-            return issueToTransition;
-        }
-
-        final JiraWorkflow workflow = jiraServices.getWorkflowManager().getWorkflow(issueToTransition);
-
+    private ActionDescriptor findTransitionAction(final EventData eventData, final Issue issueToTransition, final JiraWorkflow workflow, final Status currentStatus, final String stepName) {
         ActionDescriptor transitionAction = null;
         // https://answers.atlassian.com/questions/6985/how-do-i-change-status-of-issue
         final List<ActionDescriptor> actions = workflow.getLinkedStep(currentStatus).getActions();
@@ -325,11 +343,52 @@ public class JiraIssueHandler {
             jiraSettingsService.addHubError(errorMessage, eventData.getHubProjectName(), eventData.getHubProjectVersion(), eventData.getJiraProjectName(), eventData.getJiraAdminUsername(), eventData.getJiraIssueCreatorUsername(),
                     "transitionIssue");
         }
-        if (transitionAction != null) {
-            final IssueInputParameters parameters = jiraServices.getIssueService().newIssueInputParameters();
-            parameters.setRetainExistingValuesWhenParameterNotProvided(true);
-            final TransitionValidationResult validationResult = jiraServices.getIssueService().validateTransition(jiraContext.getJiraIssueCreatorUser(), issueToTransition.getId(), transitionAction.getId(), parameters);
+        return transitionAction;
+    }
+
+    /**
+     * Find the named transition from the issue's current status and validate it. A cached action ID that does not
+     * validate (for example, because the workflow has been edited) is dropped from the cache, and the action is looked
+     * up again once. Returns null if the action could not be found.
+     */
+    private TransitionValidationResult validateTransition(final EventData eventData, final Issue issueToTransition, final Status currentStatus, final String stepName,
+            final ApplicationUser user) {
+        final JiraWorkflow workflow = jiraServices.getWorkflowManager().getWorkflow(issueToTransition);
+        final WorkflowTransitionCache transitionCache = WorkflowTransitionCache.getInstance();
+        final Integer cachedActionId = transitionCache.getActionId(workflow.getName(), currentStatus.getId(), stepName);
+        if (cachedActionId != null) {
+            final TransitionValidationResult validationResult = validateTransition(issueToTransition, cachedActionId, user);
+            if (validationResult.isValid()) {
+                return validationResult;
+            }
+            logger.debug("Cached action " + stepName + " (" + cachedActionId + ") did not validate for issue " + issueToTransition.getKey() + "; looking it up again");
+            transitionCache.removeActionId(workflow.getName(), currentStatus.getId(), stepName);
+        }
+        final ActionDescriptor transitionAction = findTransitionAction(eventData, issueToTransition, workflow, currentStatus, stepName);
+        if (transitionAction == null) {
+            return null;
+        }
+        transitionCache.putActionId(workflow.getName(), currentStatus.getId(), stepName, transitionAction.getId());
+        return validateTransition(issueToTransition, transitionAction.getId(), user);
+    }
+
+    private TransitionValidationResult validateTransition(final Issue issueToTransition, final int transitionActionId, final ApplicationUser user) {
+        final IssueInputParameters parameters = jiraServices.getIssueService().newIssueInputParameters();
+        parameters.setRetainExistingValuesWhenParameterNotProvided(true);
+        return jiraServices.getIssueService().validateTransition(user, issueToTransition.getId(), transitionActionId, parameters);
+    }
+
+    private Issue transitionIssue(final NotificationEvent notificationEvent, final EventData eventData, final Issue issueToTransition, final String stepName, final String newExpectedStatus, final ApplicationUser user) {
+        final Status currentStatus = issueToTransition.getStatus();
+        logger.debug("Current status : " + currentStatus.getName());
+
+        if (currentStatus.equals(newExpectedStatus)) {
+            logger.debug("Will not tranisition issue, since it is already in the expected state.");
+            return issueToTransition;
+        }
 
+        final TransitionValidationResult validationResult = validateTransition(eventData, issueToTransition, currentStatus, stepName, jiraContext.getJiraIssueCreatorUser());
+        if (validationResult != null) {
             if (!validationResult.isValid()) {
                 handleErrorCollection("transitionIssue", notificationEvent, eventData, validationResult.getErrorCollection());
             } else {
@@ -363,6 +422,123 @@ public class JiraIssueHandler {
         return null;
     }
 
+    /**
+     * Resolve the issues for the given RESOLVE events in one pass. The issues found through the issue index are loaded
+     * together, then transitioned and commented with issue indexing suspended, and finally reindexed together. Events
+     * whose issue is not in the index go through {@link #handleEvent(NotificationEvent)} as usual.
+     */
+    public void resolveIssues(final List<NotificationEvent> resolveEvents) {
+        final ApplicationUser user = jiraContext.getJiraIssueCreatorUser();
+        final JiraAuthenticationContext authContext = jiraServices.getAuthContext();
+        final ApplicationUser previousUser = authContext.getLoggedInUser();
+        authContext.setLoggedInUser(user);
+        try {
+            resolveIssuesAsUser(resolveEvents, user);
+        } finally {
+            authContext.setLoggedInUser(previousUser);
+        }
+    }
+
+    private void resolveIssuesAsUser(final List<NotificationEvent> resolveEvents, final ApplicationUser user) {
+        final Map<Long, NotificationEvent> eventsByIssueId = new LinkedHashMap<>();
+        final List<NotificationEvent> unindexedEvents = new ArrayList<>();
+        for (final NotificationEvent event : resolveEvents) {
+            final Long issueId = issuePropertyIndex.getIssueId(getNotificationUniqueKey(event));
+            if ((issueId == null) || eventsByIssueId.containsKey(issueId)) {
+                unindexedEvents.add(event);
+            } else {
+                eventsByIssueId.put(issueId, event);
+            }
+        }
+
+        final Map<Long, MutableIssue> issuesById = new HashMap<>();
+        if (!eventsByIssueId.isEmpty()) {
+            for (final MutableIssue issue : jiraServices.getIssueManager().getIssueObjects(eventsByIssueId.keySet())) {
+                issuesById.put(issue.getId(), issue);
+            }
+        }
+
+        final List<Issue> changedIssues = new ArrayList<>();
+        final boolean wasIndexingIssues = ImportUtils.isIndexIssues();
+        ImportUtils.setIndexIssues(false);
+        try {
+            for (final Map.Entry<Long, NotificationEvent> entry : eventsByIssueId.entrySet()) {
+                final NotificationEvent event = entry.getValue();
+                final MutableIssue issue = issuesById.get(entry.getKey());
+                if (issue == null) {
+                    // The issue may have been deleted since the index was loaded
+                    issuePropertyIndex.remove(getNotificationUniqueKey(event));
+                    unindexedEvents.add(event);
+                    continue;
+                }
+                try {
+                    final Issue changedIssue = resolveIssueWithoutIndexing(event, issue, user);
+                    if (changedIssue != null) {
+                        changedIssues.add(changedIssue);
+                    }
+                } catch (final Exception e) {
+                    logger.error(e);
+                    jiraSettingsService.addHubError(e, "resolveIssues");
+                }
+            }
+        } finally {
+            ImportUtils.setIndexIssues(wasIndexingIssues);
+        }
+
+        if (!changedIssues.isEmpty()) {
+            try {
+                jiraServices.getIssueIndexingService().reIndexIssueObjects(changedIssues);
+            } catch (final IndexException e) {
+                logger.error(e);
+                jiraSettingsService.addHubError(e, "resolveIssues");
+            }
+        }
+        logger.info(String.format("Resolved %d issue(s) in bulk; %d event(s) handled individually", changedIssues.size(), unindexedEvents.size()));
+
+        for (final NotificationEvent event : unindexedEvents) {
+            handleEvent(event);
+        }
+    }
+
+    /**
+     * The bulk equivalent of closeIssue() followed by the RESOLVE comment: returns the issue if it was changed (and so
+     * needs reindexing), otherwise null.
+     */
+    private Issue resolveIssueWithoutIndexing(final NotificationEvent event, final MutableIssue issue, final ApplicationUser user) {
+        final EventData eventData = (EventData) event.getDataSet().get(HubJiraConstants.EVENT_DATA_SET_KEY_JIRA_EVENT_DATA);
+        final String statusName = issue.getStatus().getName();
+        if (!issueUsesBdsWorkflow(issue) || statusName.equals(HubJiraConstants.HUB_WORKFLOW_STATUS_CLOSED) || statusName.equals(HubJiraConstants.HUB_WORKFLOW_STATUS_RESOLVED)) {
+            logger.debug("Plugin will not change the state of issue " + issue.getKey());
+            if (eventData.getJiraIssueCommentInLieuOfStateChange() == null) {
+                return null;
+            }
+            addComment(eventData.getJiraIssueCommentInLieuOfStateChange(), issue);
+            return issue;
+        }
+
+        final TransitionValidationResult validationResult = validateTransition(eventData, issue, issue.getStatus(), HubJiraConstants.HUB_WORKFLOW_TRANSITION_REMOVE_OR_OVERRIDE, user);
+        if (validationResult == null) {
+            final String errorMessage = "Could not find the action : " + HubJiraConstants.HUB_WORKFLOW_TRANSITION_REMOVE_OR_OVERRIDE + " to transition this issue: " + issue.getKey();
+            logger.error(errorMessage);
+            jiraSettingsService.addHubError(errorMessage, eventData.getHubProjectName(), eventData.getHubProjectVersion(), eventData.getJiraProjectName(), eventData.getJiraAdminUsername(), eventData.getJiraIssueCreatorUsername(),
+                    "transitionIssue");
+            return null;
+        }
+        if (!validationResult.isValid()) {
+            handleErrorCollection("transitionIssue", event, eventData, validationResult.getErrorCollection());
+            return null;
+        }
+        final IssueResult result = jiraServices.getIssueService().transition(user, validationResult);
+        if (result.getErrorCollection().hasAnyErrors()) {
+            handleErrorCollection("transitionIssue", event, eventData, result.getErrorCollection());
+            return null;
+        }
+        final Issue resolvedIssue = result.getIssue();
+        addComment(eventData.getJiraIssueResolveComment(), resolvedIssue);
+        logger.debug("Resolved issue " + resolvedIssue.getKey());
+        return resolvedIssue;
+    }
+
     public void handleEvent(final NotificationEvent notificationEvent) {
         final EventData eventData = (EventData) notificationEvent.getDataSet().get(HubJiraConstants.EVENT_DATA_SET_KEY_JIRA_EVENT_DATA);
         logger.debug("Licences: " + eventData.getHubLicenseNames());
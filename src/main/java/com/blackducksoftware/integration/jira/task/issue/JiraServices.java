@@ -26,6 +26,7 @@ package com.blackducksoftware.integration.jira.task.issue;
 import java.io.InputStream;
 import java.util.Collection;
 
+import com.atlassian.beehive.ClusterLockService;
 import com.atlassian.crowd.embedded.api.User;
 import com.atlassian.jira.avatar.Avatar;
 import com.atlassian.jira.avatar.AvatarImpl;
@@ -33,6 +34,7 @@ import com.atlassian.jira.avatar.AvatarManager;
 import com.atlassian.jira.bc.issue.IssueService;
 import com.atlassian.jira.bc.issue.properties.IssuePropertyService;
 import com.atlassian.jira.bc.project.property.ProjectPropertyService;
+import com.atlassian.jira.cluster.ClusterManager;
 import com.atlassian.jira.component.ComponentAccessor;
 import com.atlassian.jira.config.ConstantsManager;
 import com.atlassian.jira.config.properties.APKeys;
@@ -47,6 +49,7 @@ import com.atlassian.jira.issue.fields.layout.field.FieldLayoutManager;
 import com.atlassian.jira.issue.fields.screen.FieldScreenManager;
 import com.atlassian.jira.issue.fields.screen.FieldScreenSchemeManager;
 import com.atlassian.jira.issue.fields.screen.issuetype.IssueTypeScreenSchemeManager;
+import com.atlassian.jira.issue.index.IssueIndexingService;
 import com.atlassian.jira.issue.issuetype.IssueType;
 import com.atlassian.jira.issue.label.LabelManager;
 import com.atlassian.jira.project.AssigneeTypes;
@@ -212,4 +215,16 @@ public class JiraServices {
     public ProjectPropertyService getProjectPropertyService() {
         return ComponentAccessor.getComponentOfType(ProjectPropertyService.class);
     }
+
+    public IssueIndexingService getIssueIndexingService() {
+        return ComponentAccessor.getComponent(IssueIndexingService.class);
+    }
+
+    public ClusterManager getClusterManager() {
+        return ComponentAccessor.getComponent(ClusterManager.class);
+    }
+
+    public ClusterLockService getClusterLockService() {
+        return ComponentAccessor.getComponent(ClusterLockService.class);
+    }
 }
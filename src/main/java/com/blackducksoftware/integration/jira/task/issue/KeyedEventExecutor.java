@@ -0,0 +1,122 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.issue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.apache.log4j.Logger;
+
+import com.blackducksoftware.integration.hub.notification.processor.NotificationCategoryEnum;
+import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
+import com.blackducksoftware.integration.jira.common.HubJiraLogger;
+
+/**
+ * Applies events on a fixed number of worker threads, partitioned by event key.
+ *
+ * All events with the same event key go to the same worker, so they are applied one at a time, in the order they were
+ * submitted. Events for different issues are applied concurrently. Each worker has a bounded queue; submit() blocks
+ * when the target worker's queue is full.
+ */
+public class KeyedEventExecutor {
+    // Queued after the last event to tell a worker to stop; compared by identity
+    private static final NotificationEvent END_OF_EVENTS = new NotificationEvent("", NotificationCategoryEnum.POLICY_VIOLATION, new HashMap<>());
+
+    private final HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(this.getClass().getName()));
+
+    private final Consumer<NotificationEvent> eventHandler;
+
+    private final List<BlockingQueue<NotificationEvent>> queues;
+
+    private final ExecutorService executor;
+
+    private final CompletionService<Void> completionService;
+
+    public KeyedEventExecutor(final int workerCount, final int queueCapacity, final Consumer<NotificationEvent> eventHandler) {
+        this.eventHandler = eventHandler;
+        this.queues = new ArrayList<>(workerCount);
+        this.executor = Executors.newFixedThreadPool(workerCount);
+        this.completionService = new ExecutorCompletionService<>(executor);
+        for (int workerIndex = 0; workerIndex < workerCount; workerIndex++) {
+            final BlockingQueue<NotificationEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+            queues.add(queue);
+            completionService.submit(() -> drain(queue), null);
+        }
+        executor.shutdown();
+    }
+
+    public void submit(final NotificationEvent event) throws InterruptedException {
+        final int workerIndex = Math.floorMod(event.getEventKey().hashCode(), queues.size());
+        queues.get(workerIndex).put(event);
+    }
+
+    /**
+     * Wait for all submitted events to be applied. If interrupted, the workers are stopped.
+     */
+    public void finish() throws InterruptedException {
+        try {
+            for (final BlockingQueue<NotificationEvent> queue : queues) {
+                queue.put(END_OF_EVENTS);
+            }
+            for (int workerIndex = 0; workerIndex < queues.size(); workerIndex++) {
+                final Future<Void> workerResult = completionService.take();
+                try {
+                    workerResult.get();
+                } catch (final ExecutionException e) {
+                    logger.error("Event worker failed: " + e.getMessage(), e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void drain(final BlockingQueue<NotificationEvent> queue) {
+        try {
+            while (true) {
+                final NotificationEvent event = queue.take();
+                if (event == END_OF_EVENTS) {
+                    return;
+                }
+                try {
+                    eventHandler.accept(event);
+                } catch (final Exception e) {
+                    logger.error("Error applying event " + event.getEventKey() + ": " + e.getMessage(), e);
+                }
+            }
+        } catch (final InterruptedException e) {
+            logger.warn("Event worker interrupted; " + queue.size() + " events were not applied");
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.issue;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import com.atlassian.jira.bc.project.component.ProjectComponent;
+import com.atlassian.jira.project.Project;
+import com.atlassian.jira.project.version.Version;
+
+/**
+ * Per-run index of JIRA project component and version names to IDs, shared by all the events for a project.
+ *
+ * A project's components (or versions) are loaded the first time they are needed. When a name is not found, the
+ * project's components (or versions) are reloaded once in case they were added during the run; a name that is still
+ * not found is remembered as missing for the rest of the run.
+ */
+public class ProjectComponentVersionIndex {
+    private final JiraServices jiraServices;
+
+    private final ConcurrentMap<Long, NameIndex> componentIndexesByProjectId = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Long, NameIndex> versionIndexesByProjectId = new ConcurrentHashMap<>();
+
+    public ProjectComponentVersionIndex(final JiraServices jiraServices) {
+        this.jiraServices = jiraServices;
+    }
+
+    public Long getComponentId(final Long jiraProjectId, final String componentName) {
+        return getId(componentIndexesByProjectId, jiraProjectId, componentName, this::loadComponentIds);
+    }
+
+    public Long getVersionId(final Long jiraProjectId, final String versionName) {
+        return getId(versionIndexesByProjectId, jiraProjectId, versionName, this::loadVersionIds);
+    }
+
+    private Long getId(final ConcurrentMap<Long, NameIndex> indexesByProjectId, final Long jiraProjectId, final String name,
+            final Function<Long, Map<String, Long>> loader) {
+        final NameIndex nameIndex = indexesByProjectId.computeIfAbsent(jiraProjectId, projectId -> new NameIndex());
+        synchronized (nameIndex) {
+            boolean loaded = false;
+            if (nameIndex.idsByName == null) {
+                nameIndex.idsByName = loader.apply(jiraProjectId);
+                loaded = true;
+            }
+            Long id = nameIndex.idsByName.get(name);
+            if ((id != null) || nameIndex.missingNames.contains(name)) {
+                return id;
+            }
+            // Reload only for a name that has not been looked for before (and not if we have only just loaded)
+            if (!loaded) {
+                nameIndex.idsByName = loader.apply(jiraProjectId);
+                id = nameIndex.idsByName.get(name);
+            }
+            if (id == null) {
+                nameIndex.missingNames.add(name);
+            }
+            return id;
+        }
+    }
+
+    private Map<String, Long> loadComponentIds(final Long jiraProjectId) {
+        final Project project = jiraServices.getJiraProjectManager().getProjectObj(jiraProjectId);
+        if (project == null) {
+            return Collections.emptyMap();
+        }
+        final Collection<ProjectComponent> components = project.getComponents();
+        final Map<String, Long> componentIdsByName = new HashMap<>();
+        if (components != null) {
+            for (final ProjectComponent component : components) {
+                componentIdsByName.putIfAbsent(component.getName(), component.getId());
+            }
+        }
+        return componentIdsByName;
+    }
+
+    private Map<String, Long> loadVersionIds(final Long jiraProjectId) {
+        final Project project = jiraServices.getJiraProjectManager().getProjectObj(jiraProjectId);
+        if (project == null) {
+            return Collections.emptyMap();
+        }
+        final Collection<Version> versions = project.getVersions();
+        final Map<String, Long> versionIdsByName = new HashMap<>();
+        if (versions != null) {
+            for (final Version version : versions) {
+                versionIdsByName.putIfAbsent(version.getName(), version.getId());
+            }
+        }
+        return versionIdsByName;
+    }
+
+    private static class NameIndex {
+        private Map<String, Long> idsByName;
+
+        private final Set<String> missingNames = new HashSet<>();
+    }
+
+}
@@ -0,0 +1,80 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.issue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Plugin-wide cache of workflow transition action IDs, keyed by workflow name, status ID and action name, so that
+ * transitioning an issue does not have to walk the workflow descriptor to find the action each time.
+ *
+ * Only actions that were found are cached. The cache is cleared when the plugin installs or replaces its workflow, and
+ * an entry is dropped when its action ID fails to validate.
+ */
+public class WorkflowTransitionCache {
+    private static final WorkflowTransitionCache INSTANCE = new WorkflowTransitionCache();
+
+    private final Map<String, Integer> actionIdsByKey = new ConcurrentHashMap<>();
+
+    public static WorkflowTransitionCache getInstance() {
+        return INSTANCE;
+    }
+
+    WorkflowTransitionCache() {
+    }
+
+    /**
+     * The cached ID of the named action from the given status of the given workflow, or null if it has not been
+     * cached.
+     */
+    public Integer getActionId(final String workflowName, final String statusId, final String actionName) {
+        return actionIdsByKey.get(createKey(workflowName, statusId, actionName));
+    }
+
+    public void putActionId(final String workflowName, final String statusId, final String actionName, final int actionId) {
+        actionIdsByKey.put(createKey(workflowName, statusId, actionName), actionId);
+    }
+
+    /**
+     * Forget the cached ID of the named action (for example, because the workflow was edited and the ID no longer
+     * validates).
+     */
+    public void removeActionId(final String workflowName, final String statusId, final String actionName) {
+        actionIdsByKey.remove(createKey(workflowName, statusId, actionName));
+    }
+
+    public void invalidate() {
+        actionIdsByKey.clear();
+    }
+
+    public int size() {
+        return actionIdsByKey.size();
+    }
+
+    private String createKey(final String workflowName, final String statusId, final String actionName) {
+        return workflowName + "|" + statusId + "|" + actionName;
+    }
+
+}
@@ -0,0 +1,170 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.issue.event;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import com.atlassian.jira.event.type.EventType;
+import com.blackducksoftware.integration.jira.common.HubJiraLogger;
+
+/**
+ * Bounded queue of pending JIRA issue events, coalesced by issue.
+ *
+ * While an issue is waiting, later events for it replace the earlier one (the later event carries the newer issue
+ * state), except that a delete is never replaced. The queue is drained a batch at a time so that one Hub context can
+ * serve the whole batch. Adding never blocks, since events arrive on JIRA request threads: when the queue is full, an
+ * event for an issue that is not already queued is dropped and counted.
+ */
+public class IssueEventBatcher {
+    private final HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(this.getClass().getName()));
+
+    private final int capacity;
+
+    private final Map<Long, PendingIssueEvent> pendingEventsByIssueId = new LinkedHashMap<>();
+
+    private boolean drainScheduled;
+
+    private long receivedCount;
+
+    private long coalescedCount;
+
+    private long droppedCount;
+
+    private long batchCount;
+
+    private long processedCount;
+
+    private long totalLatencyMillis;
+
+    private long maxLatencyMillis;
+
+    private int maxQueueDepth;
+
+    public IssueEventBatcher(final int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * Queue an event.
+     *
+     * @return true if the caller must schedule a drain of the queue (no drain is pending yet)
+     */
+    public synchronized boolean add(final PendingIssueEvent event) {
+        receivedCount++;
+        final Long issueId = event.getIssue().getId();
+        final PendingIssueEvent pendingEvent = pendingEventsByIssueId.get(issueId);
+        if (pendingEvent != null) {
+            coalescedCount++;
+            if (!EventType.ISSUE_DELETED_ID.equals(pendingEvent.getEventTypeID())) {
+                pendingEventsByIssueId.put(issueId, pendingEvent.supersededBy(event));
+            }
+            return false;
+        }
+
+        if (pendingEventsByIssueId.size() >= capacity) {
+            droppedCount++;
+            logger.warn(String.format("The Hub issue tracker update queue is full (%d issues); dropping the update for issue ID %d", capacity, issueId));
+            return false;
+        }
+        pendingEventsByIssueId.put(issueId, event);
+        maxQueueDepth = Math.max(maxQueueDepth, pendingEventsByIssueId.size());
+        if (drainScheduled) {
+            return false;
+        }
+        drainScheduled = true;
+        return true;
+    }
+
+    /**
+     * Remove and return everything that is queued; events added after this call schedule a new drain.
+     */
+    public synchronized List<PendingIssueEvent> takeBatch() {
+        final List<PendingIssueEvent> batch = new ArrayList<>(pendingEventsByIssueId.values());
+        pendingEventsByIssueId.clear();
+        drainScheduled = false;
+        return batch;
+    }
+
+    public synchronized void batchProcessed(final List<PendingIssueEvent> batch) {
+        final long now = System.currentTimeMillis();
+        batchCount++;
+        for (final PendingIssueEvent event : batch) {
+            final long latencyMillis = now - event.getQueuedAtMillis();
+            totalLatencyMillis += latencyMillis;
+            maxLatencyMillis = Math.max(maxLatencyMillis, latencyMillis);
+        }
+        processedCount += batch.size();
+    }
+
+    public synchronized int getQueueDepth() {
+        return pendingEventsByIssueId.size();
+    }
+
+    public synchronized int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public synchronized long getReceivedCount() {
+        return receivedCount;
+    }
+
+    public synchronized long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public synchronized long getBatchCount() {
+        return batchCount;
+    }
+
+    public synchronized long getProcessedCount() {
+        return processedCount;
+    }
+
+    public synchronized long getAverageLatencyMillis() {
+        if (processedCount == 0) {
+            return 0;
+        }
+        return totalLatencyMillis / processedCount;
+    }
+
+    public synchronized long getMaxLatencyMillis() {
+        return maxLatencyMillis;
+    }
+
+    public synchronized String getStatsDescription() {
+        return String.format(
+                "Issue tracker updates: %d received; %d coalesced; %d dropped; %d processed in %d batch(es); queue depth %d (max %d); latency avg %d ms, max %d ms",
+                receivedCount, coalescedCount, droppedCount, processedCount, batchCount, pendingEventsByIssueId.size(), maxQueueDepth, getAverageLatencyMillis(),
+                maxLatencyMillis);
+    }
+}
@@ -40,6 +40,7 @@ import com.atlassian.jira.event.type.EventType;
 import com.atlassian.jira.issue.Issue;
 import com.atlassian.sal.api.pluginsettings.PluginSettings;
 import com.atlassian.sal.api.pluginsettings.PluginSettingsFactory;
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
 import com.blackducksoftware.integration.jira.common.HubJiraLogger;
 import com.blackducksoftware.integration.jira.task.issue.HubIssueTrackerPropertyHandler;
 import com.blackducksoftware.integration.jira.task.issue.JiraServices;
@@ -53,6 +54,8 @@ public class IssueEventListener implements InitializingBean, DisposableBean {
 
     private final ExecutorService executorService;
 
+    private final IssueEventBatcher issueEventBatcher;
+
     public IssueEventListener(final EventPublisher eventPublisher, final PluginSettingsFactory pluginSettingsFactory) {
         this(eventPublisher, pluginSettingsFactory, new JiraServices());
     }
@@ -63,6 +66,19 @@ public class IssueEventListener implements InitializingBean, DisposableBean {
         this.jiraServices = jiraServices;
         this.hubIssueTrackerPropertyHandler = new HubIssueTrackerPropertyHandler();
         this.executorService = createExecutorService();
+        this.issueEventBatcher = new IssueEventBatcher(HubJiraConstants.ISSUE_EVENT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * How long to wait after the first event of a batch arrives before the batch is sent to the Hub, so that further
+     * events for the same issues can be coalesced.
+     */
+    public long getBatchWindowMillis() {
+        return HubJiraConstants.ISSUE_EVENT_BATCH_WINDOW_MILLIS;
+    }
+
+    public IssueEventBatcher getIssueEventBatcher() {
+        return issueEventBatcher;
     }
 
     public ExecutorService createExecutorService() {
@@ -97,8 +113,9 @@ public class IssueEventListener implements InitializingBean, DisposableBean {
                 if (hubIssueUrlProperty == null) {
                     logger.debug(String.format("Hub Issue Tracker URL not present. No further processing for issue: %s", issue));
                 } else {
-                    final PluginSettings settings = pluginSettingsFactory.createGlobalSettings();
-                    executorService.submit(createTask(issue, eventTypeID, jiraServices, settings, propertyKey, hubIssueUrlProperty));
+                    if (issueEventBatcher.add(new PendingIssueEvent(issue, eventTypeID, propertyKey, hubIssueUrlProperty))) {
+                        executorService.submit(this::processBatch);
+                    }
                 }
             }
         } catch (final Exception ex) {
@@ -106,6 +123,30 @@ public class IssueEventListener implements InitializingBean, DisposableBean {
         }
     }
 
+    private void processBatch() {
+        try {
+            final long batchWindowMillis = getBatchWindowMillis();
+            if (batchWindowMillis > 0) {
+                Thread.sleep(batchWindowMillis);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        final List<PendingIssueEvent> batch = issueEventBatcher.takeBatch();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            final PluginSettings settings = pluginSettingsFactory.createGlobalSettings();
+            createTask(batch, jiraServices, settings).call();
+        } catch (final Exception e) {
+            logger.error("An unexpected error occurred updating the Hub issue tracker", e);
+        } finally {
+            issueEventBatcher.batchProcessed(batch);
+            logger.debug(issueEventBatcher.getStatsDescription());
+        }
+    }
+
     private EntityProperty getHubIssueTrackerUrlProperty(final String propertyKey, final Issue issue) {
 
         logger.debug(String.format("Entitykey: %s", propertyKey));
@@ -119,7 +160,7 @@ public class IssueEventListener implements InitializingBean, DisposableBean {
         }
     }
 
-    public IssueTrackerTask createTask(final Issue issue, final Long eventTypeID, final JiraServices jiraServices, final PluginSettings settings, final String propertyKey, final EntityProperty property) {
-        return new IssueTrackerTask(issue, eventTypeID, jiraServices, settings, propertyKey, property);
+    public IssueTrackerTask createTask(final List<PendingIssueEvent> issueEvents, final JiraServices jiraServices, final PluginSettings settings) {
+        return new IssueTrackerTask(issueEvents, jiraServices, settings);
     }
 }
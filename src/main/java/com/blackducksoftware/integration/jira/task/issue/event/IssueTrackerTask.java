@@ -23,6 +23,7 @@
  */
 package com.blackducksoftware.integration.jira.task.issue.event;
 
+import java.util.List;
 import java.util.concurrent.Callable;
 
 import org.apache.log4j.Logger;
@@ -42,14 +43,15 @@ import com.blackducksoftware.integration.hub.api.nonpublic.HubVersionRequestServ
 import com.blackducksoftware.integration.hub.builder.HubServerConfigBuilder;
 import com.blackducksoftware.integration.hub.capability.HubCapabilitiesEnum;
 import com.blackducksoftware.integration.hub.global.HubServerConfig;
-import com.blackducksoftware.integration.hub.rest.CredentialsRestConnection;
-import com.blackducksoftware.integration.hub.rest.RestConnection;
 import com.blackducksoftware.integration.hub.service.HubServicesFactory;
 import com.blackducksoftware.integration.jira.common.HubJiraLogger;
 import com.blackducksoftware.integration.jira.common.HubProjectMapping;
 import com.blackducksoftware.integration.jira.common.JiraContext;
 import com.blackducksoftware.integration.jira.common.PolicyRuleSerializable;
 import com.blackducksoftware.integration.jira.config.HubJiraConfigSerializable;
+import com.blackducksoftware.integration.jira.hub.HubCapabilityCache;
+import com.blackducksoftware.integration.jira.hub.HubConnectionManager;
+import com.blackducksoftware.integration.jira.task.HubErrorJournal;
 import com.blackducksoftware.integration.jira.task.JiraSettingsService;
 import com.blackducksoftware.integration.jira.task.PluginConfigurationDetails;
 import com.blackducksoftware.integration.jira.task.conversion.output.HubIssueTrackerProperties;
@@ -60,28 +62,22 @@ import com.google.gson.GsonBuilder;
 
 public class IssueTrackerTask implements Callable<Boolean> {
     private final HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(this.getClass().getName()));
-    private final Long eventTypeID;
-    private final Issue jiraIssue;
+    private final List<PendingIssueEvent> issueEvents;
     private final JiraServices jiraServices;
     private final PluginSettings settings;
-    private final String propertyKey;
-    private final EntityProperty property;
 
-    public IssueTrackerTask(final Issue jiraIssue, final Long eventTypeID, final JiraServices jiraServices, final PluginSettings settings, final String propertyKey, final EntityProperty property) {
-        this.eventTypeID = eventTypeID;
-        this.jiraIssue = jiraIssue;
+    public IssueTrackerTask(final List<PendingIssueEvent> issueEvents, final JiraServices jiraServices, final PluginSettings settings) {
+        this.issueEvents = issueEvents;
         this.jiraServices = jiraServices;
         this.settings = settings;
-        this.propertyKey = propertyKey;
-        this.property = property;
     }
 
     @Override
     public Boolean call() throws Exception {
         try {
-            logger.debug(String.format("ISSUE TRACKER TASK STARTED: Event Type ID: %s, Issue: %s", eventTypeID, jiraIssue));
+            logger.debug(String.format("ISSUE TRACKER TASK STARTED: %d issue event(s)", issueEvents.size()));
             final PluginConfigurationDetails configDetails = new PluginConfigurationDetails(settings);
-            final JiraSettingsService jiraSettingsService = new JiraSettingsService(settings);
+            final JiraSettingsService jiraSettingsService = new JiraSettingsService(settings, HubErrorJournal.getSharedInstance(settings));
 
             // only execute if hub 3.7 or higher with the issue tracker
             // capability
@@ -91,9 +87,8 @@ public class IssueTrackerTask implements Callable<Boolean> {
             } else {
                 final HubServicesFactory servicesFactory = createHubServicesFactory(hubServerConfig);
 
-                final HubSupportHelper hubSupportHelper = new HubSupportHelper();
                 final HubVersionRequestService hubVersionRequestService = servicesFactory.createHubVersionRequestService();
-                hubSupportHelper.checkHubSupport(hubVersionRequestService, null);
+                final HubSupportHelper hubSupportHelper = HubCapabilityCache.getInstance().getHubSupportHelper(hubServerConfig.getHubUrl().toString(), hubVersionRequestService);
 
                 if (hubSupportHelper.hasCapability(HubCapabilitiesEnum.ISSUE_TRACKER)) {
                     final JiraContext jiraContext = initJiraContext(configDetails.getJiraAdminUserName(), configDetails.getJiraIssueCreatorUserName());
@@ -104,14 +99,23 @@ public class IssueTrackerTask implements Callable<Boolean> {
                     }
 
                     final HubIssueTrackerHandler hubIssueHandler = new HubIssueTrackerHandler(jiraServices, jiraSettingsService, servicesFactory.createBomComponentIssueRequestService());
-                    handleIssue(jiraContext, eventTypeID, jiraIssue, hubIssueHandler, property, propertyKey);
+                    boolean allSucceeded = true;
+                    for (final PendingIssueEvent issueEvent : issueEvents) {
+                        try {
+                            handleIssue(jiraContext, issueEvent.getEventTypeID(), issueEvent.getIssue(), hubIssueHandler, issueEvent.getProperty(), issueEvent.getPropertyKey());
+                        } catch (final Exception e) {
+                            logger.error(String.format("Error occurred processing issue %s, caused by %s", issueEvent.getIssue(), e));
+                            allSucceeded = false;
+                        }
+                    }
+                    return allSucceeded;
                 }
             }
         } catch (final Throwable throwable) {
-            logger.error(String.format("Error occurred processing issue %s, caused by %s", jiraIssue, throwable));
+            logger.error(String.format("Error occurred processing %d issue event(s), caused by %s", issueEvents.size(), throwable));
             return Boolean.FALSE;
         } finally {
-            logger.debug(String.format("ISSUE TRACKER TASK FINISHED: Event Type ID: %s, Issue: %s", eventTypeID, jiraIssue));
+            logger.debug(String.format("ISSUE TRACKER TASK FINISHED: %d issue event(s)", issueEvents.size()));
         }
 
         return Boolean.TRUE;
@@ -148,9 +152,8 @@ public class IssueTrackerTask implements Callable<Boolean> {
         return hubServerConfig;
     }
 
-    public HubServicesFactory createHubServicesFactory(final HubServerConfig config) throws EncryptionException {
-        final RestConnection restConnection = new CredentialsRestConnection(logger, config.getHubUrl(), config.getGlobalCredentials().getUsername(), config.getGlobalCredentials().getDecryptedPassword(), config.getTimeout());
-        return new HubServicesFactory(restConnection);
+    public HubServicesFactory createHubServicesFactory(final HubServerConfig config) throws EncryptionException, IntegrationException {
+        return HubConnectionManager.getInstance().getHubServicesFactory(config);
     }
 
     private HubJiraConfigSerializable createJiraConfig(final PluginConfigurationDetails pluginConfigDetails) {
@@ -0,0 +1,82 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.issue.event;
+
+import com.atlassian.jira.entity.property.EntityProperty;
+import com.atlassian.jira.issue.Issue;
+
+/**
+ * A JIRA issue event waiting to be sent to the Hub issue tracker.
+ */
+public class PendingIssueEvent {
+    private final Issue issue;
+
+    private final Long eventTypeID;
+
+    private final String propertyKey;
+
+    private final EntityProperty property;
+
+    private final long queuedAtMillis;
+
+    public PendingIssueEvent(final Issue issue, final Long eventTypeID, final String propertyKey, final EntityProperty property) {
+        this(issue, eventTypeID, propertyKey, property, System.currentTimeMillis());
+    }
+
+    private PendingIssueEvent(final Issue issue, final Long eventTypeID, final String propertyKey, final EntityProperty property, final long queuedAtMillis) {
+        this.issue = issue;
+        this.eventTypeID = eventTypeID;
+        this.propertyKey = propertyKey;
+        this.property = property;
+        this.queuedAtMillis = queuedAtMillis;
+    }
+
+    /**
+     * A copy of the given (later) event for the same issue that keeps this event's queue time, so latency is measured
+     * from when the issue was first queued.
+     */
+    public PendingIssueEvent supersededBy(final PendingIssueEvent laterEvent) {
+        return new PendingIssueEvent(laterEvent.issue, laterEvent.eventTypeID, laterEvent.propertyKey, laterEvent.property, queuedAtMillis);
+    }
+
+    public Issue getIssue() {
+        return issue;
+    }
+
+    public Long getEventTypeID() {
+        return eventTypeID;
+    }
+
+    public String getPropertyKey() {
+        return propertyKey;
+    }
+
+    public EntityProperty getProperty() {
+        return property;
+    }
+
+    public long getQueuedAtMillis() {
+        return queuedAtMillis;
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.setup;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.atlassian.sal.api.pluginsettings.PluginSettings;
+import com.blackducksoftware.integration.jira.common.HubJiraConfigKeys;
+import com.blackducksoftware.integration.jira.common.HubJiraLogger;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+/**
+ * Records which mapped JIRA projects have been fully configured (issue type scheme, issue type screen scheme, field
+ * configuration scheme and workflow scheme) against a given set of Black Duck setup artifacts.
+ *
+ * The record is only valid for the setup signature it was created with; if the Black Duck issue types, screen schemes,
+ * field configuration or workflow change, every project is configured again.
+ */
+public class ConfiguredProjectsRecord {
+    private static final HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(ConfiguredProjectsRecord.class.getName()));
+
+    private static final Gson gson = new GsonBuilder().create();
+
+    private String setupSignature;
+
+    private Set<Long> configuredProjectIds = new HashSet<>();
+
+    public ConfiguredProjectsRecord() {
+    }
+
+    public ConfiguredProjectsRecord(final String setupSignature) {
+        this.setupSignature = setupSignature;
+    }
+
+    public static ConfiguredProjectsRecord load(final PluginSettings settings, final String setupSignature) {
+        final String json = (String) settings.get(HubJiraConfigKeys.HUB_CONFIG_JIRA_CONFIGURED_PROJECTS_JSON);
+        if (StringUtils.isNotBlank(json)) {
+            try {
+                final ConfiguredProjectsRecord record = gson.fromJson(json, ConfiguredProjectsRecord.class);
+                if (record != null && StringUtils.equals(record.setupSignature, setupSignature) && record.configuredProjectIds != null) {
+                    return record;
+                }
+                logger.debug("The Black Duck setup artifacts have changed; all mapped projects will be configured");
+            } catch (final JsonParseException e) {
+                logger.warn("Unable to parse the configured projects record; all mapped projects will be configured: " + e.getMessage());
+            }
+        }
+        return new ConfiguredProjectsRecord(setupSignature);
+    }
+
+    public synchronized void save(final PluginSettings settings) {
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_JIRA_CONFIGURED_PROJECTS_JSON, gson.toJson(this));
+    }
+
+    public static void clear(final PluginSettings settings) {
+        settings.remove(HubJiraConfigKeys.HUB_CONFIG_JIRA_CONFIGURED_PROJECTS_JSON);
+    }
+
+    public synchronized boolean isConfigured(final Long projectId) {
+        return configuredProjectIds.contains(projectId);
+    }
+
+    public synchronized void markConfigured(final Long projectId) {
+        configuredProjectIds.add(projectId);
+    }
+
+    /**
+     * Forget projects that are no longer mapped, so that they are configured again if they are mapped again later.
+     */
+    public synchronized void retainOnly(final Collection<Long> mappedProjectIds) {
+        configuredProjectIds.retainAll(mappedProjectIds);
+    }
+
+    public synchronized int size() {
+        return configuredProjectIds.size();
+    }
+
+}
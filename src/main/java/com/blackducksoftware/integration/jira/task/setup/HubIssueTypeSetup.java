@@ -66,6 +66,8 @@ public class HubIssueTypeSetup {
 
     private final HubAvatars hubAvatars;
 
+    private final SchemeLocks schemeLocks = new SchemeLocks();
+
     public HubIssueTypeSetup(final JiraServices jiraServices, final JiraSettingsService settingService,
             final Collection<IssueType> issueTypes, final String jiraUserName) throws ConfigurationException {
         this.jiraServices = jiraServices;
@@ -125,40 +127,19 @@ public class HubIssueTypeSetup {
         }
     }
 
-    public void addIssueTypesToProjectIssueTypeScheme(final Project jiraProject, final List<IssueType> hubIssueTypes) {
+    /**
+     * @return true if the project's issue type scheme now includes the Hub issue types; false if it could not be
+     *         updated (the error has been reported)
+     */
+    public boolean addIssueTypesToProjectIssueTypeScheme(final Project jiraProject, final List<IssueType> hubIssueTypes) {
         // Get Project's Issue Type Scheme
         try {
             final FieldConfigScheme issueTypeScheme = jiraServices.getIssueTypeSchemeManager()
                     .getConfigScheme(jiraProject);
-
-            final Collection<IssueType> origIssueTypeObjects = jiraServices.getIssueTypeSchemeManager()
-                    .getIssueTypesForProject(jiraProject);
-            final Collection<String> issueTypeIds = new ArrayList<>();
-            for (final IssueType origIssueTypeObject : origIssueTypeObjects) {
-                issueTypeIds.add(origIssueTypeObject.getId());
-            }
-
-            // Add BDS Issue Types to it
-            boolean changesMadeToIssueTypeScheme = false;
-            for (final IssueType bdIssueType : hubIssueTypes) {
-                if (!origIssueTypeObjects.contains(bdIssueType)) {
-                    logger.debug("Adding issue type " + bdIssueType.getName() + " to issue type scheme "
-                            + issueTypeScheme.getName());
-                    issueTypeIds.add(bdIssueType.getId());
-                    changesMadeToIssueTypeScheme = true;
-
-                } else {
-                    logger.debug("Issue type " + bdIssueType.getName() + " is already on issue type scheme "
-                            + issueTypeScheme.getName());
-                }
-            }
-            if (changesMadeToIssueTypeScheme) {
-                logger.debug("Updating Issue Type Scheme " + issueTypeScheme.getName());
-                jiraServices.getIssueTypeSchemeManager().update(issueTypeScheme, issueTypeIds);
-            } else {
-                logger.debug(
-                        "Issue Type Scheme " + issueTypeScheme.getName() + " already included Black Duck Issue Types");
+            synchronized (schemeLocks.lockFor("issueTypeScheme", issueTypeScheme.getId())) {
+                addIssueTypesToIssueTypeScheme(jiraProject, issueTypeScheme, hubIssueTypes);
             }
+            return true;
         } catch (final Exception e) {
             logger.error(e);
             String jiraProjectName = null;
@@ -166,6 +147,39 @@ public class HubIssueTypeSetup {
                 jiraProjectName = jiraProject.getName();
             }
             settingService.addHubError(e, null, null, jiraProjectName, null, null, "addIssueTypesToProjectIssueTypeScheme()");
+            return false;
+        }
+    }
+
+    private void addIssueTypesToIssueTypeScheme(final Project jiraProject, final FieldConfigScheme issueTypeScheme,
+            final List<IssueType> hubIssueTypes) {
+        final Collection<IssueType> origIssueTypeObjects = jiraServices.getIssueTypeSchemeManager()
+                .getIssueTypesForProject(jiraProject);
+        final Collection<String> issueTypeIds = new ArrayList<>();
+        for (final IssueType origIssueTypeObject : origIssueTypeObjects) {
+            issueTypeIds.add(origIssueTypeObject.getId());
+        }
+
+        // Add BDS Issue Types to it
+        boolean changesMadeToIssueTypeScheme = false;
+        for (final IssueType bdIssueType : hubIssueTypes) {
+            if (!origIssueTypeObjects.contains(bdIssueType)) {
+                logger.debug("Adding issue type " + bdIssueType.getName() + " to issue type scheme "
+                        + issueTypeScheme.getName());
+                issueTypeIds.add(bdIssueType.getId());
+                changesMadeToIssueTypeScheme = true;
+
+            } else {
+                logger.debug("Issue type " + bdIssueType.getName() + " is already on issue type scheme "
+                        + issueTypeScheme.getName());
+            }
+        }
+        if (changesMadeToIssueTypeScheme) {
+            logger.debug("Updating Issue Type Scheme " + issueTypeScheme.getName());
+            jiraServices.getIssueTypeSchemeManager().update(issueTypeScheme, issueTypeIds);
+        } else {
+            logger.debug(
+                    "Issue Type Scheme " + issueTypeScheme.getName() + " already included Black Duck Issue Types");
         }
     }
 
@@ -173,6 +187,13 @@ public class HubIssueTypeSetup {
             final Map<IssueType, FieldScreenScheme> screenSchemesByIssueType) {
         final IssueTypeScreenScheme issueTypeScreenScheme = jiraServices.getIssueTypeScreenSchemeManager()
                 .getIssueTypeScreenScheme(project);
+        synchronized (schemeLocks.lockFor("issueTypeScreenScheme", issueTypeScreenScheme.getId())) {
+            addIssueTypesToIssueTypeScreenScheme(project, issueTypeScreenScheme, screenSchemesByIssueType);
+        }
+    }
+
+    private void addIssueTypesToIssueTypeScreenScheme(final Project project, final IssueTypeScreenScheme issueTypeScreenScheme,
+            final Map<IssueType, FieldScreenScheme> screenSchemesByIssueType) {
         logger.debug("addIssueTypesToProjectIssueTypeScreenSchemes(): Project " + project.getName()
                 + ": Issue Type Screen Scheme: " + issueTypeScreenScheme.getName());
         final List<IssueType> origIssueTypes = getExistingIssueTypes(issueTypeScreenScheme);
@@ -315,7 +336,9 @@ public class HubIssueTypeSetup {
         } else {
             logger.debug("Project " + project.getName() + ": Field Configuration Scheme: "
                     + projectFieldConfigurationScheme.getName());
-            wasAlreadySetUp = modifyProjectFieldConfigurationScheme(issueTypes, fieldConfiguration, projectFieldConfigurationScheme);
+            synchronized (schemeLocks.lockFor("fieldConfigurationScheme", projectFieldConfigurationScheme.getId())) {
+                wasAlreadySetUp = modifyProjectFieldConfigurationScheme(issueTypes, fieldConfiguration, projectFieldConfigurationScheme);
+            }
         }
         return wasAlreadySetUp;
     }
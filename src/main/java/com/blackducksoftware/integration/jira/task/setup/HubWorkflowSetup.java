@@ -28,6 +28,7 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -45,6 +46,7 @@ import com.blackducksoftware.integration.jira.common.HubJiraConstants;
 import com.blackducksoftware.integration.jira.common.HubJiraLogger;
 import com.blackducksoftware.integration.jira.task.JiraSettingsService;
 import com.blackducksoftware.integration.jira.task.issue.JiraServices;
+import com.blackducksoftware.integration.jira.task.issue.WorkflowTransitionCache;
 import com.opensymphony.workflow.FactoryException;
 import com.opensymphony.workflow.loader.WorkflowDescriptor;
 
@@ -56,6 +58,8 @@ public class HubWorkflowSetup {
 
     private final JiraServices jiraServices;
 
+    private final SchemeLocks schemeLocks = new SchemeLocks();
+
     public HubWorkflowSetup(final JiraSettingsService settingService, final JiraServices jiraServices) {
         this.settingService = settingService;
         this.jiraServices = jiraServices;
@@ -83,6 +87,7 @@ public class HubWorkflowSetup {
                     return null;
                 }
                 jiraServices.getWorkflowManager().createWorkflow(jiraAppUser, hubWorkflow);
+                WorkflowTransitionCache.getInstance().invalidate();
                 logger.debug("Created the Hub Workflow : " + HubJiraConstants.HUB_JIRA_WORKFLOW);
             }
             return hubWorkflow;
@@ -107,35 +112,55 @@ public class HubWorkflowSetup {
         return WorkflowUtil.convertXMLtoWorkflowDescriptor(workflowXml);
     }
 
-    public void addWorkflowToProjectsWorkflowScheme(final JiraWorkflow hubWorkflow, final Project project,
+    /**
+     * @return true if the project's workflow scheme now maps the issue types to the Hub workflow; false if it could not
+     *         be updated (the error has been reported)
+     */
+    public boolean addWorkflowToProjectsWorkflowScheme(final JiraWorkflow hubWorkflow, final Project project,
             final List<IssueType> issueTypes) {
 
         try {
-            final AssignableWorkflowScheme projectWorkflowScheme = jiraServices.getWorkflowSchemeManager()
+            AssignableWorkflowScheme projectWorkflowScheme = jiraServices.getWorkflowSchemeManager()
                     .getWorkflowSchemeObj(project);
-            if (projectWorkflowScheme != null) {
-                final AssignableWorkflowScheme.Builder projectWorkflowSchemeBuilder = projectWorkflowScheme.builder();
-                boolean needsToBeUpdated = false;
-                if (issueTypes != null && !issueTypes.isEmpty()) {
-                    for (final IssueType issueType : issueTypes) {
-                        needsToBeUpdated = mapIssueTypeToBdsWorkflow(project, hubWorkflow, projectWorkflowScheme, projectWorkflowSchemeBuilder,
-                                issueType, needsToBeUpdated);
+            while (projectWorkflowScheme != null) {
+                synchronized (schemeLocks.lockFor("workflowScheme", projectWorkflowScheme.getId())) {
+                    // Re-read the scheme now that we hold its lock, so that we build on any update made by another project
+                    // that shares it
+                    final AssignableWorkflowScheme currentWorkflowScheme = jiraServices.getWorkflowSchemeManager()
+                            .getWorkflowSchemeObj(project);
+                    if ((currentWorkflowScheme != null) && !Objects.equals(currentWorkflowScheme.getId(), projectWorkflowScheme.getId())) {
+                        logger.debug("The workflow scheme of JIRA project " + project.getName() + " has changed; retrying");
+                        projectWorkflowScheme = currentWorkflowScheme;
+                        continue;
                     }
+                    projectWorkflowScheme = currentWorkflowScheme;
+                    if (projectWorkflowScheme == null) {
+                        break;
+                    }
+                    final AssignableWorkflowScheme.Builder projectWorkflowSchemeBuilder = projectWorkflowScheme.builder();
+                    boolean needsToBeUpdated = false;
+                    if (issueTypes != null && !issueTypes.isEmpty()) {
+                        for (final IssueType issueType : issueTypes) {
+                            needsToBeUpdated = mapIssueTypeToBdsWorkflow(project, hubWorkflow, projectWorkflowScheme, projectWorkflowSchemeBuilder,
+                                    issueType, needsToBeUpdated);
+                        }
+                    }
+                    if (needsToBeUpdated) {
+                        jiraServices.getWorkflowSchemeManager().updateWorkflowScheme(projectWorkflowSchemeBuilder.build());
+                    }
+                    return true;
                 }
-                if (needsToBeUpdated) {
-                    jiraServices.getWorkflowSchemeManager().updateWorkflowScheme(projectWorkflowSchemeBuilder.build());
-                }
-            } else {
-                final String errorMessage = "Could not find the workflow scheme for the JIRA project : "
-                        + project.getName();
-                logger.error(errorMessage);
-                settingService.addHubError(errorMessage, null, null, project.getName(), null, null,
-                        "addWorkflowToProjectsWorkflowScheme");
             }
+            final String errorMessage = "Could not find the workflow scheme for the JIRA project : "
+                    + project.getName();
+            logger.error(errorMessage);
+            settingService.addHubError(errorMessage, null, null, project.getName(), null, null,
+                    "addWorkflowToProjectsWorkflowScheme");
         } catch (final Exception e) {
             logger.error("Failed to add the Hub JIRA worflow to the Hub scheme.", e);
             settingService.addHubError(e, null, null, project.getName(), null, null, "addWorkflowToProjectsWorkflowScheme");
         }
+        return false;
     }
 
     private boolean mapIssueTypeToBdsWorkflow(final Project project, final JiraWorkflow hubWorkflow,
@@ -0,0 +1,191 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.setup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.atlassian.jira.issue.fields.CustomField;
+import com.atlassian.jira.issue.fields.screen.FieldScreenScheme;
+import com.atlassian.jira.issue.issuetype.IssueType;
+import com.atlassian.jira.workflow.JiraWorkflow;
+import com.atlassian.sal.api.pluginsettings.PluginSettings;
+import com.blackducksoftware.integration.jira.common.HubJiraConfigKeys;
+import com.blackducksoftware.integration.jira.common.HubJiraLogger;
+import com.blackducksoftware.integration.jira.common.PluginField;
+import com.blackducksoftware.integration.jira.task.issue.JiraServices;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+/**
+ * Fingerprint of what the last complete JIRA setup pass created: the Black Duck issue types, custom fields, screen
+ * schemes and workflow, and the JIRA projects they were associated with.
+ *
+ * The state is stored in PluginSettings. As long as the plugin version and the project mapping JSON are unchanged, and
+ * every recorded JIRA artifact still exists, the setup pass can be skipped and the custom fields restored by ID.
+ */
+public class JiraSetupState {
+    private static final HubJiraLogger logger = new HubJiraLogger(Logger.getLogger(JiraSetupState.class.getName()));
+
+    private static final Gson gson = new GsonBuilder().create();
+
+    private String pluginVersion;
+
+    private String projectMappingJson;
+
+    private List<String> issueTypeIds = new ArrayList<>();
+
+    private Map<String, String> customFieldIdsByPluginField = new HashMap<>();
+
+    private List<Long> screenSchemeIds = new ArrayList<>();
+
+    private String workflowName;
+
+    private List<Long> mappedProjectIds = new ArrayList<>();
+
+    public JiraSetupState() {
+    }
+
+    public JiraSetupState(final String projectMappingJson, final List<IssueType> issueTypes, final Map<PluginField, CustomField> customFields,
+            final Collection<FieldScreenScheme> screenSchemes, final JiraWorkflow workflow, final List<Long> mappedProjectIds) {
+        this.projectMappingJson = projectMappingJson;
+        for (final IssueType issueType : issueTypes) {
+            issueTypeIds.add(issueType.getId());
+        }
+        if (customFields != null) {
+            for (final Map.Entry<PluginField, CustomField> entry : customFields.entrySet()) {
+                customFieldIdsByPluginField.put(entry.getKey().name(), entry.getValue().getId());
+            }
+        }
+        if (screenSchemes != null) {
+            for (final FieldScreenScheme screenScheme : screenSchemes) {
+                screenSchemeIds.add(screenScheme.getId());
+            }
+        }
+        this.workflowName = workflow.getName();
+        this.mappedProjectIds.addAll(mappedProjectIds);
+    }
+
+    public static JiraSetupState load(final PluginSettings settings) {
+        final String json = (String) settings.get(HubJiraConfigKeys.HUB_CONFIG_JIRA_SETUP_STATE_JSON);
+        if (StringUtils.isBlank(json)) {
+            return null;
+        }
+        try {
+            return gson.fromJson(json, JiraSetupState.class);
+        } catch (final JsonParseException e) {
+            logger.warn("Unable to parse the recorded JIRA setup state; setup will be run: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public void save(final PluginSettings settings) {
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_JIRA_SETUP_STATE_JSON, gson.toJson(this));
+    }
+
+    public static void clear(final PluginSettings settings) {
+        settings.remove(HubJiraConfigKeys.HUB_CONFIG_JIRA_SETUP_STATE_JSON);
+    }
+
+    /**
+     * Returns the recorded custom fields if this state still describes the JIRA configuration, or null if the setup
+     * pass needs to be run.
+     */
+    public Map<PluginField, CustomField> restore(final JiraServices jiraServices, final String currentPluginVersion, final String currentProjectMappingJson) {
+        if (!StringUtils.equals(pluginVersion, currentPluginVersion)) {
+            logger.debug(String.format("Plugin version changed from %s to %s since the last JIRA setup", pluginVersion, currentPluginVersion));
+            return null;
+        }
+        if (!StringUtils.equals(projectMappingJson, currentProjectMappingJson)) {
+            logger.debug("Project mappings changed since the last JIRA setup");
+            return null;
+        }
+        if (issueTypeIds == null || issueTypeIds.isEmpty() || customFieldIdsByPluginField == null || screenSchemeIds == null
+                || StringUtils.isBlank(workflowName) || mappedProjectIds == null) {
+            return null;
+        }
+        for (final String issueTypeId : issueTypeIds) {
+            if (jiraServices.getConstantsManager().getIssueType(issueTypeId) == null) {
+                logger.debug("Issue type " + issueTypeId + " no longer exists");
+                return null;
+            }
+        }
+        for (final Long screenSchemeId : screenSchemeIds) {
+            if (jiraServices.getFieldScreenSchemeManager().getFieldScreenScheme(screenSchemeId) == null) {
+                logger.debug("Screen scheme " + screenSchemeId + " no longer exists");
+                return null;
+            }
+        }
+        if (jiraServices.getWorkflowManager().getWorkflow(workflowName) == null) {
+            logger.debug("Workflow " + workflowName + " no longer exists");
+            return null;
+        }
+        for (final Long projectId : mappedProjectIds) {
+            if (jiraServices.getJiraProjectManager().getProjectObj(projectId) == null) {
+                logger.debug("Mapped JIRA project " + projectId + " no longer exists");
+                return null;
+            }
+        }
+        final Map<PluginField, CustomField> customFields = new EnumMap<>(PluginField.class);
+        for (final Map.Entry<String, String> entry : customFieldIdsByPluginField.entrySet()) {
+            final PluginField pluginField;
+            try {
+                pluginField = PluginField.valueOf(entry.getKey());
+            } catch (final IllegalArgumentException e) {
+                return null;
+            }
+            final CustomField customField = jiraServices.getCustomFieldManager().getCustomFieldObject(entry.getValue());
+            if (customField == null) {
+                logger.debug("Custom field " + entry.getValue() + " no longer exists");
+                return null;
+            }
+            customFields.put(pluginField, customField);
+        }
+        if (customFields.size() != PluginField.values().length) {
+            return null;
+        }
+        return customFields;
+    }
+
+    public String getPluginVersion() {
+        return pluginVersion;
+    }
+
+    public void setPluginVersion(final String pluginVersion) {
+        this.pluginVersion = pluginVersion;
+    }
+
+    public List<Long> getMappedProjectIds() {
+        return mappedProjectIds;
+    }
+
+}
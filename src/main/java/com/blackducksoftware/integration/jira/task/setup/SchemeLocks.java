@@ -0,0 +1,41 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.setup;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * One lock object per JIRA scheme. JIRA projects frequently share schemes, so when projects are configured in
+ * parallel, the read-modify-store of each scheme must be serialized.
+ */
+class SchemeLocks {
+    private final ConcurrentMap<String, Object> locks = new ConcurrentHashMap<>();
+
+    Object lockFor(final String schemeType, final Object schemeId) {
+        final String lockKey = schemeType + ":" + schemeId;
+        return locks.computeIfAbsent(lockKey, key -> new Object());
+    }
+
+}
@@ -436,6 +436,9 @@ function populateForm() {
 		    success: function(pluginInfo) {
 		    	console.log("pluginVersion: " + pluginInfo.pluginVersion);
 		    	fillInPluginVersion(pluginInfo.pluginVersion);
+		    	fillInRunProgress(pluginInfo.lastRunDate, pluginInfo.runProgress);
+		    	fillInRunSchedule(pluginInfo.nextRunDate, pluginInfo.lastRunDuration);
+		    	fillInHubConnectionStats(pluginInfo.hubConnectionStats);
 		    },
 		    error: function(response) {
 		    	console.log("Error getting pluginInfo");
@@ -602,6 +605,48 @@ function resetSalKeys(){
 	  ticketCreationErrorTable.empty();
 }
 
+function clearLicenseCache(){
+	var restUrl = AJS.contextPath() + '/rest/hub-jira-integration/1.0/clearLicenseCache';
+	AJS.$.ajax({
+	    url: restUrl,
+	    type: "PUT",
+	    dataType: "json",
+	    contentType: "application/json",
+	    data: '{}',
+	    processData: false,
+	    success: function() {
+	    	alert('License cache cleared!');
+	    },
+	    error: function(response){
+	    	alert(response.responseText);
+	    },
+     	complete: function(jqXHR, textStatus){
+	    	  stopProgressSpinner('clearLicenseCacheSpinner');
+	    }
+	  });
+}
+
+function forceSetupResync(){
+	var restUrl = AJS.contextPath() + '/rest/hub-jira-integration/1.0/forceSetupResync';
+	AJS.$.ajax({
+	    url: restUrl,
+	    type: "PUT",
+	    dataType: "json",
+	    contentType: "application/json",
+	    data: '{}',
+	    processData: false,
+	    success: function() {
+	    	alert('JIRA setup will be re-run on the next run!');
+	    },
+	    error: function(response){
+	    	alert(response.responseText);
+	    },
+     	complete: function(jqXHR, textStatus){
+	    	  stopProgressSpinner('forceSetupResyncSpinner');
+	    }
+	  });
+}
+
 function handleErrorResize(expansionIcon){
 	var currentIcon = AJS.$(expansionIcon);
 	var errorRow = currentIcon.closest("tr");
@@ -671,6 +716,15 @@ function updateTicketCreationErrors(hubJiraTicketErrors){
 			
 			var timeStampDiv = AJS.$(errorColumn).children("div[name*='ticketCreationTimeStampName']");
 			var timeStamp = hubJiraTicketErrors[j].timeStamp;
+			var occurrences = hubJiraTicketErrors[j].occurrences;
+			if(occurrences > 1){
+				var firstTimeStamp = hubJiraTicketErrors[j].firstTimeStamp;
+				if(firstTimeStamp && firstTimeStamp != timeStamp){
+					timeStamp = occurrences + ' times, ' + firstTimeStamp + ' - ' + timeStamp;
+				} else {
+					timeStamp = occurrences + ' times, ' + timeStamp;
+				}
+			}
 			
 			if(timeStampDiv.hasClass(hiddenClass)){
 				timeStampDiv.removeClass(hiddenClass);
@@ -1324,6 +1378,31 @@ function fillInPluginVersion(pluginVersion) {
 	}
 }
 
+function fillInRunProgress(lastRunDate, runProgress) {
+	console.log("fillInRunProgress(): lastRunDate: " + lastRunDate + "; runProgress: " + runProgress);
+	AJS.$("#lastRunDate").text(lastRunDate ? lastRunDate : "(not yet run)");
+	if (runProgress) {
+		AJS.$("#runProgress").text("; in progress: " + runProgress);
+	} else {
+		AJS.$("#runProgress").text("");
+	}
+}
+
+function fillInRunSchedule(nextRunDate, lastRunDuration) {
+	console.log("fillInRunSchedule(): nextRunDate: " + nextRunDate + "; lastRunDuration: " + lastRunDuration);
+	AJS.$("#nextRunDate").text(nextRunDate ? nextRunDate : "(not yet scheduled)");
+	if (lastRunDuration) {
+		AJS.$("#lastRunDuration").text("; last run took " + lastRunDuration);
+	} else {
+		AJS.$("#lastRunDuration").text("");
+	}
+}
+
+function fillInHubConnectionStats(hubConnectionStats) {
+	console.log("fillInHubConnectionStats(): hubConnectionStats: " + hubConnectionStats);
+	AJS.$("#hubConnectionStats").text(hubConnectionStats ? hubConnectionStats : "");
+}
+
 function fillInSourceFields(sourceFields) {
 	var mappingElement = AJS.$("#" + fieldCopyMappingElement);
 	console.log("fieldCopyMappingElement: " + mappingElement);
@@ -117,4 +117,42 @@ public class HubProjectMappingsTest {
         assertEquals("assigneeUserId7", mappedJiraProject.getAssigneeUserId());
     }
 
+    @Test
+    public void testEachJiraProjectResolvedOnce() throws HubIntegrationException {
+        final JiraServices jiraServices = Mockito.mock(JiraServices.class);
+        final JiraProject sharedJiraProject = new JiraProject();
+        sharedJiraProject.setProjectError("");
+        sharedJiraProject.setProjectId(1L);
+        sharedJiraProject.setProjectName("sharedJiraProject");
+        Mockito.when(jiraServices.getJiraProject(1L)).thenReturn(sharedJiraProject);
+        Mockito.when(jiraServices.getJiraProject(2L)).thenThrow(new HubIntegrationException("Project not found"));
+
+        final Set<HubProjectMapping> underlyingMappings = new HashSet<>();
+        underlyingMappings.add(createMapping("hubProjectA", 1L));
+        underlyingMappings.add(createMapping("hubProjectB", 1L));
+        underlyingMappings.add(createMapping("hubProjectB", 2L));
+
+        final HubProjectMappings mappings = new HubProjectMappings(jiraServices, underlyingMappings);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(1, mappings.getJiraProjects("hubProjectA").size());
+            assertEquals(1, mappings.getJiraProjects("hubProjectB").size());
+            assertEquals(0, mappings.getJiraProjects("hubProjectC").size());
+        }
+        assertEquals(Long.valueOf(1L), mappings.getJiraProjects("hubProjectB").get(0).getProjectId());
+        Mockito.verify(jiraServices, Mockito.times(1)).getJiraProject(1L);
+        Mockito.verify(jiraServices, Mockito.times(1)).getJiraProject(2L);
+    }
+
+    private HubProjectMapping createMapping(final String hubProjectName, final long jiraProjectId) {
+        final HubProjectMapping mapping = new HubProjectMapping();
+        final HubProject hubProject = new HubProject();
+        hubProject.setProjectName(hubProjectName);
+        mapping.setHubProject(hubProject);
+        final JiraProject jiraProject = new JiraProject();
+        jiraProject.setProjectId(jiraProjectId);
+        jiraProject.setProjectName("jiraProject" + jiraProjectId);
+        mapping.setJiraProject(jiraProject);
+        return mapping;
+    }
+
 }
@@ -0,0 +1,175 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.hub;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.blackducksoftware.integration.exception.IntegrationException;
+import com.blackducksoftware.integration.hub.HubSupportHelper;
+import com.blackducksoftware.integration.hub.api.nonpublic.HubVersionRequestService;
+
+public class HubCapabilityCacheTest {
+    private static final String HUB_URL = "http://hub.test";
+
+    @Test
+    public void testCheckedOncePerHub() throws IntegrationException {
+        final CountingHubCapabilityCache cache = new CountingHubCapabilityCache(60000L);
+        final HubVersionRequestService versionService = Mockito.mock(HubVersionRequestService.class);
+
+        final HubSupportHelper first = cache.getHubSupportHelper(HUB_URL, versionService);
+        final HubSupportHelper second = cache.getHubSupportHelper(HUB_URL, versionService);
+        cache.getHubSupportHelper("http://otherhub.test", versionService);
+
+        assertSame(first, second);
+        assertEquals(2, cache.checkCount.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testExpiredEntryRefreshedInBackground() throws Exception {
+        final CountingHubCapabilityCache cache = new CountingHubCapabilityCache(0L);
+        final HubVersionRequestService versionService = Mockito.mock(HubVersionRequestService.class);
+
+        final HubSupportHelper first = cache.getHubSupportHelper(HUB_URL, versionService);
+        // The expired entry is returned immediately while the refresh runs
+        assertSame(first, cache.getHubSupportHelper(HUB_URL, versionService));
+
+        final long deadline = System.currentTimeMillis() + 5000L;
+        while ((cache.checkCount.get() < 2) && (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(10L);
+        }
+        assertEquals(2, cache.checkCount.get());
+    }
+
+    @Test
+    public void testInvalidate() throws IntegrationException {
+        final CountingHubCapabilityCache cache = new CountingHubCapabilityCache(60000L);
+        final HubVersionRequestService versionService = Mockito.mock(HubVersionRequestService.class);
+
+        final HubSupportHelper first = cache.getHubSupportHelper(HUB_URL, versionService);
+        cache.invalidate();
+        final HubSupportHelper second = cache.getHubSupportHelper(HUB_URL, versionService);
+
+        assertNotSame(first, second);
+        assertEquals(2, cache.checkCount.get());
+    }
+
+    @Test
+    public void testCheckRunningDuringInvalidateNotCached() throws Exception {
+        final CountDownLatch checkStarted = new CountDownLatch(1);
+        final CountDownLatch finishCheck = new CountDownLatch(1);
+        final HubCapabilityCache cache = new HubCapabilityCache(60000L) {
+            @Override
+            protected HubSupportHelper checkHubSupport(final HubVersionRequestService hubVersionRequestService) {
+                checkStarted.countDown();
+                try {
+                    finishCheck.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Mockito.mock(HubSupportHelper.class);
+            }
+        };
+        final Thread checkThread = new Thread(() -> {
+            try {
+                cache.getHubSupportHelper(HUB_URL, Mockito.mock(HubVersionRequestService.class));
+            } catch (final IntegrationException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        checkThread.start();
+        assertTrue(checkStarted.await(10, TimeUnit.SECONDS));
+        cache.invalidate();
+        finishCheck.countDown();
+        checkThread.join(10000L);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEquivalentHubUrlsShareEntry() throws IntegrationException {
+        final CountingHubCapabilityCache cache = new CountingHubCapabilityCache(60000L);
+        final HubVersionRequestService versionService = Mockito.mock(HubVersionRequestService.class);
+
+        final HubSupportHelper first = cache.getHubSupportHelper(HUB_URL, versionService);
+        assertSame(first, cache.getHubSupportHelper(" http://HUB.test/ ", versionService));
+        assertEquals(1, cache.checkCount.get());
+        assertEquals(HubCapabilityCache.getHubUrlKey(HUB_URL), HubCapabilityCache.getHubUrlKey(HUB_URL + "//"));
+    }
+
+    @Test
+    public void testShutdownClearsCacheAndCanBeReused() throws Exception {
+        final CountingHubCapabilityCache cache = new CountingHubCapabilityCache(0L);
+        final HubVersionRequestService versionService = Mockito.mock(HubVersionRequestService.class);
+
+        cache.getHubSupportHelper(HUB_URL, versionService);
+        cache.getHubSupportHelper(HUB_URL, versionService);
+        cache.shutdown();
+        assertEquals(0, cache.size());
+
+        cache.getHubSupportHelper(HUB_URL, versionService);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testFailedCheckNotCached() {
+        final HubCapabilityCache cache = new HubCapabilityCache(60000L) {
+            @Override
+            protected HubSupportHelper checkHubSupport(final HubVersionRequestService hubVersionRequestService) throws IntegrationException {
+                throw new IntegrationException("Hub unreachable");
+            }
+        };
+        try {
+            cache.getHubSupportHelper(HUB_URL, Mockito.mock(HubVersionRequestService.class));
+            fail("Expected an IntegrationException");
+        } catch (final IntegrationException e) {
+            assertEquals(0, cache.size());
+        }
+    }
+
+    private static class CountingHubCapabilityCache extends HubCapabilityCache {
+        private final AtomicInteger checkCount = new AtomicInteger();
+
+        CountingHubCapabilityCache(final long ttlMillis) {
+            super(ttlMillis);
+        }
+
+        @Override
+        protected HubSupportHelper checkHubSupport(final HubVersionRequestService hubVersionRequestService) {
+            checkCount.incrementAndGet();
+            return Mockito.mock(HubSupportHelper.class);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.hub;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.blackducksoftware.integration.exception.IntegrationException;
+import com.blackducksoftware.integration.hub.global.HubCredentials;
+import com.blackducksoftware.integration.hub.global.HubServerConfig;
+import com.blackducksoftware.integration.hub.rest.RestConnection;
+import com.blackducksoftware.integration.hub.rest.exception.IntegrationRestException;
+import com.blackducksoftware.integration.hub.service.HubServicesFactory;
+
+public class HubConnectionManagerTest {
+
+    @Test
+    public void testConnectionReused() throws Exception {
+        final HubConnectionManager manager = new HubConnectionManagerWithMocks(60000L);
+        final HubServerConfig hubServerConfig = createHubServerConfig("http://hub1.test", "sysadmin");
+
+        final HubServicesFactory first = manager.getHubServicesFactory(hubServerConfig);
+        final HubServicesFactory second = manager.getHubServicesFactory(hubServerConfig);
+
+        assertSame(first, second);
+        assertEquals(2, manager.getRequestCount());
+        assertEquals(1, manager.getReuseCount());
+        assertEquals(1, manager.getLoginCount());
+    }
+
+    @Test
+    public void testConfigChangeReconnects() throws Exception {
+        final HubConnectionManager manager = new HubConnectionManagerWithMocks(60000L);
+
+        final HubServicesFactory first = manager.getHubServicesFactory(createHubServerConfig("http://hub1.test", "sysadmin"));
+        final HubServicesFactory second = manager.getHubServicesFactory(createHubServerConfig("http://hub2.test", "sysadmin"));
+        final HubServicesFactory third = manager.getHubServicesFactory(createHubServerConfig("http://hub2.test", "otheruser"));
+
+        assertNotSame(first, second);
+        assertNotSame(second, third);
+        assertEquals(3, manager.getLoginCount());
+        assertEquals(2, manager.getConfigChangeCount());
+    }
+
+    @Test
+    public void testExpiredSessionReauthenticates() throws Exception {
+        final HubConnectionManager manager = new HubConnectionManagerWithMocks(0L);
+        final HubServerConfig hubServerConfig = createHubServerConfig("http://hub1.test", "sysadmin");
+
+        final HubServicesFactory first = manager.getHubServicesFactory(hubServerConfig);
+        final HubServicesFactory second = manager.getHubServicesFactory(hubServerConfig);
+
+        assertNotSame(first, second);
+        assertEquals(2, manager.getLoginCount());
+        assertEquals(1, manager.getReauthenticationCount());
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        final HubConnectionManager manager = new HubConnectionManagerWithMocks(60000L);
+        final HubServerConfig hubServerConfig = createHubServerConfig("http://hub1.test", "sysadmin");
+
+        final HubServicesFactory first = manager.getHubServicesFactory(hubServerConfig);
+        manager.invalidate(first);
+        final HubServicesFactory second = manager.getHubServicesFactory(hubServerConfig);
+
+        assertNotSame(first, second);
+        assertEquals(2, manager.getLoginCount());
+        assertEquals(1, manager.getReauthenticationCount());
+
+        // A connection that has already been replaced is not discarded again
+        manager.invalidate(first);
+        assertSame(second, manager.getHubServicesFactory(hubServerConfig));
+        assertEquals(1, manager.getReauthenticationCount());
+    }
+
+    @Test
+    public void testRejectedSessionRetriedOnceWithNewLogin() throws Exception {
+        final HubConnectionManager manager = new HubConnectionManagerWithMocks(60000L);
+        final HubServerConfig hubServerConfig = createHubServerConfig("http://hub1.test", "sysadmin");
+        final IntegrationRestException unauthorized = Mockito.mock(IntegrationRestException.class);
+        Mockito.when(unauthorized.getHttpStatusCode()).thenReturn(401);
+        final List<HubServicesFactory> usedFactories = new ArrayList<>();
+
+        final String result = manager.execute(hubServerConfig, hubServicesFactory -> {
+            usedFactories.add(hubServicesFactory);
+            if (usedFactories.size() == 1) {
+                throw unauthorized;
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(2, usedFactories.size());
+        assertNotSame(usedFactories.get(0), usedFactories.get(1));
+        assertEquals(2, manager.getLoginCount());
+        assertEquals(1, manager.getReauthenticationCount());
+    }
+
+    @Test
+    public void testOtherFailuresNotRetried() throws Exception {
+        final HubConnectionManager manager = new HubConnectionManagerWithMocks(60000L);
+        final HubServerConfig hubServerConfig = createHubServerConfig("http://hub1.test", "sysadmin");
+        final List<HubServicesFactory> usedFactories = new ArrayList<>();
+
+        try {
+            manager.execute(hubServerConfig, hubServicesFactory -> {
+                usedFactories.add(hubServicesFactory);
+                throw new IntegrationException("not found");
+            });
+            fail("Expected an IntegrationException");
+        } catch (final IntegrationException e) {
+            // expected
+        }
+        assertEquals(1, usedFactories.size());
+        assertEquals(1, manager.getLoginCount());
+    }
+
+    @Test
+    public void testVerifiedConnectionLogsInAgainWhenReused() throws Exception {
+        final RestConnection restConnection = Mockito.mock(RestConnection.class);
+        final HubConnectionManager manager = new HubConnectionManager(60000L) {
+            @Override
+            protected RestConnection createRestConnection(final HubServerConfig hubServerConfig) {
+                return restConnection;
+            }
+        };
+        final HubServerConfig hubServerConfig = createHubServerConfig("http://hub1.test", "sysadmin");
+
+        final HubServicesFactory first = manager.getVerifiedHubServicesFactory(hubServerConfig);
+        final HubServicesFactory second = manager.getVerifiedHubServicesFactory(hubServerConfig);
+        assertSame(first, second);
+        Mockito.verify(restConnection, Mockito.times(2)).connect();
+
+        Mockito.doThrow(new IntegrationException("bad credentials")).when(restConnection).connect();
+        try {
+            manager.getVerifiedHubServicesFactory(hubServerConfig);
+            fail("Expected an IntegrationException");
+        } catch (final IntegrationException e) {
+            // expected
+        }
+        assertEquals(1, manager.getReauthenticationCount());
+    }
+
+    @Test
+    public void testInvalidateDuringSlowLoginDoesNotBlock() throws Exception {
+        final CountDownLatch loginStarted = new CountDownLatch(1);
+        final CountDownLatch finishLogin = new CountDownLatch(1);
+        final RestConnection slowConnection = Mockito.mock(RestConnection.class);
+        Mockito.doAnswer(invocation -> {
+            loginStarted.countDown();
+            finishLogin.await();
+            return null;
+        }).when(slowConnection).connect();
+        final HubConnectionManager manager = new HubConnectionManager(60000L) {
+            @Override
+            protected RestConnection createRestConnection(final HubServerConfig hubServerConfig) {
+                return slowConnection;
+            }
+        };
+        final HubServerConfig hubServerConfig = createHubServerConfig("http://hub1.test", "sysadmin");
+
+        final Thread loginThread = new Thread(() -> {
+            try {
+                manager.getHubServicesFactory(hubServerConfig);
+            } catch (final Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        loginThread.start();
+        assertTrue(loginStarted.await(10, TimeUnit.SECONDS));
+        // The monitor is not held during the login
+        assertEquals(0, manager.getLoginCount());
+        manager.invalidate(null);
+        finishLogin.countDown();
+        loginThread.join(10000L);
+        assertEquals(1, manager.getLoginCount());
+    }
+
+    @Test
+    public void testFailedLoginNotCached() throws Exception {
+        final RestConnection failingConnection = Mockito.mock(RestConnection.class);
+        Mockito.doThrow(new IntegrationException("login failed")).when(failingConnection).connect();
+        final HubConnectionManager manager = new HubConnectionManager(60000L) {
+            @Override
+            protected RestConnection createRestConnection(final HubServerConfig hubServerConfig) {
+                return failingConnection;
+            }
+        };
+        final HubServerConfig hubServerConfig = createHubServerConfig("http://hub1.test", "sysadmin");
+        for (int i = 0; i < 2; i++) {
+            try {
+                manager.getHubServicesFactory(hubServerConfig);
+            } catch (final IntegrationException e) {
+                // expected
+            }
+        }
+        Mockito.verify(failingConnection, Mockito.times(2)).connect();
+        assertEquals(0, manager.getLoginCount());
+    }
+
+    private HubServerConfig createHubServerConfig(final String hubUrl, final String username) throws Exception {
+        final HubCredentials credentials = Mockito.mock(HubCredentials.class);
+        Mockito.when(credentials.getUsername()).thenReturn(username);
+        Mockito.when(credentials.getEncryptedPassword()).thenReturn("encryptedPassword");
+        final HubServerConfig hubServerConfig = Mockito.mock(HubServerConfig.class);
+        Mockito.when(hubServerConfig.getHubUrl()).thenReturn(new URL(hubUrl));
+        Mockito.when(hubServerConfig.getGlobalCredentials()).thenReturn(credentials);
+        Mockito.when(hubServerConfig.getTimeout()).thenReturn(120);
+        return hubServerConfig;
+    }
+
+    private static class HubConnectionManagerWithMocks extends HubConnectionManager {
+        HubConnectionManagerWithMocks(final long maxSessionAgeMillis) {
+            super(maxSessionAgeMillis);
+        }
+
+        @Override
+        protected RestConnection createRestConnection(final HubServerConfig hubServerConfig) {
+            return Mockito.mock(RestConnection.class);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.hub;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.blackducksoftware.integration.exception.IntegrationException;
+import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
+import com.blackducksoftware.integration.hub.model.view.UserView;
+import com.blackducksoftware.integration.hub.service.HubResponseService;
+
+public class HubResponseCacheTest {
+    private static final String PROJECT_URL = "http://hub.blackducksoftware.com/api/projects/projectId";
+
+    private static final String OTHER_PROJECT_URL = "http://hub.blackducksoftware.com/api/projects/otherProjectId";
+
+    private static final String USER_URL = "http://hub.blackducksoftware.com/api/users/userId";
+
+    @Test
+    public void testItemFetchedOnce() throws IntegrationException {
+        final HubResponseService hubResponseService = Mockito.mock(HubResponseService.class);
+        final ProjectResponse project = new ProjectResponse();
+        project.projectOwner = USER_URL;
+        Mockito.when(hubResponseService.getItem(PROJECT_URL, ProjectResponse.class)).thenReturn(project);
+        final UserView user = new UserView();
+        user.firstName = "Shmario";
+        Mockito.when(hubResponseService.getItem(USER_URL, UserView.class)).thenReturn(user);
+        final HubResponseCache hubResponseCache = new HubResponseCache(hubResponseService, 10, 600);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(USER_URL, hubResponseCache.getItem(PROJECT_URL, ProjectResponse.class).projectOwner);
+            assertEquals("Shmario", hubResponseCache.getItem(USER_URL, UserView.class).firstName);
+        }
+
+        Mockito.verify(hubResponseService, Mockito.times(1)).getItem(PROJECT_URL, ProjectResponse.class);
+        Mockito.verify(hubResponseService, Mockito.times(1)).getItem(USER_URL, UserView.class);
+        assertEquals(2, hubResponseCache.getMissCount());
+        assertEquals(4, hubResponseCache.getHitCount());
+        assertEquals(66, hubResponseCache.getHitPercentage());
+    }
+
+    @Test
+    public void testExpiredItemRefetched() throws IntegrationException {
+        final HubResponseService hubResponseService = Mockito.mock(HubResponseService.class);
+        Mockito.when(hubResponseService.getItem(PROJECT_URL, ProjectResponse.class)).thenReturn(new ProjectResponse());
+        final HubResponseCache hubResponseCache = new HubResponseCache(hubResponseService, 10, 0);
+
+        hubResponseCache.getItem(PROJECT_URL, ProjectResponse.class);
+        hubResponseCache.getItem(PROJECT_URL, ProjectResponse.class);
+
+        Mockito.verify(hubResponseService, Mockito.times(2)).getItem(PROJECT_URL, ProjectResponse.class);
+        assertEquals(0, hubResponseCache.getHitCount());
+    }
+
+    @Test
+    public void testSizeLimit() throws IntegrationException {
+        final HubResponseService hubResponseService = Mockito.mock(HubResponseService.class);
+        Mockito.when(hubResponseService.getItem(Mockito.anyString(), Mockito.eq(ProjectResponse.class))).thenReturn(new ProjectResponse());
+        final HubResponseCache hubResponseCache = new HubResponseCache(hubResponseService, 1, 600);
+
+        hubResponseCache.getItem(PROJECT_URL, ProjectResponse.class);
+        hubResponseCache.getItem(OTHER_PROJECT_URL, ProjectResponse.class);
+
+        assertEquals(1, hubResponseCache.size());
+    }
+
+    @Test
+    public void testFailureNotCached() throws IntegrationException {
+        final HubResponseService hubResponseService = Mockito.mock(HubResponseService.class);
+        Mockito.when(hubResponseService.getItem(PROJECT_URL, ProjectResponse.class)).thenThrow(new HubIntegrationException("Project not found"));
+        final HubResponseCache hubResponseCache = new HubResponseCache(hubResponseService, 10, 600);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                hubResponseCache.getItem(PROJECT_URL, ProjectResponse.class);
+                fail("Expected an IntegrationException");
+            } catch (final IntegrationException e) {
+                assertEquals("Project not found", e.getMessage());
+            }
+        }
+
+        Mockito.verify(hubResponseService, Mockito.times(2)).getItem(PROJECT_URL, ProjectResponse.class);
+        assertEquals(0, hubResponseCache.size());
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.hub;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.blackducksoftware.integration.exception.IntegrationException;
+import com.blackducksoftware.integration.hub.api.item.MetaService;
+import com.blackducksoftware.integration.hub.model.view.ComplexLicenseView;
+import com.blackducksoftware.integration.hub.service.HubResponseService;
+
+public class LicenseCacheTest {
+    private static final String LICENSE_URL_PREFIX = "http://hub.blackducksoftware.com/api/licenses/";
+
+    @Test
+    public void testLicenseFetchedOnce() throws IntegrationException {
+        final HubResponseService hubResponseService = Mockito.mock(HubResponseService.class);
+        final MetaService metaService = Mockito.mock(MetaService.class);
+        mockLicense(hubResponseService, metaService, "apache");
+        final LicenseCache licenseCache = new LicenseCache(10);
+
+        for (int i = 0; i < 3; i++) {
+            final LicenseCache.CachedLicense license = licenseCache.getLicense(LICENSE_URL_PREFIX + "apache", hubResponseService, metaService);
+            assertEquals(LICENSE_URL_PREFIX + "apache/text", license.getTextUrl());
+        }
+
+        Mockito.verify(hubResponseService, Mockito.times(1)).getItem(LICENSE_URL_PREFIX + "apache", ComplexLicenseView.class);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() throws IntegrationException {
+        final HubResponseService hubResponseService = Mockito.mock(HubResponseService.class);
+        final MetaService metaService = Mockito.mock(MetaService.class);
+        mockLicense(hubResponseService, metaService, "apache");
+        mockLicense(hubResponseService, metaService, "mit");
+        mockLicense(hubResponseService, metaService, "gpl");
+        final LicenseCache licenseCache = new LicenseCache(2);
+
+        licenseCache.getLicense(LICENSE_URL_PREFIX + "apache", hubResponseService, metaService);
+        licenseCache.getLicense(LICENSE_URL_PREFIX + "mit", hubResponseService, metaService);
+        licenseCache.getLicense(LICENSE_URL_PREFIX + "apache", hubResponseService, metaService);
+        licenseCache.getLicense(LICENSE_URL_PREFIX + "gpl", hubResponseService, metaService);
+        assertEquals(2, licenseCache.size());
+
+        licenseCache.getLicense(LICENSE_URL_PREFIX + "apache", hubResponseService, metaService);
+        licenseCache.getLicense(LICENSE_URL_PREFIX + "mit", hubResponseService, metaService);
+        Mockito.verify(hubResponseService, Mockito.times(1)).getItem(LICENSE_URL_PREFIX + "apache", ComplexLicenseView.class);
+        Mockito.verify(hubResponseService, Mockito.times(2)).getItem(LICENSE_URL_PREFIX + "mit", ComplexLicenseView.class);
+    }
+
+    @Test
+    public void testClear() throws IntegrationException {
+        final HubResponseService hubResponseService = Mockito.mock(HubResponseService.class);
+        final MetaService metaService = Mockito.mock(MetaService.class);
+        mockLicense(hubResponseService, metaService, "apache");
+        final LicenseCache licenseCache = new LicenseCache(10);
+
+        licenseCache.getLicense(LICENSE_URL_PREFIX + "apache", hubResponseService, metaService);
+        licenseCache.clear();
+        assertEquals(0, licenseCache.size());
+        licenseCache.getLicense(LICENSE_URL_PREFIX + "apache", hubResponseService, metaService);
+
+        Mockito.verify(hubResponseService, Mockito.times(2)).getItem(LICENSE_URL_PREFIX + "apache", ComplexLicenseView.class);
+    }
+
+    private void mockLicense(final HubResponseService hubResponseService, final MetaService metaService, final String licenseId) throws IntegrationException {
+        final ComplexLicenseView license = new ComplexLicenseView();
+        license.name = licenseId + " name";
+        Mockito.when(hubResponseService.getItem(LICENSE_URL_PREFIX + licenseId, ComplexLicenseView.class)).thenReturn(license);
+        Mockito.when(metaService.getFirstLink(license, "text")).thenReturn(LICENSE_URL_PREFIX + licenseId + "/text");
+    }
+}
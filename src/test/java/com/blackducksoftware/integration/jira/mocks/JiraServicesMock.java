@@ -40,6 +40,7 @@ import com.atlassian.jira.issue.fields.screen.FieldScreenManager;
 import com.atlassian.jira.issue.fields.screen.FieldScreenSchemeManager;
 import com.atlassian.jira.issue.fields.screen.issuetype.IssueTypeScreenSchemeManager;
 import com.atlassian.jira.issue.issuetype.IssueType;
+import com.atlassian.jira.issue.label.LabelManager;
 import com.atlassian.jira.project.ProjectManager;
 import com.atlassian.jira.security.JiraAuthenticationContext;
 import com.atlassian.jira.security.groups.GroupManager;
@@ -56,6 +57,8 @@ public class JiraServicesMock extends JiraServices {
 
     private ProjectManager projectManager;
 
+    private LabelManager labelManager;
+
     private AvatarManager avatarManager;
 
     private IssueTypeSchemeManager issueTypeSchemeManager;
@@ -116,6 +119,10 @@ public class JiraServicesMock extends JiraServices {
         this.projectManager = projectManager;
     }
 
+    public void setLabelManager(final LabelManager labelManager) {
+        this.labelManager = labelManager;
+    }
+
     public void setIssueService(final IssueService issueService) {
         this.issueService = issueService;
     }
@@ -179,6 +186,11 @@ public class JiraServicesMock extends JiraServices {
         return projectManager;
     }
 
+    @Override
+    public LabelManager getLabelManager() {
+        return labelManager;
+    }
+
     @Override
     public AvatarManager getAvatarManager() {
         return avatarManager;
@@ -0,0 +1,51 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.mocks;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.blackducksoftware.integration.hub.notification.processor.NotificationCategoryEnum;
+import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
+
+/**
+ * Minimal NotificationEvents for tests that only care about an event's key and identity.
+ */
+public class NotificationEventMock {
+    private static final String DATA_SET_KEY_ID = "id";
+
+    public static NotificationEvent createEvent(final String key) {
+        return new NotificationEvent(key, NotificationCategoryEnum.POLICY_VIOLATION_OVERRIDE, new HashMap<>());
+    }
+
+    public static NotificationEvent createEvent(final String key, final Object id) {
+        final Map<String, Object> dataSet = new HashMap<>();
+        dataSet.put(DATA_SET_KEY_ID, id);
+        return new NotificationEvent(key, NotificationCategoryEnum.POLICY_VIOLATION_OVERRIDE, dataSet);
+    }
+
+    public static Object getId(final NotificationEvent event) {
+        return event.getDataSet().get(DATA_SET_KEY_ID);
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.blackducksoftware.integration.jira.common.HubJiraConfigKeys;
+import com.blackducksoftware.integration.jira.mocks.PluginSettingsMock;
+
+public class ClusterRunCoordinatorTest {
+
+    @Test
+    public void testOnlyOneNodeRunsAtATime() {
+        final InMemoryTaskLockService lockService = new InMemoryTaskLockService();
+        final ClusterRunCoordinator node1 = new ClusterRunCoordinator(lockService, "node1", 1);
+        final ClusterRunCoordinator node2 = new ClusterRunCoordinator(lockService, "node2", 1);
+
+        assertTrue(node1.tryLockRun());
+        assertFalse(node2.tryLockRun());
+        node1.unlockRun();
+        assertTrue(node2.tryLockRun());
+        node2.unlockRun();
+    }
+
+    @Test
+    public void testNodesSplitShards() {
+        final InMemoryTaskLockService lockService = new InMemoryTaskLockService();
+        final ClusterRunCoordinator node1 = new ClusterRunCoordinator(lockService, "node1", 2);
+        final ClusterRunCoordinator node2 = new ClusterRunCoordinator(lockService, "node2", 2);
+        assertTrue(node1.isSharded());
+
+        final ProjectShard shard0 = new ProjectShard(0, 2);
+        final ProjectShard shard1 = new ProjectShard(1, 2);
+        assertTrue(node1.tryLock(shard0));
+        assertFalse(node2.tryLock(shard0));
+        assertTrue(node2.tryLock(shard1));
+        node1.unlock(shard0);
+        node2.unlock(shard1);
+        assertFalse(lockService.isLocked(shard0.getLockName()));
+        assertFalse(lockService.isLocked(shard1.getLockName()));
+    }
+
+    @Test
+    public void testShardedRunLockExcludesShardProcessing() {
+        final InMemoryTaskLockService lockService = new InMemoryTaskLockService();
+        final ClusterRunCoordinator node1 = new ClusterRunCoordinator(lockService, "node1", 2);
+        final ClusterRunCoordinator node2 = new ClusterRunCoordinator(lockService, "node2", 2);
+        final ProjectShard shard0 = new ProjectShard(0, 2);
+        final ProjectShard shard1 = new ProjectShard(1, 2);
+
+        // No node can take the run lock while a shard is being processed, and the failed attempt holds nothing
+        assertTrue(node2.tryLock(shard1));
+        assertFalse(node1.tryLockRun());
+        assertFalse(lockService.isLocked(shard0.getLockName()));
+        node2.unlock(shard1);
+
+        // No node can process a shard while another holds the run lock
+        assertTrue(node1.tryLockRun());
+        assertFalse(node2.tryLock(shard0));
+        assertFalse(node2.tryLock(shard1));
+        node1.unlockRun();
+        assertTrue(node2.tryLock(shard0));
+        node2.unlock(shard0);
+    }
+
+    @Test
+    public void testNotSharded() {
+        final ClusterRunCoordinator coordinator = new ClusterRunCoordinator(new InMemoryTaskLockService(), null, 0);
+        assertFalse(coordinator.isSharded());
+        assertEquals(1, coordinator.getShards().size());
+        assertTrue(coordinator.getShards().get(0).isAll());
+    }
+
+    @Test
+    public void testLastRunDateIsEarliestShardLastRunDate() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final ClusterRunCoordinator coordinator = new ClusterRunCoordinator(new InMemoryTaskLockService(), null, 2);
+        final ProjectShard shard0 = new ProjectShard(0, 2);
+        final ProjectShard shard1 = new ProjectShard(1, 2);
+
+        shard1.getSettings(settings).put(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE, "2017-01-02T00:00:00.000Z");
+        coordinator.updateLastRunDate(settings);
+        assertNull(settings.get(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE));
+
+        shard0.getSettings(settings).put(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE, "2017-01-03T00:00:00.000Z");
+        coordinator.updateLastRunDate(settings);
+        assertEquals("2017-01-02T00:00:00.000Z", settings.get(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE));
+    }
+
+    @Test
+    public void testLastRunDateOnlyMovesForward() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final ClusterRunCoordinator coordinator = new ClusterRunCoordinator(new InMemoryTaskLockService(), null, 2);
+        final ProjectShard shard0 = new ProjectShard(0, 2);
+        final ProjectShard shard1 = new ProjectShard(1, 2);
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE, "2017-01-05T00:00:00.000Z");
+
+        shard0.getSettings(settings).put(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE, "2017-01-04T00:00:00.000Z");
+        shard1.getSettings(settings).put(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE, "2017-01-06T00:00:00.000Z");
+        coordinator.updateLastRunDate(settings);
+        assertEquals("2017-01-05T00:00:00.000Z", settings.get(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE));
+
+        shard0.getSettings(settings).put(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE, "2017-01-07T00:00:00.000Z");
+        coordinator.updateLastRunDate(settings);
+        assertEquals("2017-01-06T00:00:00.000Z", settings.get(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE));
+    }
+
+}
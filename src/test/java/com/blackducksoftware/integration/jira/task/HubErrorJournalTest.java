@@ -0,0 +1,187 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
+import com.blackducksoftware.integration.jira.config.TicketCreationError;
+import com.blackducksoftware.integration.jira.mocks.PluginSettingsMock;
+
+public class HubErrorJournalTest {
+    private ScheduledExecutorService scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testRepeatedErrorsAreGrouped() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final JiraSettingsService jiraSettingsService = new JiraSettingsService(settings);
+        for (int i = 0; i < 5; i++) {
+            jiraSettingsService.addHubError("Hub is unreachable\nat line " + i, "createIssue");
+        }
+        jiraSettingsService.addHubError("Hub is unreachable", "updateIssue");
+
+        final List<TicketCreationError> errors = getStoredErrors(settings);
+        assertEquals(2, errors.size());
+        for (final TicketCreationError error : errors) {
+            if (error.getErrorKey().startsWith("createIssue")) {
+                assertEquals(5, error.getOccurrences());
+                assertEquals("Hub is unreachable\nat line 0\nMethod : createIssue", error.getStackTrace());
+            } else {
+                assertEquals(1, error.getOccurrences());
+            }
+        }
+    }
+
+    @Test
+    public void testAsynchronousJournalPersistsInOneBatch() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final HubErrorJournal journal = new HubErrorJournal(settings, 20, 60000L, 0L, scheduler);
+        journal.record("method|message1", "message1");
+        journal.record("method|message2", "message2");
+        journal.record("method|message1", "message1");
+        assertNull(settings.get(HubJiraConstants.HUB_JIRA_ERROR));
+
+        journal.flush();
+        final List<TicketCreationError> errors = getStoredErrors(settings);
+        assertEquals(2, errors.size());
+        int occurrences = 0;
+        for (final TicketCreationError error : errors) {
+            occurrences += error.getOccurrences();
+        }
+        assertEquals(3, occurrences);
+    }
+
+    @Test
+    public void testFlushMergesWithStoredErrors() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final HubErrorJournal journal = new HubErrorJournal(settings, 20, 60000L, 0L, scheduler);
+        journal.record("method|message", "message");
+        journal.flush();
+        journal.record("method|message", "message");
+        journal.record("method|message", "message");
+        journal.flush();
+
+        final List<TicketCreationError> errors = getStoredErrors(settings);
+        assertEquals(1, errors.size());
+        assertEquals(3, errors.get(0).getOccurrences());
+    }
+
+    @Test
+    public void testBufferIsBounded() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final HubErrorJournal journal = new HubErrorJournal(settings, 3, 60000L, 0L, scheduler);
+        for (int i = 0; i < 10; i++) {
+            journal.record("method|message" + i, "message" + i);
+        }
+        journal.flush();
+
+        final List<TicketCreationError> errors = getStoredErrors(settings);
+        assertEquals(3, errors.size());
+        for (final TicketCreationError error : errors) {
+            final int messageIndex = Integer.parseInt(error.getStackTrace().substring("message".length()));
+            assertEquals(true, messageIndex >= 7);
+        }
+    }
+
+    private List<TicketCreationError> getStoredErrors(final PluginSettingsMock settings) {
+        return TicketCreationError.fromJson((String) settings.get(HubJiraConstants.HUB_JIRA_ERROR));
+    }
+
+    @Test
+    public void testRepeatedExceptionsAreNotFormattedAgain() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final JiraSettingsService jiraSettingsService = new JiraSettingsService(settings);
+        final CountingException exception = new CountingException("Connection refused");
+        for (int i = 0; i < 10; i++) {
+            jiraSettingsService.addHubError(exception, "hubRequest");
+        }
+        assertEquals(1, exception.getFormatCount());
+
+        // A journal without a scheduler saves the repeats straight away
+        final List<TicketCreationError> repeatedErrors = getStoredErrors(settings);
+        assertEquals(1, repeatedErrors.size());
+        assertEquals(10, repeatedErrors.get(0).getOccurrences());
+
+        jiraSettingsService.addHubError("Another error", "otherMethod");
+        final List<TicketCreationError> errors = getStoredErrors(settings);
+        assertEquals(2, errors.size());
+        for (final TicketCreationError error : errors) {
+            if (error.getErrorKey().startsWith("hubRequest")) {
+                assertEquals(10, error.getOccurrences());
+                assertEquals(true, error.getStackTrace().startsWith(exception.toString()));
+                assertEquals(true, error.getFirstTimeStamp() != null);
+            }
+        }
+    }
+
+    @Test
+    public void testRepeatOutsideRateLimitWindowIsRecordedInFull() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final HubErrorJournal journal = new HubErrorJournal(settings, 20, 60000L, -1L, scheduler);
+        journal.record("method|message", "message");
+        assertEquals(false, journal.recordRepeat("method|message"));
+        assertEquals(false, journal.recordRepeat("method|unknown"));
+    }
+
+    private static class CountingException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private int formatCount;
+
+        private CountingException(final String message) {
+            super(message);
+        }
+
+        @Override
+        public void printStackTrace(final PrintWriter writer) {
+            formatCount++;
+            super.printStackTrace(writer);
+        }
+
+        private int getFormatCount() {
+            return formatCount;
+        }
+    }
+
+}
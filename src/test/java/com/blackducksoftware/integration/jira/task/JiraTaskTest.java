@@ -0,0 +1,85 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task;
+
+import static org.junit.Assert.assertEquals;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+import com.blackducksoftware.integration.hub.rest.RestConnection;
+import com.blackducksoftware.integration.jira.task.TaskRunSchedule.RunOutcome;
+
+public class JiraTaskTest {
+    private static final long INTERVAL_MILLIS = 10L * 60L * 1000L;
+
+    private static final long NOW_MILLIS = 1500000000000L;
+
+    @Test
+    public void testBacklogWhenLastRunDateMovedButStillBehind() throws Exception {
+        final String previousLastRunDate = formatDate(NOW_MILLIS - (5 * INTERVAL_MILLIS));
+        final String lastRunDate = formatDate(NOW_MILLIS - (2 * INTERVAL_MILLIS));
+        assertEquals(RunOutcome.BACKLOG, JiraTask.getRunOutcome(lastRunDate, previousLastRunDate, 100, NOW_MILLIS, INTERVAL_MILLIS));
+    }
+
+    @Test
+    public void testNormalWhenLastRunDateCaughtUp() throws Exception {
+        final String previousLastRunDate = formatDate(NOW_MILLIS - (5 * INTERVAL_MILLIS));
+        final String lastRunDate = formatDate(NOW_MILLIS - 1000L);
+        assertEquals(RunOutcome.NORMAL, JiraTask.getRunOutcome(lastRunDate, previousLastRunDate, 100, NOW_MILLIS, INTERVAL_MILLIS));
+    }
+
+    @Test
+    public void testNotBacklogWhenLastRunDateDidNotMove() throws Exception {
+        // A run that failed before moving the last run date has no evidence of a backlog
+        final String lastRunDate = formatDate(NOW_MILLIS - (5 * INTERVAL_MILLIS));
+        assertEquals(RunOutcome.NORMAL, JiraTask.getRunOutcome(lastRunDate, lastRunDate, -1, NOW_MILLIS, INTERVAL_MILLIS));
+        assertEquals(RunOutcome.NORMAL, JiraTask.getRunOutcome(null, null, -1, NOW_MILLIS, INTERVAL_MILLIS));
+    }
+
+    @Test
+    public void testIdleWhenNoNotificationsRetrieved() throws Exception {
+        final String previousLastRunDate = formatDate(NOW_MILLIS - INTERVAL_MILLIS);
+        final String lastRunDate = formatDate(NOW_MILLIS - 1000L);
+        assertEquals(RunOutcome.IDLE, JiraTask.getRunOutcome(lastRunDate, previousLastRunDate, 0, NOW_MILLIS, INTERVAL_MILLIS));
+        assertEquals(RunOutcome.IDLE, JiraTask.getRunOutcome(null, null, 0, NOW_MILLIS, INTERVAL_MILLIS));
+    }
+
+    @Test
+    public void testBacklogTakesPrecedenceOverIdle() throws Exception {
+        final String previousLastRunDate = formatDate(NOW_MILLIS - (5 * INTERVAL_MILLIS));
+        final String lastRunDate = formatDate(NOW_MILLIS - (2 * INTERVAL_MILLIS));
+        assertEquals(RunOutcome.BACKLOG, JiraTask.getRunOutcome(lastRunDate, previousLastRunDate, 0, NOW_MILLIS, INTERVAL_MILLIS));
+    }
+
+    private String formatDate(final long millis) {
+        final SimpleDateFormat dateFormatter = new SimpleDateFormat(RestConnection.JSON_DATE_FORMAT);
+        dateFormatter.setTimeZone(TimeZone.getTimeZone("Zulu"));
+        return dateFormatter.format(new Date(millis));
+    }
+
+}
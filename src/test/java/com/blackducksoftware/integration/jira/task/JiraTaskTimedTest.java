@@ -0,0 +1,143 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.blackducksoftware.integration.jira.common.JiraContext;
+import com.blackducksoftware.integration.jira.common.TicketInfoFromSetup;
+import com.blackducksoftware.integration.jira.mocks.JiraServicesMock;
+import com.blackducksoftware.integration.jira.mocks.PluginSettingsMock;
+
+public class JiraTaskTimedTest {
+    private PluginSettingsMock settings;
+
+    private InMemoryTaskLockService lockService;
+
+    @Before
+    public void initTest() {
+        settings = new PluginSettingsMock();
+        lockService = new InMemoryTaskLockService();
+    }
+
+    @Test
+    public void testSecondNodeSkipsWhileFirstIsRunning() throws Exception {
+        final JiraTaskTimed node1 = createTask("node1", 1);
+        final JiraTaskTimed node2 = createTask("node2", 1);
+        final List<String> node2Results = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            node2Results.add(node2.call());
+            return null;
+        }).when(node1).processNotifications(Mockito.any(), Mockito.any(), Mockito.any());
+
+        assertEquals("success", node1.call());
+        assertEquals(1, node2Results.size());
+        assertEquals("skipped", node2Results.get(0));
+        Mockito.verify(node2, Mockito.never()).runJiraSetup(Mockito.any());
+        assertRunLockReleased();
+
+        assertEquals("success", node2.call());
+    }
+
+    @Test
+    public void testRunLockReleasedWhenSetupThrows() throws Exception {
+        final JiraTaskTimed node1 = createTask("node1", 1);
+        Mockito.doThrow(new IllegalStateException("setup failed")).when(node1).runJiraSetup(Mockito.any());
+
+        try {
+            node1.call();
+            fail("Expected the setup failure to be thrown");
+        } catch (final IllegalStateException e) {
+            assertEquals("setup failed", e.getMessage());
+        }
+        assertRunLockReleased();
+    }
+
+    @Test
+    public void testRunLockReleasedWhenProcessingThrows() throws Exception {
+        final JiraTaskTimed node1 = createTask("node1", 1);
+        Mockito.doThrow(new IllegalStateException("processing failed")).when(node1).processNotifications(Mockito.any(), Mockito.any(), Mockito.any());
+
+        try {
+            node1.call();
+            fail("Expected the processing failure to be thrown");
+        } catch (final IllegalStateException e) {
+            assertEquals("processing failed", e.getMessage());
+        }
+        assertRunLockReleased();
+    }
+
+    @Test
+    public void testShardedSetupAndProcessingDoNotOverlap() throws Exception {
+        final JiraTaskTimed node1 = createTask("node1", 2);
+        final JiraTaskTimed node2 = createTask("node2", 2);
+        final List<String> node2Results = new ArrayList<>();
+        // While node1 runs setup, node2 can neither run setup nor process a shard
+        Mockito.doAnswer(invocation -> {
+            node2Results.add(node2.call());
+            return new TicketInfoFromSetup();
+        }).when(node1).runJiraSetup(Mockito.any());
+        // While node1 processes a shard, node2 cannot run setup
+        Mockito.doAnswer(invocation -> {
+            node2Results.add(node2.call());
+            return null;
+        }).when(node1).processNotifications(Mockito.any(), Mockito.any(), Mockito.any());
+
+        assertEquals("success", node1.call());
+        assertEquals(3, node2Results.size());
+        for (final String node2Result : node2Results) {
+            assertEquals("skipped", node2Result);
+        }
+        Mockito.verify(node1, Mockito.times(2)).processNotifications(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verify(node2, Mockito.never()).runJiraSetup(Mockito.any());
+        Mockito.verify(node2, Mockito.never()).processNotifications(Mockito.any(), Mockito.any(), Mockito.any());
+        assertRunLockReleased();
+    }
+
+    private JiraTaskTimed createTask(final String nodeId, final int shardCount) {
+        final ClusterRunCoordinator coordinator = new ClusterRunCoordinator(lockService, nodeId, shardCount);
+        final JiraTaskTimed task = Mockito.spy(new JiraTaskTimed(settings, new JiraSettingsService(settings), new JiraServicesMock(),
+                new PluginConfigurationDetails(settings), coordinator));
+        Mockito.doReturn(Mockito.mock(JiraContext.class)).when(task).initJiraContext(Mockito.any(), Mockito.any());
+        Mockito.doReturn(new TicketInfoFromSetup()).when(task).runJiraSetup(Mockito.any());
+        Mockito.doNothing().when(task).processNotifications(Mockito.any(), Mockito.any(), Mockito.any());
+        return task;
+    }
+
+    private void assertRunLockReleased() {
+        final ClusterRunCoordinator otherNode = new ClusterRunCoordinator(lockService, "otherNode", 2);
+        assertTrue(otherNode.tryLockRun());
+        otherNode.unlockRun();
+    }
+
+}
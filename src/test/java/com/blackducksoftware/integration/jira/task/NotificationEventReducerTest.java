@@ -0,0 +1,142 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.blackducksoftware.integration.hub.notification.processor.NotificationCategoryEnum;
+import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
+import com.blackducksoftware.integration.jira.task.conversion.output.HubEventAction;
+import com.blackducksoftware.integration.jira.task.conversion.output.IssuePropertiesGenerator;
+import com.blackducksoftware.integration.jira.task.conversion.output.eventdata.EventCategory;
+import com.blackducksoftware.integration.jira.task.conversion.output.eventdata.EventData;
+import com.blackducksoftware.integration.jira.task.conversion.output.eventdata.EventDataBuilder;
+
+public class NotificationEventReducerTest {
+
+    @Test
+    public void testOpenResolveOpenFoldsToLastOpen() throws Exception {
+        final NotificationEvent open = createEvent("key1", NotificationCategoryEnum.POLICY_VIOLATION, HubEventAction.OPEN, "open");
+        final NotificationEvent resolve = createEvent("key1", NotificationCategoryEnum.POLICY_VIOLATION_CLEARED, HubEventAction.RESOLVE, "resolve");
+        final NotificationEvent reopen = createEvent("key1", NotificationCategoryEnum.POLICY_VIOLATION, HubEventAction.OPEN, "reopen");
+        final NotificationEvent other = createEvent("key2", NotificationCategoryEnum.POLICY_VIOLATION, HubEventAction.OPEN, "other");
+
+        final NotificationEventReducer reducer = new NotificationEventReducer();
+        final List<NotificationEvent> reducedEvents = reducer.reduce(Arrays.asList(open, other, resolve, reopen));
+
+        assertEquals(Arrays.asList(reopen, other), reducedEvents);
+        assertEquals(Arrays.asList(open, resolve, reopen), reducer.getSourceEvents(reopen));
+        assertEquals(Arrays.asList(other), reducer.getSourceEvents(other));
+    }
+
+    @Test
+    public void testVulnerabilityCommentsMerged() throws Exception {
+        final NotificationEvent onlyDeletes = createEvent("key1", NotificationCategoryEnum.VULNERABILITY, HubEventAction.ADD_COMMENT_IF_EXISTS, "comment1");
+        final NotificationEvent added = createEvent("key1", NotificationCategoryEnum.VULNERABILITY, HubEventAction.ADD_COMMENT, "comment2");
+        final NotificationEvent updated = createEvent("key1", NotificationCategoryEnum.VULNERABILITY, HubEventAction.ADD_COMMENT, "comment3");
+
+        final NotificationEventReducer reducer = new NotificationEventReducer();
+        final List<NotificationEvent> reducedEvents = reducer.reduce(Arrays.asList(onlyDeletes, added, updated));
+
+        assertEquals(1, reducedEvents.size());
+        final NotificationEvent mergedEvent = reducedEvents.get(0);
+        assertEquals("key1", mergedEvent.getEventKey());
+        final EventData mergedEventData = getEventData(mergedEvent);
+        assertEquals(HubEventAction.ADD_COMMENT, mergedEventData.getAction());
+        assertEquals("comment1\ncomment2\ncomment3", mergedEventData.getJiraIssueComment());
+        assertEquals("comment1\ncomment2\ncomment3", mergedEventData.getJiraIssueCommentForExistingIssue());
+        assertEquals("comment1\ncomment2\ncomment3", mergedEventData.getJiraIssueCommentInLieuOfStateChange());
+        assertEquals(Arrays.asList(onlyDeletes, added, updated), reducer.getSourceEvents(mergedEvent));
+    }
+
+    @Test
+    public void testVulnerabilityResolveSupersedesComments() throws Exception {
+        final NotificationEvent added = createEvent("key1", NotificationCategoryEnum.VULNERABILITY, HubEventAction.ADD_COMMENT, "comment1");
+        final NotificationEvent resolve = createEvent("key1", NotificationCategoryEnum.VULNERABILITY, HubEventAction.RESOLVE, "comment2");
+        final NotificationEvent onlyDeletes = createEvent("key1", NotificationCategoryEnum.VULNERABILITY, HubEventAction.ADD_COMMENT_IF_EXISTS, "comment3");
+
+        final NotificationEventReducer reducer = new NotificationEventReducer();
+        final List<NotificationEvent> reducedEvents = reducer.reduce(Arrays.asList(added, resolve, onlyDeletes));
+
+        assertEquals(Arrays.asList(resolve, onlyDeletes), reducedEvents);
+        assertEquals(Arrays.asList(added, resolve), reducer.getSourceEvents(resolve));
+    }
+
+    @Test
+    public void testCommentAfterResolveReopens() throws Exception {
+        final NotificationEvent resolve = createEvent("key1", NotificationCategoryEnum.VULNERABILITY, HubEventAction.RESOLVE, "comment1");
+        final NotificationEvent added = createEvent("key1", NotificationCategoryEnum.VULNERABILITY, HubEventAction.ADD_COMMENT, "comment2");
+
+        final NotificationEventReducer reducer = new NotificationEventReducer();
+        final List<NotificationEvent> reducedEvents = reducer.reduce(Arrays.asList(resolve, added));
+
+        assertEquals(Arrays.asList(added), reducedEvents);
+        assertEquals(Arrays.asList(resolve, added), reducer.getSourceEvents(added));
+    }
+
+    private NotificationEvent createEvent(final String key, final NotificationCategoryEnum category, final HubEventAction action, final String comment)
+            throws Exception {
+        final EventCategory eventCategory = (category == NotificationCategoryEnum.VULNERABILITY) ? EventCategory.VULNERABILITY : EventCategory.POLICY;
+        final EventDataBuilder eventDataBuilder = new EventDataBuilder(eventCategory);
+        eventDataBuilder.setAction(action)
+                .setHubComponentName("hubComponentName")
+                .setHubProjectName("hubProjectName")
+                .setHubProjectVersion("hubProjectVersion")
+                .setHubProjectVersionUrl("hubProjectVersionUrl")
+                .setHubRuleName("hubRuleName")
+                .setHubRuleUrl("hubRuleUrl")
+                .setJiraFieldCopyMappings(new HashSet<>())
+                .setJiraIssueComment(comment)
+                .setJiraIssueCommentForExistingIssue(comment)
+                .setJiraIssueCommentInLieuOfStateChange(comment)
+                .setJiraIssueDescription("jiraIssueDescription")
+                .setJiraIssuePropertiesGenerator(Mockito.mock(IssuePropertiesGenerator.class))
+                .setJiraIssueReOpenComment("jiraIssueReOpenComment")
+                .setJiraIssueResolveComment("jiraIssueResolveComment")
+                .setJiraIssueSummary("jiraIssueSummary")
+                .setJiraIssueTypeId("jiraIssueTypeId")
+                .setJiraProjectId(123L)
+                .setJiraProjectName("jiraProjectName")
+                .setJiraAdminUserKey("jiraAdminUserKey")
+                .setJiraAdminUserName("jiraAdminUserName")
+                .setJiraIssueCreatorUserKey("jiraIssueCreatorUserKey")
+                .setJiraIssueCreatorUserName("jiraIssueCreatorUserName");
+        final Map<String, Object> dataSet = eventDataBuilder.build().getDataSet();
+        return new NotificationEvent(key, category, dataSet);
+    }
+
+    private EventData getEventData(final NotificationEvent event) {
+        return (EventData) event.getDataSet().get(HubJiraConstants.EVENT_DATA_SET_KEY_JIRA_EVENT_DATA);
+    }
+
+}
@@ -0,0 +1,228 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
+import com.blackducksoftware.integration.jira.common.HubJiraConfigKeys;
+import com.blackducksoftware.integration.jira.mocks.NotificationEventMock;
+import com.blackducksoftware.integration.jira.mocks.PluginSettingsMock;
+
+public class NotificationSliceCheckpointTest {
+    private static final Date SLICE_START = new Date(1000000L);
+
+    private static final Date SLICE_END = new Date(2000000L);
+
+    @Test
+    public void testResumeSkipsAppliedEvents() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final List<NotificationEvent> events = Arrays.asList(NotificationEventMock.createEvent("key1", "open"), NotificationEventMock.createEvent("key2", "open"),
+                NotificationEventMock.createEvent("key1", "resolve"), NotificationEventMock.createEvent("key2", "resolve"));
+
+        final NotificationSliceCheckpoint firstRun = new NotificationSliceCheckpoint(settings, 1);
+        assertEquals(4, firstRun.startSlice(SLICE_START, SLICE_END, events).size());
+        firstRun.eventApplied(events.get(0));
+        firstRun.eventApplied(events.get(1));
+        firstRun.eventApplied(events.get(2));
+        assertNotNull(NotificationSliceCheckpoint.getProgressDescription(settings));
+
+        final NotificationSliceCheckpoint secondRun = new NotificationSliceCheckpoint(settings, 1);
+        final List<NotificationEvent> remaining = secondRun.startSlice(SLICE_START, SLICE_END, events);
+        assertEquals(1, remaining.size());
+        assertEquals("key2", remaining.get(0).getEventKey());
+        assertEquals("resolve", NotificationEventMock.getId(remaining.get(0)));
+        assertEquals(3, secondRun.getAppliedEventCount());
+        assertEquals(4, secondRun.getSliceEventCount());
+    }
+
+    @Test
+    public void testResumeSkipsEventsAppliedOutOfOrder() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final List<NotificationEvent> events = Arrays.asList(NotificationEventMock.createEvent("key1", "open"), NotificationEventMock.createEvent("key2", "open"),
+                NotificationEventMock.createEvent("key3", "open"), NotificationEventMock.createEvent("key4", "open"));
+
+        final NotificationSliceCheckpoint firstRun = new NotificationSliceCheckpoint(settings, 1);
+        firstRun.startSlice(SLICE_START, SLICE_END, events);
+        firstRun.eventApplied(events.get(0));
+        firstRun.eventApplied(events.get(2));
+        assertEquals("1", settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_APPLIED_CURSOR));
+        assertEquals("2", settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_APPLIED_AHEAD_OF_CURSOR));
+
+        final List<NotificationEvent> remaining = new NotificationSliceCheckpoint(settings, 1).startSlice(SLICE_START, SLICE_END, events);
+        assertEquals(2, remaining.size());
+        assertEquals("key2", remaining.get(0).getEventKey());
+        assertEquals("key4", remaining.get(1).getEventKey());
+    }
+
+    @Test
+    public void testResumeWithDifferentEventCountAppliesWholeSlice() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final List<NotificationEvent> events = Arrays.asList(NotificationEventMock.createEvent("key1", "open"), NotificationEventMock.createEvent("key2", "open"),
+                NotificationEventMock.createEvent("key3", "open"));
+
+        final NotificationSliceCheckpoint firstRun = new NotificationSliceCheckpoint(settings, 1);
+        firstRun.startSlice(SLICE_START, SLICE_END, events);
+        firstRun.eventApplied(events.get(0));
+        firstRun.eventApplied(events.get(1));
+
+        // The Hub data changed, so the same slice now converts to an extra event at the front
+        final List<NotificationEvent> changedEvents = Arrays.asList(NotificationEventMock.createEvent("key0", "open"), NotificationEventMock.createEvent("key1", "open"),
+                NotificationEventMock.createEvent("key2", "open"), NotificationEventMock.createEvent("key3", "open"));
+        final NotificationSliceCheckpoint secondRun = new NotificationSliceCheckpoint(settings, 1);
+        assertEquals(changedEvents, secondRun.startSlice(SLICE_START, SLICE_END, changedEvents));
+        assertEquals(0, secondRun.getAppliedEventCount());
+        assertEquals("0", settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_APPLIED_CURSOR));
+    }
+
+    @Test
+    public void testResumeWithReorderedEventsAppliesWholeSlice() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final NotificationEvent event1 = NotificationEventMock.createEvent("key1", "open");
+        final NotificationEvent event2 = NotificationEventMock.createEvent("key2", "open");
+        final NotificationEvent event3 = NotificationEventMock.createEvent("key3", "open");
+
+        final NotificationSliceCheckpoint firstRun = new NotificationSliceCheckpoint(settings, 1);
+        firstRun.startSlice(SLICE_START, SLICE_END, Arrays.asList(event1, event2, event3));
+        firstRun.eventApplied(event1);
+
+        final List<NotificationEvent> reorderedEvents = Arrays.asList(event2, event1, event3);
+        final NotificationSliceCheckpoint secondRun = new NotificationSliceCheckpoint(settings, 1);
+        assertEquals(reorderedEvents, secondRun.startSlice(SLICE_START, SLICE_END, reorderedEvents));
+        assertEquals(0, secondRun.getAppliedEventCount());
+    }
+
+    @Test
+    public void testCheckpointWithoutEventKeysHashNotTrusted() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final List<NotificationEvent> events = Arrays.asList(NotificationEventMock.createEvent("key1", "open"), NotificationEventMock.createEvent("key2", "open"));
+
+        final NotificationSliceCheckpoint firstRun = new NotificationSliceCheckpoint(settings, 1);
+        firstRun.startSlice(SLICE_START, SLICE_END, events);
+        firstRun.eventApplied(events.get(0));
+        settings.remove(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_EVENT_KEYS_HASH);
+
+        final NotificationSliceCheckpoint secondRun = new NotificationSliceCheckpoint(settings, 1);
+        assertEquals(2, secondRun.startSlice(SLICE_START, SLICE_END, events).size());
+    }
+
+    @Test
+    public void testStoredProgressStaysCompact() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final List<NotificationEvent> events = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            events.add(NotificationEventMock.createEvent("key" + i));
+        }
+
+        final NotificationSliceCheckpoint checkpoint = new NotificationSliceCheckpoint(settings, 1);
+        checkpoint.startSlice(SLICE_START, SLICE_END, events);
+        for (final NotificationEvent event : events) {
+            checkpoint.eventApplied(event);
+        }
+        assertEquals("100", settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_APPLIED_CURSOR));
+        assertEquals("", settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_APPLIED_AHEAD_OF_CURSOR));
+    }
+
+    @Test
+    public void testInProgressSliceEndDate() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final NotificationSliceCheckpoint checkpoint = new NotificationSliceCheckpoint(settings, 1);
+        assertNull(checkpoint.getInProgressSliceEndDate(SLICE_START));
+
+        checkpoint.startSlice(SLICE_START, SLICE_END, Arrays.asList(NotificationEventMock.createEvent("key1")));
+        final NotificationSliceCheckpoint nextRun = new NotificationSliceCheckpoint(settings, 1);
+        assertEquals(SLICE_END, nextRun.getInProgressSliceEndDate(SLICE_START));
+        assertNull(nextRun.getInProgressSliceEndDate(SLICE_END));
+    }
+
+    @Test
+    public void testDifferentSliceStartsFresh() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final List<NotificationEvent> events = Arrays.asList(NotificationEventMock.createEvent("key1", "open"));
+
+        final NotificationSliceCheckpoint firstRun = new NotificationSliceCheckpoint(settings, 1);
+        firstRun.startSlice(SLICE_START, SLICE_END, events);
+        firstRun.eventApplied(events.get(0));
+
+        final NotificationSliceCheckpoint secondRun = new NotificationSliceCheckpoint(settings, 1);
+        assertEquals(1, secondRun.startSlice(SLICE_END, new Date(3000000L), events).size());
+    }
+
+    @Test
+    public void testUnflushedProgressIsNotStored() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final List<NotificationEvent> events = Arrays.asList(NotificationEventMock.createEvent("key1", "open"), NotificationEventMock.createEvent("key2", "open"));
+
+        final NotificationSliceCheckpoint firstRun = new NotificationSliceCheckpoint(settings, 10);
+        firstRun.startSlice(SLICE_START, SLICE_END, events);
+        firstRun.eventApplied(events.get(0));
+
+        assertEquals(2, new NotificationSliceCheckpoint(settings, 10).startSlice(SLICE_START, SLICE_END, events).size());
+        firstRun.flush();
+        assertEquals(1, new NotificationSliceCheckpoint(settings, 10).startSlice(SLICE_START, SLICE_END, events).size());
+    }
+
+    @Test
+    public void testCompleteSliceClearsCheckpoint() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final List<NotificationEvent> events = new ArrayList<>();
+        events.add(NotificationEventMock.createEvent("key1", "open"));
+
+        final NotificationSliceCheckpoint checkpoint = new NotificationSliceCheckpoint(settings, 1);
+        checkpoint.startSlice(SLICE_START, SLICE_END, events);
+        checkpoint.eventApplied(events.get(0));
+        checkpoint.completeSlice();
+
+        assertNull(NotificationSliceCheckpoint.getProgressDescription(settings));
+        assertEquals(1, new NotificationSliceCheckpoint(settings, 1).startSlice(SLICE_START, SLICE_END, events).size());
+    }
+
+    @Test
+    public void testProgressReportedPerShard() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final List<NotificationEvent> events = Arrays.asList(NotificationEventMock.createEvent("key1", "open"), NotificationEventMock.createEvent("key2", "open"));
+        assertNull(NotificationSliceCheckpoint.getProgressDescription(settings, 2));
+
+        final NotificationSliceCheckpoint shard1Checkpoint = new NotificationSliceCheckpoint(new ProjectShard(1, 2).getSettings(settings), 1);
+        shard1Checkpoint.startSlice(SLICE_START, SLICE_END, events);
+        shard1Checkpoint.eventApplied(events.get(0));
+
+        final String progressDescription = NotificationSliceCheckpoint.getProgressDescription(settings, 2);
+        assertTrue(progressDescription.startsWith("shard 1 of 2: 1 of 2 events applied"));
+        assertFalse(progressDescription.contains("shard 0 of 2"));
+        assertNull(NotificationSliceCheckpoint.getProgressDescription(settings, 1));
+    }
+
+}
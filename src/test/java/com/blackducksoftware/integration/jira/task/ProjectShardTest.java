@@ -0,0 +1,140 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.atlassian.sal.api.pluginsettings.PluginSettings;
+import com.blackducksoftware.integration.jira.common.HubJiraConfigKeys;
+import com.blackducksoftware.integration.jira.common.HubProjectMapping;
+import com.blackducksoftware.integration.jira.common.JiraProject;
+import com.blackducksoftware.integration.jira.mocks.PluginSettingsMock;
+
+public class ProjectShardTest {
+
+    @Test
+    public void testProjectsSplitAcrossShards() {
+        final ProjectShard shard0 = new ProjectShard(0, 3);
+        final ProjectShard shard1 = new ProjectShard(1, 3);
+        assertTrue(shard0.contains(10002L));
+        assertFalse(shard1.contains(10002L));
+        assertTrue(shard1.contains(10003L));
+        assertFalse(shard0.contains(null));
+        assertTrue(ProjectShard.ALL.contains(10002L));
+    }
+
+    @Test
+    public void testFilter() {
+        final Set<HubProjectMapping> mappings = new HashSet<>();
+        mappings.add(createMapping(10000L));
+        mappings.add(createMapping(10001L));
+        mappings.add(createMapping(10002L));
+        mappings.add(new HubProjectMapping());
+
+        final Set<HubProjectMapping> shardMappings = new ProjectShard(0, 2).filter(mappings);
+        assertEquals(2, shardMappings.size());
+        for (final HubProjectMapping mapping : shardMappings) {
+            assertEquals(0L, mapping.getJiraProject().getProjectId() % 2);
+        }
+        assertSame(mappings, ProjectShard.ALL.filter(mappings));
+    }
+
+    @Test
+    public void testShardSettingsAreScoped() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE, "2017-01-01T00:00:00.000Z");
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_JIRA_INTERVAL_BETWEEN_CHECKS, "5");
+        final PluginSettings shard0Settings = new ProjectShard(0, 2).getSettings(settings);
+        final PluginSettings shard1Settings = new ProjectShard(1, 2).getSettings(settings);
+
+        // Until a shard has run it starts from the plugin-wide last run date
+        assertEquals("2017-01-01T00:00:00.000Z", shard0Settings.get(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE));
+
+        shard0Settings.put(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE, "2017-01-02T00:00:00.000Z");
+        shard0Settings.put(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_EVENT_COUNT, "7");
+        assertEquals("2017-01-02T00:00:00.000Z", shard0Settings.get(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE));
+        assertEquals("2017-01-01T00:00:00.000Z", shard1Settings.get(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE));
+        assertEquals("2017-01-01T00:00:00.000Z", settings.get(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE));
+        assertNull(shard1Settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_EVENT_COUNT));
+        assertNull(settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_EVENT_COUNT));
+
+        // Other settings are shared
+        assertEquals("5", shard1Settings.get(HubJiraConfigKeys.HUB_CONFIG_JIRA_INTERVAL_BETWEEN_CHECKS));
+        assertSame(settings, ProjectShard.ALL.getSettings(settings));
+    }
+
+    @Test
+    public void testResetAllShards() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE, "2017-01-01T00:00:00.000Z");
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_EVENT_COUNT, "3");
+        final PluginSettings shard0Settings = new ProjectShard(0, 2).getSettings(settings);
+        final PluginSettings shard1Settings = new ProjectShard(1, 2).getSettings(settings);
+        shard0Settings.put(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE, "2017-03-01T00:00:00.000Z");
+        shard0Settings.put(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_EVENT_COUNT, "7");
+        shard1Settings.put(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_EVENT_KEYS_HASH, "hash");
+
+        // The reset may move the last run date backwards
+        ProjectShard.resetAll(settings, 2, "2017-02-01T00:00:00.000Z");
+
+        assertEquals("2017-02-01T00:00:00.000Z", settings.get(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE));
+        assertEquals("2017-02-01T00:00:00.000Z", shard0Settings.get(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE));
+        assertEquals("2017-02-01T00:00:00.000Z", shard1Settings.get(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE));
+        assertNull(settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_EVENT_COUNT));
+        assertNull(shard0Settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_EVENT_COUNT));
+        assertNull(shard1Settings.get(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_EVENT_KEYS_HASH));
+    }
+
+    @Test
+    public void testEveryNodeTriesEveryShard() {
+        final List<ProjectShard> shards = ProjectShard.getShards(3, "node2");
+        assertEquals(3, shards.size());
+        final Set<Integer> indexes = new HashSet<>();
+        for (final ProjectShard shard : shards) {
+            indexes.add(shard.getIndex());
+            assertEquals(3, shard.getCount());
+        }
+        assertEquals(3, indexes.size());
+        assertEquals(0, ProjectShard.getShards(3, null).get(0).getIndex());
+    }
+
+    private HubProjectMapping createMapping(final Long jiraProjectId) {
+        final JiraProject jiraProject = new JiraProject();
+        jiraProject.setProjectId(jiraProjectId);
+        final HubProjectMapping mapping = new HubProjectMapping();
+        mapping.setJiraProject(jiraProject);
+        return mapping;
+    }
+
+}
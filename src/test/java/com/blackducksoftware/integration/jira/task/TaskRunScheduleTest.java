@@ -0,0 +1,104 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
+import com.blackducksoftware.integration.jira.task.TaskRunSchedule.RunOutcome;
+
+public class TaskRunScheduleTest {
+    private static final long INTERVAL_MILLIS = 10L * 60L * 1000L;
+
+    @Test
+    public void testNoRunStartsWhileOneIsInFlight() {
+        final TaskRunSchedule schedule = new TaskRunSchedule();
+        assertTrue(schedule.tryStartRun(1000L, false));
+        assertTrue(schedule.isRunning());
+        assertFalse(schedule.tryStartRun(2000L, false));
+        assertFalse(schedule.tryStartRun(2000L, true));
+
+        schedule.finishRun(3000L, false, RunOutcome.NORMAL, INTERVAL_MILLIS);
+        assertFalse(schedule.isRunning());
+        assertTrue(schedule.tryStartRun(4000L, false));
+    }
+
+    @Test
+    public void testFixedScheduleSkipsTriggersMissedWhileRunning() {
+        final TaskRunSchedule schedule = new TaskRunSchedule();
+        assertTrue(schedule.tryStartRun(0L, false));
+        assertEquals(INTERVAL_MILLIS, schedule.finishRun(1000L, false, RunOutcome.NORMAL, INTERVAL_MILLIS));
+
+        assertTrue(schedule.tryStartRun(INTERVAL_MILLIS, false));
+        assertEquals(4 * INTERVAL_MILLIS, schedule.finishRun((3 * INTERVAL_MILLIS) + 1000L, false, RunOutcome.NORMAL, INTERVAL_MILLIS));
+    }
+
+    @Test
+    public void testAdaptiveScheduleWaitsForNextRunTime() {
+        final TaskRunSchedule schedule = new TaskRunSchedule();
+        assertTrue(schedule.tryStartRun(0L, true));
+        final long nextRunMillis = schedule.finishRun(1000L, true, RunOutcome.NORMAL, INTERVAL_MILLIS);
+        assertEquals(1000L + INTERVAL_MILLIS, nextRunMillis);
+
+        assertFalse(schedule.tryStartRun(nextRunMillis - 1, true));
+        assertTrue(schedule.tryStartRun(nextRunMillis, true));
+    }
+
+    @Test
+    public void testReset() {
+        final TaskRunSchedule schedule = new TaskRunSchedule();
+        assertTrue(schedule.tryStartRun(0L, true));
+        schedule.finishRun(1000L, true, RunOutcome.IDLE, INTERVAL_MILLIS);
+        assertFalse(schedule.tryStartRun(2000L, true));
+
+        schedule.reset();
+        assertTrue(schedule.tryStartRun(2000L, true));
+    }
+
+    @Test
+    public void testBacklogShortensDelay() {
+        assertEquals(HubJiraConstants.ADAPTIVE_SCHEDULE_BACKLOG_DELAY_SECONDS * 1000L, TaskRunSchedule.computeDelay(RunOutcome.BACKLOG, INTERVAL_MILLIS, INTERVAL_MILLIS));
+        assertEquals(30000L, TaskRunSchedule.computeDelay(RunOutcome.BACKLOG, 0L, 30000L));
+    }
+
+    @Test
+    public void testIdleBacksOffUpToLimit() {
+        final long maxDelayMillis = INTERVAL_MILLIS * HubJiraConstants.ADAPTIVE_SCHEDULE_MAX_BACKOFF_AS_MULTIPLE_OF_INTERVAL;
+        long delayMillis = TaskRunSchedule.computeDelay(RunOutcome.IDLE, 0L, INTERVAL_MILLIS);
+        assertEquals(INTERVAL_MILLIS, delayMillis);
+        delayMillis = TaskRunSchedule.computeDelay(RunOutcome.IDLE, delayMillis, INTERVAL_MILLIS);
+        assertEquals(2 * INTERVAL_MILLIS, delayMillis);
+        for (int i = 0; i < 10; i++) {
+            delayMillis = TaskRunSchedule.computeDelay(RunOutcome.IDLE, delayMillis, INTERVAL_MILLIS);
+        }
+        assertEquals(maxDelayMillis, delayMillis);
+
+        assertEquals(INTERVAL_MILLIS, TaskRunSchedule.computeDelay(RunOutcome.NORMAL, delayMillis, INTERVAL_MILLIS));
+    }
+
+}
@@ -0,0 +1,252 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.blackducksoftware.integration.hub.api.aggregate.bom.AggregateBomRequestService;
+import com.blackducksoftware.integration.hub.dataservice.notification.NotificationResults;
+import com.blackducksoftware.integration.hub.model.view.UserView;
+import com.blackducksoftware.integration.hub.notification.processor.NotificationCategoryEnum;
+import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
+import com.blackducksoftware.integration.hub.rest.RestConnection;
+import com.blackducksoftware.integration.hub.service.HubResponseService;
+import com.blackducksoftware.integration.hub.service.HubServicesFactory;
+import com.blackducksoftware.integration.jira.common.HubJiraConfigKeys;
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
+import com.blackducksoftware.integration.jira.common.HubProjectMapping;
+import com.blackducksoftware.integration.jira.common.HubProjectMappings;
+import com.blackducksoftware.integration.jira.common.JiraContext;
+import com.blackducksoftware.integration.jira.common.TicketInfoFromSetup;
+import com.blackducksoftware.integration.jira.config.HubJiraFieldCopyConfigSerializable;
+import com.blackducksoftware.integration.jira.hub.HubResponseCache;
+import com.blackducksoftware.integration.jira.mocks.JiraServicesMock;
+import com.blackducksoftware.integration.jira.mocks.NotificationEventMock;
+import com.blackducksoftware.integration.jira.mocks.PluginSettingsMock;
+import com.blackducksoftware.integration.jira.task.conversion.BomComponentCache;
+import com.blackducksoftware.integration.jira.task.conversion.JiraNotificationProcessor;
+import com.blackducksoftware.integration.jira.task.conversion.output.HubEventAction;
+import com.blackducksoftware.integration.jira.task.conversion.output.eventdata.EventData;
+
+public class TicketGeneratorTest {
+    private static final long MINUTE_MILLIS = 60L * 1000L;
+
+    private static final Date START_DATE = new Date(1500000000000L);
+
+    private PluginSettingsMock settings;
+
+    private JiraServicesMock jiraServices;
+
+    private HubServicesFactory hubServicesFactory;
+
+    private HubProjectMappings hubProjectMappings;
+
+    @Before
+    public void setUp() {
+        settings = new PluginSettingsMock();
+        jiraServices = new JiraServicesMock();
+        hubServicesFactory = Mockito.mock(HubServicesFactory.class);
+        final Set<HubProjectMapping> mappings = new HashSet<>();
+        mappings.add(new HubProjectMapping());
+        hubProjectMappings = new HubProjectMappings(jiraServices, mappings);
+    }
+
+    @After
+    public void tearDown() {
+        // Clear any interrupt a test left on the test thread
+        Thread.interrupted();
+    }
+
+    @Test
+    public void testWindowProcessedOneSliceAtATime() throws Exception {
+        final List<Date[]> requestedWindows = new ArrayList<>();
+        final List<String> lastRunDatesAtRequest = new ArrayList<>();
+        final TicketGenerator ticketGenerator = new SliceRecordingTicketGenerator(10, requestedWindows, lastRunDatesAtRequest, -1);
+
+        final Date endDate = new Date(START_DATE.getTime() + (25 * MINUTE_MILLIS));
+        ticketGenerator.generateTicketsForRecentNotifications(null, hubProjectMappings, START_DATE, endDate);
+
+        assertEquals(3, requestedWindows.size());
+        assertWindow(START_DATE.getTime(), START_DATE.getTime() + (10 * MINUTE_MILLIS), requestedWindows.get(0));
+        assertWindow(START_DATE.getTime() + (10 * MINUTE_MILLIS), START_DATE.getTime() + (20 * MINUTE_MILLIS), requestedWindows.get(1));
+        assertWindow(START_DATE.getTime() + (20 * MINUTE_MILLIS), endDate.getTime(), requestedWindows.get(2));
+
+        // The last run date moves forward as each slice completes
+        assertEquals(null, lastRunDatesAtRequest.get(0));
+        assertEquals(formatDate(requestedWindows.get(0)[1]), lastRunDatesAtRequest.get(1));
+        assertEquals(formatDate(requestedWindows.get(1)[1]), lastRunDatesAtRequest.get(2));
+        assertEquals(formatDate(endDate), settings.get(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE));
+    }
+
+    @Test
+    public void testNoSlicingWhenSliceMinutesIsZero() throws Exception {
+        final List<Date[]> requestedWindows = new ArrayList<>();
+        final TicketGenerator ticketGenerator = new SliceRecordingTicketGenerator(0, requestedWindows, new ArrayList<>(), -1);
+
+        final Date endDate = new Date(START_DATE.getTime() + (25 * MINUTE_MILLIS));
+        ticketGenerator.generateTicketsForRecentNotifications(null, hubProjectMappings, START_DATE, endDate);
+
+        assertEquals(1, requestedWindows.size());
+        assertWindow(START_DATE.getTime(), endDate.getTime(), requestedWindows.get(0));
+        assertEquals(formatDate(endDate), settings.get(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE));
+    }
+
+    @Test
+    public void testResumedSliceKeepsItsEndDate() throws Exception {
+        final Date inProgressSliceEndDate = new Date(START_DATE.getTime() + (7 * MINUTE_MILLIS));
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_START_DATE, formatDate(START_DATE));
+        settings.put(HubJiraConfigKeys.HUB_CONFIG_CHECKPOINT_SLICE_END_DATE, formatDate(inProgressSliceEndDate));
+        final List<Date[]> requestedWindows = new ArrayList<>();
+        final TicketGenerator ticketGenerator = new SliceRecordingTicketGenerator(10, requestedWindows, new ArrayList<>(), -1);
+
+        final Date endDate = new Date(START_DATE.getTime() + (25 * MINUTE_MILLIS));
+        ticketGenerator.generateTicketsForRecentNotifications(null, hubProjectMappings, START_DATE, endDate);
+
+        assertEquals(3, requestedWindows.size());
+        assertWindow(START_DATE.getTime(), inProgressSliceEndDate.getTime(), requestedWindows.get(0));
+        assertWindow(inProgressSliceEndDate.getTime(), inProgressSliceEndDate.getTime() + (10 * MINUTE_MILLIS), requestedWindows.get(1));
+        assertWindow(inProgressSliceEndDate.getTime() + (10 * MINUTE_MILLIS), endDate.getTime(), requestedWindows.get(2));
+    }
+
+    @Test
+    public void testInterruptStopsAfterCurrentSlice() throws Exception {
+        final List<Date[]> requestedWindows = new ArrayList<>();
+        final TicketGenerator ticketGenerator = new SliceRecordingTicketGenerator(10, requestedWindows, new ArrayList<>(), 1);
+
+        final Date endDate = new Date(START_DATE.getTime() + (25 * MINUTE_MILLIS));
+        ticketGenerator.generateTicketsForRecentNotifications(null, hubProjectMappings, START_DATE, endDate);
+
+        // The interrupted slice is not recorded as done, and no later slice is started
+        assertEquals(2, requestedWindows.size());
+        assertEquals(formatDate(requestedWindows.get(0)[1]), settings.get(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE));
+    }
+
+    @Test
+    public void testBulkResolveOnlyWhenEnoughResolveEvents() {
+        final List<NotificationEvent> events = new ArrayList<>();
+        for (int i = 1; i < HubJiraConstants.BULK_RESOLVE_MIN_EVENTS; i++) {
+            events.add(createEvent("key" + i, HubEventAction.RESOLVE));
+        }
+        assertTrue(TicketGenerator.getBulkResolveEvents(events).isEmpty());
+
+        events.add(createEvent("lastKey", HubEventAction.RESOLVE));
+        assertEquals(events, TicketGenerator.getBulkResolveEvents(events));
+    }
+
+    @Test
+    public void testBulkResolveSkipsKeysWithOtherEvents() {
+        final List<NotificationEvent> resolveEvents = new ArrayList<>();
+        for (int i = 0; i < HubJiraConstants.BULK_RESOLVE_MIN_EVENTS; i++) {
+            resolveEvents.add(createEvent("key" + i, HubEventAction.RESOLVE));
+        }
+        final NotificationEvent sharedKeyResolve = createEvent("sharedKey", HubEventAction.RESOLVE);
+        final NotificationEvent sharedKeyOpen = createEvent("sharedKey", HubEventAction.OPEN);
+        final List<NotificationEvent> events = new ArrayList<>(resolveEvents);
+        events.add(sharedKeyResolve);
+        events.add(sharedKeyOpen);
+        events.add(createEvent("otherKey", HubEventAction.ADD_COMMENT));
+        events.add(NotificationEventMock.createEvent("noEventDataKey"));
+
+        assertEquals(resolveEvents, TicketGenerator.getBulkResolveEvents(events));
+    }
+
+    private NotificationEvent createEvent(final String key, final HubEventAction action) {
+        final EventData eventData = Mockito.mock(EventData.class);
+        Mockito.when(eventData.getAction()).thenReturn(action);
+        final Map<String, Object> dataSet = new HashMap<>();
+        dataSet.put(HubJiraConstants.EVENT_DATA_SET_KEY_JIRA_EVENT_DATA, eventData);
+        return new NotificationEvent(key, NotificationCategoryEnum.POLICY_VIOLATION, dataSet);
+    }
+
+    private void assertWindow(final long expectedStartMillis, final long expectedEndMillis, final Date[] window) {
+        assertEquals(expectedStartMillis, window[0].getTime());
+        assertEquals(expectedEndMillis, window[1].getTime());
+    }
+
+    private String formatDate(final Date date) {
+        final SimpleDateFormat dateFormatter = new SimpleDateFormat(RestConnection.JSON_DATE_FORMAT);
+        dateFormatter.setTimeZone(TimeZone.getTimeZone("Zulu"));
+        return dateFormatter.format(date);
+    }
+
+    /**
+     * Returns no notifications for each slice, recording the slice windows requested and the last run date at the time
+     * of each request. Interrupts the thread while fetching the slice at interruptAtSlice (if >= 0).
+     */
+    private class SliceRecordingTicketGenerator extends TicketGenerator {
+        private final List<Date[]> requestedWindows;
+
+        private final List<String> lastRunDatesAtRequest;
+
+        private final int interruptAtSlice;
+
+        public SliceRecordingTicketGenerator(final int notificationSliceMinutes, final List<Date[]> requestedWindows, final List<String> lastRunDatesAtRequest,
+                final int interruptAtSlice) {
+            super(hubServicesFactory, jiraServices, Mockito.mock(JiraContext.class), new JiraSettingsService(settings), new TicketInfoFromSetup(),
+                    new HubJiraFieldCopyConfigSerializable(), false, Collections.emptyList(), null,
+                    new HubResponseCache(Mockito.mock(HubResponseService.class), 10, 60), 1, 1, notificationSliceMinutes);
+            this.requestedWindows = requestedWindows;
+            this.lastRunDatesAtRequest = lastRunDatesAtRequest;
+            this.interruptAtSlice = interruptAtSlice;
+        }
+
+        @Override
+        JiraNotificationProcessor createNotificationProcessor(final HubProjectMappings hubProjectMappings) {
+            final JiraNotificationProcessor processor = Mockito.mock(JiraNotificationProcessor.class);
+            Mockito.when(processor.getBomComponentCache()).thenReturn(new BomComponentCache(Mockito.mock(AggregateBomRequestService.class)));
+            return processor;
+        }
+
+        @Override
+        NotificationResults getUserNotifications(final Date startDate, final Date endDate, final UserView hubUser) {
+            if (requestedWindows.size() == interruptAtSlice) {
+                Thread.currentThread().interrupt();
+            }
+            requestedWindows.add(new Date[] { startDate, endDate });
+            lastRunDatesAtRequest.add((String) settings.get(HubJiraConfigKeys.HUB_CONFIG_LAST_RUN_DATE));
+            final NotificationResults results = Mockito.mock(NotificationResults.class);
+            Mockito.when(results.getNotificationContentItems()).thenReturn(new TreeSet<>());
+            return results;
+        }
+    }
+
+}
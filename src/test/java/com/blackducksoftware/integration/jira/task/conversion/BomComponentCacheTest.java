@@ -0,0 +1,110 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.conversion;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.blackducksoftware.integration.exception.IntegrationException;
+import com.blackducksoftware.integration.hub.api.aggregate.bom.AggregateBomRequestService;
+import com.blackducksoftware.integration.hub.exception.HubIntegrationException;
+import com.blackducksoftware.integration.hub.model.view.VersionBomComponentView;
+
+public class BomComponentCacheTest {
+    private static final String BOM_URL = "http://hub.blackducksoftware.com/api/projects/projectId/versions/versionId/components";
+
+    private static final String OTHER_BOM_URL = "http://hub.blackducksoftware.com/api/projects/projectId/versions/otherVersionId/components";
+
+    @Test
+    public void testFindCompInBom() throws IntegrationException {
+        final List<VersionBomComponentView> bomComps = new ArrayList<>();
+        addComp(bomComps, "comp1", null, "comp1version1Url");
+        addComp(bomComps, "comp2", null, "comp2version1Url");
+        addComp(bomComps, "comp3", "comp3Url", null);
+        final AggregateBomRequestService bomRequestService = Mockito.mock(AggregateBomRequestService.class);
+        Mockito.when(bomRequestService.getBomEntries(BOM_URL)).thenReturn(bomComps);
+        final BomComponentCache bomComponentCache = new BomComponentCache(bomRequestService);
+
+        assertEquals("comp1", bomComponentCache.getBomComponent(BOM_URL, null, "comp1version1Url").componentName);
+        assertEquals("comp2", bomComponentCache.getBomComponent(BOM_URL, null, "comp2version1Url").componentName);
+        assertEquals("comp3", bomComponentCache.getBomComponent(BOM_URL, "comp3Url", null).componentName);
+        assertEquals(null, bomComponentCache.getBomComponent(BOM_URL, null, "comp1versionXUrl"));
+        assertEquals(null, bomComponentCache.getBomComponent(BOM_URL, "compXUrl", null));
+    }
+
+    @Test
+    public void testBomFetchedOncePerRun() throws IntegrationException {
+        final List<VersionBomComponentView> bomComps = new ArrayList<>();
+        addComp(bomComps, "comp1", null, "comp1version1Url");
+        final List<VersionBomComponentView> otherBomComps = new ArrayList<>();
+        addComp(otherBomComps, "comp2", null, "comp2version1Url");
+        final AggregateBomRequestService bomRequestService = Mockito.mock(AggregateBomRequestService.class);
+        Mockito.when(bomRequestService.getBomEntries(BOM_URL)).thenReturn(bomComps);
+        Mockito.when(bomRequestService.getBomEntries(OTHER_BOM_URL)).thenReturn(otherBomComps);
+        final BomComponentCache bomComponentCache = new BomComponentCache(bomRequestService);
+
+        assertEquals("comp1", bomComponentCache.getBomComponent(BOM_URL, null, "comp1version1Url").componentName);
+        assertEquals("comp1", bomComponentCache.getBomComponent(BOM_URL, null, "comp1version1Url").componentName);
+        assertEquals("comp2", bomComponentCache.getBomComponent(OTHER_BOM_URL, null, "comp2version1Url").componentName);
+        assertNull(bomComponentCache.getBomComponent(OTHER_BOM_URL, null, "comp1version1Url"));
+
+        Mockito.verify(bomRequestService, Mockito.times(1)).getBomEntries(BOM_URL);
+        Mockito.verify(bomRequestService, Mockito.times(1)).getBomEntries(OTHER_BOM_URL);
+        assertEquals(2, bomComponentCache.getMissCount());
+        assertEquals(2, bomComponentCache.getHitCount());
+        assertEquals(2, bomComponentCache.size());
+    }
+
+    @Test
+    public void testFailedFetchIsRetried() throws IntegrationException {
+        final List<VersionBomComponentView> bomComps = new ArrayList<>();
+        addComp(bomComps, "comp1", null, "comp1version1Url");
+        final AggregateBomRequestService bomRequestService = Mockito.mock(AggregateBomRequestService.class);
+        Mockito.when(bomRequestService.getBomEntries(BOM_URL)).thenThrow(new HubIntegrationException("Hub unavailable")).thenReturn(bomComps);
+        final BomComponentCache bomComponentCache = new BomComponentCache(bomRequestService);
+
+        assertNull(bomComponentCache.getBomComponent(BOM_URL, null, "comp1version1Url"));
+        assertEquals(0, bomComponentCache.size());
+        assertEquals("comp1", bomComponentCache.getBomComponent(BOM_URL, null, "comp1version1Url").componentName);
+        assertEquals("comp1", bomComponentCache.getBomComponent(BOM_URL, null, "comp1version1Url").componentName);
+
+        Mockito.verify(bomRequestService, Mockito.times(2)).getBomEntries(BOM_URL);
+        assertEquals(1, bomComponentCache.size());
+    }
+
+    private void addComp(final List<VersionBomComponentView> bomComps, final String componentName, final String componentUrl, final String componentVersionUrl) {
+        final VersionBomComponentView bomComp = new VersionBomComponentView();
+        bomComp.componentName = componentName;
+        bomComp.component = componentUrl;
+        bomComp.componentVersion = componentVersionUrl;
+
+        bomComps.add(bomComp);
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.conversion;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
+import com.blackducksoftware.integration.jira.mocks.NotificationEventMock;
+
+public class ConcurrentListProcessorCacheTest {
+
+    @Test
+    public void testEventsReturnedInNotificationOrder() throws InterruptedException {
+        final ConcurrentListProcessorCache cache = new ConcurrentListProcessorCache();
+        final int notificationCount = 50;
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        // Submit in reverse order so that later notifications tend to be converted first
+        for (int notificationIndex = notificationCount - 1; notificationIndex >= 0; notificationIndex--) {
+            final int index = notificationIndex;
+            executor.submit(() -> {
+                startLatch.await();
+                cache.startNotification(index);
+                try {
+                    cache.addEvent(NotificationEventMock.createEvent("key" + (index % 5), index + ".open"));
+                    cache.addEvent(NotificationEventMock.createEvent("key" + (index % 5), index + ".comment"));
+                } finally {
+                    cache.endNotification();
+                }
+                return null;
+            });
+        }
+        startLatch.countDown();
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        final List<String> expectedOrder = new ArrayList<>();
+        for (int notificationIndex = 0; notificationIndex < notificationCount; notificationIndex++) {
+            expectedOrder.add(notificationIndex + ".open");
+            expectedOrder.add(notificationIndex + ".comment");
+        }
+        final List<String> actualOrder = new ArrayList<>();
+        for (final NotificationEvent event : cache.getEvents()) {
+            actualOrder.add((String) NotificationEventMock.getId(event));
+        }
+        assertEquals(expectedOrder, actualOrder);
+    }
+
+    @Test
+    public void testSerialUse() {
+        final ConcurrentListProcessorCache cache = new ConcurrentListProcessorCache();
+        cache.addEvent(NotificationEventMock.createEvent("key1", "first"));
+        cache.addEvent(NotificationEventMock.createEvent("key2", "second"));
+        cache.addEvent(NotificationEventMock.createEvent("key1", "third"));
+
+        final List<NotificationEvent> events = cache.getEvents();
+        assertEquals(3, events.size());
+        assertEquals("first", NotificationEventMock.getId(events.get(0)));
+        assertEquals("second", NotificationEventMock.getId(events.get(1)));
+        assertEquals("third", NotificationEventMock.getId(events.get(2)));
+    }
+
+    @Test
+    public void testClearEvents() {
+        final ConcurrentListProcessorCache cache = new ConcurrentListProcessorCache();
+        cache.addEvent(NotificationEventMock.createEvent("key1", "first"));
+        cache.clearEvents();
+        cache.addEvent(NotificationEventMock.createEvent("key2", "second"));
+
+        final List<NotificationEvent> events = cache.getEvents();
+        assertEquals(1, events.size());
+        assertEquals("second", NotificationEventMock.getId(events.get(0)));
+    }
+
+}
@@ -75,6 +75,7 @@ import com.blackducksoftware.integration.jira.common.JiraProject;
 import com.blackducksoftware.integration.jira.common.exception.ConfigurationException;
 import com.blackducksoftware.integration.jira.config.HubJiraFieldCopyConfigSerializable;
 import com.blackducksoftware.integration.jira.config.ProjectFieldCopyMapping;
+import com.blackducksoftware.integration.jira.hub.HubResponseCache;
 import com.blackducksoftware.integration.jira.hub.ProjectResponse;
 import com.blackducksoftware.integration.jira.hub.VersionRiskProfileResponse;
 import com.blackducksoftware.integration.jira.task.JiraSettingsService;
@@ -279,31 +280,6 @@ public class NotificationConverterTest {
                 POLICY_CLEARED_EXPECTED_SUMMARY, POLICY_ISSUE_TYPE_ID, POLICY_CLEARED_EXPECTED_REOPEN_COMMENT, POLICY_CLEARED_EXPECTED_RESOLVE_COMMENT, POLICY_EXPECTED_PROPERTY_KEY);
     }
 
-    @Test
-    public void testFindCompInBom() throws ConfigurationException {
-        final ListProcessorCache cache = new ListProcessorCache();
-        final NotificationToEventConverter conv = createConverter(jiraServices, jiraSettingsService, jiraContext, hubServicesFactory, NotifType.POLICY_VIOLATION, projectMappingObject, fieldCopyConfig, cache);
-
-        final List<VersionBomComponentView> bomComps = new ArrayList<>();
-        addComp(bomComps, "comp1", null, "comp1version1Url");
-        addComp(bomComps, "comp2", null, "comp2version1Url");
-        addComp(bomComps, "comp3", "comp3Url", null);
-        assertEquals("comp1", conv.findCompInBom(bomComps, null, "comp1version1Url").componentName);
-        assertEquals("comp2", conv.findCompInBom(bomComps, null, "comp2version1Url").componentName);
-        assertEquals("comp3", conv.findCompInBom(bomComps, "comp3Url", null).componentName);
-        assertEquals(null, conv.findCompInBom(bomComps, null, "comp1versionXUrl"));
-        assertEquals(null, conv.findCompInBom(bomComps, "compXUrl", null));
-    }
-
-    private void addComp(final List<VersionBomComponentView> bomComps, final String componentName, final String componentUrl, final String componentVersionUrl) {
-        final VersionBomComponentView bomComp = new VersionBomComponentView();
-        bomComp.componentName = componentName;
-        bomComp.component = componentUrl;
-        bomComp.componentVersion = componentVersionUrl;
-
-        bomComps.add(bomComp);
-    }
-
     private void test(final NotifType notifType, final HubEventAction expectedHubEventAction, final String expectedComment, final String expectedCommentIfExists, final String expectedCommentInLieuOfStateChange,
             final String expectedDescription, final String expectedSummary, final String issueTypeId, final String expectedReOpenComment, final String expectedResolveComment, final String expectedPropertyKey)
             throws ConfigurationException, URISyntaxException, IntegrationException {
@@ -325,16 +301,20 @@ public class NotificationConverterTest {
         NotificationToEventConverter conv;
         switch (notifType) {
         case VULNERABILITY:
-            conv = new VulnerabilityNotificationConverter(cache, mappingObject, fieldCopyConfig, jiraServices, jiraContext, jiraSettingsService, hubServicesFactory);
+            conv = new VulnerabilityNotificationConverter(cache, mappingObject, fieldCopyConfig, jiraServices, jiraContext, jiraSettingsService, hubServicesFactory,
+                    new BomComponentCache(hubServicesFactory.createAggregateBomRequestService()), createHubResponseCache(hubServicesFactory));
             break;
         case POLICY_VIOLATION:
-            conv = new PolicyViolationNotificationConverter(cache, mappingObject, fieldCopyConfig, jiraServices, jiraContext, jiraSettingsService, hubServicesFactory);
+            conv = new PolicyViolationNotificationConverter(cache, mappingObject, fieldCopyConfig, jiraServices, jiraContext, jiraSettingsService, hubServicesFactory,
+                    new BomComponentCache(hubServicesFactory.createAggregateBomRequestService()), createHubResponseCache(hubServicesFactory));
             break;
         case POLICY_VIOLATION_OVERRIDE:
-            conv = new PolicyOverrideNotificationConverter(cache, mappingObject, fieldCopyConfig, jiraServices, jiraContext, jiraSettingsService, hubServicesFactory);
+            conv = new PolicyOverrideNotificationConverter(cache, mappingObject, fieldCopyConfig, jiraServices, jiraContext, jiraSettingsService, hubServicesFactory,
+                    new BomComponentCache(hubServicesFactory.createAggregateBomRequestService()), createHubResponseCache(hubServicesFactory));
             break;
         case POLICY_VIOLATION_CLEARED:
-            conv = new PolicyViolationClearedNotificationConverter(cache, mappingObject, fieldCopyConfig, jiraServices, jiraContext, jiraSettingsService, hubServicesFactory);
+            conv = new PolicyViolationClearedNotificationConverter(cache, mappingObject, fieldCopyConfig, jiraServices, jiraContext, jiraSettingsService, hubServicesFactory,
+                    new BomComponentCache(hubServicesFactory.createAggregateBomRequestService()), createHubResponseCache(hubServicesFactory));
             break;
         default:
             throw new IllegalArgumentException("Unrecognized notification type");
@@ -342,6 +322,10 @@ public class NotificationConverterTest {
         return conv;
     }
 
+    private HubResponseCache createHubResponseCache(final HubServicesFactory hubServicesFactory) {
+        return new HubResponseCache(hubServicesFactory.createHubResponseService(), HubJiraConstants.HUB_RESPONSE_CACHE_DEFAULT_MAX_SIZE, HubJiraConstants.HUB_RESPONSE_CACHE_DEFAULT_TTL_SECONDS);
+    }
+
     private NotificationContentItem createNotif(final MetaService metaService, final NotifType notifType, final Date now, final ProjectVersionModel projectVersion) throws URISyntaxException, HubIntegrationException, IntegrationException {
         NotificationContentItem notif;
         switch (notifType) {
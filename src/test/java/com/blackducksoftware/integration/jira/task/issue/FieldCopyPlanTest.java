@@ -0,0 +1,124 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.issue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.atlassian.jira.issue.fields.Field;
+import com.atlassian.jira.issue.fields.FieldManager;
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
+import com.blackducksoftware.integration.jira.common.PluginField;
+import com.blackducksoftware.integration.jira.config.HubJiraFieldCopyConfigSerializable;
+import com.blackducksoftware.integration.jira.config.ProjectFieldCopyMapping;
+import com.blackducksoftware.integration.jira.task.conversion.output.eventdata.EventData;
+
+public class FieldCopyPlanTest {
+    private static final String CUSTOM_FIELD_ID = "customfield_10100";
+
+    @Test
+    public void testStepsGroupedByJiraProject() {
+        final FieldManager fieldManager = mockFieldManager();
+        final Set<ProjectFieldCopyMapping> mappings = new HashSet<>();
+        mappings.add(createMapping("JIRA Project A", PluginField.HUB_CUSTOM_FIELD_COMPONENT, CUSTOM_FIELD_ID));
+        mappings.add(createMapping(HubJiraConstants.FIELD_COPY_MAPPING_WILDCARD, PluginField.HUB_CUSTOM_FIELD_PROJECT, "labels"));
+
+        final FieldCopyPlan plan = FieldCopyPlan.compile(createConfig(mappings), fieldManager);
+
+        final List<FieldCopyPlan.Step> projectASteps = plan.getSteps("JIRA Project A");
+        assertEquals(2, projectASteps.size());
+        assertEquals(CUSTOM_FIELD_ID, projectASteps.get(0).getTargetField().getId());
+        assertTrue(projectASteps.get(0).isCustomFieldTarget());
+        assertEquals("labels", projectASteps.get(1).getTargetField().getId());
+
+        final List<FieldCopyPlan.Step> projectBSteps = plan.getSteps("JIRA Project B");
+        assertEquals(1, projectBSteps.size());
+        assertEquals("labels", projectBSteps.get(0).getTargetField().getId());
+        Mockito.verify(fieldManager, Mockito.times(1)).getField(CUSTOM_FIELD_ID);
+        Mockito.verify(fieldManager, Mockito.times(1)).getField("labels");
+    }
+
+    @Test
+    public void testSourceFieldAccessors() {
+        final Set<ProjectFieldCopyMapping> mappings = new HashSet<>();
+        mappings.add(createMapping(HubJiraConstants.FIELD_COPY_MAPPING_WILDCARD, PluginField.HUB_CUSTOM_FIELD_COMPONENT, CUSTOM_FIELD_ID));
+        final FieldCopyPlan plan = FieldCopyPlan.compile(createConfig(mappings), mockFieldManager());
+
+        final EventData eventData = Mockito.mock(EventData.class);
+        Mockito.when(eventData.getHubComponentName()).thenReturn("Apache Commons");
+        final FieldCopyPlan.Step step = plan.getSteps("JIRA Project A").get(0);
+        assertEquals("Apache Commons", step.getSourceFieldAccessor().getValue(null, eventData));
+    }
+
+    @Test
+    public void testUnresolvedFields() {
+        final Set<ProjectFieldCopyMapping> mappings = new HashSet<>();
+        mappings.add(new ProjectFieldCopyMapping("JIRA Project A", "Hub Project", "UNKNOWN_FIELD", "Unknown", "customfield_99999", "Missing"));
+        final FieldCopyPlan plan = FieldCopyPlan.compile(createConfig(mappings), mockFieldManager());
+
+        final FieldCopyPlan.Step step = plan.getSteps("JIRA Project A").get(0);
+        assertNull(step.getTargetField());
+        assertNull(step.getSourceFieldAccessor());
+    }
+
+    @Test
+    public void testNoMappings() {
+        final FieldCopyPlan plan = FieldCopyPlan.compile(new HubJiraFieldCopyConfigSerializable(), mockFieldManager());
+        assertTrue(plan.getSteps("JIRA Project A").isEmpty());
+    }
+
+    private HubJiraFieldCopyConfigSerializable createConfig(final Set<ProjectFieldCopyMapping> mappings) {
+        final HubJiraFieldCopyConfigSerializable config = new HubJiraFieldCopyConfigSerializable();
+        config.setProjectFieldCopyMappings(mappings);
+        return config;
+    }
+
+    private ProjectFieldCopyMapping createMapping(final String jiraProjectName, final PluginField sourceField, final String targetFieldId) {
+        return new ProjectFieldCopyMapping(jiraProjectName, "Hub Project", sourceField.getId(), sourceField.getName(), targetFieldId, targetFieldId);
+    }
+
+    private FieldManager mockFieldManager() {
+        final FieldManager fieldManager = Mockito.mock(FieldManager.class);
+        final Field customField = mockField(CUSTOM_FIELD_ID);
+        final Field labelsField = mockField("labels");
+        Mockito.when(fieldManager.getField(CUSTOM_FIELD_ID)).thenReturn(customField);
+        Mockito.when(fieldManager.getField("labels")).thenReturn(labelsField);
+        return fieldManager;
+    }
+
+    private Field mockField(final String id) {
+        final Field field = Mockito.mock(Field.class);
+        Mockito.when(field.getId()).thenReturn(id);
+        return field;
+    }
+
+}
@@ -0,0 +1,94 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.issue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.atlassian.jira.issue.CustomFieldManager;
+import com.atlassian.jira.issue.fields.CustomField;
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
+import com.blackducksoftware.integration.jira.common.PluginField;
+
+public class HubCustomFieldCacheTest {
+
+    @Test
+    public void testSetupFieldsAreReadById() {
+        final CustomFieldManager customFieldManager = Mockito.mock(CustomFieldManager.class);
+        final CustomField customField = Mockito.mock(CustomField.class);
+        Mockito.when(customField.getId()).thenReturn("customfield_10100");
+        Mockito.when(customFieldManager.getCustomFieldObject("customfield_10100")).thenReturn(customField);
+
+        final Map<PluginField, CustomField> customFields = new EnumMap<>(PluginField.class);
+        customFields.put(PluginField.HUB_CUSTOM_FIELD_PROJECT, customField);
+        final HubCustomFieldCache cache = new HubCustomFieldCache();
+        cache.update(customFields);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(customField, cache.getCustomField(customFieldManager, HubJiraConstants.HUB_CUSTOM_FIELD_PROJECT));
+        }
+        Mockito.verify(customFieldManager, Mockito.never()).getCustomFieldObjectByName(Mockito.anyString());
+    }
+
+    @Test
+    public void testNameIsSearchedOnce() {
+        final CustomFieldManager customFieldManager = Mockito.mock(CustomFieldManager.class);
+        final CustomField customField = Mockito.mock(CustomField.class);
+        Mockito.when(customField.getId()).thenReturn("customfield_10101");
+        Mockito.when(customFieldManager.getCustomFieldObjectByName(HubJiraConstants.HUB_CUSTOM_FIELD_COMPONENT)).thenReturn(customField);
+        Mockito.when(customFieldManager.getCustomFieldObject("customfield_10101")).thenReturn(customField);
+        final HubCustomFieldCache cache = new HubCustomFieldCache();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(customField, cache.getCustomField(customFieldManager, HubJiraConstants.HUB_CUSTOM_FIELD_COMPONENT));
+            assertNull(cache.getCustomField(customFieldManager, HubJiraConstants.HUB_CUSTOM_FIELD_LICENSE_NAMES));
+        }
+        Mockito.verify(customFieldManager, Mockito.times(1)).getCustomFieldObjectByName(HubJiraConstants.HUB_CUSTOM_FIELD_COMPONENT);
+        Mockito.verify(customFieldManager, Mockito.times(1)).getCustomFieldObjectByName(HubJiraConstants.HUB_CUSTOM_FIELD_LICENSE_NAMES);
+    }
+
+    @Test
+    public void testDeletedFieldIsSearchedAgain() {
+        final CustomFieldManager customFieldManager = Mockito.mock(CustomFieldManager.class);
+        final CustomField customField = Mockito.mock(CustomField.class);
+        Mockito.when(customField.getId()).thenReturn("customfield_10102");
+        final Map<PluginField, CustomField> customFields = new EnumMap<>(PluginField.class);
+        customFields.put(PluginField.HUB_CUSTOM_FIELD_POLICY_RULE, customField);
+        final HubCustomFieldCache cache = new HubCustomFieldCache();
+        cache.update(customFields);
+
+        assertNull(cache.getCustomField(customFieldManager, HubJiraConstants.HUB_CUSTOM_FIELD_POLICY_RULE));
+        Mockito.verify(customFieldManager, Mockito.times(1)).getCustomFieldObjectByName(HubJiraConstants.HUB_CUSTOM_FIELD_POLICY_RULE);
+
+        cache.invalidate();
+        assertEquals(0, cache.size());
+    }
+
+}
@@ -0,0 +1,103 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.issue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.atlassian.jira.issue.MutableIssue;
+import com.atlassian.jira.issue.label.Label;
+import com.atlassian.jira.issue.label.LabelManager;
+import com.atlassian.jira.user.ApplicationUser;
+import com.blackducksoftware.integration.jira.common.JiraContext;
+import com.blackducksoftware.integration.jira.mocks.JiraServicesMock;
+import com.blackducksoftware.integration.jira.mocks.PluginSettingsMock;
+import com.blackducksoftware.integration.jira.task.JiraSettingsService;
+
+public class IssueFieldHandlerTest {
+    private static final Long ISSUE_ID = 10100L;
+
+    @Test
+    public void testLabelsSetOnCreateAreNotWrittenAgain() {
+        final LabelManager labelManager = Mockito.mock(LabelManager.class);
+        final MutableIssue issue = mockIssue("black_duck", "policy");
+
+        createHandler(labelManager).addMissingLabels(issue, Arrays.asList("black_duck", "policy"));
+
+        Mockito.verifyZeroInteractions(labelManager);
+    }
+
+    @Test
+    public void testMissingLabelsAddedInOneWrite() {
+        final LabelManager labelManager = Mockito.mock(LabelManager.class);
+        final MutableIssue issue = mockIssue("existing");
+
+        final IssueFieldHandler issueFieldHandler = createHandler(labelManager);
+        issueFieldHandler.addMissingLabels(issue, Arrays.asList("black_duck", "policy"));
+
+        final Set<String> expectedLabels = new LinkedHashSet<>(Arrays.asList("existing", "black_duck", "policy"));
+        Mockito.verify(labelManager, Mockito.times(1)).setLabels(Mockito.any(ApplicationUser.class), Mockito.eq(ISSUE_ID), Mockito.eq(expectedLabels), Mockito.eq(false),
+                Mockito.eq(false));
+        Mockito.verify(labelManager, Mockito.never()).addLabel(Mockito.any(ApplicationUser.class), Mockito.anyLong(), Mockito.anyString(), Mockito.anyBoolean());
+    }
+
+    @Test
+    public void testNoLabels() {
+        final LabelManager labelManager = Mockito.mock(LabelManager.class);
+        final MutableIssue issue = mockIssue();
+
+        createHandler(labelManager).addMissingLabels(issue, Collections.emptyList());
+
+        Mockito.verifyZeroInteractions(labelManager);
+    }
+
+    private IssueFieldHandler createHandler(final LabelManager labelManager) {
+        final JiraServicesMock jiraServices = new JiraServicesMock();
+        jiraServices.setLabelManager(labelManager);
+        final ApplicationUser user = Mockito.mock(ApplicationUser.class);
+        final JiraContext jiraContext = new JiraContext(user, user);
+        final JiraSettingsService jiraSettingsService = new JiraSettingsService(new PluginSettingsMock());
+        return new IssueFieldHandler(jiraServices, jiraSettingsService, jiraContext, null, FieldCopyPlan.compile(null, null));
+    }
+
+    private MutableIssue mockIssue(final String... labelNames) {
+        final Set<Label> labels = new HashSet<>();
+        for (final String labelName : labelNames) {
+            final Label label = Mockito.mock(Label.class);
+            Mockito.when(label.getLabel()).thenReturn(labelName);
+            labels.add(label);
+        }
+        final MutableIssue issue = Mockito.mock(MutableIssue.class);
+        Mockito.when(issue.getId()).thenReturn(ISSUE_ID);
+        Mockito.when(issue.getLabels()).thenReturn(labels);
+        return issue;
+    }
+
+}
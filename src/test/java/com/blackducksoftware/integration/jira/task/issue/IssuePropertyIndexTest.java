@@ -0,0 +1,122 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.issue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.atlassian.jira.entity.property.EntityProperty;
+import com.atlassian.jira.entity.property.EntityPropertyQuery;
+import com.atlassian.jira.entity.property.EntityPropertyQuery.ExecutableQuery;
+import com.blackducksoftware.integration.jira.mocks.EntityPropertyMock;
+import com.blackducksoftware.integration.jira.mocks.EntityPropertyQueryMock;
+import com.blackducksoftware.integration.jira.mocks.ExecutableQueryMock;
+import com.blackducksoftware.integration.jira.mocks.JSonEntityPropertyManagerMock;
+import com.blackducksoftware.integration.jira.mocks.JiraServicesMock;
+import com.blackducksoftware.integration.jira.mocks.NotificationEventMock;
+
+public class IssuePropertyIndexTest {
+    private static final String KEY_PREFIX = "t=p|jp=10000|hpv=123|";
+
+    private static final String KEY_1 = KEY_PREFIX + "hc=1|hcv=1|hr=1";
+
+    private static final String KEY_2 = KEY_PREFIX + "hc=2|hcv=2|hr=1";
+
+    private EntityPropertyQuery<?> query;
+
+    private ExecutableQuery executableQuery;
+
+    private JiraServicesMock jiraServices;
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    @Before
+    public void initTest() {
+        final List<EntityProperty> properties = new ArrayList<>();
+        properties.add(createProperty(KEY_1, "{\"projectName\":\"p\",\"jiraIssueId\":42}"));
+        properties.add(createProperty(KEY_PREFIX + "unparseable", "not json"));
+
+        query = Mockito.mock(EntityPropertyQueryMock.class);
+        executableQuery = Mockito.mock(ExecutableQueryMock.class);
+        Mockito.when(((EntityPropertyQuery) query).keyPrefix(Mockito.anyString())).thenReturn(query);
+        Mockito.when(query.entityName(Mockito.anyString())).thenReturn(executableQuery);
+        Mockito.when(executableQuery.offset(Mockito.anyInt())).thenReturn(executableQuery);
+        Mockito.when(executableQuery.maxResults(Mockito.anyInt())).thenReturn(executableQuery);
+        Mockito.when(executableQuery.find()).thenReturn(properties);
+        final JSonEntityPropertyManagerMock jsonManager = Mockito.mock(JSonEntityPropertyManagerMock.class);
+        Mockito.when(jsonManager.query()).thenAnswer(invocation -> query);
+
+        jiraServices = new JiraServicesMock();
+        jiraServices.setJsonEntityPropertyManager(jsonManager);
+    }
+
+    @Test
+    public void testPreloadOneQueryPerKeyPrefix() {
+        final IssuePropertyIndex index = new IssuePropertyIndex(jiraServices);
+        index.preload(Arrays.asList(NotificationEventMock.createEvent(KEY_1), NotificationEventMock.createEvent(KEY_2),
+                NotificationEventMock.createEvent(KEY_1)));
+
+        Mockito.verify(query, Mockito.times(1)).entityName(Mockito.anyString());
+        assertEquals(Long.valueOf(42L), index.getIssueId(KEY_1));
+        assertNull(index.getIssueId(KEY_2));
+        assertTrue(index.isComplete(KEY_2));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testPutAndRemove() {
+        final IssuePropertyIndex index = new IssuePropertyIndex(jiraServices);
+        index.put(KEY_2, 43L);
+        assertEquals(Long.valueOf(43L), index.getIssueId(KEY_2));
+        assertFalse(index.isComplete(KEY_2));
+        index.remove(KEY_2);
+        assertNull(index.getIssueId(KEY_2));
+    }
+
+    @Test
+    public void testKeyWithoutPrefixNotPreloaded() {
+        final IssuePropertyIndex index = new IssuePropertyIndex(jiraServices);
+        index.preload(Arrays.asList(NotificationEventMock.createEvent("unstructuredkey")));
+
+        Mockito.verify(query, Mockito.never()).entityName(Mockito.anyString());
+        assertFalse(index.isComplete("unstructuredkey"));
+    }
+
+    private EntityProperty createProperty(final String key, final String value) {
+        final EntityPropertyMock property = new EntityPropertyMock();
+        property.setKey(key);
+        property.setValue(value);
+        return property;
+    }
+
+}
@@ -0,0 +1,306 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.issue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import com.atlassian.jira.bc.issue.IssueService;
+import com.atlassian.jira.bc.issue.IssueService.IssueResult;
+import com.atlassian.jira.bc.issue.IssueService.TransitionValidationResult;
+import com.atlassian.jira.entity.property.EntityProperty;
+import com.atlassian.jira.entity.property.EntityPropertyQuery;
+import com.atlassian.jira.entity.property.EntityPropertyQuery.ExecutableQuery;
+import com.atlassian.jira.entity.property.JsonEntityPropertyManager;
+import com.atlassian.jira.issue.Issue;
+import com.atlassian.jira.issue.IssueInputParameters;
+import com.atlassian.jira.issue.IssueManager;
+import com.atlassian.jira.issue.MutableIssue;
+import com.atlassian.jira.issue.comments.CommentManager;
+import com.atlassian.jira.issue.index.IssueIndexingService;
+import com.atlassian.jira.issue.status.Status;
+import com.atlassian.jira.security.JiraAuthenticationContext;
+import com.atlassian.jira.user.ApplicationUser;
+import com.atlassian.jira.util.ErrorCollection;
+import com.atlassian.jira.util.ImportUtils;
+import com.atlassian.jira.workflow.JiraWorkflow;
+import com.atlassian.jira.workflow.WorkflowManager;
+import com.blackducksoftware.integration.hub.notification.processor.NotificationCategoryEnum;
+import com.blackducksoftware.integration.hub.notification.processor.event.NotificationEvent;
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
+import com.blackducksoftware.integration.jira.common.JiraContext;
+import com.blackducksoftware.integration.jira.mocks.EntityPropertyMock;
+import com.blackducksoftware.integration.jira.mocks.EntityPropertyQueryMock;
+import com.blackducksoftware.integration.jira.mocks.ExecutableQueryMock;
+import com.blackducksoftware.integration.jira.mocks.JSonEntityPropertyManagerMock;
+import com.blackducksoftware.integration.jira.task.JiraSettingsService;
+import com.blackducksoftware.integration.jira.task.conversion.output.HubEventAction;
+import com.blackducksoftware.integration.jira.task.conversion.output.eventdata.EventData;
+import com.opensymphony.workflow.loader.ActionDescriptor;
+import com.opensymphony.workflow.loader.StepDescriptor;
+
+public class JiraIssueHandlerTest {
+    private static final String KEY_PREFIX = "t=p|jp=10000|hpv=123|";
+
+    private static final String RESOLVE_COMMENT = "resolveComment";
+
+    private static final String COMMENT_IN_LIEU = "commentInLieuOfStateChange";
+
+    private static final int REMOVE_ACTION_ID = 11;
+
+    private final List<EntityProperty> issueProperties = new ArrayList<>();
+
+    private final List<MutableIssue> issues = new ArrayList<>();
+
+    private JiraServices jiraServices;
+
+    private JiraSettingsService jiraSettingsService;
+
+    private JiraAuthenticationContext authContext;
+
+    private WorkflowManager workflowManager;
+
+    private IssueService issueService;
+
+    private CommentManager commentManager;
+
+    private IssueIndexingService issueIndexingService;
+
+    private ApplicationUser issueCreator;
+
+    private ApplicationUser previousUser;
+
+    private JiraWorkflow bdsWorkflow;
+
+    private JiraWorkflow otherWorkflow;
+
+    private Status openStatus;
+
+    private Status closedStatus;
+
+    private boolean wasIndexingIssues;
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    @Before
+    public void initTest() {
+        WorkflowTransitionCache.getInstance().invalidate();
+        wasIndexingIssues = ImportUtils.isIndexIssues();
+        ImportUtils.setIndexIssues(true);
+
+        final EntityPropertyQuery<?> query = Mockito.mock(EntityPropertyQueryMock.class);
+        final ExecutableQuery executableQuery = Mockito.mock(ExecutableQueryMock.class);
+        Mockito.when(((EntityPropertyQuery) query).keyPrefix(Mockito.anyString())).thenReturn(query);
+        Mockito.when(query.entityName(Mockito.anyString())).thenReturn(executableQuery);
+        Mockito.when(executableQuery.offset(Mockito.anyInt())).thenReturn(executableQuery);
+        Mockito.when(executableQuery.maxResults(Mockito.anyInt())).thenReturn(executableQuery);
+        Mockito.when(executableQuery.find()).thenReturn(issueProperties);
+        final JsonEntityPropertyManager jsonManager = Mockito.mock(JSonEntityPropertyManagerMock.class);
+        Mockito.when(jsonManager.query()).thenAnswer(invocation -> query);
+
+        final IssueManager issueManager = Mockito.mock(IssueManager.class);
+        Mockito.when(issueManager.getIssueObjects(Mockito.anyCollection())).thenReturn(issues);
+
+        openStatus = createStatus("1", HubJiraConstants.HUB_WORKFLOW_STATUS_OPEN);
+        closedStatus = createStatus("6", HubJiraConstants.HUB_WORKFLOW_STATUS_CLOSED);
+        final ActionDescriptor removeAction = Mockito.mock(ActionDescriptor.class);
+        Mockito.when(removeAction.getName()).thenReturn(HubJiraConstants.HUB_WORKFLOW_TRANSITION_REMOVE_OR_OVERRIDE);
+        Mockito.when(removeAction.getId()).thenReturn(REMOVE_ACTION_ID);
+        final StepDescriptor openStep = Mockito.mock(StepDescriptor.class);
+        Mockito.when(openStep.getActions()).thenReturn(Arrays.asList(removeAction));
+        bdsWorkflow = Mockito.mock(JiraWorkflow.class);
+        Mockito.when(bdsWorkflow.getName()).thenReturn(HubJiraConstants.HUB_JIRA_WORKFLOW);
+        Mockito.when(bdsWorkflow.getLinkedStep(openStatus)).thenReturn(openStep);
+        otherWorkflow = Mockito.mock(JiraWorkflow.class);
+        Mockito.when(otherWorkflow.getName()).thenReturn("Other Workflow");
+        workflowManager = Mockito.mock(WorkflowManager.class);
+
+        issueService = Mockito.mock(IssueService.class);
+        Mockito.when(issueService.newIssueInputParameters()).thenReturn(Mockito.mock(IssueInputParameters.class));
+
+        issueCreator = Mockito.mock(ApplicationUser.class);
+        previousUser = Mockito.mock(ApplicationUser.class);
+        authContext = Mockito.mock(JiraAuthenticationContext.class);
+        Mockito.when(authContext.getLoggedInUser()).thenReturn(previousUser);
+        commentManager = Mockito.mock(CommentManager.class);
+        issueIndexingService = Mockito.mock(IssueIndexingService.class);
+
+        jiraServices = Mockito.mock(JiraServices.class);
+        Mockito.when(jiraServices.getJsonEntityPropertyManager()).thenReturn(jsonManager);
+        Mockito.when(jiraServices.getIssueManager()).thenReturn(issueManager);
+        Mockito.when(jiraServices.getWorkflowManager()).thenReturn(workflowManager);
+        Mockito.when(jiraServices.getIssueService()).thenReturn(issueService);
+        Mockito.when(jiraServices.getAuthContext()).thenReturn(authContext);
+        Mockito.when(jiraServices.getCommentManager()).thenReturn(commentManager);
+        Mockito.when(jiraServices.getIssueIndexingService()).thenReturn(issueIndexingService);
+        jiraSettingsService = Mockito.mock(JiraSettingsService.class);
+    }
+
+    @After
+    public void tearDown() {
+        ImportUtils.setIndexIssues(wasIndexingIssues);
+        WorkflowTransitionCache.getInstance().invalidate();
+    }
+
+    @Test
+    public void testReindexesOnlyChangedIssues() throws Exception {
+        createIssue(1L, bdsWorkflow, openStatus);
+        final MutableIssue closedIssue = createIssue(2L, bdsWorkflow, closedStatus);
+        final MutableIssue otherWorkflowIssue = createIssue(3L, otherWorkflow, openStatus);
+        final Issue resolvedIssue = Mockito.mock(Issue.class);
+        mockValidTransition(1L, resolvedIssue);
+
+        final NotificationEvent openIssueEvent = createResolveEvent("hc=1|hcv=1|hr=1", 1L, COMMENT_IN_LIEU);
+        final NotificationEvent closedIssueEvent = createResolveEvent("hc=2|hcv=2|hr=1", 2L, COMMENT_IN_LIEU);
+        final NotificationEvent otherWorkflowIssueEvent = createResolveEvent("hc=3|hcv=3|hr=1", 3L, null);
+        final List<NotificationEvent> events = Arrays.asList(openIssueEvent, closedIssueEvent, otherWorkflowIssueEvent);
+        final JiraIssueHandler issueHandler = createIssueHandler();
+        issueHandler.preloadIssueIndex(events);
+        issueHandler.resolveIssues(events);
+
+        Mockito.verify(commentManager).create(resolvedIssue, issueCreator, RESOLVE_COMMENT, true);
+        // An issue the plugin will not transition gets the comment in lieu of the state change, if there is one
+        Mockito.verify(commentManager).create(closedIssue, issueCreator, COMMENT_IN_LIEU, true);
+        Mockito.verify(commentManager, Mockito.never()).create(Mockito.eq(otherWorkflowIssue), Mockito.any(ApplicationUser.class), Mockito.anyString(), Mockito.anyBoolean());
+        Mockito.verify(issueService, Mockito.never()).validateTransition(Mockito.any(ApplicationUser.class), Mockito.eq(2L), Mockito.anyInt(), Mockito.any(IssueInputParameters.class));
+        Mockito.verify(issueIndexingService).reIndexIssueObjects(Arrays.asList(resolvedIssue, closedIssue));
+        assertTrue(ImportUtils.isIndexIssues());
+        assertLoggedInUserRestored();
+    }
+
+    @Test
+    public void testIndexingRestoredWhenTransitionThrows() throws Exception {
+        createIssue(1L, bdsWorkflow, openStatus);
+        final TransitionValidationResult validationResult = mockValidTransition(1L, Mockito.mock(Issue.class));
+        final List<Boolean> indexingDuringTransition = new ArrayList<>();
+        Mockito.when(issueService.transition(issueCreator, validationResult)).thenAnswer(invocation -> {
+            indexingDuringTransition.add(ImportUtils.isIndexIssues());
+            throw new IllegalStateException("transition failed");
+        });
+
+        final List<NotificationEvent> events = Arrays.asList(createResolveEvent("hc=1|hcv=1|hr=1", 1L, COMMENT_IN_LIEU));
+        final JiraIssueHandler issueHandler = createIssueHandler();
+        issueHandler.preloadIssueIndex(events);
+        issueHandler.resolveIssues(events);
+
+        assertEquals(1, indexingDuringTransition.size());
+        assertFalse(indexingDuringTransition.get(0));
+        assertTrue(ImportUtils.isIndexIssues());
+        Mockito.verify(jiraSettingsService).addHubError(Mockito.any(IllegalStateException.class), Mockito.eq("resolveIssues"));
+        Mockito.verify(issueIndexingService, Mockito.never()).reIndexIssueObjects(Mockito.anyCollection());
+        assertLoggedInUserRestored();
+    }
+
+    @Test
+    public void testMissingTransitionActionReported() throws Exception {
+        final Status editedStatus = createStatus("3", "In Review");
+        final StepDescriptor stepWithoutRemove = Mockito.mock(StepDescriptor.class);
+        Mockito.when(stepWithoutRemove.getActions()).thenReturn(new ArrayList<>());
+        Mockito.when(bdsWorkflow.getLinkedStep(editedStatus)).thenReturn(stepWithoutRemove);
+        createIssue(1L, bdsWorkflow, editedStatus);
+
+        final List<NotificationEvent> events = Arrays.asList(createResolveEvent("hc=1|hcv=1|hr=1", 1L, COMMENT_IN_LIEU));
+        final JiraIssueHandler issueHandler = createIssueHandler();
+        issueHandler.preloadIssueIndex(events);
+        issueHandler.resolveIssues(events);
+
+        Mockito.verify(jiraSettingsService).addHubError(Mockito.startsWith("Could not find the action"), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyString(), Mockito.anyString(), Mockito.eq("transitionIssue"));
+        Mockito.verify(issueIndexingService, Mockito.never()).reIndexIssueObjects(Mockito.anyCollection());
+        assertLoggedInUserRestored();
+    }
+
+    private JiraIssueHandler createIssueHandler() {
+        return new JiraIssueHandler(jiraServices, new JiraContext(Mockito.mock(ApplicationUser.class), issueCreator), jiraSettingsService, null,
+                Mockito.mock(HubIssueTrackerHandler.class), null, null);
+    }
+
+    private TransitionValidationResult mockValidTransition(final Long issueId, final Issue resolvedIssue) {
+        final TransitionValidationResult validationResult = Mockito.mock(TransitionValidationResult.class);
+        Mockito.when(validationResult.isValid()).thenReturn(true);
+        Mockito.when(issueService.validateTransition(Mockito.eq(issueCreator), Mockito.eq(issueId), Mockito.eq(REMOVE_ACTION_ID), Mockito.any(IssueInputParameters.class)))
+                .thenReturn(validationResult);
+        final IssueResult issueResult = Mockito.mock(IssueResult.class);
+        Mockito.when(issueResult.getErrorCollection()).thenReturn(Mockito.mock(ErrorCollection.class));
+        Mockito.when(issueResult.getIssue()).thenReturn(resolvedIssue);
+        Mockito.when(issueService.transition(issueCreator, validationResult)).thenReturn(issueResult);
+        return validationResult;
+    }
+
+    private void assertLoggedInUserRestored() {
+        final InOrder inOrder = Mockito.inOrder(authContext);
+        inOrder.verify(authContext).setLoggedInUser(issueCreator);
+        inOrder.verify(authContext).setLoggedInUser(previousUser);
+    }
+
+    private MutableIssue createIssue(final Long issueId, final JiraWorkflow workflow, final Status status) {
+        final MutableIssue issue = Mockito.mock(MutableIssue.class);
+        Mockito.when(issue.getId()).thenReturn(issueId);
+        Mockito.when(issue.getKey()).thenReturn("TEST-" + issueId);
+        Mockito.when(issue.getStatus()).thenReturn(status);
+        Mockito.when(workflowManager.getWorkflow(issue)).thenReturn(workflow);
+        issues.add(issue);
+        return issue;
+    }
+
+    private Status createStatus(final String id, final String name) {
+        final Status status = Mockito.mock(Status.class);
+        Mockito.when(status.getId()).thenReturn(id);
+        Mockito.when(status.getName()).thenReturn(name);
+        return status;
+    }
+
+    private NotificationEvent createResolveEvent(final String keySuffix, final Long issueId, final String commentInLieuOfStateChange) {
+        final EntityPropertyMock property = new EntityPropertyMock();
+        property.setKey(KEY_PREFIX + keySuffix);
+        property.setValue("{\"jiraIssueId\":" + issueId + "}");
+        issueProperties.add(property);
+
+        final EventData eventData = Mockito.mock(EventData.class);
+        Mockito.when(eventData.getAction()).thenReturn(HubEventAction.RESOLVE);
+        Mockito.when(eventData.getJiraIssueResolveComment()).thenReturn(RESOLVE_COMMENT);
+        Mockito.when(eventData.getJiraIssueCommentInLieuOfStateChange()).thenReturn(commentInLieuOfStateChange);
+        Mockito.when(eventData.getHubProjectName()).thenReturn("hubProjectName");
+        Mockito.when(eventData.getHubProjectVersion()).thenReturn("hubProjectVersion");
+        Mockito.when(eventData.getJiraProjectName()).thenReturn("jiraProjectName");
+        Mockito.when(eventData.getJiraAdminUsername()).thenReturn("jiraAdminUsername");
+        Mockito.when(eventData.getJiraIssueCreatorUsername()).thenReturn("jiraIssueCreatorUsername");
+        final Map<String, Object> dataSet = new HashMap<>();
+        dataSet.put(HubJiraConstants.EVENT_DATA_SET_KEY_JIRA_EVENT_DATA, eventData);
+        return new NotificationEvent(KEY_PREFIX + keySuffix, NotificationCategoryEnum.POLICY_VIOLATION_CLEARED, dataSet);
+    }
+
+}
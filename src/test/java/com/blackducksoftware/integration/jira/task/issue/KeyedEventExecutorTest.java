@@ -0,0 +1,118 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.issue;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.blackducksoftware.integration.jira.mocks.NotificationEventMock;
+
+public class KeyedEventExecutorTest {
+    private static final int KEY_COUNT = 7;
+
+    private static final int EVENTS_PER_KEY = 40;
+
+    @Test
+    public void testSameKeyEventsAppliedInOrder() throws InterruptedException {
+        final Map<String, List<Integer>> appliedSequencesByKey = new HashMap<>();
+        final KeyedEventExecutor eventExecutor = new KeyedEventExecutor(4, 2, event -> {
+            final List<Integer> appliedSequences;
+            synchronized (appliedSequencesByKey) {
+                appliedSequences = appliedSequencesByKey.computeIfAbsent(event.getEventKey(), key -> new ArrayList<>());
+            }
+            synchronized (appliedSequences) {
+                appliedSequences.add((Integer) NotificationEventMock.getId(event));
+            }
+        });
+
+        for (int sequence = 0; sequence < EVENTS_PER_KEY; sequence++) {
+            for (int keyIndex = 0; keyIndex < KEY_COUNT; keyIndex++) {
+                eventExecutor.submit(NotificationEventMock.createEvent("key" + keyIndex, sequence));
+            }
+        }
+        eventExecutor.finish();
+
+        assertEquals(KEY_COUNT, appliedSequencesByKey.size());
+        for (final List<Integer> appliedSequences : appliedSequencesByKey.values()) {
+            assertEquals(EVENTS_PER_KEY, appliedSequences.size());
+            for (int sequence = 0; sequence < EVENTS_PER_KEY; sequence++) {
+                assertEquals(Integer.valueOf(sequence), appliedSequences.get(sequence));
+            }
+        }
+    }
+
+    @Test
+    public void testHandlerErrorDoesNotStopWorker() throws InterruptedException {
+        final List<Integer> appliedSequences = new ArrayList<>();
+        final KeyedEventExecutor eventExecutor = new KeyedEventExecutor(2, 10, event -> {
+            final Integer sequence = (Integer) NotificationEventMock.getId(event);
+            if (sequence == 0) {
+                throw new IllegalStateException("Test failure");
+            }
+            synchronized (appliedSequences) {
+                appliedSequences.add(sequence);
+            }
+        });
+
+        eventExecutor.submit(NotificationEventMock.createEvent("key", 0));
+        eventExecutor.submit(NotificationEventMock.createEvent("key", 1));
+        eventExecutor.finish();
+
+        assertEquals(1, appliedSequences.size());
+        assertEquals(Integer.valueOf(1), appliedSequences.get(0));
+    }
+
+    @Test
+    public void testFailureForOneKeyDoesNotLoseEventsForOtherKeys() throws InterruptedException {
+        final Map<String, List<Integer>> appliedSequencesByKey = new HashMap<>();
+        final KeyedEventExecutor eventExecutor = new KeyedEventExecutor(3, 2, event -> {
+            if ("failingKey".equals(event.getEventKey())) {
+                throw new IllegalStateException("Test failure");
+            }
+            synchronized (appliedSequencesByKey) {
+                appliedSequencesByKey.computeIfAbsent(event.getEventKey(), key -> new ArrayList<>()).add((Integer) NotificationEventMock.getId(event));
+            }
+        });
+
+        for (int sequence = 0; sequence < EVENTS_PER_KEY; sequence++) {
+            eventExecutor.submit(NotificationEventMock.createEvent("failingKey", sequence));
+            for (int keyIndex = 0; keyIndex < KEY_COUNT; keyIndex++) {
+                eventExecutor.submit(NotificationEventMock.createEvent("key" + keyIndex, sequence));
+            }
+        }
+        eventExecutor.finish();
+
+        assertEquals(KEY_COUNT, appliedSequencesByKey.size());
+        for (int keyIndex = 0; keyIndex < KEY_COUNT; keyIndex++) {
+            assertEquals(EVENTS_PER_KEY, appliedSequencesByKey.get("key" + keyIndex).size());
+        }
+    }
+
+}
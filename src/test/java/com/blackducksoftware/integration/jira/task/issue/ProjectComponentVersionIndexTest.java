@@ -0,0 +1,128 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.issue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.atlassian.jira.bc.project.component.ProjectComponent;
+import com.atlassian.jira.project.Project;
+import com.atlassian.jira.project.ProjectManager;
+import com.atlassian.jira.project.version.Version;
+import com.blackducksoftware.integration.jira.mocks.JiraServicesMock;
+
+public class ProjectComponentVersionIndexTest {
+    private static final Long JIRA_PROJECT_ID = 10000L;
+
+    @Test
+    public void testComponentsLoadedOncePerProject() {
+        final ProjectComponent component = mockComponent("Black Duck", 100L);
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.getComponents()).thenReturn(Collections.singletonList(component));
+        final ProjectManager projectManager = mockProjectManager(project);
+
+        final ProjectComponentVersionIndex index = createIndex(projectManager);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Long.valueOf(100L), index.getComponentId(JIRA_PROJECT_ID, "Black Duck"));
+        }
+        Mockito.verify(project, Mockito.times(1)).getComponents();
+    }
+
+    @Test
+    public void testMissedNameRefreshesOnce() {
+        final Version oldVersion = mockVersion("1.0", 200L);
+        final Version newVersion = mockVersion("2.0", 201L);
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.getVersions()).thenReturn(Collections.singletonList(oldVersion), Arrays.asList(oldVersion, newVersion));
+        final ProjectManager projectManager = mockProjectManager(project);
+
+        final ProjectComponentVersionIndex index = createIndex(projectManager);
+        assertEquals(Long.valueOf(200L), index.getVersionId(JIRA_PROJECT_ID, "1.0"));
+        assertEquals(Long.valueOf(201L), index.getVersionId(JIRA_PROJECT_ID, "2.0"));
+        assertNull(index.getVersionId(JIRA_PROJECT_ID, "3.0"));
+        assertNull(index.getVersionId(JIRA_PROJECT_ID, "3.0"));
+        Mockito.verify(project, Mockito.times(3)).getVersions();
+    }
+
+    @Test
+    public void testMissingNamesRememberedAcrossReloads() {
+        final Version version = mockVersion("1.0", 200L);
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.getVersions()).thenReturn(Collections.singletonList(version));
+        final ProjectManager projectManager = mockProjectManager(project);
+
+        final ProjectComponentVersionIndex index = createIndex(projectManager);
+        // The first lookup loads the versions; a name that is missing from them is not reloaded straight away
+        assertNull(index.getVersionId(JIRA_PROJECT_ID, "3.0"));
+        Mockito.verify(project, Mockito.times(1)).getVersions();
+
+        // A new name reloads, but that does not make the names already known to be missing reload again
+        assertNull(index.getVersionId(JIRA_PROJECT_ID, "4.0"));
+        assertNull(index.getVersionId(JIRA_PROJECT_ID, "3.0"));
+        assertNull(index.getVersionId(JIRA_PROJECT_ID, "4.0"));
+        Mockito.verify(project, Mockito.times(2)).getVersions();
+    }
+
+    @Test
+    public void testMissingProject() {
+        final ProjectManager projectManager = mockProjectManager(null);
+
+        final ProjectComponentVersionIndex index = createIndex(projectManager);
+        assertNull(index.getComponentId(JIRA_PROJECT_ID, "Black Duck"));
+        assertNull(index.getVersionId(JIRA_PROJECT_ID, "1.0"));
+    }
+
+    private ProjectComponentVersionIndex createIndex(final ProjectManager projectManager) {
+        final JiraServicesMock jiraServices = new JiraServicesMock();
+        jiraServices.setProjectManager(projectManager);
+        return new ProjectComponentVersionIndex(jiraServices);
+    }
+
+    private ProjectManager mockProjectManager(final Project project) {
+        final ProjectManager projectManager = Mockito.mock(ProjectManager.class);
+        Mockito.when(projectManager.getProjectObj(JIRA_PROJECT_ID)).thenReturn(project);
+        return projectManager;
+    }
+
+    private ProjectComponent mockComponent(final String name, final Long id) {
+        final ProjectComponent component = Mockito.mock(ProjectComponent.class);
+        Mockito.when(component.getName()).thenReturn(name);
+        Mockito.when(component.getId()).thenReturn(id);
+        return component;
+    }
+
+    private Version mockVersion(final String name, final Long id) {
+        final Version version = Mockito.mock(Version.class);
+        Mockito.when(version.getName()).thenReturn(name);
+        Mockito.when(version.getId()).thenReturn(id);
+        return version;
+    }
+
+}
@@ -0,0 +1,70 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.issue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.blackducksoftware.integration.jira.common.HubJiraConstants;
+
+public class WorkflowTransitionCacheTest {
+
+    @Test
+    public void testActionIdsKeyedByWorkflowStatusAndAction() {
+        final WorkflowTransitionCache cache = new WorkflowTransitionCache();
+        cache.putActionId(HubJiraConstants.HUB_JIRA_WORKFLOW, "1", HubJiraConstants.HUB_WORKFLOW_TRANSITION_REMOVE_OR_OVERRIDE, 11);
+        cache.putActionId(HubJiraConstants.HUB_JIRA_WORKFLOW, "5", HubJiraConstants.HUB_WORKFLOW_TRANSITION_READD_OR_OVERRIDE_REMOVED, 21);
+
+        assertEquals(Integer.valueOf(11), cache.getActionId(HubJiraConstants.HUB_JIRA_WORKFLOW, "1", HubJiraConstants.HUB_WORKFLOW_TRANSITION_REMOVE_OR_OVERRIDE));
+        assertEquals(Integer.valueOf(21), cache.getActionId(HubJiraConstants.HUB_JIRA_WORKFLOW, "5", HubJiraConstants.HUB_WORKFLOW_TRANSITION_READD_OR_OVERRIDE_REMOVED));
+        assertNull(cache.getActionId(HubJiraConstants.HUB_JIRA_WORKFLOW, "5", HubJiraConstants.HUB_WORKFLOW_TRANSITION_REMOVE_OR_OVERRIDE));
+        assertNull(cache.getActionId("Other Workflow", "1", HubJiraConstants.HUB_WORKFLOW_TRANSITION_REMOVE_OR_OVERRIDE));
+    }
+
+    @Test
+    public void testRemoveActionId() {
+        final WorkflowTransitionCache cache = new WorkflowTransitionCache();
+        cache.putActionId(HubJiraConstants.HUB_JIRA_WORKFLOW, "1", HubJiraConstants.HUB_WORKFLOW_TRANSITION_REMOVE_OR_OVERRIDE, 11);
+        cache.putActionId(HubJiraConstants.HUB_JIRA_WORKFLOW, "5", HubJiraConstants.HUB_WORKFLOW_TRANSITION_READD_OR_OVERRIDE_REMOVED, 21);
+
+        cache.removeActionId(HubJiraConstants.HUB_JIRA_WORKFLOW, "1", HubJiraConstants.HUB_WORKFLOW_TRANSITION_REMOVE_OR_OVERRIDE);
+        assertEquals(1, cache.size());
+        assertNull(cache.getActionId(HubJiraConstants.HUB_JIRA_WORKFLOW, "1", HubJiraConstants.HUB_WORKFLOW_TRANSITION_REMOVE_OR_OVERRIDE));
+        assertEquals(Integer.valueOf(21), cache.getActionId(HubJiraConstants.HUB_JIRA_WORKFLOW, "5", HubJiraConstants.HUB_WORKFLOW_TRANSITION_READD_OR_OVERRIDE_REMOVED));
+    }
+
+    @Test
+    public void testInvalidate() {
+        final WorkflowTransitionCache cache = new WorkflowTransitionCache();
+        cache.putActionId(HubJiraConstants.HUB_JIRA_WORKFLOW, "1", HubJiraConstants.HUB_WORKFLOW_TRANSITION_REMOVE_OR_OVERRIDE, 11);
+        assertEquals(1, cache.size());
+
+        cache.invalidate();
+        assertEquals(0, cache.size());
+        assertNull(cache.getActionId(HubJiraConstants.HUB_JIRA_WORKFLOW, "1", HubJiraConstants.HUB_WORKFLOW_TRANSITION_REMOVE_OR_OVERRIDE));
+    }
+
+}
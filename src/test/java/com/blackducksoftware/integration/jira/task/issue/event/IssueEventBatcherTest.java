@@ -0,0 +1,110 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.issue.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.atlassian.jira.event.type.EventType;
+import com.blackducksoftware.integration.jira.mocks.issue.IssueMock;
+
+public class IssueEventBatcherTest {
+
+    @Test
+    public void testCoalescesEventsForSameIssue() {
+        final IssueEventBatcher batcher = new IssueEventBatcher(10);
+        assertTrue(batcher.add(createEvent(1L, EventType.ISSUE_UPDATED_ID)));
+        assertFalse(batcher.add(createEvent(2L, EventType.ISSUE_UPDATED_ID)));
+        assertFalse(batcher.add(createEvent(1L, EventType.ISSUE_ASSIGNED_ID)));
+
+        final List<PendingIssueEvent> batch = batcher.takeBatch();
+        assertEquals(2, batch.size());
+        assertEquals(Long.valueOf(1L), batch.get(0).getIssue().getId());
+        assertEquals(EventType.ISSUE_ASSIGNED_ID, batch.get(0).getEventTypeID());
+        assertEquals(Long.valueOf(2L), batch.get(1).getIssue().getId());
+        assertEquals(3, batcher.getReceivedCount());
+        assertEquals(1, batcher.getCoalescedCount());
+        assertEquals(2, batcher.getMaxQueueDepth());
+        assertEquals(0, batcher.getQueueDepth());
+    }
+
+    @Test
+    public void testDeleteIsNotReplaced() {
+        final IssueEventBatcher batcher = new IssueEventBatcher(10);
+        batcher.add(createEvent(1L, EventType.ISSUE_DELETED_ID));
+        batcher.add(createEvent(1L, EventType.ISSUE_UPDATED_ID));
+
+        final List<PendingIssueEvent> batch = batcher.takeBatch();
+        assertEquals(1, batch.size());
+        assertEquals(EventType.ISSUE_DELETED_ID, batch.get(0).getEventTypeID());
+    }
+
+    @Test
+    public void testNewDrainScheduledAfterTake() {
+        final IssueEventBatcher batcher = new IssueEventBatcher(10);
+        assertTrue(batcher.add(createEvent(1L, EventType.ISSUE_UPDATED_ID)));
+        final List<PendingIssueEvent> batch = batcher.takeBatch();
+        batcher.batchProcessed(batch);
+        assertTrue(batcher.add(createEvent(1L, EventType.ISSUE_UPDATED_ID)));
+        assertEquals(1, batcher.getBatchCount());
+        assertEquals(1, batcher.getProcessedCount());
+    }
+
+    @Test
+    public void testFullQueueDropsNewIssues() {
+        final IssueEventBatcher batcher = new IssueEventBatcher(2);
+        batcher.add(createEvent(1L, EventType.ISSUE_UPDATED_ID));
+        batcher.add(createEvent(2L, EventType.ISSUE_UPDATED_ID));
+        batcher.add(createEvent(3L, EventType.ISSUE_UPDATED_ID));
+        // Events for issues already queued are still accepted
+        batcher.add(createEvent(2L, EventType.ISSUE_ASSIGNED_ID));
+
+        assertEquals(1, batcher.getDroppedCount());
+        assertEquals(2, batcher.takeBatch().size());
+    }
+
+    @Test(timeout = 5000)
+    public void testFullQueueNeverBlocks() {
+        final IssueEventBatcher batcher = new IssueEventBatcher(1);
+        assertTrue(batcher.add(createEvent(1L, EventType.ISSUE_UPDATED_ID)));
+        for (long issueId = 2L; issueId < 100L; issueId++) {
+            assertFalse(batcher.add(createEvent(issueId, EventType.ISSUE_UPDATED_ID)));
+        }
+
+        assertEquals(98, batcher.getDroppedCount());
+        assertEquals(1, batcher.getQueueDepth());
+        assertTrue(batcher.getStatsDescription().contains("98 dropped"));
+    }
+
+    private PendingIssueEvent createEvent(final Long issueId, final Long eventTypeId) {
+        final IssueMock issue = new IssueMock();
+        issue.setId(issueId);
+        return new PendingIssueEvent(issue, eventTypeId, "propertyKey", null);
+    }
+}
@@ -64,6 +64,7 @@ import com.blackducksoftware.integration.jira.common.HubProject;
 import com.blackducksoftware.integration.jira.common.HubProjectMapping;
 import com.blackducksoftware.integration.jira.common.JiraProject;
 import com.blackducksoftware.integration.jira.config.HubConfigKeys;
+import com.blackducksoftware.integration.jira.hub.HubCapabilityCache;
 import com.blackducksoftware.integration.jira.mocks.ApplicationUserMock;
 import com.blackducksoftware.integration.jira.mocks.BomComponentIssueServiceMock;
 import com.blackducksoftware.integration.jira.mocks.EntityPropertyMock;
@@ -120,6 +121,7 @@ public class IssueEventListenerTest {
 
     @Before
     public void initTest() throws MalformedURLException {
+        HubCapabilityCache.getInstance().invalidate();
         settings = createPluginSettings();
         pluginSettingsFactory = new PluginSettingsFactoryMock(settings);
         jiraServices = new JiraServicesMock();
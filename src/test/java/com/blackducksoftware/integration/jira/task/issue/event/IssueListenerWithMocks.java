@@ -23,11 +23,10 @@
  */
 package com.blackducksoftware.integration.jira.task.issue.event;
 
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 
 import com.atlassian.event.api.EventPublisher;
-import com.atlassian.jira.entity.property.EntityProperty;
-import com.atlassian.jira.issue.Issue;
 import com.atlassian.sal.api.pluginsettings.PluginSettings;
 import com.atlassian.sal.api.pluginsettings.PluginSettingsFactory;
 import com.blackducksoftware.integration.hub.service.HubServicesFactory;
@@ -48,7 +47,12 @@ public class IssueListenerWithMocks extends IssueEventListener {
     }
 
     @Override
-    public IssueTrackerTask createTask(final Issue issue, final Long eventTypeID, final JiraServices jiraServices, final PluginSettings settings, final String propertyKey, final EntityProperty property) {
-        return new IssueTrackerTaskWithMocks(issue, eventTypeID, jiraServices, settings, propertyKey, property, this.hubServicesFactory);
+    public long getBatchWindowMillis() {
+        return 0;
+    }
+
+    @Override
+    public IssueTrackerTask createTask(final List<PendingIssueEvent> issueEvents, final JiraServices jiraServices, final PluginSettings settings) {
+        return new IssueTrackerTaskWithMocks(issueEvents, jiraServices, settings, this.hubServicesFactory);
     }
 }
@@ -23,8 +23,8 @@
  */
 package com.blackducksoftware.integration.jira.task.issue.event;
 
-import com.atlassian.jira.entity.property.EntityProperty;
-import com.atlassian.jira.issue.Issue;
+import java.util.List;
+
 import com.atlassian.sal.api.pluginsettings.PluginSettings;
 import com.blackducksoftware.integration.exception.EncryptionException;
 import com.blackducksoftware.integration.hub.global.HubServerConfig;
@@ -37,9 +37,8 @@ public class IssueTrackerTaskWithMocks extends IssueTrackerTask {
 
     private final HubServicesFactory hubServicesFactory;
 
-    public IssueTrackerTaskWithMocks(final Issue jiraIssue, final Long eventTypeID, final JiraServices jiraServices, final PluginSettings settings, final String propertyKey, final EntityProperty property,
-            final HubServicesFactory hubServicesFactory) {
-        super(jiraIssue, eventTypeID, jiraServices, settings, propertyKey, property);
+    public IssueTrackerTaskWithMocks(final List<PendingIssueEvent> issueEvents, final JiraServices jiraServices, final PluginSettings settings, final HubServicesFactory hubServicesFactory) {
+        super(issueEvents, jiraServices, settings);
         this.hubServicesFactory = hubServicesFactory;
     }
 
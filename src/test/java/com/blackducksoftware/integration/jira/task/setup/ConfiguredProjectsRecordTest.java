@@ -0,0 +1,87 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.setup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.blackducksoftware.integration.jira.mocks.PluginSettingsMock;
+
+public class ConfiguredProjectsRecordTest {
+    private static final String SIGNATURE = "issueTypes=1,2,|workflow=BDS Hub PlugIn Workflow";
+
+    @Test
+    public void testSaveAndLoad() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final ConfiguredProjectsRecord record = ConfiguredProjectsRecord.load(settings, SIGNATURE);
+        assertEquals(0, record.size());
+        record.markConfigured(10000L);
+        record.markConfigured(10001L);
+        record.save(settings);
+
+        final ConfiguredProjectsRecord loadedRecord = ConfiguredProjectsRecord.load(settings, SIGNATURE);
+        assertTrue(loadedRecord.isConfigured(10000L));
+        assertTrue(loadedRecord.isConfigured(10001L));
+        assertFalse(loadedRecord.isConfigured(10002L));
+    }
+
+    @Test
+    public void testSignatureChangeResetsRecord() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final ConfiguredProjectsRecord record = ConfiguredProjectsRecord.load(settings, SIGNATURE);
+        record.markConfigured(10000L);
+        record.save(settings);
+
+        final ConfiguredProjectsRecord loadedRecord = ConfiguredProjectsRecord.load(settings, SIGNATURE + "2");
+        assertFalse(loadedRecord.isConfigured(10000L));
+        assertEquals(0, loadedRecord.size());
+    }
+
+    @Test
+    public void testRetainOnlyMappedProjects() {
+        final ConfiguredProjectsRecord record = new ConfiguredProjectsRecord(SIGNATURE);
+        record.markConfigured(10000L);
+        record.markConfigured(10001L);
+        record.retainOnly(Arrays.asList(10001L, 10002L));
+        assertFalse(record.isConfigured(10000L));
+        assertTrue(record.isConfigured(10001L));
+        assertEquals(1, record.size());
+    }
+
+    @Test
+    public void testClear() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        final ConfiguredProjectsRecord record = ConfiguredProjectsRecord.load(settings, SIGNATURE);
+        record.markConfigured(10000L);
+        record.save(settings);
+        ConfiguredProjectsRecord.clear(settings);
+        assertFalse(ConfiguredProjectsRecord.load(settings, SIGNATURE).isConfigured(10000L));
+    }
+
+}
@@ -0,0 +1,166 @@
+/**
+ * Hub JIRA Plugin
+ *
+ * Copyright (C) 2018 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.blackducksoftware.integration.jira.task.setup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.atlassian.jira.config.ConstantsManager;
+import com.atlassian.jira.issue.CustomFieldManager;
+import com.atlassian.jira.issue.fields.CustomField;
+import com.atlassian.jira.issue.fields.screen.FieldScreenScheme;
+import com.atlassian.jira.issue.fields.screen.FieldScreenSchemeManager;
+import com.atlassian.jira.issue.issuetype.IssueType;
+import com.atlassian.jira.project.Project;
+import com.atlassian.jira.project.ProjectManager;
+import com.atlassian.jira.workflow.JiraWorkflow;
+import com.atlassian.jira.workflow.WorkflowManager;
+import com.blackducksoftware.integration.jira.common.PluginField;
+import com.blackducksoftware.integration.jira.mocks.JiraServicesMock;
+import com.blackducksoftware.integration.jira.mocks.PluginSettingsMock;
+
+public class JiraSetupStateTest {
+    private static final String PLUGIN_VERSION = "3.4.1";
+
+    private static final String MAPPING_JSON = "[{\"jiraProject\":{\"projectId\":10000}}]";
+
+    private JiraServicesMock jiraServices;
+
+    private ConstantsManager constantsManager;
+
+    private CustomFieldManager customFieldManager;
+
+    private FieldScreenSchemeManager fieldScreenSchemeManager;
+
+    private WorkflowManager workflowManager;
+
+    private ProjectManager projectManager;
+
+    private JiraSetupState setupState;
+
+    @Before
+    public void setUp() {
+        constantsManager = Mockito.mock(ConstantsManager.class);
+        customFieldManager = Mockito.mock(CustomFieldManager.class);
+        fieldScreenSchemeManager = Mockito.mock(FieldScreenSchemeManager.class);
+        workflowManager = Mockito.mock(WorkflowManager.class);
+        projectManager = Mockito.mock(ProjectManager.class);
+        jiraServices = new JiraServicesMock();
+        jiraServices.setConstantsManager(constantsManager);
+        jiraServices.setCustomFieldManager(customFieldManager);
+        jiraServices.setFieldScreenSchemeManager(fieldScreenSchemeManager);
+        jiraServices.setWorkflowManager(workflowManager);
+        jiraServices.setProjectManager(projectManager);
+
+        final IssueType issueType = Mockito.mock(IssueType.class);
+        Mockito.when(issueType.getId()).thenReturn("issueType1");
+        Mockito.when(constantsManager.getIssueType("issueType1")).thenReturn(issueType);
+
+        final Map<PluginField, CustomField> customFields = new EnumMap<>(PluginField.class);
+        for (final PluginField pluginField : PluginField.values()) {
+            final CustomField customField = Mockito.mock(CustomField.class);
+            final String customFieldId = "customfield_" + pluginField.ordinal();
+            Mockito.when(customField.getId()).thenReturn(customFieldId);
+            Mockito.when(customFieldManager.getCustomFieldObject(customFieldId)).thenReturn(customField);
+            customFields.put(pluginField, customField);
+        }
+
+        final FieldScreenScheme screenScheme = Mockito.mock(FieldScreenScheme.class);
+        Mockito.when(screenScheme.getId()).thenReturn(20L);
+        Mockito.when(fieldScreenSchemeManager.getFieldScreenScheme(20L)).thenReturn(screenScheme);
+
+        final JiraWorkflow workflow = Mockito.mock(JiraWorkflow.class);
+        Mockito.when(workflow.getName()).thenReturn("Hub Workflow");
+        Mockito.when(workflowManager.getWorkflow("Hub Workflow")).thenReturn(workflow);
+
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(projectManager.getProjectObj(10000L)).thenReturn(project);
+
+        final List<FieldScreenScheme> screenSchemes = new ArrayList<>();
+        screenSchemes.add(screenScheme);
+        setupState = new JiraSetupState(MAPPING_JSON, Arrays.asList(issueType), customFields, screenSchemes, workflow, Arrays.asList(10000L));
+        setupState.setPluginVersion(PLUGIN_VERSION);
+    }
+
+    @Test
+    public void testRestoreUnchanged() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        setupState.save(settings);
+
+        final JiraSetupState loadedState = JiraSetupState.load(settings);
+        assertNotNull(loadedState);
+        final Map<PluginField, CustomField> customFields = loadedState.restore(jiraServices, PLUGIN_VERSION, MAPPING_JSON);
+        assertNotNull(customFields);
+        assertEquals(PluginField.values().length, customFields.size());
+        assertEquals("customfield_0", customFields.get(PluginField.values()[0]).getId());
+    }
+
+    @Test
+    public void testRestoreAfterPluginUpgrade() {
+        assertNull(setupState.restore(jiraServices, "3.5.0", MAPPING_JSON));
+    }
+
+    @Test
+    public void testRestoreAfterMappingChange() {
+        assertNull(setupState.restore(jiraServices, PLUGIN_VERSION, "[]"));
+    }
+
+    @Test
+    public void testRestoreAfterCustomFieldDeleted() {
+        Mockito.when(customFieldManager.getCustomFieldObject("customfield_1")).thenReturn(null);
+        assertNull(setupState.restore(jiraServices, PLUGIN_VERSION, MAPPING_JSON));
+    }
+
+    @Test
+    public void testRestoreAfterWorkflowDeleted() {
+        Mockito.when(workflowManager.getWorkflow("Hub Workflow")).thenReturn(null);
+        assertNull(setupState.restore(jiraServices, PLUGIN_VERSION, MAPPING_JSON));
+    }
+
+    @Test
+    public void testRestoreAfterMappedProjectDeleted() {
+        Mockito.when(projectManager.getProjectObj(10000L)).thenReturn(null);
+        assertNull(setupState.restore(jiraServices, PLUGIN_VERSION, MAPPING_JSON));
+    }
+
+    @Test
+    public void testClear() {
+        final PluginSettingsMock settings = new PluginSettingsMock();
+        setupState.save(settings);
+        JiraSetupState.clear(settings);
+        assertNull(JiraSetupState.load(settings));
+    }
+
+}
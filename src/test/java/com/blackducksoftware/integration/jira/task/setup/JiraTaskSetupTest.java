@@ -25,6 +25,7 @@ package com.blackducksoftware.integration.jira.task.setup;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.InputStream;
@@ -248,6 +249,28 @@ public class JiraTaskSetupTest {
 
     }
 
+    @Test
+    public void testFailedProjectSchemeUpdateRetriedOnNextRun() throws Exception {
+        final JiraEnvironment jiraEnv = generateJiraMocks(true);
+        final ApplicationUser jiraUser = Mockito.mock(ApplicationUser.class);
+        Mockito.when(jiraUser.getName()).thenReturn(JIRA_USER);
+        final JiraContext jiraContext = new JiraContext(jiraUser, jiraUser);
+        final JiraTaskTimed task = jiraEnv.getJiraTask();
+
+        // The project's issue type scheme cannot be found, so the project cannot be configured
+        jiraEnv.getIssueTypeSchemeManagerMock().setConfigScheme(null);
+        final JiraSetupState failedSetupState = task.jiraSetup(jiraEnv.getJiraServices(), jiraEnv.getJiraSettingsService(), jiraEnv.getMappingJson(),
+                new TicketInfoFromSetup(), jiraContext);
+        assertNull(failedSetupState);
+        assertTrue(((String) jiraEnv.getPluginSettingsMock().get(HubJiraConstants.HUB_JIRA_ERROR)).contains("addIssueTypesToProjectIssueTypeScheme"));
+
+        // The next run configures the project again
+        jiraEnv.getIssueTypeSchemeManagerMock().setConfigScheme(jiraEnv.getFieldConfigSchemeMock());
+        final JiraSetupState setupState = task.jiraSetup(jiraEnv.getJiraServices(), jiraEnv.getJiraSettingsService(), jiraEnv.getMappingJson(),
+                new TicketInfoFromSetup(), jiraContext);
+        assertNotNull(setupState);
+    }
+
     private JiraEnvironment generateJiraMocks(final boolean bdIssueTypesAlreadyAdded) throws ConfigurationException {
 
         final GroupPickerSearchServiceMock groupPickerSearchService = getGroupPickerSearchServiceMock(false);